@@ -0,0 +1,37 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.autoconfigure.repository.event;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Properties for batching the remote events sent on the bus.
+ */
+@Data
+@ConfigurationProperties("hawkbit.bus.batch")
+public class BusBatchProperties {
+
+    /**
+     * Send the remote events in batches. All nodes of the cluster must be able
+     * to read the batches before it is enabled.
+     */
+    private boolean enabled;
+
+    /**
+     * Max number of events per batch.
+     */
+    private int maxEvents = 500;
+
+    /**
+     * Max delay in milliseconds of an event until its batch is sent.
+     */
+    private long maxDelay = 20;
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.autoconfigure.repository.event;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.eclipse.hawkbit.event.EventType;
+import org.eclipse.hawkbit.event.RemoteEventRouting;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.boot.logging.DeferredLogFactory;
+import org.springframework.cloud.bus.BusConstants;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * Binds the bus input of the node to the routing keys of the configured
+ * events, see {@link BusRoutingProperties} and {@link RemoteEventRouting}. The
+ * binding routing key is set as property of the rabbit binder before the
+ * application context is created, so it is declared when the bus input is
+ * bound. An explicitly configured binding routing key wins.
+ */
+public class BusRoutingEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String BINDING_ROUTING_KEY = "spring.cloud.stream.rabbit.bindings." + BusConstants.INPUT
+            + ".consumer.binding-routing-key";
+
+    private static final String PROPERTY_SOURCE_NAME = "hawkbitBusRouting";
+
+    private final Log log;
+
+    /**
+     * Constructor.
+     *
+     * @param logFactory the factory of the log which is written when the
+     *         logging is initialized
+     */
+    public BusRoutingEnvironmentPostProcessor(final DeferredLogFactory logFactory) {
+        log = logFactory.getLog(BusRoutingEnvironmentPostProcessor.class);
+    }
+
+    @Override
+    public void postProcessEnvironment(final ConfigurableEnvironment environment,
+            final SpringApplication application) {
+        final BusRoutingProperties properties = Binder.get(environment)
+                .bind("hawkbit.bus.routing", BusRoutingProperties.class).orElseGet(BusRoutingProperties::new);
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        final Collection<Class<?>> eventClasses = properties.getEventTypes().isEmpty()
+                ? EventType.getTargetClasses()
+                : properties.getEventTypes().stream().map(BusRoutingEnvironmentPostProcessor::eventClass).toList();
+        final List<String> bindingKeys = RemoteEventRouting.bindingKeys(eventClasses, properties.getTenants());
+        log.info("Bind bus input to the routing keys " + bindingKeys);
+        // added last, so an explicitly configured binding routing key wins
+        environment.getPropertySources().addLast(new MapPropertySource(PROPERTY_SOURCE_NAME,
+                Map.of(BINDING_ROUTING_KEY, String.join(",", bindingKeys),
+                        BINDING_ROUTING_KEY + "-delimiter", ",")));
+    }
+
+    private static Class<?> eventClass(final String simpleName) {
+        return EventType.getTargetClasses().stream()
+                .filter(eventClass -> eventClass.getSimpleName().equals(simpleName)).findAny()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown remote event type " + simpleName));
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.autoconfigure.repository.event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Properties for routing the remote events on the bus only to the nodes which
+ * consume them.
+ */
+@Data
+@ConfigurationProperties("hawkbit.bus.routing")
+public class BusRoutingProperties {
+
+    /**
+     * Bind the bus queue of the node only to the events it consumes. The bus
+     * queue of a consumer group, e.g. ddi-server, is shared by its nodes, so it
+     * must be enabled for all nodes of the group. The binding routing key of
+     * the bus input is set on start up, see
+     * {@link BusRoutingEnvironmentPostProcessor}.
+     * <p/>
+     * RabbitMQ doesn't remove bindings, so if the queue exists already, it
+     * keeps its binding to all events ({@code #}) until that is removed once,
+     * e.g. by {@code rabbitmqadmin delete binding source=springCloudBus
+     * destination_type=queue destination=springCloudBus.ddi-server properties_key=%23}.
+     */
+    private boolean enabled;
+
+    /**
+     * Simple class names of the consumed events, e.g. TargetPollEvent. If
+     * empty, all events are consumed, restricted by the tenants only. The
+     * events with a listener on the node are logged on start up.
+     */
+    private List<String> eventTypes = new ArrayList<>();
+
+    /**
+     * Consumed tenants. If empty, the events of all tenants are consumed.
+     */
+    private List<String> tenants = new ArrayList<>();
+}
@@ -9,25 +9,44 @@
  */
 package org.eclipse.hawkbit.autoconfigure.repository.event;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
 import io.protostuff.ProtostuffIOUtil;
 import io.protostuff.Schema;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.hawkbit.event.BatchingBusBridge;
 import org.eclipse.hawkbit.event.BusProtoStuffMessageConverter;
+import org.eclipse.hawkbit.event.EventType;
+import org.eclipse.hawkbit.event.RemoteEventBatch;
+import org.eclipse.hawkbit.event.RemoteEventRouting;
 import org.eclipse.hawkbit.repository.event.ApplicationEventFilter;
 import org.eclipse.hawkbit.repository.event.remote.RemoteTenantAwareEvent;
 import org.eclipse.hawkbit.repository.model.helper.EventPublisherHolder;
 import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.bus.BusBridge;
 import org.springframework.cloud.bus.BusProperties;
+import org.springframework.cloud.bus.BusStreamAutoConfiguration;
 import org.springframework.cloud.bus.ConditionalOnBusEnabled;
 import org.springframework.cloud.bus.ServiceMatcher;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
 import org.springframework.cloud.bus.jackson.RemoteApplicationEventScan;
+import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
@@ -43,7 +62,8 @@ import org.springframework.messaging.converter.MessageConverter;
 @Configuration
 @RemoteApplicationEventScan(basePackages = "org.eclipse.hawkbit.repository.event.remote")
 @PropertySource("classpath:/hawkbit-eventbus-defaults.properties")
-@EnableConfigurationProperties(BusProperties.class)
+@EnableConfigurationProperties({ BusProperties.class, BusBatchProperties.class, BusRoutingProperties.class })
+@AutoConfigureBefore(BusStreamAutoConfiguration.class)
 public class EventPublisherAutoConfiguration {
 
     /**
@@ -108,6 +128,12 @@ public class EventPublisherAutoConfiguration {
          */
         @Override
         public void multicastEvent(final ApplicationEvent event, final ResolvableType eventType) {
+            if (event instanceof RemoteEventBatch batch) {
+                // the listeners get the events of the batch one by one as if they were sent separately
+                batch.getEvents().forEach(batchedEvent -> multicastEvent(batchedEvent, null));
+                return;
+            }
+
             if (applicationEventFilter.filter(event)) {
                 return;
             }
@@ -129,6 +155,75 @@ public class EventPublisherAutoConfiguration {
             });
         }
 
+        /**
+         * Returns the event classes with a listener. Listeners of all remote
+         * events, e.g. the one of the bus which sends them, are ignored.
+         *
+         * @param eventClasses the event classes
+         * @return the event classes with a listener
+         */
+        private Set<Class<?>> getListenedEventClasses(final Collection<Class<?>> eventClasses) {
+            final ResolvableType anyRemoteEvent = ResolvableType.forClass(RemoteApplicationEvent.class);
+            final List<ApplicationListener<?>> listeners = getApplicationListeners().stream()
+                    .filter(listener -> !supportsEvent(listener, anyRemoteEvent, null)).toList();
+            return eventClasses.stream()
+                    .filter(eventClass -> listeners.stream().anyMatch(
+                            listener -> supportsEvent(listener, ResolvableType.forClass(eventClass), null)))
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    /**
+     * Checks the events the bus input is bound to, see
+     * {@link BusRoutingEnvironmentPostProcessor}, against the events with a
+     * listener on the node. It is started before the bus bindings, when all
+     * listeners are registered.
+     */
+    @Slf4j
+    private static class BusRoutingChecker implements SmartLifecycle {
+
+        private final TenantAwareApplicationEventPublisher multicaster;
+        private final BusRoutingProperties properties;
+        private volatile boolean running;
+
+        private BusRoutingChecker(final TenantAwareApplicationEventPublisher multicaster,
+                final BusRoutingProperties properties) {
+            this.multicaster = multicaster;
+            this.properties = properties;
+        }
+
+        @Override
+        public void start() {
+            running = true;
+            final List<String> listened = multicaster.getListenedEventClasses(EventType.getTargetClasses()).stream()
+                    .map(Class::getSimpleName).sorted().toList();
+            if (properties.getEventTypes().isEmpty()) {
+                log.info("Bus input is bound to all events, to bind only the events with a listener set "
+                        + "hawkbit.bus.routing.event-types={}", String.join(",", listened));
+                return;
+            }
+            final List<String> unbound = listened.stream()
+                    .filter(eventType -> !properties.getEventTypes().contains(eventType)).toList();
+            if (!unbound.isEmpty()) {
+                log.warn("The events {} have a listener but are not received as they are missing in "
+                        + "hawkbit.bus.routing.event-types", unbound);
+            }
+        }
+
+        @Override
+        public void stop() {
+            running = false;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+
+        @Override
+        public int getPhase() {
+            return Integer.MIN_VALUE;
+        }
     }
 
     @ConditionalOnBusEnabled
@@ -143,6 +238,68 @@ public class EventPublisherAutoConfiguration {
             return new BusProtoStuffMessageConverter();
         }
 
+        /**
+         * Sends the remote events in batches, see {@link BatchingBusBridge}.
+         *
+         * @param properties the batch properties
+         * @param routingProperties the routing properties
+         * @return post processor which wraps the {@link BusBridge}
+         */
+        @Bean
+        @ConditionalOnProperty(prefix = "hawkbit.bus.batch", name = "enabled")
+        public static BeanPostProcessor batchingBusBridgePostProcessor(
+                final ObjectProvider<BusBatchProperties> properties,
+                final ObjectProvider<BusRoutingProperties> routingProperties) {
+            return new BeanPostProcessor() {
+
+                @Override
+                public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                    if (bean instanceof BusBridge busBridge && !(bean instanceof BatchingBusBridge)) {
+                        final BusBatchProperties batchProperties = properties.getObject();
+                        // with routing, a batch contains only events with the same routing key
+                        return new BatchingBusBridge(busBridge, batchProperties.getMaxEvents(),
+                                batchProperties.getMaxDelay(), routingProperties.getObject().isEnabled()
+                                        ? RemoteEventRouting::routingKey
+                                        : event -> null);
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        /**
+         * Checks that the remote events with a listener are routed to the
+         * node, see {@link BusRoutingEnvironmentPostProcessor}.
+         *
+         * @param multicaster the multicaster with the listeners of the node
+         * @param properties the routing properties
+         * @return the lifecycle which checks the routing
+         */
+        @Bean
+        @ConditionalOnProperty(prefix = "hawkbit.bus.routing", name = "enabled")
+        SmartLifecycle busRoutingChecker(
+                @Qualifier(AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME)
+                final ApplicationEventMulticaster multicaster, final BusRoutingProperties properties) {
+            return new BusRoutingChecker((TenantAwareApplicationEventPublisher) multicaster, properties);
+        }
+    }
+
+    @ConditionalOnBusEnabled
+    @ConditionalOnClass(StreamBridge.class)
+    protected static class BusStreamRoutingAutoConfiguration {
+
+        /**
+         * Replaces the default stream bus bridge, so the bus messages are sent
+         * with the routing key of their event, see {@link RemoteEventRouting}.
+         *
+         * @param streamBridge the stream bridge
+         * @return the bus bridge
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public BusBridge routingStreamBusBridge(final StreamBridge streamBridge) {
+            return new RoutingStreamBusBridge(streamBridge);
+        }
     }
 
 }
@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.autoconfigure.repository.event;
+
+import org.eclipse.hawkbit.event.RemoteEventRouting;
+import org.springframework.cloud.bus.BusBridge;
+import org.springframework.cloud.bus.BusConstants;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * {@link BusBridge} which sends the remote events like the default stream bus
+ * bridge, but with the {@link RemoteEventRouting#ROUTING_KEY_HEADER} which is
+ * used as routing key of the bus messages.
+ */
+public class RoutingStreamBusBridge implements BusBridge {
+
+    private final StreamBridge streamBridge;
+
+    /**
+     * Constructor.
+     *
+     * @param streamBridge the stream bridge
+     */
+    public RoutingStreamBusBridge(final StreamBridge streamBridge) {
+        this.streamBridge = streamBridge;
+    }
+
+    @Override
+    public void send(final RemoteApplicationEvent event) {
+        streamBridge.send(BusConstants.OUTPUT, MessageBuilder.withPayload(event)
+                .setHeader(RemoteEventRouting.ROUTING_KEY_HEADER, RemoteEventRouting.routingKey(event)).build());
+    }
+}
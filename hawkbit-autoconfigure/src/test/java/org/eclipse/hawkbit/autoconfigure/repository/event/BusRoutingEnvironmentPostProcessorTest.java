@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.autoconfigure.repository.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.impl.AMQImpl;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.eclipse.hawkbit.event.EventType;
+import org.eclipse.hawkbit.event.RemoteEventRouting;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetPollEvent;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.bus.BusConstants;
+import org.springframework.cloud.stream.binder.ExtendedConsumerProperties;
+import org.springframework.cloud.stream.binder.rabbit.properties.RabbitBindingProperties;
+import org.springframework.cloud.stream.binder.rabbit.properties.RabbitConsumerProperties;
+import org.springframework.cloud.stream.binder.rabbit.properties.RabbitExtendedBindingProperties;
+import org.springframework.cloud.stream.binder.rabbit.provisioning.RabbitExchangeQueueProvisioner;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+@Feature("Unit Tests - Event Bus")
+@Story("Bus Routing")
+class BusRoutingEnvironmentPostProcessorTest {
+
+    private static final String QUEUE = "springCloudBus.ddi-server";
+
+    private final Map<String, Object> properties = new HashMap<>();
+
+    @Test
+    @Description("Verifies that the rabbit binder binds the bus queue to the routing keys of the configured events and tenants only.")
+    void busQueueIsBoundToConfiguredEvents() throws IOException {
+        properties.put("hawkbit.bus.routing.enabled", "true");
+        properties.put("hawkbit.bus.routing.event-types", "TargetPollEvent,TargetDeletedEvent");
+        properties.put("hawkbit.bus.routing.tenants", "DEFAULT");
+
+        assertThat(declaredBindingKeys()).containsExactlyElementsOf(RemoteEventRouting.bindingKeys(
+                List.of(TargetPollEvent.class, TargetDeletedEvent.class), List.of("DEFAULT")))
+                .doesNotContain("#");
+    }
+
+    @Test
+    @Description("Verifies that the rabbit binder binds the bus queue to all events of the configured tenants if no events are configured.")
+    void busQueueIsBoundToAllEventsOfConfiguredTenants() throws IOException {
+        properties.put("hawkbit.bus.routing.enabled", "true");
+        properties.put("hawkbit.bus.routing.tenants", "DEFAULT");
+
+        assertThat(declaredBindingKeys()).containsExactlyElementsOf(
+                RemoteEventRouting.bindingKeys(EventType.getTargetClasses(), List.of("DEFAULT")));
+    }
+
+    @Test
+    @Description("Verifies that an explicitly configured binding routing key wins and that without routing the bus queue is bound to all events.")
+    void configuredBindingRoutingKeyWins() throws IOException {
+        assertThat(declaredBindingKeys()).containsExactly("#");
+
+        properties.put("hawkbit.bus.routing.enabled", "true");
+        properties.put(BusRoutingEnvironmentPostProcessor.BINDING_ROUTING_KEY, "24.*");
+        assertThat(declaredBindingKeys()).containsExactly("24.*");
+    }
+
+    // post processes the environment and returns the binding keys the rabbit binder declares with it
+    private List<String> declaredBindingKeys() throws IOException {
+        final StandardEnvironment processed = new StandardEnvironment();
+        processed.getPropertySources().addFirst(new MapPropertySource("test", properties));
+        new BusRoutingEnvironmentPostProcessor(Supplier::get).postProcessEnvironment(processed,
+                null);
+
+        final RabbitConsumerProperties consumerProperties = Binder.get(processed)
+                .bind("spring.cloud.stream.rabbit", RabbitExtendedBindingProperties.class)
+                .map(extended -> extended.getBindings().get(BusConstants.INPUT))
+                .map(RabbitBindingProperties::getConsumer).orElseGet(RabbitConsumerProperties::new);
+
+        final Channel channel = mock(Channel.class);
+        when(channel.isOpen()).thenReturn(true);
+        when(channel.queueDeclare(anyString(), anyBoolean(), anyBoolean(), anyBoolean(), anyMap()))
+                .thenAnswer(invocation -> new AMQImpl.Queue.DeclareOk(invocation.getArgument(0), 0, 0));
+        final Connection connection = mock(Connection.class);
+        when(connection.createChannel(false)).thenReturn(channel);
+        final ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        when(connectionFactory.createConnection()).thenReturn(connection);
+
+        new RabbitExchangeQueueProvisioner(connectionFactory).provisionConsumerDestination(BusConstants.DESTINATION,
+                "ddi-server", new ExtendedConsumerProperties<>(consumerProperties));
+
+        final ArgumentCaptor<String> bindingKeys = ArgumentCaptor.forClass(String.class);
+        verify(channel, atLeastOnce()).queueBind(eq(QUEUE), eq(BusConstants.DESTINATION),
+                bindingKeys.capture(), any());
+        return bindingKeys.getAllValues();
+    }
+}
@@ -44,6 +44,8 @@ public enum SpServerError {
             "The given sort parameter field does not exist"),
     SP_REST_SORT_PARAM_INVALID_DIRECTION("hawkbit.server.error.rest.param.invalidDirection",
             "The given sort parameter direction does not exist"),
+    SP_REST_PAGING_CURSOR_INVALID("hawkbit.server.error.rest.param.invalidCursor",
+            "The given paging cursor is not well formed or does not match the sort parameter"),
     SP_REST_BODY_NOT_READABLE("hawkbit.server.error.rest.body.notReadable",
             "The given request body is not well formed"),
     SP_ARTIFACT_UPLOAD_FAILED("hawkbit.server.error.artifact.uploadFailed",
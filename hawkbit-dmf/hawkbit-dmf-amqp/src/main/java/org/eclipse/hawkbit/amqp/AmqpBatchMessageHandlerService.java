@@ -0,0 +1,265 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.rabbitmq.client.Channel;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageType;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.springframework.amqp.AmqpIOException;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.support.ListenerExecutionFailedException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ErrorHandler;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link AmqpBatchMessageHandlerService} consumes the queue which is configured
+ * for the property hawkbit.dmf.rabbitmq.receiverQueue in batches of up to
+ * hawkbit.dmf.rabbitmq.batch.size messages or as many as are received within
+ * hawkbit.dmf.rabbitmq.batch.receive-timeout milliseconds. It is used instead
+ * of the {@link AmqpMessageHandlerService} listener if hawkbit.dmf.rabbitmq.batch.enabled
+ * is set.
+ * <p/>
+ * The consecutive action status and attribute update events of a tenant are
+ * grouped and every group is applied in one transaction, so the inserts and
+ * updates of the group are written in batches on commit. The next update
+ * commands are sent to the targets after the commit. All other messages are
+ * handled one by one by the {@link AmqpMessageHandlerService}. The messages of
+ * a tenant are applied in the order they are received: a pending group is
+ * applied before a message of the other topic of the tenant is grouped and all
+ * pending groups are applied before a message is handled one by one.
+ * <p/>
+ * The messages are acknowledged one by one. If a group fails, it is rolled
+ * back and its messages are handled one by one, so a poison message is
+ * rejected without affecting the other messages of the batch.
+ */
+@Slf4j
+public class AmqpBatchMessageHandlerService {
+
+    private final AmqpMessageHandlerService amqpMessageHandlerService;
+    private final TransactionTemplate transactionTemplate;
+    private final ErrorHandler errorHandler;
+
+    /**
+     * Constructor.
+     *
+     * @param amqpMessageHandlerService to handle the messages
+     * @param transactionManager to apply the groups in one transaction
+     * @param errorHandler to decide if failed messages are rejected or requeued
+     */
+    public AmqpBatchMessageHandlerService(final AmqpMessageHandlerService amqpMessageHandlerService,
+            final PlatformTransactionManager transactionManager, final ErrorHandler errorHandler) {
+        this.amqpMessageHandlerService = amqpMessageHandlerService;
+        this.errorHandler = errorHandler;
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    /**
+     * Method to handle a batch of incoming DMF amqp messages.
+     *
+     * @param messages the batch of incoming messages
+     * @param channel the channel to acknowledge the messages
+     */
+    @RabbitListener(queues = "${hawkbit.dmf.rabbitmq.receiverQueue:dmf_receiver}", containerFactory = "batchListenerContainerFactory")
+    public void onMessages(final List<Message> messages, final Channel channel) {
+        onMessages(messages, channel,
+                amqpMessageHandlerService.getRabbitTemplate().getConnectionFactory().getVirtualHost());
+    }
+
+    /**
+     * Executed if a batch of amqp messages arrives.
+     *
+     * @param messages the messages
+     * @param channel the channel to acknowledge the messages
+     * @param virtualHost the virtual host
+     */
+    public void onMessages(final List<Message> messages, final Channel channel, final String virtualHost) {
+        log.debug("Received batch of {} DMF messages.", messages.size());
+        final Map<GroupKey, List<Message>> pending = new LinkedHashMap<>();
+        for (final Message message : messages) {
+            final GroupKey key = GroupKey.of(message);
+            if (key == null) {
+                applyPending(pending, channel, virtualHost);
+                handle(message, channel, virtualHost);
+            } else {
+                final GroupKey otherTopic = key.otherTopic();
+                final List<Message> otherTopicGroup = pending.remove(otherTopic);
+                if (otherTopicGroup != null) {
+                    apply(otherTopic, otherTopicGroup, channel, virtualHost);
+                }
+                pending.computeIfAbsent(key, k -> new ArrayList<>()).add(message);
+            }
+        }
+        applyPending(pending, channel, virtualHost);
+    }
+
+    private void applyPending(final Map<GroupKey, List<Message>> pending, final Channel channel,
+            final String virtualHost) {
+        pending.forEach((key, group) -> apply(key, group, channel, virtualHost));
+        pending.clear();
+    }
+
+    private void apply(final GroupKey key, final List<Message> group, final Channel channel,
+            final String virtualHost) {
+        if (group.size() == 1) {
+            handle(group.get(0), channel, virtualHost);
+        } else {
+            handleGroup(key, group, channel, virtualHost);
+        }
+    }
+
+    private void handleGroup(final GroupKey key, final List<Message> group, final Channel channel,
+            final String virtualHost) {
+        final List<Target> targets;
+        final SecurityContext oldContext = SecurityContextHolder.getContext();
+        try {
+            AmqpMessageHandlerService.setTenantSecurityContext(key.tenant);
+            targets = transactionTemplate.execute(status -> {
+                final List<Target> toNotify = new ArrayList<>();
+                for (final Message message : group) {
+                    if (key.topic == EventTopic.UPDATE_ACTION_STATUS) {
+                        final Target target = amqpMessageHandlerService.addActionStatus(message);
+                        if (target != null) {
+                            toNotify.add(target);
+                        }
+                    } else {
+                        amqpMessageHandlerService.updateAttributes(message);
+                    }
+                }
+                return toNotify;
+            });
+        } catch (final RuntimeException e) {
+            log.debug("Failed to apply {} messages of tenant {} with topic {} at once. Handle them one by one.",
+                    group.size(), key.tenant, key.topic, e);
+            SecurityContextHolder.setContext(oldContext);
+            group.forEach(message -> handle(message, channel, virtualHost));
+            return;
+        }
+
+        try {
+            group.forEach(message -> ack(message, channel));
+            Objects.requireNonNull(targets).stream().distinct().forEach(target -> {
+                try {
+                    amqpMessageHandlerService.sendUpdateCommandToTarget(target);
+                } catch (final RuntimeException e) {
+                    log.error("Failed to send the update command to target {}", target.getControllerId(), e);
+                }
+            });
+        } finally {
+            SecurityContextHolder.setContext(oldContext);
+        }
+    }
+
+    private void handle(final Message message, final Channel channel, final String virtualHost) {
+        final Headers headers = new Headers(message);
+        try {
+            amqpMessageHandlerService.onMessage(message, headers.type, headers.tenant, virtualHost);
+        } catch (final RuntimeException e) {
+            if (isRejected(message, e)) {
+                reject(message, channel);
+            } else {
+                requeue(message, channel);
+            }
+            return;
+        }
+        ack(message, channel);
+    }
+
+    private boolean isRejected(final Message message, final RuntimeException e) {
+        try {
+            errorHandler.handleError(new ListenerExecutionFailedException("Failed to handle DMF message", e, message));
+            return e instanceof AmqpRejectAndDontRequeueException;
+        } catch (final AmqpRejectAndDontRequeueException rejected) {
+            return true;
+        }
+    }
+
+    private static void ack(final Message message, final Channel channel) {
+        try {
+            channel.basicAck(message.getMessageProperties().getDeliveryTag(), false);
+        } catch (final IOException e) {
+            throw new AmqpIOException(e);
+        }
+    }
+
+    private static void reject(final Message message, final Channel channel) {
+        try {
+            channel.basicReject(message.getMessageProperties().getDeliveryTag(), false);
+        } catch (final IOException e) {
+            throw new AmqpIOException(e);
+        }
+    }
+
+    private static void requeue(final Message message, final Channel channel) {
+        try {
+            channel.basicNack(message.getMessageProperties().getDeliveryTag(), false, true);
+        } catch (final IOException e) {
+            throw new AmqpIOException(e);
+        }
+    }
+
+    private static final class Headers {
+
+        private final String type;
+        private final String tenant;
+
+        private Headers(final Message message) {
+            type = header(message, MessageHeaderKey.TYPE);
+            tenant = header(message, MessageHeaderKey.TENANT);
+        }
+
+        private static String header(final Message message, final String key) {
+            final Object value = message.getMessageProperties().getHeaders().get(key);
+            return value == null ? null : value.toString();
+        }
+    }
+
+    private record GroupKey(String tenant, EventTopic topic) {
+
+        // null if the message is not grouped but handled one by one
+        private static GroupKey of(final Message message) {
+            final Headers headers = new Headers(message);
+            final String contentType = message.getMessageProperties().getContentType();
+            if (!StringUtils.hasLength(headers.tenant) || !MessageType.EVENT.name().equals(headers.type)
+                    || contentType == null || !(contentType.contains("json") || contentType.contains("cbor"))) {
+                return null;
+            }
+            final String topic = Headers.header(message, MessageHeaderKey.TOPIC);
+            if (EventTopic.UPDATE_ACTION_STATUS.name().equals(topic)) {
+                return new GroupKey(headers.tenant, EventTopic.UPDATE_ACTION_STATUS);
+            } else if (EventTopic.UPDATE_ATTRIBUTES.name().equals(topic)) {
+                return new GroupKey(headers.tenant, EventTopic.UPDATE_ATTRIBUTES);
+            }
+            return null;
+        }
+
+        private GroupKey otherTopic() {
+            return new GroupKey(tenant, topic == EventTopic.UPDATE_ACTION_STATUS
+                    ? EventTopic.UPDATE_ATTRIBUTES : EventTopic.UPDATE_ACTION_STATUS);
+        }
+    }
+}
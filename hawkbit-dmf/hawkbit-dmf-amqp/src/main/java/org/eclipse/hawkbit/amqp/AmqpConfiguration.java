@@ -14,9 +14,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import io.micrometer.observation.ObservationRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.hawkbit.artifact.repository.urlhandler.ArtifactUrlHandler;
 import org.eclipse.hawkbit.dmf.amqp.api.AmqpSettings;
+import org.eclipse.hawkbit.dmf.amqp.api.Jackson2CborMessageConverter;
 import org.eclipse.hawkbit.repository.ConfirmationManagement;
 import org.eclipse.hawkbit.repository.ControllerManagement;
 import org.eclipse.hawkbit.repository.DeploymentManagement;
@@ -27,6 +29,7 @@ import org.eclipse.hawkbit.repository.SystemManagement;
 import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.FanoutExchange;
@@ -38,7 +41,9 @@ import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.rabbit.listener.ConditionalRejectingErrorHandler;
 import org.springframework.amqp.rabbit.listener.RabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -49,6 +54,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.retry.backoff.ExponentialBackOffPolicy;
 import org.springframework.retry.support.RetryTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.util.ErrorHandler;
 
 /**
@@ -128,12 +134,16 @@ public class AmqpConfiguration {
 
     /**
      * @return {@link RabbitTemplate} with automatic retry, published confirms and
-     *         {@link Jackson2JsonMessageConverter}.
+     *         {@link Jackson2JsonMessageConverter} or {@link Jackson2CborMessageConverter}
+     *         depending on the content type.
      */
     @Bean
     public RabbitTemplate rabbitTemplate() {
         final RabbitTemplate rabbitTemplate = new RabbitTemplate(rabbitConnectionFactory);
-        rabbitTemplate.setMessageConverter(new Jackson2JsonMessageConverter());
+        final ContentTypeDelegatingMessageConverter messageConverter = new ContentTypeDelegatingMessageConverter(
+                new Jackson2JsonMessageConverter());
+        messageConverter.addDelegate(AmqpSettings.CONTENT_TYPE_CBOR, new Jackson2CborMessageConverter());
+        rabbitTemplate.setMessageConverter(messageConverter);
 
         final RetryTemplate retryTemplate = new RetryTemplate();
         retryTemplate.setBackOffPolicy(new ExponentialBackOffPolicy());
@@ -250,6 +260,40 @@ public class AmqpConfiguration {
                 entityFactory, systemSecurityContext, tenantConfigurationManagement, confirmationManagement);
     }
 
+    /**
+     * Create AMQP batch handler service bean, which replaces the listener of
+     * the {@link AmqpMessageHandlerService} if the batch listener is enabled.
+     *
+     * @param amqpMessageHandlerService to handle the messages
+     * @param transactionManager to apply the grouped messages in one transaction
+     * @param errorHandler to decide if failed messages are rejected or requeued
+     * @return batch handler service bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.dmf.rabbitmq.batch", name = "enabled")
+    public AmqpBatchMessageHandlerService amqpBatchMessageHandlerService(
+            final AmqpMessageHandlerService amqpMessageHandlerService,
+            final PlatformTransactionManager transactionManager, final ErrorHandler errorHandler) {
+        return new AmqpBatchMessageHandlerService(amqpMessageHandlerService, transactionManager, errorHandler);
+    }
+
+    /**
+     * Create pipelined amqp sender service bean if enabled. The messages are
+     * observed with the {@link ObservationRegistry} if there is such.
+     *
+     * @param observationRegistry to observe the sent messages
+     * @return the pipelined amqp sender service bean
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.dmf.rabbitmq.sender", name = "pipelined")
+    public AmqpMessageSenderService pipelinedAmqpSenderServiceBean(
+            final ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new PipelinedAmqpMessageSenderService(rabbitTemplate(), amqpProperties.getSender(),
+                amqpProperties.getDeadLetterExchange(), observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+    }
+
     /**
      * Create default amqp sender service bean.
      *
@@ -277,17 +321,75 @@ public class AmqpConfiguration {
         return factory;
     }
 
+    /**
+     * Create the RabbitListenerContainerFactory bean of the batch listener if
+     * no batchListenerContainerFactory bean found. The messages are consumed
+     * in batches and acknowledged manually one by one.
+     *
+     * @return RabbitListenerContainerFactory bean
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "batchListenerContainerFactory")
+    @ConditionalOnProperty(prefix = "hawkbit.dmf.rabbitmq.batch", name = "enabled")
+    public RabbitListenerContainerFactory<SimpleMessageListenerContainer> batchListenerContainerFactory(
+            final SimpleRabbitListenerContainerFactoryConfigurer configurer, final ErrorHandler errorHandler) {
+        final ConfigurableRabbitListenerContainerFactory factory = new ConfigurableRabbitListenerContainerFactory(
+                amqpProperties.isMissingQueuesFatal(), amqpProperties.getDeclarationRetries(), errorHandler);
+        configurer.configure(factory, rabbitConnectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(amqpProperties.getBatch().getSize());
+        factory.setReceiveTimeout(amqpProperties.getBatch().getReceiveTimeout());
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
+
+    /**
+     * Create the cache of the software modules sent with the update requests.
+     *
+     * @param artifactUrlHandler for generating download URLs
+     * @param systemManagement to get the tenant metadata
+     * @return the template cache bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public DmfPayloadTemplateCache dmfPayloadTemplateCache(final ArtifactUrlHandler artifactUrlHandler,
+            final SystemManagement systemManagement) {
+        return new DmfPayloadTemplateCache(artifactUrlHandler, systemManagement, amqpProperties.getTemplateCache());
+    }
+
+    /**
+     * Create the tenant fair dispatch executor bean if enabled. The tasks
+     * deferred as the queue of their tenant is full are observed with the
+     * {@link ObservationRegistry} if there is such.
+     *
+     * @param observationRegistry to observe the deferred tasks
+     * @return the tenant fair dispatch executor bean
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.dmf.rabbitmq.dispatcher", name = "tenant-fair")
+    public TenantFairDispatchExecutor tenantFairDispatchExecutor(
+            final ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new TenantFairDispatchExecutor(amqpProperties.getDispatcher(),
+                observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+    }
+
     @Bean
     @ConditionalOnMissingBean(AmqpMessageDispatcherService.class)
     AmqpMessageDispatcherService amqpMessageDispatcherService(final RabbitTemplate rabbitTemplate,
-            final AmqpMessageSenderService amqpSenderService, final ArtifactUrlHandler artifactUrlHandler,
-            final SystemSecurityContext systemSecurityContext, final SystemManagement systemManagement,
-            final TargetManagement targetManagement, final DistributionSetManagement distributionSetManagement,
+            final AmqpMessageSenderService amqpSenderService, final SystemSecurityContext systemSecurityContext,
+            final SystemManagement systemManagement, final TargetManagement targetManagement,
+            final DistributionSetManagement distributionSetManagement,
             final SoftwareModuleManagement softwareModuleManagement, final DeploymentManagement deploymentManagement,
-            final TenantConfigurationManagement tenantConfigurationManagement) {
-        return new AmqpMessageDispatcherService(rabbitTemplate, amqpSenderService, artifactUrlHandler,
-                systemSecurityContext, systemManagement, targetManagement, serviceMatcher, distributionSetManagement,
-                softwareModuleManagement, deploymentManagement, tenantConfigurationManagement);
+            final TenantConfigurationManagement tenantConfigurationManagement,
+            final DmfPayloadTemplateCache dmfPayloadTemplateCache,
+            final ObjectProvider<TenantFairDispatchExecutor> tenantFairDispatchExecutor) {
+        return new AmqpMessageDispatcherService(rabbitTemplate, amqpSenderService, systemSecurityContext,
+                systemManagement, targetManagement, serviceMatcher, distributionSetManagement,
+                softwareModuleManagement, deploymentManagement, tenantConfigurationManagement,
+                new AmqpContentTypeResolver(amqpProperties.getCborExchanges()), dmfPayloadTemplateCache,
+                tenantFairDispatchExecutor.getIfAvailable());
     }
 
     private static Map<String, Object> getTTLMaxArgsAuthenticationQueue() {
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.hawkbit.dmf.amqp.api.AmqpSettings;
+import org.springframework.amqp.core.MessageProperties;
+
+/**
+ * Resolves the content type of the messages sent to a reply-to exchange. JSON
+ * is the default. CBOR is used for the exchanges configured in
+ * hawkbit.dmf.rabbitmq.cbor-exchanges and for the exchanges which are
+ * negotiated by a THING_CREATED message with CBOR content type. A THING_CREATED
+ * message with JSON content type switches the exchange back to JSON.
+ * <p/>
+ * The negotiated exchanges are kept in memory only, so in a cluster they are
+ * known by the node which received the THING_CREATED message until the
+ * target registers again. Exchanges which have to use CBOR on all nodes shall
+ * be configured.
+ */
+@Slf4j
+public class AmqpContentTypeResolver {
+
+    private final Set<String> cborExchanges;
+    private final Set<URI> negotiated = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor.
+     *
+     * @param cborExchanges the names of the reply-to exchanges which always use CBOR
+     */
+    public AmqpContentTypeResolver(final Collection<String> cborExchanges) {
+        this.cborExchanges = Set.copyOf(cborExchanges);
+    }
+
+    /**
+     * @param address the AMQP address the message is sent to
+     * @return the content type of the messages sent to the address
+     */
+    public String resolve(final URI address) {
+        if (address != null && (negotiated.contains(address) || cborExchanges.contains(exchange(address)))) {
+            return AmqpSettings.CONTENT_TYPE_CBOR;
+        }
+        return MessageProperties.CONTENT_TYPE_JSON;
+    }
+
+    /**
+     * Negotiates the content type of an address by the content type of a
+     * message received from the client. Messages without content type, e.g.
+     * THING_CREATED without body, don't change the negotiated content type.
+     *
+     * @param address the AMQP address of the client
+     * @param contentType the content type of the message received from the client
+     */
+    public void negotiate(final URI address, final String contentType) {
+        if (address == null || contentType == null) {
+            return;
+        }
+        if (contentType.contains("cbor")) {
+            if (negotiated.add(address)) {
+                log.debug("Negotiated CBOR content type for {}", address);
+            }
+        } else if (negotiated.remove(address)) {
+            log.debug("Negotiated JSON content type for {}", address);
+        }
+    }
+
+    private static String exchange(final URI address) {
+        final String path = address.getPath();
+        return path == null || path.isEmpty() ? path : path.substring(1);
+    }
+}
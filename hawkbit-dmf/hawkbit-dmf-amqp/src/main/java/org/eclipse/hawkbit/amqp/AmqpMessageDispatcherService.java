@@ -13,13 +13,15 @@ import static org.eclipse.hawkbit.repository.RepositoryConstants.MAX_ACTION_COUN
 import static org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationProperties.TenantConfigurationKey.BATCH_ASSIGNMENTS_ENABLED;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -28,21 +30,16 @@ import java.util.stream.StreamSupport;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.IterableUtils;
 import org.apache.commons.collections4.ListUtils;
-import org.eclipse.hawkbit.artifact.repository.urlhandler.ApiType;
-import org.eclipse.hawkbit.artifact.repository.urlhandler.ArtifactUrl;
+import org.eclipse.hawkbit.amqp.DmfPayloadTemplateCache.Template;
+import org.eclipse.hawkbit.amqp.TenantFairDispatchExecutor.Priority;
 import org.eclipse.hawkbit.artifact.repository.urlhandler.ArtifactUrlHandler;
-import org.eclipse.hawkbit.artifact.repository.urlhandler.URLPlaceholder;
-import org.eclipse.hawkbit.artifact.repository.urlhandler.URLPlaceholder.SoftwareData;
 import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
 import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
 import org.eclipse.hawkbit.dmf.amqp.api.MessageType;
 import org.eclipse.hawkbit.dmf.json.model.DmfActionRequest;
-import org.eclipse.hawkbit.dmf.json.model.DmfArtifact;
-import org.eclipse.hawkbit.dmf.json.model.DmfArtifactHash;
 import org.eclipse.hawkbit.dmf.json.model.DmfBatchDownloadAndUpdateRequest;
 import org.eclipse.hawkbit.dmf.json.model.DmfConfirmRequest;
 import org.eclipse.hawkbit.dmf.json.model.DmfDownloadAndUpdateRequest;
-import org.eclipse.hawkbit.dmf.json.model.DmfMetadata;
 import org.eclipse.hawkbit.dmf.json.model.DmfMultiActionRequest;
 import org.eclipse.hawkbit.dmf.json.model.DmfSoftwareModule;
 import org.eclipse.hawkbit.dmf.json.model.DmfTarget;
@@ -54,6 +51,7 @@ import org.eclipse.hawkbit.repository.SystemManagement;
 import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
 import org.eclipse.hawkbit.repository.event.remote.CancelTargetAssignmentEvent;
+import org.eclipse.hawkbit.repository.event.remote.MultiActionCancelEvent;
 import org.eclipse.hawkbit.repository.event.remote.MultiActionEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetAttributesRequestedEvent;
@@ -65,7 +63,6 @@ import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.SoftwareModuleMetadata;
 import org.eclipse.hawkbit.repository.model.Target;
-import org.eclipse.hawkbit.repository.model.TenantMetaData;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
 import org.eclipse.hawkbit.util.IpUtil;
 import org.springframework.amqp.core.Message;
@@ -92,7 +89,6 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
 
     private static final int MAX_PROCESSING_SIZE = 1000;
 
-    private final ArtifactUrlHandler artifactUrlHandler;
     private final AmqpMessageSenderService amqpSenderService;
     private final SystemSecurityContext systemSecurityContext;
     private final SystemManagement systemManagement;
@@ -102,6 +98,10 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
     private final DeploymentManagement deploymentManagement;
     private final SoftwareModuleManagement softwareModuleManagement;
     private final TenantConfigurationManagement tenantConfigurationManagement;
+    private final AmqpContentTypeResolver contentTypeResolver;
+    private final DmfPayloadTemplateCache templateCache;
+    // null if the messages are dispatched by the event thread
+    private final TenantFairDispatchExecutor dispatchExecutor;
 
     /**
      * Constructor.
@@ -124,8 +124,41 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
             final DistributionSetManagement distributionSetManagement,
             final SoftwareModuleManagement softwareModuleManagement, final DeploymentManagement deploymentManagement,
             final TenantConfigurationManagement tenantConfigurationManagement) {
+        this(rabbitTemplate, amqpSenderService, systemSecurityContext, systemManagement, targetManagement,
+                serviceMatcher, distributionSetManagement, softwareModuleManagement, deploymentManagement,
+                tenantConfigurationManagement, new AmqpContentTypeResolver(Set.of()),
+                new DmfPayloadTemplateCache(artifactUrlHandler, systemManagement), null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param rabbitTemplate the rabbitTemplate
+     * @param amqpSenderService to send AMQP message
+     * @param systemSecurityContext for execution with system permissions
+     * @param systemManagement the systemManagement
+     * @param targetManagement to access target information
+     * @param serviceMatcher to check in cluster case if the message is from the same
+     *         cluster node
+     * @param distributionSetManagement to retrieve modules
+     * @param tenantConfigurationManagement to access tenant configuration
+     * @param contentTypeResolver to resolve the content type of the messages per address
+     * @param templateCache to create the software modules of the update requests
+     * @param dispatchExecutor to dispatch the messages triggered by events fairly per tenant,
+     *         <code>null</code> to dispatch them by the event thread
+     */
+    protected AmqpMessageDispatcherService(final RabbitTemplate rabbitTemplate,
+            final AmqpMessageSenderService amqpSenderService, final SystemSecurityContext systemSecurityContext,
+            final SystemManagement systemManagement, final TargetManagement targetManagement,
+            final ServiceMatcher serviceMatcher, final DistributionSetManagement distributionSetManagement,
+            final SoftwareModuleManagement softwareModuleManagement, final DeploymentManagement deploymentManagement,
+            final TenantConfigurationManagement tenantConfigurationManagement,
+            final AmqpContentTypeResolver contentTypeResolver, final DmfPayloadTemplateCache templateCache,
+            final TenantFairDispatchExecutor dispatchExecutor) {
         super(rabbitTemplate);
-        this.artifactUrlHandler = artifactUrlHandler;
+        this.contentTypeResolver = contentTypeResolver;
+        this.templateCache = templateCache;
+        this.dispatchExecutor = dispatchExecutor;
         this.amqpSenderService = amqpSenderService;
         this.systemSecurityContext = systemSecurityContext;
         this.systemManagement = systemManagement;
@@ -142,6 +175,17 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
                 .getConfigurationValue(BATCH_ASSIGNMENTS_ENABLED, Boolean.class).getValue());
     }
 
+    /**
+     * Negotiates the content type of the messages sent to a client by the
+     * content type of a message received from it.
+     *
+     * @param address the AMQP address of the client
+     * @param contentType the content type of the received message
+     */
+    public void negotiateContentType(final URI address, final String contentType) {
+        contentTypeResolver.negotiate(address, contentType);
+    }
+
     /**
      * Method to send a message to a RabbitMQ Exchange after the Distribution
      * set has been assign to a Target.
@@ -154,14 +198,21 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
             return;
         }
 
-        final List<Target> filteredTargetList = getTargetsWithoutPendingCancellations(
-                assignedEvent.getActions().keySet());
-
-        if (!filteredTargetList.isEmpty()) {
-            log.debug("targetAssignDistributionSet retrieved. I will forward it to DMF broker.");
-            sendUpdateMessageToTargets(assignedEvent.getDistributionSetId(), assignedEvent.getActions(),
-                    filteredTargetList);
-        }
+        // the assignments of a distribution set are interchangeable if they are sent with the same batch topic,
+        // the latest action of a target is sent
+        final EventTopic batchTopic = assignedEvent.getActions().values().stream().findFirst()
+                .map(AmqpMessageDispatcherService::getBatchEventTopicForAction).orElse(null);
+        dispatch(assignedEvent.getTenant(), Priority.NORMAL,
+                new MergeKey(TargetAssignDistributionSetEvent.class, assignedEvent.getDistributionSetId(), batchTopic),
+                assignedEvent.getActions(), actions -> {
+                    final List<Target> filteredTargetList = getTargetsWithoutPendingCancellations(actions.keySet());
+
+                    if (!filteredTargetList.isEmpty()) {
+                        log.debug("targetAssignDistributionSet retrieved. I will forward it to DMF broker.");
+                        sendUpdateMessageToTargets(assignedEvent.getTenant(), assignedEvent.getDistributionSetId(),
+                                actions, filteredTargetList);
+                    }
+                });
     }
 
     /**
@@ -175,14 +226,19 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
             return;
         }
         log.debug("MultiActionEvent received for {}", multiActionEvent.getControllerIds());
-        sendMultiActionRequestMessages(multiActionEvent.getTenant(), multiActionEvent.getControllerIds());
+        // the multi action requests are interchangeable as they are read from the repository when sent
+        dispatch(multiActionEvent.getTenant(),
+                multiActionEvent instanceof MultiActionCancelEvent ? Priority.HIGH : Priority.NORMAL,
+                new MergeKey(MultiActionEvent.class, null, null), multiActionEvent.getControllerIds(),
+                controllerIds -> sendMultiActionRequestMessages(multiActionEvent.getTenant(), controllerIds));
     }
 
     protected void sendUpdateMessageToTarget(final ActionProperties actionsProps, final Target target,
             final Map<SoftwareModule, List<SoftwareModuleMetadata>> softwareModules) {
         final Map<String, ActionProperties> actionProp = new HashMap<>();
         actionProp.put(target.getControllerId(), actionsProps);
-        sendUpdateMessageToTargets(actionProp, Collections.singletonList(target), softwareModules);
+        sendUpdateMessageToTargets(actionProp, Collections.singletonList(target),
+                templateCache.createTemplate(softwareModules));
     }
 
     protected void sendMultiActionRequestToTarget(final String tenant, final Target target, final List<Action> actions,
@@ -193,30 +249,26 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
             return;
         }
 
+        final String securityToken = systemSecurityContext.runAsSystem(target::getSecurityToken);
         final DmfMultiActionRequest multiActionRequest = new DmfMultiActionRequest();
         actions.forEach(action -> {
-            final DmfActionRequest actionRequest = createDmfActionRequest(target, action,
-                    getSoftwareModuleMetaData.apply(action));
+            final DmfActionRequest actionRequest = createDmfActionRequest(securityToken, action,
+                    () -> createSoftwareModules(templateCache.getTemplate(tenant, action.getDistributionSet().getId(),
+                            () -> getSoftwareModuleMetaData.apply(action)), target));
             final int weight = deploymentManagement.getWeightConsideringDefault(action);
             multiActionRequest.addElement(getEventTypeForAction(action), actionRequest, weight);
         });
 
         final Message message = getMessageConverter().toMessage(multiActionRequest,
-                createConnectorMessagePropertiesEvent(tenant, target.getControllerId(), EventTopic.MULTI_ACTION));
+                createConnectorMessagePropertiesEvent(tenant, target.getControllerId(), EventTopic.MULTI_ACTION,
+                        contentTypeResolver.resolve(targetAddress)));
         amqpSenderService.sendMessage(message, targetAddress);
     }
 
     protected DmfDownloadAndUpdateRequest createDownloadAndUpdateRequest(final Target target, final Long actionId,
             final Map<SoftwareModule, List<SoftwareModuleMetadata>> softwareModules) {
-        final DmfDownloadAndUpdateRequest request = new DmfDownloadAndUpdateRequest();
-        request.setActionId(actionId);
-        request.setTargetSecurityToken(systemSecurityContext.runAsSystem(target::getSecurityToken));
-
-        if (softwareModules != null) {
-            softwareModules.entrySet()
-                    .forEach(entry -> request.addSoftwareModule(convertToAmqpSoftwareModule(target, entry)));
-        }
-        return request;
+        return createDownloadAndUpdateRequest(systemSecurityContext.runAsSystem(target::getSecurityToken), actionId,
+                createSoftwareModules(templateCache.createTemplate(softwareModules), target));
     }
 
     /**
@@ -231,15 +283,17 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
             return;
         }
 
-        final List<Target> eventTargets = partitionedParallelExecution(cancelEvent.getActions().keySet(),
-                targetManagement::getByControllerID);
+        dispatch(cancelEvent.getTenant(), Priority.HIGH, null, cancelEvent.getActions().keySet(), controllerIds -> {
+            final List<Target> eventTargets = partitionedParallelExecution(controllerIds,
+                    targetManagement::getByControllerID);
 
-        eventTargets.forEach(target -> {
-            cancelEvent.getActionPropertiesForController(target.getControllerId()).map(ActionProperties::getId)
-                    .ifPresent(actionId -> {
-                        sendCancelMessageToTarget(cancelEvent.getTenant(), target.getControllerId(), actionId,
-                                target.getAddress());
-                    });
+            eventTargets.forEach(target -> {
+                cancelEvent.getActionPropertiesForController(target.getControllerId()).map(ActionProperties::getId)
+                        .ifPresent(actionId -> {
+                            sendCancelMessageToTarget(cancelEvent.getTenant(), target.getControllerId(), actionId,
+                                    target.getAddress());
+                        });
+            });
         });
     }
 
@@ -255,13 +309,19 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         if (!shouldBeProcessed(deleteEvent)) {
             return;
         }
-        sendDeleteMessage(deleteEvent.getTenant(), deleteEvent.getControllerId(), deleteEvent.getTargetAddress());
+        dispatch(deleteEvent.getTenant(), Priority.HIGH, () -> sendDeleteMessage(deleteEvent.getTenant(),
+                deleteEvent.getControllerId(), deleteEvent.getTargetAddress()));
     }
 
     @EventListener(classes = TargetAttributesRequestedEvent.class)
     protected void targetTriggerUpdateAttributes(final TargetAttributesRequestedEvent updateAttributesEvent) {
-        sendUpdateAttributesMessageToTarget(updateAttributesEvent.getTenant(), updateAttributesEvent.getControllerId(),
-                updateAttributesEvent.getTargetAddress());
+        dispatch(updateAttributesEvent.getTenant(), Priority.NORMAL,
+                new MergeKey(TargetAttributesRequestedEvent.class, null, null),
+                Collections.singletonMap(updateAttributesEvent.getControllerId(),
+                        updateAttributesEvent.getTargetAddress()),
+                targetAddresses -> targetAddresses.forEach((controllerId, targetAddress) ->
+                        sendUpdateAttributesMessageToTarget(updateAttributesEvent.getTenant(), controllerId,
+                                targetAddress)));
     }
 
     protected void sendPingReponseToDmfReceiver(final Message ping, final String tenant, final String virtualHost) {
@@ -289,7 +349,8 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         actionRequest.setActionId(actionId);
 
         final Message message = getMessageConverter().toMessage(actionRequest,
-                createConnectorMessagePropertiesEvent(tenant, controllerId, EventTopic.CANCEL_DOWNLOAD));
+                createConnectorMessagePropertiesEvent(tenant, controllerId, EventTopic.CANCEL_DOWNLOAD,
+                        contentTypeResolver.resolve(address)));
 
         amqpSenderService.sendMessage(message, address);
 
@@ -313,16 +374,8 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
      */
     protected DmfConfirmRequest createConfirmRequest(final Target target, final Long actionId, final Map<SoftwareModule,
             List<SoftwareModuleMetadata>> softwareModules) {
-        final DmfConfirmRequest request = new DmfConfirmRequest();
-        request.setActionId(actionId);
-        request.setTargetSecurityToken(systemSecurityContext.runAsSystem(target::getSecurityToken));
-
-        //Software modules can be filtered in the future exposing only the needed.
-        if (softwareModules != null) {
-            softwareModules.entrySet()
-                    .forEach(entry -> request.addSoftwareModule(convertToAmqpSoftwareModule(target, entry)));
-        }
-        return request;
+        return createConfirmRequest(systemSecurityContext.runAsSystem(target::getSecurityToken), actionId,
+                createSoftwareModules(templateCache.createTemplate(softwareModules), target));
     }
 
     private static DmfActionRequest createPlainActionRequest(final Action action) {
@@ -393,8 +446,9 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
     }
 
     private static MessageProperties createConnectorMessagePropertiesEvent(final String tenant,
-            final String controllerId, final EventTopic topic) {
-        final MessageProperties messageProperties = createConnectorMessageProperties(tenant, controllerId);
+            final String controllerId, final EventTopic topic, final String contentType) {
+        final MessageProperties messageProperties = createConnectorMessageProperties(tenant, controllerId,
+                contentType);
         messageProperties.setHeader(MessageHeaderKey.TOPIC, topic);
         messageProperties.setHeader(MessageHeaderKey.TYPE, MessageType.EVENT);
         return messageProperties;
@@ -402,24 +456,29 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
 
     private static MessageProperties createConnectorMessagePropertiesDeleteThing(final String tenant,
             final String controllerId) {
-        final MessageProperties messageProperties = createConnectorMessageProperties(tenant, controllerId);
+        final MessageProperties messageProperties = createConnectorMessageProperties(tenant, controllerId,
+                MessageProperties.CONTENT_TYPE_JSON);
         messageProperties.setHeader(MessageHeaderKey.TYPE, MessageType.THING_DELETED);
         return messageProperties;
     }
 
-    private static MessageProperties createConnectorMessageProperties(final String tenant, final String controllerId) {
+    private static MessageProperties createConnectorMessageProperties(final String tenant, final String controllerId,
+            final String contentType) {
         final MessageProperties messageProperties = new MessageProperties();
-        messageProperties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
-        messageProperties.setHeader(MessageHeaderKey.CONTENT_TYPE, MessageProperties.CONTENT_TYPE_JSON);
+        // allows the devices to measure the latency from the dispatching
+        messageProperties.setTimestamp(new Date());
+        messageProperties.setContentType(contentType);
+        messageProperties.setHeader(MessageHeaderKey.CONTENT_TYPE, contentType);
         messageProperties.setHeader(MessageHeaderKey.THING_ID, controllerId);
         messageProperties.setHeader(MessageHeaderKey.TENANT, tenant);
         return messageProperties;
     }
 
-    private static MessageProperties createMessagePropertiesBatch(final String tenant, final EventTopic topic) {
+    private static MessageProperties createMessagePropertiesBatch(final String tenant, final EventTopic topic,
+            final String contentType) {
         final MessageProperties messageProperties = new MessageProperties();
-        messageProperties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
-        messageProperties.setHeader(MessageHeaderKey.CONTENT_TYPE, MessageProperties.CONTENT_TYPE_JSON);
+        messageProperties.setContentType(contentType);
+        messageProperties.setHeader(MessageHeaderKey.CONTENT_TYPE, contentType);
         messageProperties.setHeader(MessageHeaderKey.TENANT, tenant);
 
         messageProperties.setHeader(MessageHeaderKey.TOPIC, topic);
@@ -433,7 +492,34 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
                 : EventTopic.BATCH_DOWNLOAD_AND_INSTALL;
     }
 
-    private List<Target> getTargetsWithoutPendingCancellations(final Set<String> controllerIds) {
+    private void dispatch(final String tenant, final Priority priority, final Runnable task) {
+        if (dispatchExecutor == null) {
+            task.run();
+        } else {
+            dispatchExecutor.execute(tenant, priority, task);
+        }
+    }
+
+    // the executor runs the task per partition of the targets, so the tasks of other tenants are run between them
+    private void dispatch(final String tenant, final Priority priority, final MergeKey mergeKey,
+            final Collection<String> controllerIds, final Consumer<List<String>> task) {
+        if (dispatchExecutor == null) {
+            task.accept(new ArrayList<>(controllerIds));
+        } else {
+            dispatchExecutor.execute(tenant, priority, mergeKey, controllerIds, task);
+        }
+    }
+
+    private <T> void dispatch(final String tenant, final Priority priority, final MergeKey mergeKey,
+            final Map<String, T> payloads, final Consumer<Map<String, T>> task) {
+        if (dispatchExecutor == null) {
+            task.accept(payloads);
+        } else {
+            dispatchExecutor.execute(tenant, priority, mergeKey, payloads, task);
+        }
+    }
+
+    private List<Target> getTargetsWithoutPendingCancellations(final Collection<String> controllerIds) {
         return partitionedParallelExecution(controllerIds, partition -> {
             return targetManagement.getByControllerID(partition).stream().filter(target -> {
                 if (hasPendingCancellations(target.getId())) {
@@ -446,61 +532,105 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         });
     }
 
-    private void sendUpdateMessageToTargets(final Long dsId, final Map<String, ActionProperties> actionsPropsByTargetId,
-            final List<Target> targets) {
-        distributionSetManagement.get(dsId).ifPresent(ds -> {
-            final Map<SoftwareModule, List<SoftwareModuleMetadata>> softwareModules = getSoftwareModulesWithMetadata(
-                    ds);
-            sendUpdateMessageToTargets(actionsPropsByTargetId, targets, softwareModules);
-        });
+    private void sendUpdateMessageToTargets(final String tenant, final Long dsId,
+            final Map<String, ActionProperties> actionsPropsByTargetId, final List<Target> targets) {
+        final Template template = templateCache.getTemplate(tenant, dsId,
+                () -> distributionSetManagement.get(dsId).map(this::getSoftwareModulesWithMetadata).orElse(null));
+        if (template != null) {
+            sendUpdateMessageToTargets(actionsPropsByTargetId, targets, template);
+        }
     }
 
     private void sendUpdateMessageToTargets(final Map<String, ActionProperties> actionsPropsByTargetId,
-            final List<Target> targets, final Map<SoftwareModule, List<SoftwareModuleMetadata>> softwareModules) {
+            final List<Target> targets, final Template template) {
 
         if (!targets.isEmpty() && isBatchAssignmentsEnabled()) {
-            sendBatchUpdateMessage(actionsPropsByTargetId, targets, softwareModules);
+            sendBatchUpdateMessage(actionsPropsByTargetId, targets, template);
         } else {
             targets.forEach(target -> {
                 final ActionProperties actionProp = actionsPropsByTargetId.get(target.getControllerId());
-                sendSingleUpdateMessage(actionProp, target, softwareModules);
+                sendSingleUpdateMessage(actionProp, target, template);
             });
         }
     }
 
+    // sends the multi action requests to the targets with a constant number of queries instead of several per target
     private void sendMultiActionRequestMessages(final String tenant, final List<String> controllerIds) {
+        final List<Target> targets = targetManagement.getByControllerID(controllerIds).stream()
+                .filter(target -> IpUtil.isAmqpUri(target.getAddress())).toList();
+        if (targets.isEmpty()) {
+            return;
+        }
 
-        final Map<SoftwareModule, List<SoftwareModuleMetadata>> softwareModuleMetadata = new HashMap<>();
-        targetManagement.getByControllerID(controllerIds).stream()
-                .filter(target -> IpUtil.isAmqpUri(target.getAddress())).forEach(target -> {
-
-                    final List<Action> activeActions = deploymentManagement
-                            .findActiveActionsWithHighestWeight(target.getControllerId(), MAX_ACTION_COUNT);
-
-                    activeActions.forEach(action -> action.getDistributionSet().getModules().forEach(
-                            module -> softwareModuleMetadata.computeIfAbsent(module, this::getSoftwareModuleMetadata)));
-
-                    if (!activeActions.isEmpty()) {
-                        sendMultiActionRequestToTarget(tenant, target, activeActions,
-                                action -> action.getDistributionSet().getModules().stream()
-                                        .collect(Collectors.toMap(m -> m, softwareModuleMetadata::get)));
-                    }
-                });
+        final Map<String, List<Action>> activeActions = deploymentManagement.findActiveActionsWithHighestWeight(
+                targets.stream().map(Target::getControllerId).toList(), MAX_ACTION_COUNT);
+        final Map<String, String> securityTokens = systemSecurityContext.runAsSystem(() -> {
+            final Map<String, String> tokens = new HashMap<>();
+            targets.forEach(target -> tokens.put(target.getControllerId(), target.getSecurityToken()));
+            return tokens;
+        });
+        // the templates are looked up once per distribution set and loaded only if not cached
+        final Map<Long, Template> templates = new HashMap<>();
+
+        targets.forEach(target -> {
+            final List<Action> actions = activeActions.get(target.getControllerId());
+            if (CollectionUtils.isEmpty(actions)) {
+                return;
+            }
+
+            final DmfMultiActionRequest multiActionRequest = new DmfMultiActionRequest();
+            actions.forEach(action -> {
+                final DistributionSet distributionSet = action.getDistributionSet();
+                multiActionRequest.addElement(getEventTypeForAction(action),
+                        createDmfActionRequest(securityTokens.get(target.getControllerId()), action,
+                                () -> createSoftwareModules(templates.computeIfAbsent(distributionSet.getId(),
+                                        dsId -> templateCache.getTemplate(tenant, dsId,
+                                                () -> getSoftwareModulesWithMetadata(distributionSet))), target)),
+                        deploymentManagement.getWeightConsideringDefault(action));
+            });
 
+            final Message message = getMessageConverter().toMessage(multiActionRequest,
+                    createConnectorMessagePropertiesEvent(tenant, target.getControllerId(), EventTopic.MULTI_ACTION,
+                            contentTypeResolver.resolve(target.getAddress())));
+            amqpSenderService.sendMessage(message, target.getAddress());
+        });
     }
 
-    private DmfActionRequest createDmfActionRequest(final Target target, final Action action,
-            final Map<SoftwareModule, List<SoftwareModuleMetadata>> softwareModules) {
+    private DmfActionRequest createDmfActionRequest(final String securityToken, final Action action,
+            final Supplier<List<DmfSoftwareModule>> softwareModules) {
         if (action.isCancelingOrCanceled()) {
             return createPlainActionRequest(action);
         } else if (action.isWaitingConfirmation()) {
-            return createConfirmRequest(target, action.getId(), softwareModules);
+            return createConfirmRequest(securityToken, action.getId(), softwareModules.get());
         }
-        return createDownloadAndUpdateRequest(target, action.getId(), softwareModules);
+        return createDownloadAndUpdateRequest(securityToken, action.getId(), softwareModules.get());
+    }
+
+    private static DmfDownloadAndUpdateRequest createDownloadAndUpdateRequest(final String securityToken,
+            final Long actionId, final List<DmfSoftwareModule> softwareModules) {
+        final DmfDownloadAndUpdateRequest request = new DmfDownloadAndUpdateRequest();
+        request.setActionId(actionId);
+        request.setTargetSecurityToken(securityToken);
+        softwareModules.forEach(request::addSoftwareModule);
+        return request;
+    }
+
+    private static DmfConfirmRequest createConfirmRequest(final String securityToken, final Long actionId,
+            final List<DmfSoftwareModule> softwareModules) {
+        final DmfConfirmRequest request = new DmfConfirmRequest();
+        request.setActionId(actionId);
+        request.setTargetSecurityToken(securityToken);
+        //Software modules can be filtered in the future exposing only the needed.
+        softwareModules.forEach(request::addSoftwareModule);
+        return request;
+    }
+
+    private static List<DmfSoftwareModule> createSoftwareModules(final Template template, final Target target) {
+        return template == null ? Collections.emptyList() : template.createSoftwareModules(target);
     }
 
     private void sendSingleUpdateMessage(final ActionProperties action, final Target target,
-            final Map<SoftwareModule, List<SoftwareModuleMetadata>> modules) {
+            final Template template) {
 
         final String tenant = action.getTenant();
 
@@ -513,13 +643,16 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         if (action.isWaitingConfirmation()) {
             // For the moment the confirmation request is the same as download and update request.
             // It can be modified not to expose all the software modules in the future.
-            request = createConfirmRequest(target, action.getId(), modules);
+            request = createConfirmRequest(systemSecurityContext.runAsSystem(target::getSecurityToken),
+                    action.getId(), createSoftwareModules(template, target));
         } else {
-            request = createDownloadAndUpdateRequest(target, action.getId(), modules);
+            request = createDownloadAndUpdateRequest(systemSecurityContext.runAsSystem(target::getSecurityToken),
+                    action.getId(), createSoftwareModules(template, target));
         }
 
         final Message message = getMessageConverter().toMessage(request,
-                createConnectorMessagePropertiesEvent(tenant, target.getControllerId(), getEventTypeForTarget(action)));
+                createConnectorMessagePropertiesEvent(tenant, target.getControllerId(), getEventTypeForTarget(action),
+                        contentTypeResolver.resolve(targetAddress)));
         amqpSenderService.sendMessage(message, targetAddress);
     }
 
@@ -552,59 +685,12 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         }
 
         final Message message = new Message("".getBytes(),
-                createConnectorMessagePropertiesEvent(tenant, controllerId, EventTopic.REQUEST_ATTRIBUTES_UPDATE));
+                createConnectorMessagePropertiesEvent(tenant, controllerId, EventTopic.REQUEST_ATTRIBUTES_UPDATE,
+                        MessageProperties.CONTENT_TYPE_JSON));
 
         amqpSenderService.sendMessage(message, URI.create(targetAddress));
     }
 
-    private DmfSoftwareModule convertToAmqpSoftwareModule(final Target target,
-            final Entry<SoftwareModule, List<SoftwareModuleMetadata>> entry) {
-        final DmfSoftwareModule amqpSoftwareModule = new DmfSoftwareModule();
-        amqpSoftwareModule.setModuleId(entry.getKey().getId());
-        amqpSoftwareModule.setModuleType(entry.getKey().getType().getKey());
-        amqpSoftwareModule.setModuleVersion(entry.getKey().getVersion());
-        amqpSoftwareModule.setEncrypted(entry.getKey().isEncrypted() ? Boolean.TRUE : null);
-        amqpSoftwareModule.setArtifacts(convertArtifacts(target, entry.getKey().getArtifacts()));
-
-        if (!CollectionUtils.isEmpty(entry.getValue())) {
-            amqpSoftwareModule.setMetadata(convertMetadata(entry.getValue()));
-        }
-
-        return amqpSoftwareModule;
-    }
-
-    private List<DmfMetadata> convertMetadata(final List<SoftwareModuleMetadata> metadata) {
-        return metadata.stream().map(md -> new DmfMetadata(md.getKey(), md.getValue())).collect(Collectors.toList());
-    }
-
-    private List<DmfArtifact> convertArtifacts(final Target target, final List<Artifact> localArtifacts) {
-        if (localArtifacts.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        return localArtifacts.stream().map(localArtifact -> convertArtifact(target, localArtifact))
-                .collect(Collectors.toList());
-    }
-
-    private DmfArtifact convertArtifact(final Target target, final Artifact localArtifact) {
-        final DmfArtifact artifact = new DmfArtifact();
-
-        final TenantMetaData metaData = systemManagement.getTenantMetadata();
-        artifact.setUrls(artifactUrlHandler
-                .getUrls(new URLPlaceholder(metaData.getTenant(),
-                                metaData.getId(), target.getControllerId(), target.getId(),
-                                new SoftwareData(localArtifact.getSoftwareModule().getId(), localArtifact.getFilename(),
-                                        localArtifact.getId(), localArtifact.getSha1Hash())),
-                        ApiType.DMF)
-                .stream().collect(Collectors.toMap(ArtifactUrl::getProtocol, ArtifactUrl::getRef)));
-
-        artifact.setFilename(localArtifact.getFilename());
-        artifact.setHashes(new DmfArtifactHash(localArtifact.getSha1Hash(), localArtifact.getMd5Hash()));
-        artifact.setSize(localArtifact.getSize());
-        artifact.setLastModified(localArtifact.getLastModifiedAt());
-        return artifact;
-    }
-
     private Map<SoftwareModule, List<SoftwareModuleMetadata>> getSoftwareModulesWithMetadata(
             final DistributionSet distributionSet) {
         return distributionSet.getModules().stream().collect(Collectors.toMap(m -> m, this::getSoftwareModuleMetadata));
@@ -616,7 +702,7 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
     }
 
     private void sendBatchUpdateMessage(final Map<String, ActionProperties> actions, final List<Target> targets,
-            final Map<SoftwareModule, List<SoftwareModuleMetadata>> modules) {
+            final Template template) {
 
         final List<DmfTarget> dmfTargets = targets.stream().filter(target -> IpUtil.isAmqpUri(target.getAddress()))
                 .map(t -> convertToDmfTarget(t, actions.get(t.getControllerId()).getId())).collect(Collectors.toList());
@@ -629,17 +715,18 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         // software modules we don't generate
         // target-specific urls
         final Target firstTarget = targets.get(0);
-        if (modules != null) {
-            modules.entrySet()
-                    .forEach(entry -> batchRequest.addSoftwareModule(convertToAmqpSoftwareModule(firstTarget, entry)));
-        }
+        createSoftwareModules(template, firstTarget).forEach(batchRequest::addSoftwareModule);
 
         // we use only the first action when constructing message as Tenant and
         // action type are the same
         // since all actions have the same trigger
         final ActionProperties firstAction = actions.values().iterator().next();
         final Message message = getMessageConverter().toMessage(batchRequest,
-                createMessagePropertiesBatch(firstAction.getTenant(), getBatchEventTopicForAction(firstAction)));
+                createMessagePropertiesBatch(firstAction.getTenant(), getBatchEventTopicForAction(firstAction),
+                        contentTypeResolver.resolve(firstTarget.getAddress())));
         amqpSenderService.sendMessage(message, firstTarget.getAddress());
     }
+
+    // the key of the dispatch tasks which are interchangeable for the same tenant
+    private record MergeKey(Class<?> eventType, Long id, EventTopic topic) {}
 }
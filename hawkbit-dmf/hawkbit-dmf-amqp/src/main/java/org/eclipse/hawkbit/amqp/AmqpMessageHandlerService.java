@@ -69,6 +69,8 @@ import org.springframework.util.StringUtils;
  * {@link AmqpMessageHandlerService} handles all incoming target interaction
  * AMQP messages (e.g. create target, check for updates etc.) for the queue
  * which is configured for the property hawkbit.dmf.rabbitmq.receiverQueue.
+ * The listener is not started if the batch listener is enabled, see
+ * {@link AmqpBatchMessageHandlerService}.
  */
 @Slf4j
 public class AmqpMessageHandlerService extends BaseAmqpService {
@@ -116,7 +118,8 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
      * @param tenant the contentType of the message
      * @return a message if <null> no message is send back to sender
      */
-    @RabbitListener(queues = "${hawkbit.dmf.rabbitmq.receiverQueue:dmf_receiver}", containerFactory = "listenerContainerFactory")
+    @RabbitListener(queues = "${hawkbit.dmf.rabbitmq.receiverQueue:dmf_receiver}", containerFactory = "listenerContainerFactory",
+            autoStartup = "#{!${hawkbit.dmf.rabbitmq.batch.enabled:false}}")
     public Message onMessage(final Message message,
             @Header(name = MessageHeaderKey.TYPE, required = false) final String type,
             @Header(name = MessageHeaderKey.TENANT, required = false) final String tenant) {
@@ -150,7 +153,7 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
                     deleteTarget(message);
                     break;
                 case EVENT:
-                    checkContentTypeJson(message);
+                    checkContentTypeSupported(message);
                     setTenantSecurityContext(tenant);
                     handleIncomingEvent(message);
                     break;
@@ -183,7 +186,7 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
         SecurityContextHolder.setContext(securityContextImpl);
     }
 
-    private static void setTenantSecurityContext(final String tenantId) {
+    static void setTenantSecurityContext(final String tenantId) {
         final AnonymousAuthenticationToken authenticationToken = new AnonymousAuthenticationToken(
                 UUID.randomUUID().toString(), "AMQP-Controller",
                 Collections.singletonList(new SimpleGrantedAuthority(SpringEvalExpressions.CONTROLLER_ROLE_ANONYMOUS)));
@@ -288,12 +291,13 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
 
         try {
             final URI amqpUri = IpUtil.createAmqpUri(virtualHost, replyTo);
+            amqpMessageDispatcherService.negotiateContentType(amqpUri, message.getMessageProperties().getContentType());
             final Target target;
             if (isOptionalMessageBodyEmpty(message)) {
                 log.debug("Received \"THING_CREATED\" AMQP message for thing \"{}\" without body.", thingId);
                 target = controllerManagement.findOrRegisterTargetIfItDoesNotExist(thingId, amqpUri);
             } else {
-                checkContentTypeJson(message);
+                checkContentTypeSupported(message);
                 final DmfCreateThing thingCreateBody = convertMessage(message, DmfCreateThing.class);
                 final DmfAttributeUpdate thingAttributeUpdateBody = thingCreateBody.getAttributeUpdate();
 
@@ -316,7 +320,7 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
         }
     }
 
-    private void sendUpdateCommandToTarget(final Target target) {
+    void sendUpdateCommandToTarget(final Target target) {
         if (isMultiAssignmentsEnabled()) {
             sendCurrentActionsAsMultiActionToTarget(target);
         } else {
@@ -396,7 +400,7 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
         controllerManagement.deleteExistingTarget(thingId);
     }
 
-    private void updateAttributes(final Message message) {
+    void updateAttributes(final Message message) {
         final DmfAttributeUpdate attributeUpdate = convertMessage(message, DmfAttributeUpdate.class);
         final String thingId = getStringHeaderKey(message, MessageHeaderKey.THING_ID, THING_ID_NULL);
 
@@ -426,6 +430,21 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
      * @param message the object form the ampq message
      */
     private void updateActionStatus(final Message message) {
+        final Target target = addActionStatus(message);
+        if (target != null) {
+            sendUpdateCommandToTarget(target);
+        }
+    }
+
+    /**
+     * Adds the action status of the event to the action without sending the
+     * next update command to the target.
+     *
+     * @param message the object form the ampq message
+     * @return the target which has to be sent the next update command or
+     *         <code>null</code> if the target shall not proceed
+     */
+    Target addActionStatus(final Message message) {
         final DmfActionUpdateStatus actionUpdateStatus = convertMessage(message, DmfActionUpdateStatus.class);
         final Action action = checkActionExist(message, actionUpdateStatus);
 
@@ -459,8 +478,9 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
         }
 
         if (shouldTargetProceed(updatedAction) || actionUpdateStatus.getActionStatus() == DmfActionStatus.CONFIRMED) {
-            sendUpdateCommandToTarget(action.getTarget());
+            return action.getTarget();
         }
+        return null;
     }
 
     // Exception squid:S3655 - logAndThrowMessageError throws exception, i.e.
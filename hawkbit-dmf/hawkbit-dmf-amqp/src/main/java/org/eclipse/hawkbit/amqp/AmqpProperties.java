@@ -9,6 +9,11 @@
  */
 package org.eclipse.hawkbit.amqp;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -67,4 +72,216 @@ public class AmqpProperties {
      * Delay for messages that are requeued in milliseconds.
      */
     private long requeueDelay = DEFAULT_REQUEUE_DELAY;
+
+    /**
+     * Reply-to exchanges to which the messages are sent encoded as CBOR instead
+     * of JSON. Additionally, CBOR is negotiated by THING_CREATED messages with
+     * CBOR content type, see {@link AmqpContentTypeResolver}.
+     */
+    private Set<String> cborExchanges = new HashSet<>();
+
+    /**
+     * Batch listener for the DMF API receiving queue.
+     */
+    private final Batch batch = new Batch();
+
+    /**
+     * Sender of the DMF API messages.
+     */
+    private final Sender sender = new Sender();
+
+    /**
+     * Cache of the software modules sent with the update requests.
+     */
+    private final TemplateCache templateCache = new TemplateCache();
+
+    /**
+     * Dispatcher of the DMF API messages triggered by events.
+     */
+    private final Dispatcher dispatcher = new Dispatcher();
+
+    /**
+     * Properties of the batch listener, see {@link AmqpBatchMessageHandlerService}.
+     */
+    @Data
+    public static class Batch {
+
+        private static final int DEFAULT_SIZE = 100;
+
+        private static final long DEFAULT_RECEIVE_TIMEOUT = 100;
+
+        /**
+         * Consume the DMF API receiving queue in batches instead of message by
+         * message.
+         */
+        private boolean enabled;
+
+        /**
+         * Max number of messages consumed as one batch.
+         */
+        private int size = DEFAULT_SIZE;
+
+        /**
+         * Max time in milliseconds to wait for the messages of a batch. If it
+         * elapses a smaller batch is consumed.
+         */
+        private long receiveTimeout = DEFAULT_RECEIVE_TIMEOUT;
+    }
+
+    /**
+     * Properties of the sender, see {@link PipelinedAmqpMessageSenderService}.
+     */
+    @Data
+    public static class Sender {
+
+        private static final int DEFAULT_WORKERS = 4;
+
+        private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+        private static final int DEFAULT_MAX_IN_FLIGHT = 1_000;
+
+        private static final int DEFAULT_MAX_RETRIES = 3;
+
+        private static final long DEFAULT_RETRY_BACKOFF = 100;
+
+        private static final long DEFAULT_MAX_RETRY_BACKOFF = 10_000;
+
+        private static final long DEFAULT_SHUTDOWN_TIMEOUT = 10_000;
+
+        /**
+         * Send the messages asynchronously by parallel workers instead of
+         * synchronously by the calling thread.
+         */
+        private boolean pipelined;
+
+        /**
+         * Number of workers, each one sending on its own channel.
+         */
+        private int workers = DEFAULT_WORKERS;
+
+        /**
+         * Max number of queued messages, including the ones held until the
+         * previous message of the same thing is confirmed, split between the
+         * workers. If reached, sending blocks until a message is sent.
+         */
+        private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+        /**
+         * Max number of sent messages waiting for a publisher confirm. If
+         * reached, the workers block until a message is confirmed.
+         */
+        private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+
+        /**
+         * Max number of retries of a message which is nacked by the broker.
+         */
+        private int maxRetries = DEFAULT_MAX_RETRIES;
+
+        /**
+         * Time in milliseconds to wait before the first retry of a nacked
+         * message. It is doubled with every further retry.
+         */
+        private long retryBackoff = DEFAULT_RETRY_BACKOFF;
+
+        /**
+         * Max time in milliseconds to wait before a retry of a nacked message.
+         */
+        private long maxRetryBackoff = DEFAULT_MAX_RETRY_BACKOFF;
+
+        /**
+         * Max time in milliseconds to wait on shut down for the queued
+         * messages to be sent and confirmed.
+         */
+        private long shutdownTimeout = DEFAULT_SHUTDOWN_TIMEOUT;
+    }
+
+    /**
+     * Properties of the software module template cache, see
+     * {@link DmfPayloadTemplateCache}.
+     */
+    @Data
+    public static class TemplateCache {
+
+        private static final long DEFAULT_MAX_SIZE = 1_000;
+
+        private static final long DEFAULT_TTL = 600_000;
+
+        /**
+         * Cache the software modules of the update requests per distribution
+         * set instead of creating them per target.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Max number of cached distribution sets.
+         */
+        private long maxSize = DEFAULT_MAX_SIZE;
+
+        /**
+         * Time in milliseconds after which a cached distribution set expires,
+         * even if no update event is received.
+         */
+        private long ttl = DEFAULT_TTL;
+    }
+
+    /**
+     * Properties of the tenant fair dispatcher, see
+     * {@link TenantFairDispatchExecutor}.
+     */
+    @Data
+    public static class Dispatcher {
+
+        private static final int DEFAULT_THREADS = 4;
+
+        private static final int DEFAULT_MAX_QUEUED_PER_TENANT = 1_000;
+
+        private static final int DEFAULT_PARTITION_SIZE = 1_000;
+
+        private static final int DEFAULT_WEIGHT = 1;
+
+        private static final long DEFAULT_SHUTDOWN_TIMEOUT = 10_000;
+
+        /**
+         * Dispatch the messages triggered by events, e.g. assignments and
+         * cancellations, by a dedicated executor which is shared fairly
+         * between the tenants instead of by the event executor.
+         */
+        private boolean tenantFair;
+
+        /**
+         * Number of dispatcher threads.
+         */
+        private int threads = DEFAULT_THREADS;
+
+        /**
+         * Max number of queued normal priority dispatch tasks per tenant, a
+         * task being e.g. the messages of the targets of an assignment. The
+         * tasks of the same kind, e.g. the assignments of the same
+         * distribution set, are merged while queued. If reached, the tasks of
+         * a further kind are deferred until a queued task is done.
+         */
+        private int maxQueuedPerTenant = DEFAULT_MAX_QUEUED_PER_TENANT;
+
+        /**
+         * Max number of targets whose messages are sent by a dispatcher
+         * thread before the tasks of the other tenants are run.
+         */
+        private int partitionSize = DEFAULT_PARTITION_SIZE;
+
+        /**
+         * Number of tasks a tenant runs per round if it has no own weight.
+         */
+        private int defaultWeight = DEFAULT_WEIGHT;
+
+        /**
+         * Number of tasks a tenant runs per round by tenant.
+         */
+        private Map<String, Integer> weights = new HashMap<>();
+
+        /**
+         * Max time in milliseconds to wait on shut down for the queued tasks
+         * to be run.
+         */
+        private long shutdownTimeout = DEFAULT_SHUTDOWN_TIMEOUT;
+    }
 }
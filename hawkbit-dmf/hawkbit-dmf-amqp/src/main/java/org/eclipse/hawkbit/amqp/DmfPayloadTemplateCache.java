@@ -0,0 +1,293 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.hawkbit.artifact.repository.urlhandler.ApiType;
+import org.eclipse.hawkbit.artifact.repository.urlhandler.ArtifactUrl;
+import org.eclipse.hawkbit.artifact.repository.urlhandler.ArtifactUrlHandler;
+import org.eclipse.hawkbit.artifact.repository.urlhandler.URLPlaceholder;
+import org.eclipse.hawkbit.artifact.repository.urlhandler.URLPlaceholder.SoftwareData;
+import org.eclipse.hawkbit.dmf.json.model.DmfArtifact;
+import org.eclipse.hawkbit.dmf.json.model.DmfArtifactHash;
+import org.eclipse.hawkbit.dmf.json.model.DmfMetadata;
+import org.eclipse.hawkbit.dmf.json.model.DmfSoftwareModule;
+import org.eclipse.hawkbit.repository.SystemManagement;
+import org.eclipse.hawkbit.repository.event.remote.DistributionSetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.SoftwareModuleDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.DistributionSetUpdatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.SoftwareModuleUpdatedEvent;
+import org.eclipse.hawkbit.repository.model.Artifact;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.eclipse.hawkbit.repository.model.SoftwareModuleMetadata;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TenantMetaData;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Cache of the software modules sent with the DMF update requests of a
+ * distribution set. The modules, artifacts, hashes and target visible metadata
+ * are the same for all targets, only the artifact URLs may contain the
+ * controller id. So a {@link Template} of the modules is kept per tenant,
+ * distribution set and API type, with a placeholder for the controller id in
+ * the URLs, and the modules of a target are created by replacing the
+ * placeholder.
+ * <p/>
+ * Whether the controller id is the only target specific part of a URL is
+ * detected by generating it for two different controller and target ids. If
+ * the URL contains the target id or an encoded controller id, the
+ * {@link ArtifactUrlHandler} is asked per target for the URLs of that
+ * artifact.
+ * <p/>
+ * The templates are invalidated by the distribution set and software module
+ * updated and deleted events. Adding or removing artifacts and metadata
+ * touches the software module, so it is covered by the software module
+ * updated event. As safety net for missed remote events the templates expire
+ * after {@link AmqpProperties.TemplateCache#getTtl()} milliseconds.
+ */
+@Slf4j
+public class DmfPayloadTemplateCache {
+
+    // alphanumeric, so it is kept as it is by a handler which encodes the controller id
+    private static final String CONTROLLER_ID_PLACEHOLDER = "hawkbitControllerIdPlaceholder";
+    private static final long TARGET_ID_PLACEHOLDER = Long.MAX_VALUE - 1;
+    // changed by a handler which encodes the controller id
+    private static final String CONTROLLER_ID_PROBE = "hawkbit controller/id probe";
+    private static final long TARGET_ID_PROBE = Long.MAX_VALUE - 2;
+
+    private final ArtifactUrlHandler artifactUrlHandler;
+    private final SystemManagement systemManagement;
+    // null if the cache is disabled
+    private final Cache<TemplateKey, Template> templates;
+
+    /**
+     * Constructor of a cache which doesn't cache the templates, so they are
+     * created per request.
+     *
+     * @param artifactUrlHandler for generating download URLs
+     * @param systemManagement to get the tenant metadata
+     */
+    public DmfPayloadTemplateCache(final ArtifactUrlHandler artifactUrlHandler,
+            final SystemManagement systemManagement) {
+        this.artifactUrlHandler = artifactUrlHandler;
+        this.systemManagement = systemManagement;
+        templates = null;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param artifactUrlHandler for generating download URLs
+     * @param systemManagement to get the tenant metadata
+     * @param properties of the cache
+     */
+    public DmfPayloadTemplateCache(final ArtifactUrlHandler artifactUrlHandler,
+            final SystemManagement systemManagement, final AmqpProperties.TemplateCache properties) {
+        this.artifactUrlHandler = artifactUrlHandler;
+        this.systemManagement = systemManagement;
+        templates = properties.isEnabled() ? Caffeine.newBuilder().maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl(), TimeUnit.MILLISECONDS).build() : null;
+    }
+
+    /**
+     * Returns the cached template of a distribution set or creates it.
+     *
+     * @param tenant the tenant of the distribution set
+     * @param distributionSetId the id of the distribution set
+     * @param softwareModules loads the software modules of the distribution set
+     *         with their target visible metadata, if the template is not
+     *         cached. May return <code>null</code> if the distribution set
+     *         doesn't exist (anymore).
+     * @return the template or <code>null</code> if the distribution set doesn't
+     *         exist
+     */
+    public Template getTemplate(final String tenant, final long distributionSetId,
+            final Supplier<Map<SoftwareModule, List<SoftwareModuleMetadata>>> softwareModules) {
+        if (templates == null) {
+            return createTemplate(softwareModules.get());
+        }
+        return templates.get(new TemplateKey(tenant.toUpperCase(), distributionSetId, ApiType.DMF),
+                key -> createTemplate(softwareModules.get()));
+    }
+
+    /**
+     * Creates a template which is not cached, e.g. for software modules which
+     * are not loaded by distribution set.
+     *
+     * @param softwareModules the software modules with their target visible
+     *         metadata
+     * @return the template or <code>null</code> if the software modules are
+     *         <code>null</code>
+     */
+    public Template createTemplate(final Map<SoftwareModule, List<SoftwareModuleMetadata>> softwareModules) {
+        if (softwareModules == null) {
+            return null;
+        }
+        final TenantMetaData tenantMetaData = systemManagement.getTenantMetadata();
+        return new Template(tenantMetaData.getTenant(), tenantMetaData.getId(),
+                softwareModules.entrySet().stream()
+                        .map(entry -> createModuleTemplate(tenantMetaData, entry.getKey(), entry.getValue()))
+                        .toList());
+    }
+
+    @EventListener(classes = DistributionSetUpdatedEvent.class)
+    public void invalidateOnDistributionSetUpdate(final DistributionSetUpdatedEvent event) {
+        invalidateDistributionSet(event.getTenant(), event.getEntityId());
+    }
+
+    @EventListener(classes = DistributionSetDeletedEvent.class)
+    public void invalidateOnDistributionSetDelete(final DistributionSetDeletedEvent event) {
+        invalidateDistributionSet(event.getTenant(), event.getEntityId());
+    }
+
+    @EventListener(classes = SoftwareModuleUpdatedEvent.class)
+    public void invalidateOnSoftwareModuleUpdate(final SoftwareModuleUpdatedEvent event) {
+        invalidateSoftwareModule(event.getTenant(), event.getEntityId());
+    }
+
+    @EventListener(classes = SoftwareModuleDeletedEvent.class)
+    public void invalidateOnSoftwareModuleDelete(final SoftwareModuleDeletedEvent event) {
+        invalidateSoftwareModule(event.getTenant(), event.getEntityId());
+    }
+
+    /**
+     * @return the number of cached templates
+     */
+    public long size() {
+        return templates == null ? 0 : templates.estimatedSize();
+    }
+
+    private void invalidateDistributionSet(final String tenant, final Long distributionSetId) {
+        if (templates != null && tenant != null && distributionSetId != null) {
+            templates.invalidate(new TemplateKey(tenant.toUpperCase(), distributionSetId, ApiType.DMF));
+        }
+    }
+
+    private void invalidateSoftwareModule(final String tenant, final Long softwareModuleId) {
+        if (templates != null && tenant != null) {
+            templates.asMap().entrySet().removeIf(entry -> entry.getKey().tenant().equals(tenant.toUpperCase())
+                    && entry.getValue().softwareModuleIds.contains(softwareModuleId));
+        }
+    }
+
+    private ModuleTemplate createModuleTemplate(final TenantMetaData tenantMetaData,
+            final SoftwareModule softwareModule, final List<SoftwareModuleMetadata> metadata) {
+        return new ModuleTemplate(softwareModule.getId(), softwareModule.getType().getKey(),
+                softwareModule.getVersion(), softwareModule.isEncrypted() ? Boolean.TRUE : null,
+                softwareModule.getArtifacts().stream()
+                        .map(artifact -> createArtifactTemplate(tenantMetaData, artifact)).toList(),
+                metadata == null ? Collections.emptyList()
+                        : metadata.stream().map(md -> new DmfMetadata(md.getKey(), md.getValue())).toList());
+    }
+
+    private ArtifactTemplate createArtifactTemplate(final TenantMetaData tenantMetaData, final Artifact artifact) {
+        final SoftwareData softwareData = new SoftwareData(artifact.getSoftwareModule().getId(),
+                artifact.getFilename(), artifact.getId(), artifact.getSha1Hash());
+        final Map<String, String> urls = getUrls(tenantMetaData.getTenant(), tenantMetaData.getId(),
+                CONTROLLER_ID_PLACEHOLDER, TARGET_ID_PLACEHOLDER, softwareData);
+        final Map<String, String> probeUrls = getUrls(tenantMetaData.getTenant(), tenantMetaData.getId(),
+                CONTROLLER_ID_PROBE, TARGET_ID_PROBE, softwareData);
+        final boolean targetIndependent = urls.keySet().equals(probeUrls.keySet()) && urls.entrySet().stream()
+                .allMatch(url -> url.getValue().replace(CONTROLLER_ID_PLACEHOLDER, CONTROLLER_ID_PROBE)
+                        .equals(probeUrls.get(url.getKey())));
+        if (!targetIndependent) {
+            log.debug("URLs of artifact {} depend on more than the controller id, they are generated per target",
+                    artifact.getId());
+        }
+        return new ArtifactTemplate(artifact.getFilename(),
+                new DmfArtifactHash(artifact.getSha1Hash(), artifact.getMd5Hash()), artifact.getSize(),
+                artifact.getLastModifiedAt(), softwareData, targetIndependent ? urls : null);
+    }
+
+    private Map<String, String> getUrls(final String tenant, final Long tenantId, final String controllerId,
+            final Long targetId, final SoftwareData softwareData) {
+        return artifactUrlHandler
+                .getUrls(new URLPlaceholder(tenant, tenantId, controllerId, targetId, softwareData), ApiType.DMF)
+                .stream().collect(Collectors.toMap(ArtifactUrl::getProtocol, ArtifactUrl::getRef));
+    }
+
+    /**
+     * The software modules of a distribution set with placeholders for the
+     * target specific parts.
+     */
+    public final class Template {
+
+        private final String tenant;
+        private final Long tenantId;
+        private final List<ModuleTemplate> modules;
+        private final Set<Long> softwareModuleIds;
+
+        private Template(final String tenant, final Long tenantId, final List<ModuleTemplate> modules) {
+            this.tenant = tenant;
+            this.tenantId = tenantId;
+            this.modules = modules;
+            softwareModuleIds = modules.stream().map(ModuleTemplate::id).collect(Collectors.toUnmodifiableSet());
+        }
+
+        /**
+         * Creates the software modules sent to a target.
+         *
+         * @param target the target
+         * @return the software modules with the artifact URLs of the target
+         */
+        public List<DmfSoftwareModule> createSoftwareModules(final Target target) {
+            return modules.stream().map(module -> createSoftwareModule(module, target)).toList();
+        }
+
+        private DmfSoftwareModule createSoftwareModule(final ModuleTemplate module, final Target target) {
+            final DmfSoftwareModule softwareModule = new DmfSoftwareModule();
+            softwareModule.setModuleId(module.id());
+            softwareModule.setModuleType(module.type());
+            softwareModule.setModuleVersion(module.version());
+            softwareModule.setEncrypted(module.encrypted());
+            softwareModule.setArtifacts(
+                    module.artifacts().stream().map(artifact -> createArtifact(artifact, target)).toList());
+            softwareModule.setMetadata(module.metadata());
+            return softwareModule;
+        }
+
+        private DmfArtifact createArtifact(final ArtifactTemplate template, final Target target) {
+            final DmfArtifact artifact = new DmfArtifact();
+            artifact.setFilename(template.filename());
+            artifact.setHashes(template.hashes());
+            artifact.setSize(template.size());
+            artifact.setLastModified(template.lastModified());
+            if (template.urls() == null) {
+                artifact.setUrls(getUrls(tenant, tenantId, target.getControllerId(), target.getId(),
+                        template.softwareData()));
+            } else {
+                artifact.setUrls(template.urls().entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey,
+                        url -> url.getValue().replace(CONTROLLER_ID_PLACEHOLDER,
+                                Objects.toString(target.getControllerId(), "")))));
+            }
+            return artifact;
+        }
+    }
+
+    private record TemplateKey(String tenant, long distributionSetId, ApiType apiType) {}
+
+    private record ModuleTemplate(Long id, String type, String version, Boolean encrypted,
+            List<ArtifactTemplate> artifacts, List<DmfMetadata> metadata) {}
+
+    // urls is null if they have to be generated per target
+    private record ArtifactTemplate(String filename, DmfArtifactHash hashes, long size, long lastModified,
+            SoftwareData softwareData, Map<String, String> urls) {}
+}
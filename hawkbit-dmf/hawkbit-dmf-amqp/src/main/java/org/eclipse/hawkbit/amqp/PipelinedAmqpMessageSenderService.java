@@ -0,0 +1,432 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.eclipse.hawkbit.util.IpUtil;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+/**
+ * A sender service which sends the amqp messages asynchronously. The messages
+ * are queued by {@link AmqpProperties.Sender#getWorkers()} workers, which send
+ * them in parallel, each one on its own channel. The messages of a thing are
+ * always sent by the same worker, one at a time: a message is held until the
+ * previous message of the same thing is confirmed, so the messages of a thing
+ * are delivered in order even if one of them is nacked and resent. If the
+ * queued and held messages of a worker or the messages waiting for a
+ * publisher confirm reach their limit, {@link #sendMessage(Message, URI)}
+ * blocks, so the producers are slowed down instead of messages being dropped.
+ * <p/>
+ * If the publisher confirms are enabled (spring.rabbitmq.publisher-confirm-type=correlated)
+ * the confirms are tracked asynchronously and nacked messages are resent up to
+ * {@link AmqpProperties.Sender#getMaxRetries()} times with exponential backoff,
+ * starting with {@link AmqpProperties.Sender#getRetryBackoff()}. Messages
+ * which are still nacked then are sent to the dead letter exchange, with the
+ * original exchange and the nack reason as {@value #ORIGINAL_EXCHANGE_HEADER}
+ * and {@value #NACK_REASON_HEADER} headers. Without publisher confirms a
+ * message is considered confirmed when it is sent.
+ * <p/>
+ * Every message is observed as {@value #OBSERVATION_NAME} {@link Observation}
+ * from being queued until it is confirmed or dead lettered, with the outcome
+ * as low cardinality key value. So, if a meter handler is registered with the
+ * {@link ObservationRegistry}, the latency and the number of confirmed and
+ * dead lettered messages are recorded. Additionally {@link #getStatistics()}
+ * provides the queued, in flight, confirmed, nacked, retried and dead lettered
+ * counts and the latency.
+ */
+@Slf4j
+public class PipelinedAmqpMessageSenderService extends DefaultAmqpMessageSenderService {
+
+    public static final String OBSERVATION_NAME = "hawkbit.dmf.send";
+
+    /**
+     * Header of a dead lettered message with the exchange it was sent to.
+     */
+    public static final String ORIGINAL_EXCHANGE_HEADER = "x-original-exchange";
+
+    /**
+     * Header of a dead lettered message with the reason of its last nack.
+     */
+    public static final String NACK_REASON_HEADER = "x-nack-reason";
+
+    private static final long POLL_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // queued to wake up a worker waiting for messages if a message is confirmed
+    private static final Outgoing WAKE_UP = new Outgoing(null, null, null, null);
+
+    private final AmqpProperties.Sender properties;
+    private final String deadLetterExchange;
+    private final ObservationRegistry observationRegistry;
+    private final Semaphore inFlight;
+    private final int workerCapacity;
+    private final List<Worker> workers;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong confirmed = new AtomicLong();
+    private final AtomicLong nacked = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong latencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    /**
+     * Constructor.
+     *
+     * @param rabbitTemplate the AMQP template
+     * @param properties the sender properties
+     * @param deadLetterExchange the exchange the messages are sent to if they
+     *         are still nacked after the last retry
+     * @param observationRegistry to observe the sent messages
+     */
+    public PipelinedAmqpMessageSenderService(final RabbitTemplate rabbitTemplate,
+            final AmqpProperties.Sender properties, final String deadLetterExchange,
+            final ObservationRegistry observationRegistry) {
+        super(rabbitTemplate);
+        this.properties = properties;
+        this.deadLetterExchange = deadLetterExchange;
+        this.observationRegistry = observationRegistry;
+        inFlight = new Semaphore(properties.getMaxInFlight());
+
+        workerCapacity = Math.max(1, properties.getQueueCapacity() / properties.getWorkers());
+        workers = new ArrayList<>(properties.getWorkers());
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            final Worker worker = new Worker();
+            final Thread thread = new Thread(worker, "dmf-sender-" + i);
+            thread.setDaemon(true);
+            worker.thread = thread;
+            workers.add(worker);
+            thread.start();
+        }
+    }
+
+    @Override
+    public void sendMessage(final Message message, final URI sendTo) {
+        if (!IpUtil.isAmqpUri(sendTo)) {
+            return;
+        }
+        if (!running) {
+            log.warn("Sender is shut down, send message synchronously.");
+            super.sendMessage(message, sendTo);
+            return;
+        }
+
+        if (isCorrelationIdEmpty(message)) {
+            message.getMessageProperties().setCorrelationId(UUID.randomUUID().toString());
+        }
+        final String exchange = sendTo.getPath().substring(1);
+        final Object thingId = message.getMessageProperties().getHeaders().get(MessageHeaderKey.THING_ID);
+        final Outgoing outgoing = new Outgoing(exchange, message,
+                thingId == null ? null : new ThingKey(exchange, thingId),
+                Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                        .lowCardinalityKeyValue(KeyValue.of("exchange", exchange)).start());
+        // the messages of a thing are sent by the same worker in order
+        final Worker worker = workers.get(Math.floorMod(Objects.hash(exchange, thingId), workers.size()));
+        try {
+            worker.capacity.acquire();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outgoing.observation.error(e).stop();
+            throw new AmqpException("Interrupted while waiting to queue the message", e);
+        }
+        worker.queue.add(outgoing);
+    }
+
+    /**
+     * @return the current statistics of the sender
+     */
+    public Statistics getStatistics() {
+        final long confirmedCount = confirmed.get();
+        return new Statistics(
+                workers.stream().mapToInt(worker -> workerCapacity - worker.capacity.availablePermits()).sum(),
+                properties.getMaxInFlight() - inFlight.availablePermits(), sent.get(), confirmedCount, nacked.get(),
+                retried.get(), failed.get(), deadLettered.get(),
+                confirmedCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(latencyNanos.get() / confirmedCount),
+                TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()));
+    }
+
+    /**
+     * Stops accepting messages and waits until the queued messages are sent
+     * and confirmed, but at most {@link AmqpProperties.Sender#getShutdownTimeout()}
+     * milliseconds.
+     */
+    public void shutdown() {
+        running = false;
+        final long deadline = System.currentTimeMillis() + properties.getShutdownTimeout();
+        try {
+            for (final Worker worker : workers) {
+                worker.thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (workers.stream().anyMatch(worker -> worker.thread.isAlive())) {
+            log.warn("Shut down with unsent or unconfirmed messages: {}", getStatistics());
+            workers.forEach(worker -> worker.thread.interrupt());
+        }
+    }
+
+    private void onAck(final Outgoing outgoing) {
+        inFlight.release();
+        confirmed.incrementAndGet();
+        final long latency = System.nanoTime() - outgoing.queuedAt;
+        latencyNanos.addAndGet(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        outgoing.observation.lowCardinalityKeyValue(KeyValue.of("outcome", "ack")).stop();
+    }
+
+    private void onNack(final Outgoing outgoing, final String reason) {
+        inFlight.release();
+        nacked.incrementAndGet();
+        outgoing.nackReason = reason == null ? "unknown" : reason;
+    }
+
+    private long backoffNanos(final int attempt) {
+        // doubled per retry, the shift is capped to avoid an overflow
+        final long backoff = properties.getRetryBackoff() << Math.min(attempt - 1, 30);
+        return TimeUnit.MILLISECONDS.toNanos(Math.min(backoff, properties.getMaxRetryBackoff()));
+    }
+
+    private void deadLetter(final Outgoing outgoing) {
+        failed.incrementAndGet();
+        final MessageProperties messageProperties = outgoing.message.getMessageProperties();
+        messageProperties.setHeader(ORIGINAL_EXCHANGE_HEADER, outgoing.exchange);
+        messageProperties.setHeader(NACK_REASON_HEADER, outgoing.nackReason);
+        try {
+            getRabbitTemplate().send(deadLetterExchange, "", outgoing.message);
+            deadLettered.incrementAndGet();
+            log.error("Message with correlationId {} nacked ({}), dead lettered after {} retries",
+                    outgoing.correlationId(), outgoing.nackReason, outgoing.attempt);
+            outgoing.observation.lowCardinalityKeyValue(KeyValue.of("outcome", "dead-letter")).stop();
+        } catch (final AmqpException e) {
+            log.error("Message with correlationId {} nacked ({}) after {} retries and could not be dead lettered",
+                    outgoing.correlationId(), outgoing.nackReason, outgoing.attempt, e);
+            outgoing.observation.lowCardinalityKeyValue(KeyValue.of("outcome", "nack")).error(e).stop();
+        }
+    }
+
+    /**
+     * The statistics of the sender.
+     */
+    @Data
+    public static class Statistics {
+
+        // queued or held behind a message of the same thing, not sent yet
+        private final int queued;
+        // sent, not confirmed yet
+        private final int inFlight;
+        private final long sent;
+        private final long confirmed;
+        private final long nacked;
+        private final long retried;
+        // nacked and not retried anymore
+        private final long failed;
+        // failed and sent to the dead letter exchange
+        private final long deadLettered;
+        // from queued until confirmed
+        private final long averageLatencyMs;
+        private final long maxLatencyMs;
+    }
+
+    private record ThingKey(String exchange, Object thingId) {}
+
+    private static class Outgoing {
+
+        private final String exchange;
+        private final Message message;
+        // null if the message has no thing, then it is not ordered
+        private final ThingKey thingKey;
+        private final Observation observation;
+        private final long queuedAt = System.nanoTime();
+        private int attempt;
+        private long notBefore;
+        // set if nacked, before the message is handed back to its worker
+        private volatile String nackReason;
+
+        private Outgoing(final String exchange, final Message message, final ThingKey thingKey,
+                final Observation observation) {
+            this.exchange = exchange;
+            this.message = message;
+            this.thingKey = thingKey;
+            this.observation = observation;
+        }
+
+        private String correlationId() {
+            return message.getMessageProperties().getCorrelationId();
+        }
+    }
+
+    private class Worker implements Runnable {
+
+        // permits for the queued and held messages
+        private final Semaphore capacity = new Semaphore(workerCapacity);
+        private final BlockingQueue<Outgoing> queue = new LinkedBlockingQueue<>();
+        // nacked messages and confirmed messages of things, handed back by the connection thread
+        private final Queue<Outgoing> completed = new ConcurrentLinkedQueue<>();
+
+        // the following are accessed by the worker thread only
+        // thing -> messages held until the unconfirmed message of the thing is confirmed
+        private final Map<ThingKey, Deque<Outgoing>> held = new HashMap<>();
+        // held messages of confirmed things, sent before the queued ones
+        private final Deque<Outgoing> released = new ArrayDeque<>();
+        private final PriorityQueue<Outgoing> retries = new PriorityQueue<>(
+                Comparator.comparingLong(outgoing -> outgoing.notBefore));
+        private Thread thread;
+
+        @Override
+        public void run() {
+            try {
+                // on shut down, run until all messages are sent and confirmed
+                while (running || capacity.availablePermits() < workerCapacity || !held.isEmpty()
+                        || !retries.isEmpty() || !completed.isEmpty()
+                        || inFlight.availablePermits() < properties.getMaxInFlight()) {
+                    handleCompleted();
+
+                    final Outgoing retry = retries.peek();
+                    final long now = System.nanoTime();
+                    if (retry != null && retry.notBefore - now <= 0) {
+                        send(retries.poll());
+                        continue;
+                    }
+
+                    Outgoing outgoing = released.poll();
+                    if (outgoing == null) {
+                        outgoing = queue.poll(retry == null ? POLL_TIMEOUT_NANOS
+                                : Math.min(POLL_TIMEOUT_NANOS, retry.notBefore - now), TimeUnit.NANOSECONDS);
+                    }
+                    if (outgoing != null && outgoing != WAKE_UP && !hold(outgoing)) {
+                        capacity.release();
+                        send(outgoing);
+                    }
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // holds the message if a message of the same thing is not confirmed yet
+        private boolean hold(final Outgoing outgoing) {
+            if (outgoing.thingKey == null) {
+                return false;
+            }
+            final Deque<Outgoing> thingHeld = held.get(outgoing.thingKey);
+            if (thingHeld != null) {
+                thingHeld.add(outgoing);
+                return true;
+            }
+            held.put(outgoing.thingKey, new ArrayDeque<>());
+            return false;
+        }
+
+        private void release(final Outgoing outgoing) {
+            if (outgoing.thingKey != null) {
+                released.addAll(held.remove(outgoing.thingKey));
+            }
+        }
+
+        private void handleCompleted() {
+            Outgoing outgoing;
+            while ((outgoing = completed.poll()) != null) {
+                if (outgoing.nackReason == null) {
+                    release(outgoing);
+                } else {
+                    retryOrDeadLetter(outgoing);
+                }
+            }
+        }
+
+        private void retryOrDeadLetter(final Outgoing outgoing) {
+            if (outgoing.attempt < properties.getMaxRetries()) {
+                outgoing.attempt++;
+                final long backoff = backoffNanos(outgoing.attempt);
+                log.debug("Message with correlationId {} nacked ({}), retry in {} ms", outgoing.correlationId(),
+                        outgoing.nackReason, TimeUnit.NANOSECONDS.toMillis(backoff));
+                retried.incrementAndGet();
+                outgoing.nackReason = null;
+                outgoing.notBefore = System.nanoTime() + backoff;
+                // the later messages of the thing stay held until the retry is confirmed
+                retries.add(outgoing);
+            } else {
+                deadLetter(outgoing);
+                release(outgoing);
+            }
+        }
+
+        // may be called by the connection thread, so the message is handed back to the worker without blocking
+        private void complete(final Outgoing outgoing) {
+            completed.add(outgoing);
+            queue.add(WAKE_UP);
+        }
+
+        private void send(final Outgoing outgoing) throws InterruptedException {
+            inFlight.acquire();
+            final String correlationId = outgoing.correlationId();
+            final CorrelationData correlationData = new CorrelationData(correlationId);
+            try {
+                log.debug("Sending message to exchange {} with correlationId {}", outgoing.exchange, correlationId);
+                getRabbitTemplate().send(outgoing.exchange, "", outgoing.message, correlationData);
+                sent.incrementAndGet();
+            } catch (final AmqpException e) {
+                log.error("Failed to send message to exchange {} with correlationId {}", outgoing.exchange,
+                        correlationId, e);
+                onNack(outgoing, e.getMessage());
+                retryOrDeadLetter(outgoing);
+                return;
+            }
+
+            if (getRabbitTemplate().getConnectionFactory().isPublisherConfirms()) {
+                correlationData.getFuture().whenComplete((confirm, e) -> {
+                    if (e == null && confirm.isAck()) {
+                        onAck(outgoing);
+                        if (outgoing.thingKey != null) {
+                            complete(outgoing);
+                        }
+                    } else {
+                        onNack(outgoing, e == null ? confirm.getReason() : e.getMessage());
+                        complete(outgoing);
+                    }
+                });
+            } else {
+                onAck(outgoing);
+                release(outgoing);
+            }
+        }
+    }
+}
@@ -0,0 +1,451 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Executor of the DMF dispatch tasks, e.g. sending the update messages of an
+ * assignment, which shares its workers fairly between the tenants. So a tenant
+ * with a huge assignment doesn't delay the messages of the other tenants until
+ * all its messages are sent.
+ * <ul>
+ * <li>A task is queued as compact batch: the controller ids of its targets,
+ * each with an optional payload, and the function sending the messages of a
+ * partition of them. A worker takes the next partition of up to
+ * {@link AmqpProperties.Dispatcher#getPartitionSize()} targets, so the tasks
+ * of the other tenants are run between the partitions.</li>
+ * <li>The {@link Priority#NORMAL} batches of a tenant with the same merge key
+ * are merged while queued, e.g. the assignments of a distribution set. Their
+ * functions have to be interchangeable, the one of the first batch sends the
+ * messages of all targets and for a target already queued the payload of the
+ * latest batch is used. The queued batches of a tenant are bounded by
+ * {@link AmqpProperties.Dispatcher#getMaxQueuedPerTenant()}. A batch with a
+ * new merge key beyond the bound is deferred, i.e. it is merged with the
+ * deferred batches of the same key and queued as soon as a queued batch of
+ * the tenant is done. So the backlog of the mergeable batches of a tenant is
+ * bounded by its merge keys and targets, not by the rate of the events. Tasks are never run by the
+ * submitting thread, which would block the events of the other tenants, and
+ * never dropped. A deferral is observed as
+ * {@value #OVERFLOW_OBSERVATION_NAME} {@link Observation} with the tenant as
+ * low cardinality key value.</li>
+ * <li>The tenants with queued batches are served round robin. Per round a
+ * tenant runs up to its weight partitions, see
+ * {@link AmqpProperties.Dispatcher#getWeights()}.</li>
+ * <li>{@link Priority#HIGH} batches, e.g. cancel and delete messages, are
+ * taken before the {@link Priority#NORMAL} batches of all tenants. They are
+ * rare, so they are neither merged nor bounded.</li>
+ * </ul>
+ * The {@link SecurityContext} of the submitting thread is captured with the
+ * batch and set explicitly while its partitions run, so they run for the same
+ * tenant and user. Merged batches run with the context of the first one.
+ */
+@Slf4j
+public class TenantFairDispatchExecutor {
+
+    public static final String OVERFLOW_OBSERVATION_NAME = "hawkbit.dmf.dispatch.overflow";
+
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final AmqpProperties.Dispatcher properties;
+    private final ObservationRegistry observationRegistry;
+    // upper case tenant -> weight
+    private final Map<String, Integer> weights = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    // guarded by lock
+    private final Map<String, TenantQueue> queues = new HashMap<>();
+    // guarded by lock, the tenants with queued batches in round robin order
+    private final Deque<TenantQueue> active = new ArrayDeque<>();
+    // guarded by lock
+    private int queuedHigh;
+    private final List<Thread> workers;
+
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    /**
+     * The priority of a task.
+     */
+    public enum Priority {
+        /**
+         * Taken before the normal tasks of all tenants.
+         */
+        HIGH,
+        /**
+         * Taken round robin per tenant.
+         */
+        NORMAL
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param properties the dispatcher properties
+     * @param observationRegistry to observe the batches which are deferred
+     *         because the queue of the tenant is full
+     */
+    public TenantFairDispatchExecutor(final AmqpProperties.Dispatcher properties,
+            final ObservationRegistry observationRegistry) {
+        this.properties = properties;
+        this.observationRegistry = observationRegistry;
+        properties.getWeights().forEach((tenant, weight) -> weights.put(tenant.toUpperCase(), weight));
+        workers = new ArrayList<>(properties.getThreads());
+        for (int i = 0; i < properties.getThreads(); i++) {
+            final Thread thread = new Thread(this::work, "dmf-dispatcher-" + i);
+            thread.setDaemon(true);
+            workers.add(thread);
+            thread.start();
+        }
+    }
+
+    /**
+     * Queues a task of a tenant which is neither partitioned nor merged.
+     *
+     * @param tenant the tenant of the task
+     * @param priority the priority of the task
+     * @param task the task
+     */
+    public void execute(final String tenant, final Priority priority, final Runnable task) {
+        execute(tenant, priority, null, Map.of("", task), partition -> partition.values().forEach(Runnable::run));
+    }
+
+    /**
+     * Queues a task for the given targets of a tenant.
+     *
+     * @param tenant the tenant of the task
+     * @param priority the priority of the task
+     * @param mergeKey the key of the interchangeable tasks, <code>null</code>
+     *         if the task must not be merged
+     * @param controllerIds the controller ids of the targets
+     * @param task sends the messages of a partition of the targets
+     */
+    public void execute(final String tenant, final Priority priority, @Nullable final Object mergeKey,
+            final Collection<String> controllerIds, final Consumer<List<String>> task) {
+        final Map<String, Object> payloads = new LinkedHashMap<>();
+        controllerIds.forEach(controllerId -> payloads.put(controllerId, null));
+        execute(tenant, priority, mergeKey, payloads,
+                partition -> task.accept(new ArrayList<>(partition.keySet())));
+    }
+
+    /**
+     * Queues a task for the given targets of a tenant. Never blocks waiting
+     * for the queue and never runs the task by the calling thread, unless the
+     * executor is shut down.
+     *
+     * @param tenant the tenant of the task
+     * @param priority the priority of the task
+     * @param mergeKey the key of the interchangeable tasks, <code>null</code>
+     *         if the task must not be merged
+     * @param payloads the payloads, e.g. the actions, by controller id of the
+     *         targets
+     * @param task sends the messages of a partition of the targets
+     * @param <T> the type of the payloads
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void execute(final String tenant, final Priority priority, @Nullable final Object mergeKey,
+            final Map<String, T> payloads, final Consumer<Map<String, T>> task) {
+        if (!running) {
+            log.warn("Dispatcher is shut down, run task of tenant {} synchronously.", tenant);
+            task.accept(payloads);
+            return;
+        }
+        if (payloads.isEmpty()) {
+            return;
+        }
+
+        final Batch batch = new Batch(priority == Priority.NORMAL ? mergeKey : null, new LinkedHashMap<>(payloads),
+                partition -> task.accept((Map<String, T>) partition), SecurityContextHolder.getContext());
+        if (!offer(tenant.toUpperCase(), priority, batch)) {
+            log.debug("Dispatch queue of tenant {} is full, defer task {}.", tenant, mergeKey);
+            overflowed.incrementAndGet();
+            Observation.createNotStarted(OVERFLOW_OBSERVATION_NAME, observationRegistry)
+                    .lowCardinalityKeyValue(KeyValue.of("tenant", tenant.toUpperCase())).start().stop();
+        }
+    }
+
+    /**
+     * @return the current statistics of the dispatcher
+     */
+    public Statistics getStatistics() {
+        lock.lock();
+        try {
+            final Map<String, Integer> queued = new HashMap<>();
+            queues.forEach((tenant, queue) -> queued.put(tenant, queue.size() + queue.deferred.size()));
+            return new Statistics(queued, executed.get(), failed.get(), overflowed.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting tasks and waits until the queued tasks are run, but at
+     * most {@link AmqpProperties.Dispatcher#getShutdownTimeout()}
+     * milliseconds.
+     */
+    public void shutdown() {
+        running = false;
+        final long deadline = System.currentTimeMillis() + properties.getShutdownTimeout();
+        try {
+            for (final Thread worker : workers) {
+                worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (workers.stream().anyMatch(Thread::isAlive)) {
+            log.warn("Shut down with queued dispatch tasks: {}", getStatistics());
+            workers.forEach(Thread::interrupt);
+        }
+    }
+
+    // returns false if the batch is deferred as the normal batches of the tenant reached their bound
+    private boolean offer(final String tenant, final Priority priority, final Batch batch) {
+        lock.lock();
+        try {
+            final TenantQueue queue = queues.computeIfAbsent(tenant, TenantQueue::new);
+            if (priority == Priority.HIGH) {
+                queue.high.add(batch);
+                queuedHigh++;
+            } else if (batch.mergeKey != null && queue.merged.containsKey(batch.mergeKey)) {
+                queue.merged.get(batch.mergeKey).merge(batch);
+                return true;
+            } else if (batch.mergeKey != null && queue.deferred.containsKey(batch.mergeKey)) {
+                queue.deferred.get(batch.mergeKey).merge(batch);
+                return false;
+            } else if (queue.normal.size() < Math.max(1, properties.getMaxQueuedPerTenant())) {
+                queue.queue(batch);
+            } else {
+                // a batch which must not be merged is deferred by itself
+                queue.deferred.put(batch.mergeKey == null ? batch : batch.mergeKey, batch);
+                return false;
+            }
+            if (!queue.active) {
+                queue.active = true;
+                active.addLast(queue);
+            }
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void work() {
+        try {
+            Task task;
+            while ((task = take()) != null) {
+                run(task);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // returns null if shut down and all tasks are taken
+    private Task take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (active.isEmpty()) {
+                if (!running) {
+                    return null;
+                }
+                notEmpty.await(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            }
+            return queuedHigh > 0 ? takeHigh() : takeNormal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Task takeHigh() {
+        final Iterator<TenantQueue> iterator = active.iterator();
+        while (iterator.hasNext()) {
+            final TenantQueue queue = iterator.next();
+            if (!queue.high.isEmpty()) {
+                // the next high priority partition is taken from the next tenant
+                iterator.remove();
+                final Batch batch = queue.high.peek();
+                final Task task = batch.next(properties.getPartitionSize());
+                if (batch.isDone()) {
+                    queue.high.poll();
+                    queuedHigh--;
+                }
+                return taken(queue, task, true);
+            }
+        }
+        throw new IllegalStateException("No high priority task queued");
+    }
+
+    private Task takeNormal() {
+        final TenantQueue queue = active.pollFirst();
+        if (queue.credit <= 0) {
+            queue.credit = weights.getOrDefault(queue.tenant, properties.getDefaultWeight());
+        }
+        queue.credit--;
+        final Batch batch = queue.normal.peek();
+        final Task task = batch.next(properties.getPartitionSize());
+        if (batch.isDone()) {
+            queue.done(batch);
+        }
+        // the tenant stays first until its credit of the round is used
+        return taken(queue, task, queue.credit <= 0);
+    }
+
+    private Task taken(final TenantQueue queue, final Task task, final boolean last) {
+        if (queue.size() == 0) {
+            queue.active = false;
+            queue.credit = 0;
+            queues.remove(queue.tenant);
+        } else if (last) {
+            queue.credit = 0;
+            active.addLast(queue);
+        } else {
+            active.addFirst(queue);
+        }
+        return task;
+    }
+
+    private void run(final Task task) {
+        SecurityContextHolder.setContext(task.securityContext);
+        try {
+            task.runnable.run();
+            executed.incrementAndGet();
+        } catch (final RuntimeException e) {
+            failed.incrementAndGet();
+            log.error("Failed to run dispatch task", e);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * The statistics of the dispatcher.
+     */
+    @Data
+    public static class Statistics {
+
+        // tenant -> number of queued and deferred batches
+        private final Map<String, Integer> queued;
+        // number of run partitions
+        private final long executed;
+        private final long failed;
+        // deferred as the queue of the tenant was full
+        private final long overflowed;
+    }
+
+    private record Task(Runnable runnable, SecurityContext securityContext) {}
+
+    // a task for the remaining targets, guarded by lock
+    private static class Batch {
+
+        @Nullable
+        private final Object mergeKey;
+        private final Map<String, Object> payloads;
+        private final Consumer<Map<String, Object>> task;
+        private final SecurityContext securityContext;
+
+        private Batch(@Nullable final Object mergeKey, final Map<String, Object> payloads,
+                final Consumer<Map<String, Object>> task, final SecurityContext securityContext) {
+            this.mergeKey = mergeKey;
+            this.payloads = payloads;
+            this.task = task;
+            this.securityContext = securityContext;
+        }
+
+        private void merge(final Batch batch) {
+            payloads.putAll(batch.payloads);
+        }
+
+        private Task next(final int partitionSize) {
+            final Map<String, Object> partition = new LinkedHashMap<>();
+            final Iterator<Map.Entry<String, Object>> iterator = payloads.entrySet().iterator();
+            while (iterator.hasNext() && partition.size() < Math.max(1, partitionSize)) {
+                final Map.Entry<String, Object> entry = iterator.next();
+                partition.put(entry.getKey(), entry.getValue());
+                iterator.remove();
+            }
+            return new Task(() -> task.accept(partition), securityContext);
+        }
+
+        private boolean isDone() {
+            return payloads.isEmpty();
+        }
+    }
+
+    private class TenantQueue {
+
+        private final String tenant;
+        private final Queue<Batch> high = new ArrayDeque<>();
+        private final Queue<Batch> normal = new ArrayDeque<>();
+        // merge key -> queued normal batch
+        private final Map<Object, Batch> merged = new HashMap<>();
+        // merge key, or the batch itself if it must not be merged -> normal batch beyond the bound, in the
+        // order of deferral
+        private final Map<Object, Batch> deferred = new LinkedHashMap<>();
+        private boolean active;
+        // number of normal partitions the tenant may still run in the current round
+        private int credit;
+
+        private TenantQueue(final String tenant) {
+            this.tenant = tenant;
+        }
+
+        private void queue(final Batch batch) {
+            normal.add(batch);
+            if (batch.mergeKey != null) {
+                merged.put(batch.mergeKey, batch);
+            }
+        }
+
+        // removes the done batch and queues the next deferred one
+        private void done(final Batch batch) {
+            normal.poll();
+            if (batch.mergeKey != null) {
+                merged.remove(batch.mergeKey);
+            }
+            final Iterator<Batch> iterator = deferred.values().iterator();
+            if (iterator.hasNext() && normal.size() < Math.max(1, properties.getMaxQueuedPerTenant())) {
+                queue(iterator.next());
+                iterator.remove();
+            }
+        }
+
+        private int size() {
+            return high.size() + normal.size();
+        }
+    }
+}
@@ -0,0 +1,340 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationProperties.TenantConfigurationKey.MULTI_ASSIGNMENTS_ENABLED;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.rabbitmq.client.Channel;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageType;
+import org.eclipse.hawkbit.dmf.json.model.DmfActionStatus;
+import org.eclipse.hawkbit.dmf.json.model.DmfActionUpdateStatus;
+import org.eclipse.hawkbit.dmf.json.model.DmfAttributeUpdate;
+import org.eclipse.hawkbit.repository.ConfirmationManagement;
+import org.eclipse.hawkbit.repository.ControllerManagement;
+import org.eclipse.hawkbit.repository.EntityFactory;
+import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
+import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
+import org.eclipse.hawkbit.repository.jpa.builder.JpaActionStatusBuilder;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TenantConfigurationValue;
+import org.eclipse.hawkbit.security.SecurityContextSerializer;
+import org.eclipse.hawkbit.security.SecurityContextTenantAware;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.eclipse.hawkbit.tenancy.UserAuthoritiesResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.ConditionalRejectingErrorHandler;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@Feature("Component Tests - Device Management Federation API")
+@Story("AmqpBatchMessage Handler Service Test")
+class AmqpBatchMessageHandlerServiceTest {
+
+    private static final String VIRTUAL_HOST = "vHost";
+    private static final String TENANT = "DEFAULT";
+    private static final String OTHER_TENANT = "OTHER";
+    private static final String POISON_THING_ID = "poison";
+
+    private final CountingTransactionManager transactionManager = new CountingTransactionManager();
+
+    private MessageConverter messageConverter;
+    private TenantAware tenantAware;
+    private AmqpMessageHandlerService amqpMessageHandlerService;
+    private AmqpBatchMessageHandlerService amqpBatchMessageHandlerService;
+
+    @Mock
+    private AmqpMessageDispatcherService amqpMessageDispatcherServiceMock;
+    @Mock
+    private ControllerManagement controllerManagementMock;
+    @Mock
+    private ConfirmationManagement confirmationManagementMock;
+    @Mock
+    private EntityFactory entityFactoryMock;
+    @Mock
+    private TenantConfigurationManagement tenantConfigurationManagement;
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+    @Mock
+    private UserAuthoritiesResolver authoritiesResolver;
+    @Mock
+    private SecurityContextSerializer securityContextSerializer;
+    @Mock
+    private Channel channel;
+
+    @BeforeEach
+    void before() {
+        messageConverter = new Jackson2JsonMessageConverter();
+        lenient().when(rabbitTemplate.getMessageConverter()).thenReturn(messageConverter);
+        final TenantConfigurationValue<Boolean> multiAssignmentConfig = TenantConfigurationValue.<Boolean> builder()
+                .value(Boolean.FALSE).global(Boolean.FALSE).build();
+        lenient().when(tenantConfigurationManagement.getConfigurationValue(MULTI_ASSIGNMENTS_ENABLED, Boolean.class))
+                .thenReturn(multiAssignmentConfig);
+        // like the repository, the attribute update runs in its own or joins the current transaction
+        lenient().when(controllerManagementMock.updateControllerAttributes(anyString(), anyMap(), any()))
+                .thenAnswer(invocation -> transactionManager.inTransaction(() -> {
+                    if (POISON_THING_ID.equals(invocation.getArgument(0))) {
+                        throw new EntityNotFoundException(Target.class, POISON_THING_ID);
+                    }
+                    return null;
+                }));
+
+        tenantAware = new SecurityContextTenantAware(authoritiesResolver, securityContextSerializer);
+        final SystemSecurityContext systemSecurityContext = new SystemSecurityContext(tenantAware);
+        amqpMessageHandlerService = new AmqpMessageHandlerService(rabbitTemplate, amqpMessageDispatcherServiceMock,
+                controllerManagementMock, entityFactoryMock, systemSecurityContext, tenantConfigurationManagement,
+                confirmationManagementMock);
+        amqpBatchMessageHandlerService = new AmqpBatchMessageHandlerService(amqpMessageHandlerService,
+                transactionManager, new ConditionalRejectingErrorHandler(new DelayedRequeueExceptionStrategy(0)));
+    }
+
+    @Test
+    @Description("Verifies that the attribute updates of a batch are applied in one transaction per tenant and acknowledged one by one.")
+    void attributeUpdatesAreAppliedInOneTransactionPerTenant() throws IOException {
+        final List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            messages.add(createAttributeUpdateMessage(i % 2 == 0 ? TENANT : OTHER_TENANT, "thing" + i, i));
+        }
+
+        amqpBatchMessageHandlerService.onMessages(messages, channel, VIRTUAL_HOST);
+
+        verify(controllerManagementMock, times(10)).updateControllerAttributes(anyString(), anyMap(), any());
+        assertThat(transactionManager.commits).hasValue(2);
+        for (int i = 0; i < 10; i++) {
+            verify(channel).basicAck(i, false);
+        }
+        verify(channel, never()).basicReject(anyLong(), anyBoolean());
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    @Description("Verifies that a poison message rolls back its group, is rejected alone and the other messages of the group are applied one by one.")
+    void poisonMessageIsIsolated() throws IOException {
+        final List<Message> messages = List.of(
+                createAttributeUpdateMessage(TENANT, "thing0", 0),
+                createAttributeUpdateMessage(TENANT, POISON_THING_ID, 1),
+                createAttributeUpdateMessage(TENANT, "thing2", 2));
+
+        amqpBatchMessageHandlerService.onMessages(messages, channel, VIRTUAL_HOST);
+
+        assertThat(transactionManager.rollbacks).as("group and poison message are rolled back").hasValue(2);
+        assertThat(transactionManager.commits).as("the other messages are applied one by one").hasValue(2);
+        verify(channel).basicAck(0, false);
+        verify(channel).basicReject(1, false);
+        verify(channel).basicAck(2, false);
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    @Description("Verifies that the next update commands are sent once per target after the action status group is committed.")
+    void updateCommandsAreSentAfterCommit() throws IOException {
+        final Target target = mock(Target.class);
+        when(target.getControllerId()).thenReturn("target1");
+        final Action action = mock(Action.class);
+        when(action.getId()).thenReturn(22L);
+        when(action.getTarget()).thenReturn(target);
+        when(controllerManagementMock.findActionWithDetails(22L)).thenReturn(Optional.of(action));
+        when(entityFactoryMock.actionStatus()).thenReturn(new JpaActionStatusBuilder());
+        when(controllerManagementMock.addUpdateActionStatus(any()))
+                .thenAnswer(invocation -> transactionManager.inTransaction(() -> action));
+        when(controllerManagementMock.findActiveActionWithHighestWeight("target1")).thenAnswer(invocation -> {
+            assertThat(transactionManager.isActive()).as("update command is sent after commit").isFalse();
+            assertThat(tenantAware.getCurrentTenant()).isEqualTo(TENANT);
+            return Optional.empty();
+        });
+
+        amqpBatchMessageHandlerService.onMessages(List.of(
+                createActionStatusMessage(DmfActionStatus.DOWNLOADED, 0),
+                createActionStatusMessage(DmfActionStatus.FINISHED, 1)), channel, VIRTUAL_HOST);
+
+        verify(controllerManagementMock, times(2)).addUpdateActionStatus(any());
+        assertThat(transactionManager.commits).hasValue(1);
+        verify(controllerManagementMock, times(1)).findActiveActionWithHighestWeight("target1");
+        verify(channel).basicAck(0, false);
+        verify(channel).basicAck(1, false);
+    }
+
+    @Test
+    @Description("Verifies that messages which are not grouped are handled one by one and invalid ones are rejected.")
+    void otherMessagesAreHandledOneByOne() throws IOException {
+        final MessageProperties removed = createMessageProperties(TENANT, MessageType.THING_REMOVED, 0);
+        removed.setHeader(MessageHeaderKey.THING_ID, "thing0");
+        final MessageProperties withoutType = createMessageProperties(TENANT, null, 1);
+
+        amqpBatchMessageHandlerService.onMessages(List.of(
+                messageConverter.toMessage(new byte[0], removed),
+                messageConverter.toMessage(new byte[0], withoutType)), channel, VIRTUAL_HOST);
+
+        verify(controllerManagementMock).deleteExistingTarget("thing0");
+        assertThat(transactionManager.commits).hasValue(0);
+        verify(channel).basicAck(0, false);
+        verify(channel).basicReject(1, false);
+    }
+
+    @Test
+    @Description("Verifies that the messages of a tenant are applied in the order they are received, also if they are "
+            + "grouped and interleaved with messages of the other topic or messages which are handled one by one.")
+    void messagesAreAppliedInArrivalOrder() throws IOException {
+        final Action action = mock(Action.class);
+        final Target target = mock(Target.class);
+        when(action.getId()).thenReturn(22L);
+        when(action.getTarget()).thenReturn(target);
+        when(controllerManagementMock.findActionWithDetails(22L)).thenReturn(Optional.of(action));
+        when(entityFactoryMock.actionStatus()).thenReturn(new JpaActionStatusBuilder());
+        when(controllerManagementMock.addUpdateActionStatus(any()))
+                .thenAnswer(invocation -> transactionManager.inTransaction(() -> action));
+        final MessageProperties removed = createMessageProperties(TENANT, MessageType.THING_REMOVED, 3);
+        removed.setHeader(MessageHeaderKey.THING_ID, "thing3");
+
+        amqpBatchMessageHandlerService.onMessages(List.of(
+                createAttributeUpdateMessage(TENANT, "thing0", 0),
+                createAttributeUpdateMessage(TENANT, "thing1", 1),
+                createActionStatusMessage(DmfActionStatus.RUNNING, 2),
+                messageConverter.toMessage(new byte[0], removed),
+                createAttributeUpdateMessage(TENANT, "thing4", 4),
+                createAttributeUpdateMessage(TENANT, "thing5", 5)), channel, VIRTUAL_HOST);
+
+        final InOrder inOrder = inOrder(controllerManagementMock);
+        inOrder.verify(controllerManagementMock).updateControllerAttributes(eq("thing0"), anyMap(), any());
+        inOrder.verify(controllerManagementMock).updateControllerAttributes(eq("thing1"), anyMap(), any());
+        inOrder.verify(controllerManagementMock).addUpdateActionStatus(any());
+        inOrder.verify(controllerManagementMock).deleteExistingTarget("thing3");
+        inOrder.verify(controllerManagementMock).updateControllerAttributes(eq("thing4"), anyMap(), any());
+        inOrder.verify(controllerManagementMock).updateControllerAttributes(eq("thing5"), anyMap(), any());
+        assertThat(transactionManager.commits).as("the groups of two messages are applied at once").hasValue(3);
+        for (int i = 0; i < 6; i++) {
+            verify(channel).basicAck(i, false);
+        }
+    }
+
+    private Message createAttributeUpdateMessage(final String tenant, final String thingId, final long deliveryTag) {
+        final MessageProperties messageProperties = createMessageProperties(tenant, MessageType.EVENT, deliveryTag);
+        messageProperties.setHeader(MessageHeaderKey.TOPIC, EventTopic.UPDATE_ATTRIBUTES.name());
+        messageProperties.setHeader(MessageHeaderKey.THING_ID, thingId);
+        final DmfAttributeUpdate attributeUpdate = new DmfAttributeUpdate();
+        attributeUpdate.getAttributes().put("key", "value" + deliveryTag);
+        return messageConverter.toMessage(attributeUpdate, messageProperties);
+    }
+
+    private Message createActionStatusMessage(final DmfActionStatus status, final long deliveryTag) {
+        final MessageProperties messageProperties = createMessageProperties(TENANT, MessageType.EVENT, deliveryTag);
+        messageProperties.setHeader(MessageHeaderKey.TOPIC, EventTopic.UPDATE_ACTION_STATUS.name());
+        return messageConverter.toMessage(new DmfActionUpdateStatus(22L, status), messageProperties);
+    }
+
+    private static MessageProperties createMessageProperties(final String tenant, final MessageType type,
+            final long deliveryTag) {
+        final MessageProperties messageProperties = new MessageProperties();
+        if (type != null) {
+            messageProperties.setHeader(MessageHeaderKey.TYPE, type.name());
+        }
+        messageProperties.setHeader(MessageHeaderKey.TENANT, tenant);
+        messageProperties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        messageProperties.setDeliveryTag(deliveryTag);
+        return messageProperties;
+    }
+
+    /**
+     * Counts the physical commits and rollbacks.
+     */
+    private static class CountingTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final AtomicInteger commits = new AtomicInteger();
+        private final AtomicInteger rollbacks = new AtomicInteger();
+        private final ThreadLocal<Boolean> active = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+        private <T> T inTransaction(final Supplier<T> supplier) {
+            return new TransactionTemplate(this).execute(status -> supplier.get());
+        }
+
+        private boolean isActive() {
+            return active.get();
+        }
+
+        @Override
+        protected Object doGetTransaction() {
+            return active.get();
+        }
+
+        @Override
+        protected boolean isExistingTransaction(final Object transaction) {
+            return (Boolean) transaction;
+        }
+
+        @Override
+        protected void doBegin(final Object transaction, final TransactionDefinition definition) {
+            active.set(Boolean.TRUE);
+        }
+
+        @Override
+        protected void doCommit(final DefaultTransactionStatus status) {
+            commits.incrementAndGet();
+        }
+
+        @Override
+        protected void doRollback(final DefaultTransactionStatus status) {
+            rollbacks.incrementAndGet();
+        }
+
+        @Override
+        protected void doSetRollbackOnly(final DefaultTransactionStatus status) {
+            // the outer transaction is rolled back by the exception anyway
+        }
+
+        @Override
+        protected void doCleanupAfterCompletion(final Object transaction) {
+            active.set(Boolean.FALSE);
+        }
+    }
+}
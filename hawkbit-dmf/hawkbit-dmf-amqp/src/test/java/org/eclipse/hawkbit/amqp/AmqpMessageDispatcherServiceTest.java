@@ -36,9 +36,12 @@ import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
 import org.eclipse.hawkbit.dmf.amqp.api.MessageType;
 import org.eclipse.hawkbit.dmf.json.model.DmfActionRequest;
 import org.eclipse.hawkbit.dmf.json.model.DmfDownloadAndUpdateRequest;
+import org.eclipse.hawkbit.dmf.json.model.DmfMetadata;
+import org.eclipse.hawkbit.dmf.json.model.DmfMultiActionRequest;
 import org.eclipse.hawkbit.dmf.json.model.DmfSoftwareModule;
 import org.eclipse.hawkbit.repository.SystemManagement;
 import org.eclipse.hawkbit.repository.event.remote.CancelTargetAssignmentEvent;
+import org.eclipse.hawkbit.repository.event.remote.MultiActionAssignEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetAttributesRequestedEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
@@ -212,6 +215,41 @@ class AmqpMessageDispatcherServiceTest extends AbstractIntegrationTest {
         }
     }
 
+    @Test
+    @Description("Verifies that the multi action requests of several targets are sent with their active actions, modules and target visible metadata.")
+    void sendMultiActionRequestToSeveralTargets() {
+        enableMultiAssignments();
+        final URI otherAddress = IpUtil.createAmqpUri("vHost", "other");
+        final Target otherTarget = targetManagement.create(entityFactory.target().create().controllerId("2")
+                .securityToken("otherToken").address(otherAddress.toString()));
+        final DistributionSet dsA = testdataFactory.createDistributionSet(UUID.randomUUID().toString());
+        testdataFactory.addSoftwareModuleMetadata(dsA);
+        final DistributionSet dsB = testdataFactory.createDistributionSet(UUID.randomUUID().toString());
+        final List<Action> actions = new ArrayList<>(
+                assignDistributionSet(dsA, List.of(testTarget, otherTarget)).getAssignedEntity());
+        actions.addAll(assignDistributionSet(dsB.getId(), CONTROLLER_ID).getAssignedEntity());
+
+        amqpMessageDispatcherService.onMultiAction(
+                new MultiActionAssignEvent(TENANT, serviceMatcher.getBusId(), actions));
+
+        final DmfMultiActionRequest request = convertMessage(createArgumentCapture(AMQP_URI),
+                DmfMultiActionRequest.class);
+        assertThat(request.getElements()).hasSize(2).allSatisfy(element -> {
+            assertThat(element.getTopic()).isEqualTo(EventTopic.DOWNLOAD_AND_INSTALL);
+            final DmfDownloadAndUpdateRequest actionRequest = (DmfDownloadAndUpdateRequest) element.getAction();
+            assertThat(actionRequest.getTargetSecurityToken()).isEqualTo(TEST_TOKEN);
+            assertThat(actionRequest.getSoftwareModules()).hasSize(3);
+        });
+        final DmfMultiActionRequest otherRequest = convertMessage(createArgumentCapture(otherAddress),
+                DmfMultiActionRequest.class);
+        assertThat(otherRequest.getElements()).hasSize(1);
+        final DmfDownloadAndUpdateRequest otherActionRequest = (DmfDownloadAndUpdateRequest) otherRequest
+                .getElements().get(0).getAction();
+        assertThat(otherActionRequest.getTargetSecurityToken()).isEqualTo("otherToken");
+        assertThat(otherActionRequest.getSoftwareModules()).hasSize(3).allSatisfy(module -> assertThat(
+                module.getMetadata()).extracting(DmfMetadata::getKey).containsExactly(TestdataFactory.VISIBLE_SM_MD_KEY));
+    }
+
     @Test
     @Description("Verifies that sending update controller attributes event works.")
     void sendUpdateAttributesRequest() {
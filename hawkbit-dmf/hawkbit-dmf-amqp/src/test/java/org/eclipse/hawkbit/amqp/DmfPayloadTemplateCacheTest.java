@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.eclipse.hawkbit.artifact.repository.urlhandler.ApiType;
+import org.eclipse.hawkbit.artifact.repository.urlhandler.ArtifactUrl;
+import org.eclipse.hawkbit.artifact.repository.urlhandler.ArtifactUrlHandler;
+import org.eclipse.hawkbit.artifact.repository.urlhandler.ArtifactUrlHandlerProperties;
+import org.eclipse.hawkbit.artifact.repository.urlhandler.PropertyBasedArtifactUrlHandler;
+import org.eclipse.hawkbit.artifact.repository.urlhandler.URLPlaceholder;
+import org.eclipse.hawkbit.dmf.json.model.DmfArtifact;
+import org.eclipse.hawkbit.dmf.json.model.DmfMetadata;
+import org.eclipse.hawkbit.dmf.json.model.DmfSoftwareModule;
+import org.eclipse.hawkbit.repository.SystemManagement;
+import org.eclipse.hawkbit.repository.event.remote.RemoteIdEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.DistributionSetUpdatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.SoftwareModuleUpdatedEvent;
+import org.eclipse.hawkbit.repository.model.Artifact;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.eclipse.hawkbit.repository.model.SoftwareModuleMetadata;
+import org.eclipse.hawkbit.repository.model.SoftwareModuleType;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TenantMetaData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@Feature("Component Tests - Device Management Federation API")
+@Story("DMF Payload Template Cache Test")
+class DmfPayloadTemplateCacheTest {
+
+    private static final String TENANT = "DEFAULT";
+    private static final long DS_ID = 1L;
+    private static final long SM_ID = 2L;
+
+    private final ArtifactUrlHandlerProperties urlHandlerProperties = new ArtifactUrlHandlerProperties();
+    private final ArtifactUrlHandler artifactUrlHandler = new PropertyBasedArtifactUrlHandler(urlHandlerProperties,
+            "/");
+    private final SystemManagement systemManagement = mock(SystemManagement.class);
+    private final AtomicInteger loaded = new AtomicInteger();
+
+    private DmfPayloadTemplateCache templateCache;
+
+    @BeforeEach
+    void before() {
+        final TenantMetaData tenantMetaData = mock(TenantMetaData.class);
+        when(tenantMetaData.getTenant()).thenReturn(TENANT);
+        when(tenantMetaData.getId()).thenReturn(3L);
+        when(systemManagement.getTenantMetadata()).thenReturn(tenantMetaData);
+        templateCache = new DmfPayloadTemplateCache(artifactUrlHandler, systemManagement,
+                new AmqpProperties.TemplateCache());
+    }
+
+    @Test
+    @Description("Verifies that the template of a distribution set is created once and the modules of the targets contain their URLs.")
+    void templateIsCachedAndFilledPerTarget() {
+        urlHandlerProperties.getProtocols().put("download-http", new ArtifactUrlHandlerProperties.UrlProtocol());
+        final Target target1 = target("device-1", 10L);
+        final Target target2 = target("device-2", 11L);
+
+        final List<DmfSoftwareModule> modules1 = templateCache.getTemplate(TENANT, DS_ID, this::load)
+                .createSoftwareModules(target1);
+        final List<DmfSoftwareModule> modules2 = templateCache.getTemplate(TENANT, DS_ID, this::load)
+                .createSoftwareModules(target2);
+
+        assertThat(loaded).hasValue(1);
+        assertThat(templateCache.size()).isEqualTo(1);
+        assertModules(modules1, target1);
+        assertModules(modules2, target2);
+        assertThat(modules1.get(0).getArtifacts().get(0).getUrls().get("HTTP")).isEqualTo(
+                "http://localhost:8080/DEFAULT/controller/v1/device-1/softwaremodules/2/artifacts/file.bin");
+    }
+
+    @Test
+    @Description("Verifies that URLs which depend on more than the controller id are generated per target.")
+    void urlsWithTargetIdAreGeneratedPerTarget() {
+        final ArtifactUrlHandlerProperties.UrlProtocol protocol = new ArtifactUrlHandlerProperties.UrlProtocol();
+        protocol.setRef("{protocol}://{hostname}:{port}/targets/{targetIdBase62}/{controllerId}/{artifactFileName}");
+        urlHandlerProperties.getProtocols().put("download-http", protocol);
+        final Target target1 = target("device-1", 10L);
+        final Target target2 = target("device-2", 11L);
+
+        assertModules(templateCache.getTemplate(TENANT, DS_ID, this::load).createSoftwareModules(target1), target1);
+        assertModules(templateCache.getTemplate(TENANT, DS_ID, this::load).createSoftwareModules(target2), target2);
+        assertThat(loaded).hasValue(1);
+    }
+
+    @Test
+    @Description("Verifies that the templates are invalidated by the distribution set and software module update events.")
+    void templatesAreInvalidatedByUpdateEvents() {
+        urlHandlerProperties.getProtocols().put("download-http", new ArtifactUrlHandlerProperties.UrlProtocol());
+        final Supplier<Map<SoftwareModule, List<SoftwareModuleMetadata>>> loader = this::load;
+
+        templateCache.getTemplate(TENANT, DS_ID, loader);
+        templateCache.invalidateOnDistributionSetUpdate(event(DistributionSetUpdatedEvent.class, "default", DS_ID + 1));
+        templateCache.invalidateOnSoftwareModuleUpdate(event(SoftwareModuleUpdatedEvent.class, "default", SM_ID + 1));
+        templateCache.getTemplate(TENANT, DS_ID, loader);
+        assertThat(loaded).as("not invalidated by other entities").hasValue(1);
+
+        templateCache.invalidateOnDistributionSetUpdate(event(DistributionSetUpdatedEvent.class, "default", DS_ID));
+        templateCache.getTemplate(TENANT, DS_ID, loader);
+        assertThat(loaded).hasValue(2);
+
+        templateCache.invalidateOnSoftwareModuleUpdate(event(SoftwareModuleUpdatedEvent.class, "default", SM_ID));
+        templateCache.getTemplate(TENANT, DS_ID, loader);
+        assertThat(loaded).hasValue(3);
+    }
+
+    private void assertModules(final List<DmfSoftwareModule> modules, final Target target) {
+        assertThat(modules).hasSize(1);
+        final DmfSoftwareModule module = modules.get(0);
+        assertThat(module.getModuleId()).isEqualTo(SM_ID);
+        assertThat(module.getModuleType()).isEqualTo("os");
+        assertThat(module.getModuleVersion()).isEqualTo("1.0");
+        assertThat(module.getMetadata()).extracting(DmfMetadata::getKey).containsExactly("key");
+        assertThat(module.getArtifacts()).hasSize(1);
+        final DmfArtifact artifact = module.getArtifacts().get(0);
+        assertThat(artifact.getFilename()).isEqualTo("file.bin");
+        assertThat(artifact.getHashes().getSha1()).isEqualTo("sha1");
+        assertThat(artifact.getUrls()).isEqualTo(artifactUrlHandler
+                .getUrls(new URLPlaceholder(TENANT, 3L, target.getControllerId(), target.getId(),
+                        new URLPlaceholder.SoftwareData(SM_ID, "file.bin", 4L, "sha1")), ApiType.DMF)
+                .stream().collect(Collectors.toMap(ArtifactUrl::getProtocol, ArtifactUrl::getRef)));
+    }
+
+    private Map<SoftwareModule, List<SoftwareModuleMetadata>> load() {
+        loaded.incrementAndGet();
+        final SoftwareModuleType type = mock(SoftwareModuleType.class);
+        when(type.getKey()).thenReturn("os");
+        final SoftwareModule module = mock(SoftwareModule.class);
+        when(module.getId()).thenReturn(SM_ID);
+        when(module.getType()).thenReturn(type);
+        when(module.getVersion()).thenReturn("1.0");
+        final Artifact artifact = mock(Artifact.class);
+        when(artifact.getId()).thenReturn(4L);
+        when(artifact.getSoftwareModule()).thenReturn(module);
+        when(artifact.getFilename()).thenReturn("file.bin");
+        when(artifact.getSha1Hash()).thenReturn("sha1");
+        when(artifact.getMd5Hash()).thenReturn("md5");
+        when(module.getArtifacts()).thenReturn(List.of(artifact));
+        final SoftwareModuleMetadata metadata = mock(SoftwareModuleMetadata.class);
+        when(metadata.getKey()).thenReturn("key");
+        when(metadata.getValue()).thenReturn("value");
+        return Map.of(module, List.of(metadata));
+    }
+
+    private static Target target(final String controllerId, final long id) {
+        final Target target = mock(Target.class);
+        when(target.getControllerId()).thenReturn(controllerId);
+        when(target.getId()).thenReturn(id);
+        return target;
+    }
+
+    private static <T extends RemoteIdEvent> T event(final Class<T> type,
+            final String tenant, final long entityId) {
+        final T event = mock(type);
+        when(event.getTenant()).thenReturn(tenant);
+        when(event.getEntityId()).thenReturn(entityId);
+        return event;
+    }
+}
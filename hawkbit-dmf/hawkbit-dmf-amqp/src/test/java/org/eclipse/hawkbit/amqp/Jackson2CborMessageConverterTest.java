@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.eclipse.hawkbit.dmf.amqp.api.AmqpSettings;
+import org.eclipse.hawkbit.dmf.amqp.api.Jackson2CborMessageConverter;
+import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
+import org.eclipse.hawkbit.dmf.json.model.DmfArtifact;
+import org.eclipse.hawkbit.dmf.json.model.DmfArtifactHash;
+import org.eclipse.hawkbit.dmf.json.model.DmfDownloadAndUpdateRequest;
+import org.eclipse.hawkbit.dmf.json.model.DmfMetadata;
+import org.eclipse.hawkbit.dmf.json.model.DmfMultiActionRequest;
+import org.eclipse.hawkbit.dmf.json.model.DmfSoftwareModule;
+import org.eclipse.hawkbit.util.IpUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+@Feature("Component Tests - Device Management Federation API")
+@Story("CBOR Message Converter Test")
+class Jackson2CborMessageConverterTest {
+
+    private final ContentTypeDelegatingMessageConverter messageConverter = new ContentTypeDelegatingMessageConverter(
+            new Jackson2JsonMessageConverter());
+
+    private BaseAmqpService baseAmqpService;
+
+    @BeforeEach
+    void before() {
+        messageConverter.addDelegate(AmqpSettings.CONTENT_TYPE_CBOR, new Jackson2CborMessageConverter());
+        final RabbitTemplate rabbitTemplate = new RabbitTemplate();
+        rabbitTemplate.setMessageConverter(messageConverter);
+        baseAmqpService = new BaseAmqpService(rabbitTemplate);
+    }
+
+    @Test
+    @Description("Verifies that the DMF messages are encoded as JSON or CBOR depending on the content type and decoded again.")
+    void messagesAreEncodedAndDecodedDependingOnContentType() {
+        final DmfMultiActionRequest request = multiActionRequest();
+
+        final Message json = messageConverter.toMessage(request, properties(MessageProperties.CONTENT_TYPE_JSON));
+        final Message cbor = messageConverter.toMessage(request, properties(AmqpSettings.CONTENT_TYPE_CBOR));
+
+        assertThat(json.getMessageProperties().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
+        assertThat(cbor.getMessageProperties().getContentType()).isEqualTo(AmqpSettings.CONTENT_TYPE_CBOR);
+        assertThat(new String(json.getBody())).startsWith("[{");
+        assertThat(cbor.getBody()).hasSizeLessThan(json.getBody().length);
+        assertThat(baseAmqpService.convertMessage(cbor, DmfMultiActionRequest.class)).usingRecursiveComparison()
+                .isEqualTo(baseAmqpService.convertMessage(json, DmfMultiActionRequest.class))
+                .isEqualTo(request);
+    }
+
+    @Test
+    @Description("Verifies that CBOR is used for the configured and the negotiated reply-to exchanges and JSON otherwise.")
+    void contentTypeIsResolvedPerExchange() {
+        final URI configured = IpUtil.createAmqpUri("vHost", "cbor");
+        final URI negotiated = IpUtil.createAmqpUri("vHost", "negotiated");
+        final AmqpContentTypeResolver resolver = new AmqpContentTypeResolver(Set.of("cbor"));
+
+        assertThat(resolver.resolve(configured)).isEqualTo(AmqpSettings.CONTENT_TYPE_CBOR);
+        assertThat(resolver.resolve(negotiated)).isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
+        assertThat(resolver.resolve(null)).isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
+
+        resolver.negotiate(negotiated, AmqpSettings.CONTENT_TYPE_CBOR);
+        assertThat(resolver.resolve(negotiated)).isEqualTo(AmqpSettings.CONTENT_TYPE_CBOR);
+        // no content type, e.g. THING_CREATED without body, keeps the negotiated one
+        resolver.negotiate(negotiated, null);
+        assertThat(resolver.resolve(negotiated)).isEqualTo(AmqpSettings.CONTENT_TYPE_CBOR);
+        resolver.negotiate(negotiated, MessageProperties.CONTENT_TYPE_JSON);
+        assertThat(resolver.resolve(negotiated)).isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
+    }
+
+    @Test
+    @Description("Verifies that the CBOR encoding of the update requests is smaller than the JSON encoding and decodes to the same request.")
+    void cborIsSmallerThanJsonAndDecodesToTheSameRequest() {
+        for (final Object request : List.of(downloadAndUpdateRequest(1L), multiActionRequest())) {
+            final Message json = messageConverter.toMessage(request, properties(MessageProperties.CONTENT_TYPE_JSON));
+            final Message cbor = messageConverter.toMessage(request, properties(AmqpSettings.CONTENT_TYPE_CBOR));
+
+            assertThat(cbor.getBody()).as(request.getClass().getSimpleName()).hasSizeLessThan(json.getBody().length);
+            assertThat(baseAmqpService.convertMessage(cbor, request.getClass())).usingRecursiveComparison()
+                    .isEqualTo(request);
+        }
+    }
+
+    private static MessageProperties properties(final String contentType) {
+        final MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setContentType(contentType);
+        return messageProperties;
+    }
+
+    private static DmfMultiActionRequest multiActionRequest() {
+        final DmfMultiActionRequest request = new DmfMultiActionRequest();
+        for (long actionId = 1; actionId <= 3; actionId++) {
+            request.addElement(EventTopic.DOWNLOAD_AND_INSTALL, downloadAndUpdateRequest(actionId), (int) actionId);
+        }
+        return request;
+    }
+
+    private static DmfDownloadAndUpdateRequest downloadAndUpdateRequest(final long actionId) {
+        final DmfDownloadAndUpdateRequest request = new DmfDownloadAndUpdateRequest();
+        request.setActionId(actionId);
+        request.setTargetSecurityToken("3a9f1b2c4d5e6f708192a3b4c5d6e7f8");
+        for (long moduleId = 1; moduleId <= 3; moduleId++) {
+            final DmfSoftwareModule module = new DmfSoftwareModule();
+            module.setModuleId(moduleId);
+            module.setModuleType("os");
+            module.setModuleVersion("1.0." + moduleId);
+            module.setMetadata(List.of(new DmfMetadata("installer", "/usr/bin/install --force"),
+                    new DmfMetadata("reboot", "true")));
+            final List<DmfArtifact> artifacts = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                final DmfArtifact artifact = new DmfArtifact();
+                artifact.setFilename("artifact-" + moduleId + "-" + i + ".bin");
+                artifact.setHashes(new DmfArtifactHash("2fd4e1c67a2d28fced849ee1bb76e7391b93eb12",
+                        "9e107d9d372bb6826bd81d3542a419d6"));
+                artifact.setSize(1024L * 1024 * (i + 1));
+                artifact.setLastModified(1_700_000_000_000L + i);
+                final String path = "/DEFAULT/controller/v1/device-0001/softwaremodules/" + moduleId
+                        + "/artifacts/artifact-" + moduleId + "-" + i + ".bin";
+                artifact.setUrls(Map.of("HTTP", "http://hawkbit.example.com:8080" + path, "HTTPS",
+                        "https://hawkbit.example.com:8443" + path));
+                artifacts.add(artifact);
+            }
+            module.setArtifacts(artifacts);
+            request.addSoftwareModule(module);
+        }
+        return request;
+    }
+}
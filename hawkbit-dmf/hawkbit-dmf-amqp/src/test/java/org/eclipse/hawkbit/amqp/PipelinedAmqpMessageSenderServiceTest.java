@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@Feature("Component Tests - Device Management Federation API")
+@Story("Pipelined AmqpMessage Sender Service Test")
+class PipelinedAmqpMessageSenderServiceTest {
+
+    private static final URI SEND_TO = URI.create("amqp://vHost/exchange");
+    private static final String DEAD_LETTER_EXCHANGE = "dmf.connector.deadletter";
+
+    private final AmqpProperties.Sender properties = new AmqpProperties.Sender();
+    // thing id -> sent messages
+    private final Map<String, List<String>> sent = new ConcurrentHashMap<>();
+    private final BlockingQueue<CorrelationData> unconfirmed = new LinkedBlockingQueue<>();
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    private PipelinedAmqpMessageSenderService sender;
+
+    @BeforeEach
+    void before() {
+        properties.setShutdownTimeout(1_000);
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        doAnswer(invocation -> {
+            final Message message = invocation.getArgument(2);
+            sent.computeIfAbsent(message.getMessageProperties().getHeader(MessageHeaderKey.THING_ID),
+                    thingId -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(new String(message.getBody()));
+            unconfirmed.add(invocation.getArgument(3));
+            return null;
+        }).when(rabbitTemplate).send(eq("exchange"), eq(""), any(Message.class), any(CorrelationData.class));
+    }
+
+    @AfterEach
+    void after() {
+        if (sender != null) {
+            unconfirmed.forEach(correlationData -> correlationData.getFuture()
+                    .complete(new CorrelationData.Confirm(true, null)));
+            sender.shutdown();
+        }
+    }
+
+    @Test
+    @Description("Verifies that the messages are sent in parallel but in order per thing and considered confirmed when sent if publisher confirms are disabled.")
+    void messagesAreSentInOrderPerThing() {
+        when(connectionFactory.isPublisherConfirms()).thenReturn(false);
+        sender = new PipelinedAmqpMessageSenderService(rabbitTemplate, properties, DEAD_LETTER_EXCHANGE,
+                ObservationRegistry.NOOP);
+
+        for (int i = 0; i < 100; i++) {
+            sender.sendMessage(message("thing" + (i % 10), String.valueOf(i)), SEND_TO);
+        }
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> sender.getStatistics().getConfirmed() == 100);
+        for (int thing = 0; thing < 10; thing++) {
+            final List<String> expected = new ArrayList<>();
+            for (int i = thing; i < 100; i += 10) {
+                expected.add(String.valueOf(i));
+            }
+            assertThat(sent.get("thing" + thing)).containsExactlyElementsOf(expected);
+        }
+        assertThat(sender.getStatistics().getInFlight()).isZero();
+    }
+
+    @Test
+    @Description("Verifies that the publisher confirms are tracked asynchronously, nacked messages are resent with backoff and dead lettered after the last retry.")
+    void nackedMessagesAreRetriedAndDeadLettered() throws InterruptedException {
+        when(connectionFactory.isPublisherConfirms()).thenReturn(true);
+        properties.setMaxRetries(1);
+        properties.setRetryBackoff(200);
+        sender = new PipelinedAmqpMessageSenderService(rabbitTemplate, properties, DEAD_LETTER_EXCHANGE,
+                ObservationRegistry.NOOP);
+
+        sender.sendMessage(message("thing", "0"), SEND_TO);
+        final CompletableFuture<CorrelationData.Confirm> first = unconfirmed.take().getFuture();
+        assertThat(sender.getStatistics().getInFlight()).isEqualTo(1);
+        final long nackedAt = System.nanoTime();
+        first.complete(new CorrelationData.Confirm(false, "nack"));
+
+        // resent after the backoff and nacked again, no more retries
+        final CorrelationData retry = unconfirmed.take();
+        assertThat(System.nanoTime() - nackedAt).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+        retry.getFuture().complete(new CorrelationData.Confirm(false, "nack"));
+        await().atMost(Duration.ofSeconds(10)).until(() -> sender.getStatistics().getDeadLettered() == 1);
+        final ArgumentCaptor<Message> deadLettered = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate).send(eq(DEAD_LETTER_EXCHANGE), eq(""), deadLettered.capture());
+        assertThat(new String(deadLettered.getValue().getBody())).isEqualTo("0");
+        assertThat(deadLettered.getValue().getMessageProperties().getHeaders())
+                .containsEntry(PipelinedAmqpMessageSenderService.ORIGINAL_EXCHANGE_HEADER, "exchange")
+                .containsEntry(PipelinedAmqpMessageSenderService.NACK_REASON_HEADER, "nack");
+
+        sender.sendMessage(message("thing", "1"), SEND_TO);
+        unconfirmed.take().getFuture().complete(new CorrelationData.Confirm(true, null));
+        await().atMost(Duration.ofSeconds(10)).until(() -> sender.getStatistics().getConfirmed() == 1);
+
+        final PipelinedAmqpMessageSenderService.Statistics statistics = sender.getStatistics();
+        assertThat(statistics.getSent()).isEqualTo(3);
+        assertThat(statistics.getNacked()).isEqualTo(2);
+        assertThat(statistics.getRetried()).isEqualTo(1);
+        assertThat(statistics.getFailed()).isEqualTo(1);
+        assertThat(statistics.getInFlight()).isZero();
+        assertThat(sent.get("thing")).containsExactly("0", "0", "1");
+    }
+
+    @Test
+    @Description("Verifies that the later messages of a thing are held until its nacked message is resent and confirmed, while the messages of other things are sent.")
+    void laterMessagesOfThingAreHeldBehindRetry() throws InterruptedException {
+        when(connectionFactory.isPublisherConfirms()).thenReturn(true);
+        properties.setWorkers(1);
+        sender = new PipelinedAmqpMessageSenderService(rabbitTemplate, properties, DEAD_LETTER_EXCHANGE,
+                ObservationRegistry.NOOP);
+
+        sender.sendMessage(message("thing", "0"), SEND_TO);
+        sender.sendMessage(message("thing", "1"), SEND_TO);
+        sender.sendMessage(message("other", "x"), SEND_TO);
+        final CorrelationData first = unconfirmed.take();
+        unconfirmed.take().getFuture().complete(new CorrelationData.Confirm(true, null));
+        await().atMost(Duration.ofSeconds(10)).until(() -> sender.getStatistics().getConfirmed() == 1);
+        assertThat(sent.get("other")).containsExactly("x");
+        assertThat(sent.get("thing")).containsExactly("0");
+        assertThat(sender.getStatistics().getQueued()).isEqualTo(1);
+
+        first.getFuture().complete(new CorrelationData.Confirm(false, "nack"));
+        final CorrelationData retry = unconfirmed.take();
+        assertThat(unconfirmed.poll(200, TimeUnit.MILLISECONDS)).as("held until the retry is confirmed").isNull();
+        retry.getFuture().complete(new CorrelationData.Confirm(true, null));
+        unconfirmed.take().getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> sender.getStatistics().getConfirmed() == 3);
+        assertThat(sent.get("thing")).containsExactly("0", "0", "1");
+        assertThat(sender.getStatistics().getQueued()).isZero();
+    }
+
+    @Test
+    @Description("Verifies that the producers are blocked instead of messages being dropped if the queue and the in flight messages are at their limits.")
+    void producersAreSlowedDown() throws InterruptedException {
+        when(connectionFactory.isPublisherConfirms()).thenReturn(true);
+        properties.setWorkers(1);
+        properties.setQueueCapacity(1);
+        properties.setMaxInFlight(1);
+        sender = new PipelinedAmqpMessageSenderService(rabbitTemplate, properties, DEAD_LETTER_EXCHANGE,
+                ObservationRegistry.NOOP);
+
+        // first is in flight, second waits to be sent, third is queued and fourth blocks
+        sender.sendMessage(message("thing0", "0"), SEND_TO);
+        final CorrelationData first = unconfirmed.take();
+        sender.sendMessage(message("thing1", "1"), SEND_TO);
+        await().atMost(Duration.ofSeconds(10)).until(() -> sender.getStatistics().getQueued() == 0);
+        sender.sendMessage(message("thing2", "2"), SEND_TO);
+        final Thread producer = new Thread(() -> sender.sendMessage(message("thing3", "3"), SEND_TO));
+        producer.start();
+        producer.join(200);
+        assertThat(producer.isAlive()).as("producer is blocked").isTrue();
+
+        first.getFuture().complete(new CorrelationData.Confirm(true, null));
+        producer.join(10_000);
+        assertThat(producer.isAlive()).as("producer is unblocked").isFalse();
+        for (int i = 1; i < 4; i++) {
+            unconfirmed.take().getFuture().complete(new CorrelationData.Confirm(true, null));
+        }
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> sender.getStatistics().getConfirmed() == 4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(sent.get("thing" + i)).containsExactly(String.valueOf(i));
+        }
+    }
+
+    private static Message message(final String thingId, final String body) {
+        final MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setHeader(MessageHeaderKey.THING_ID, thingId);
+        return new Message(body.getBytes(), messageProperties);
+    }
+}
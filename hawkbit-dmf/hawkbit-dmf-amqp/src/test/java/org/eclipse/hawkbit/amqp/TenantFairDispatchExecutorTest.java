@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.eclipse.hawkbit.amqp.TenantFairDispatchExecutor.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+@Feature("Component Tests - Device Management Federation API")
+@Story("Tenant Fair Dispatch Executor Test")
+class TenantFairDispatchExecutorTest {
+
+    private final AmqpProperties.Dispatcher properties = new AmqpProperties.Dispatcher();
+    private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch blocked = new CountDownLatch(1);
+
+    private TenantFairDispatchExecutor executor;
+
+    @BeforeEach
+    void before() {
+        properties.setThreads(1);
+        properties.setShutdownTimeout(1_000);
+    }
+
+    @AfterEach
+    void after() {
+        blocked.countDown();
+        SecurityContextHolder.clearContext();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @Description("Verifies that the tenants are served round robin according to their weights.")
+    void tenantsAreServedRoundRobinByWeight() {
+        properties.setWeights(Map.of("tenantA", 2));
+        executor = new TenantFairDispatchExecutor(properties, ObservationRegistry.NOOP);
+
+        blockWorker();
+        for (int i = 0; i < 6; i++) {
+            execute("TENANTA", Priority.NORMAL, "A" + i);
+        }
+        for (int i = 0; i < 3; i++) {
+            execute("tenantB", Priority.NORMAL, "B" + i);
+        }
+        blocked.countDown();
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> executed.size() == 9);
+        assertThat(executed).containsExactly("A0", "A1", "B0", "A2", "A3", "B1", "A4", "A5", "B2");
+        assertThat(executor.getStatistics().getExecuted()).isEqualTo(10);
+        assertThat(executor.getStatistics().getQueued()).isEmpty();
+    }
+
+    @Test
+    @Description("Verifies that the high priority tasks of all tenants are run before the normal ones.")
+    void highPriorityTasksAreRunFirst() {
+        executor = new TenantFairDispatchExecutor(properties, ObservationRegistry.NOOP);
+
+        blockWorker();
+        execute("tenantA", Priority.NORMAL, "update A0");
+        execute("tenantA", Priority.NORMAL, "update A1");
+        execute("tenantB", Priority.NORMAL, "update B0");
+        execute("tenantB", Priority.HIGH, "cancel B0");
+        execute("tenantA", Priority.HIGH, "cancel A0");
+        blocked.countDown();
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> executed.size() == 5);
+        assertThat(executed).containsExactly("cancel A0", "cancel B0", "update A0", "update B0", "update A1");
+    }
+
+    @Test
+    @Description("Verifies that a full tenant queue neither blocks the submitter nor lets it run the task, but the task is deferred and observed, without affecting the other tenants and the high priority tasks.")
+    void fullTenantQueueDefersTask() {
+        properties.setMaxQueuedPerTenant(1);
+        final List<String> overflows = Collections.synchronizedList(new ArrayList<>());
+        final ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new ObservationHandler<>() {
+
+            @Override
+            public void onStop(final Observation.Context context) {
+                overflows.add(context.getName() + ":" + context.getLowCardinalityKeyValue("tenant").getValue());
+            }
+
+            @Override
+            public boolean supportsContext(final Observation.Context context) {
+                return true;
+            }
+        });
+        executor = new TenantFairDispatchExecutor(properties, observationRegistry);
+
+        blockWorker();
+        execute("tenantA", Priority.NORMAL, "A0");
+        execute("tenantA", Priority.NORMAL, "A1");
+        assertThat(executed).isEmpty();
+        assertThat(overflows).containsExactly(TenantFairDispatchExecutor.OVERFLOW_OBSERVATION_NAME + ":TENANTA");
+        execute("tenantA", Priority.HIGH, "cancel A0");
+        execute("tenantB", Priority.NORMAL, "B0");
+        assertThat(executor.getStatistics().getQueued()).containsEntry("TENANTA", 3).containsEntry("TENANTB", 1);
+        assertThat(executor.getStatistics().getOverflowed()).isEqualTo(1);
+
+        blocked.countDown();
+        await().atMost(Duration.ofSeconds(10)).until(() -> executed.size() == 4);
+        assertThat(executed).containsExactly("cancel A0", "B0", "A0", "A1");
+    }
+
+    @Test
+    @Description("Verifies that the queued and the deferred tasks of a tenant with the same merge key are merged, the latest payload of a target is used and the targets are run partition by partition.")
+    void tasksWithSameMergeKeyAreMergedAndPartitioned() {
+        properties.setMaxQueuedPerTenant(1);
+        properties.setPartitionSize(2);
+        executor = new TenantFairDispatchExecutor(properties, ObservationRegistry.NOOP);
+
+        blockWorker();
+        executePayloads("first", "assignment", Map.of("t1", "a1", "t2", "a1", "t3", "a1"));
+        executePayloads("second", "assignment", Map.of("t3", "a2", "t4", "a2"));
+        executePayloads("third", "attributes", Map.of("t5", "r1"));
+        executePayloads("fourth", "attributes", Map.of("t6", "r2"));
+        assertThat(executor.getStatistics().getQueued()).containsEntry("TENANTA", 2);
+        assertThat(executor.getStatistics().getOverflowed()).isEqualTo(2);
+
+        blocked.countDown();
+        await().atMost(Duration.ofSeconds(10)).until(() -> executed.size() == 3);
+        assertThat(executed).hasSize(3).allMatch(partition -> partition.split(",").length <= 2);
+        assertThat(String.join(",", executed)).isEqualTo(
+                "first:t1=a1,first:t2=a1,first:t3=a2,first:t4=a2,third:t5=r1,third:t6=r2");
+    }
+
+    @Test
+    @Description("Verifies that the tasks are run with the security context of the submitting thread.")
+    void securityContextIsPropagated() {
+        executor = new TenantFairDispatchExecutor(properties, ObservationRegistry.NOOP);
+        final Authentication authentication = new TestingAuthenticationToken("user", "password");
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        final List<Authentication> authentications = Collections.synchronizedList(new ArrayList<>());
+
+        executor.execute("tenantA", Priority.NORMAL,
+                () -> authentications.add(SecurityContextHolder.getContext().getAuthentication()));
+        await().atMost(Duration.ofSeconds(10)).until(() -> authentications.size() == 1);
+        executor.execute("tenantA", Priority.NORMAL,
+                () -> authentications.add(SecurityContextHolder.getContext().getAuthentication()));
+        SecurityContextHolder.clearContext();
+        executor.execute("tenantA", Priority.NORMAL,
+                () -> authentications.add(SecurityContextHolder.getContext().getAuthentication()));
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> authentications.size() == 3);
+        assertThat(authentications).containsExactly(authentication, authentication, null);
+    }
+
+    // the single worker runs a task of another tenant which blocks until the test releases it
+    private void blockWorker() {
+        final CountDownLatch running = new CountDownLatch(1);
+        executor.execute("blocker", Priority.NORMAL, () -> {
+            running.countDown();
+            try {
+                blocked.await(10, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        await().atMost(Duration.ofSeconds(10)).until(() -> running.getCount() == 0);
+    }
+
+    private void execute(final String tenant, final Priority priority, final String name) {
+        executor.execute(tenant, priority, () -> executed.add(name));
+    }
+
+    // records a partition as comma separated list of the task name and the payload of each target
+    private void executePayloads(final String name, final String mergeKey, final Map<String, String> payloads) {
+        executor.execute("tenantA", Priority.NORMAL, mergeKey, new TreeMap<>(payloads),
+                partition -> executed.add(partition.entrySet().stream()
+                        .map(entry -> name + ":" + entry.getKey() + "=" + entry.getValue())
+                        .collect(Collectors.joining(","))));
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import com.rabbitmq.client.Channel;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.hawkbit.amqp.AmqpBatchMessageHandlerService;
+import org.eclipse.hawkbit.amqp.AmqpMessageDispatcherService;
+import org.eclipse.hawkbit.amqp.AmqpMessageHandlerService;
+import org.eclipse.hawkbit.amqp.DelayedRequeueExceptionStrategy;
+import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageType;
+import org.eclipse.hawkbit.dmf.json.model.DmfAttributeUpdate;
+import org.eclipse.hawkbit.repository.jpa.RepositoryApplicationConfiguration;
+import org.eclipse.hawkbit.repository.test.TestConfiguration;
+import org.eclipse.hawkbit.repository.test.util.AbstractIntegrationTest;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.ConditionalRejectingErrorHandler;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Compares the {@link AmqpBatchMessageHandlerService} with the single message listener of the
+ * {@link AmqpMessageHandlerService} against the database, without a broker.
+ */
+@Slf4j
+@Feature("Component Tests - Device Management Federation API")
+@Story("AmqpBatchMessage Handler Service")
+@ContextConfiguration(classes = { RepositoryApplicationConfiguration.class, TestConfiguration.class })
+class AmqpBatchMessageHandlerServiceIntegrationTest extends AbstractIntegrationTest {
+
+    private static final String VIRTUAL_HOST = "vHost";
+    private static final String TARGET_PREFIX = "batch";
+    private static final int TARGETS = 200;
+    private static final int BATCH_SIZE = 100;
+
+    private final MessageConverter messageConverter = new Jackson2JsonMessageConverter();
+    private final CommitCounter commitCounter = new CommitCounter();
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private AmqpMessageHandlerService amqpMessageHandlerService;
+    private AmqpBatchMessageHandlerService amqpBatchMessageHandlerService;
+
+    @BeforeEach
+    void before() {
+        final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        when(rabbitTemplate.getMessageConverter()).thenReturn(messageConverter);
+        amqpMessageHandlerService = new AmqpMessageHandlerService(rabbitTemplate,
+                mock(AmqpMessageDispatcherService.class), controllerManagement, entityFactory, systemSecurityContext,
+                tenantConfigurationManagement, confirmationManagement);
+        amqpBatchMessageHandlerService = new AmqpBatchMessageHandlerService(amqpMessageHandlerService,
+                transactionManager, new ConditionalRejectingErrorHandler(new DelayedRequeueExceptionStrategy(0)));
+        entityManagerFactory.unwrap(Session.class).getEventManager().addListener(commitCounter);
+    }
+
+    @AfterEach
+    void after() {
+        entityManagerFactory.unwrap(Session.class).getEventManager().removeListener(commitCounter);
+    }
+
+    @Test
+    @Description("Verifies that the batch listener applies the attribute updates with one database commit per batch "
+            + "and tenant instead of one per message and is not slower than the single message listener.")
+    void throughputComparedToSingleMessageListener() {
+        testdataFactory.createTargets(TARGET_PREFIX, TARGETS);
+        // warm up both paths, so that neither of them pays for the first use of the persistence context
+        amqpMessageHandlerService.onMessage(
+                createAttributeUpdateMessage(0, "warmup"), MessageType.EVENT.name(), tenantAware.getCurrentTenant(), VIRTUAL_HOST);
+        amqpBatchMessageHandlerService.onMessages(
+                List.of(createAttributeUpdateMessage(1, "warmup")), mock(Channel.class), VIRTUAL_HOST);
+
+        final Measurement single = measure("single", messages -> messages.forEach(message ->
+                amqpMessageHandlerService.onMessage(
+                        message, MessageType.EVENT.name(), tenantAware.getCurrentTenant(), VIRTUAL_HOST)));
+        assertAttributes("single");
+        final Measurement batch = measure("batch", messages -> {
+            final Channel channel = mock(Channel.class);
+            for (int i = 0; i < messages.size(); i += BATCH_SIZE) {
+                amqpBatchMessageHandlerService.onMessages(
+                        messages.subList(i, Math.min(i + BATCH_SIZE, messages.size())), channel, VIRTUAL_HOST);
+            }
+        });
+        assertAttributes("batch");
+
+        log.info("Attribute updates of {} targets: single message listener {} commits in {} ms, "
+                        + "batch listener {} commits in {} ms", TARGETS, single.commits, single.millis(),
+                batch.commits, batch.millis());
+        assertThat(single.commits).as("the single message listener commits every message").isEqualTo(TARGETS);
+        assertThat(batch.commits).as("the batch listener commits every batch").isEqualTo(TARGETS / BATCH_SIZE);
+        assertThat(batch.nanos).as("the batch listener is not slower than the single message listener")
+                .isLessThanOrEqualTo(single.nanos);
+    }
+
+    private Measurement measure(final String value, final Consumer<List<Message>> listener) {
+        final List<Message> messages = new ArrayList<>(TARGETS);
+        for (int i = 0; i < TARGETS; i++) {
+            messages.add(createAttributeUpdateMessage(i, value));
+        }
+        commitCounter.commits.set(0);
+        final long start = System.nanoTime();
+        listener.accept(messages);
+        return new Measurement(commitCounter.commits.get(), System.nanoTime() - start);
+    }
+
+    private void assertAttributes(final String value) {
+        for (int i = 0; i < TARGETS; i++) {
+            assertThat(targetManagement.getControllerAttributes(TARGET_PREFIX + i)).containsEntry("key", value + i);
+        }
+    }
+
+    private Message createAttributeUpdateMessage(final int target, final String value) {
+        final MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setHeader(MessageHeaderKey.TYPE, MessageType.EVENT.name());
+        messageProperties.setHeader(MessageHeaderKey.TENANT, tenantAware.getCurrentTenant());
+        messageProperties.setHeader(MessageHeaderKey.TOPIC, EventTopic.UPDATE_ATTRIBUTES.name());
+        messageProperties.setHeader(MessageHeaderKey.THING_ID, TARGET_PREFIX + target);
+        messageProperties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        messageProperties.setDeliveryTag(target);
+        final DmfAttributeUpdate attributeUpdate = new DmfAttributeUpdate();
+        attributeUpdate.getAttributes().put("key", value + target);
+        return messageConverter.toMessage(attributeUpdate, messageProperties);
+    }
+
+    private record Measurement(int commits, long nanos) {
+
+        private long millis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+    }
+
+    /**
+     * Counts the physical database commits.
+     */
+    private static class CommitCounter extends SessionEventAdapter {
+
+        private final AtomicInteger commits = new AtomicInteger();
+
+        @Override
+        public void postCommitTransaction(final SessionEvent event) {
+            commits.incrementAndGet();
+        }
+    }
+}
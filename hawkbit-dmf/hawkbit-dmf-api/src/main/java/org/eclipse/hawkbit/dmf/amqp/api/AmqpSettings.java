@@ -19,4 +19,10 @@ import lombok.NoArgsConstructor;
 public final class AmqpSettings {
 
     public static final String DMF_EXCHANGE = "dmf.exchange";
+
+    /**
+     * Content type of the messages encoded as CBOR instead of JSON. Supported
+     * in both directions, see the DMF documentation for the negotiation.
+     */
+    public static final String CONTENT_TYPE_CBOR = "application/cbor";
 }
\ No newline at end of file
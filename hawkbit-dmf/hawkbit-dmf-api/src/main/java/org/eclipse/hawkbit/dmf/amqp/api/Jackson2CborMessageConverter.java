@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.dmf.amqp.api;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractMessageConverter;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.Jackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+/**
+ * A message converter which encodes the DMF messages as CBOR, a binary JSON
+ * compatible format. The messages are smaller and faster to encode and decode
+ * than JSON, mainly the artifact hashes and URLs of the update requests. Like
+ * the {@link org.springframework.amqp.support.converter.Jackson2JsonMessageConverter}
+ * the type is set and read from the {@code __TypeId__} header.
+ * <p/>
+ * The Jackson JSON message converters can't be used with a binary format, as
+ * they convert the body to a string.
+ * <p/>
+ * Used by the update server and by the DMF clients, e.g. the SDK, so both
+ * sides encode and decode the messages the same way. Requires spring-rabbit and
+ * jackson-dataformat-cbor, which are optional dependencies of the DMF API.
+ */
+public class Jackson2CborMessageConverter extends AbstractMessageConverter {
+
+    private final ObjectMapper objectMapper;
+    private final Jackson2JavaTypeMapper typeMapper;
+
+    /**
+     * Constructor.
+     */
+    public Jackson2CborMessageConverter() {
+        this(CBORMapper.builder().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).build());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param objectMapper the CBOR object mapper
+     */
+    public Jackson2CborMessageConverter(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        final DefaultJackson2JavaTypeMapper defaultTypeMapper = new DefaultJackson2JavaTypeMapper();
+        defaultTypeMapper.setTrustedPackages("*");
+        typeMapper = defaultTypeMapper;
+    }
+
+    @Override
+    protected Message createMessage(final Object object, final MessageProperties messageProperties) {
+        final byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(object);
+        } catch (final IOException e) {
+            throw new MessageConversionException("Failed to convert object to CBOR", e);
+        }
+        messageProperties.setContentType(AmqpSettings.CONTENT_TYPE_CBOR);
+        messageProperties.setContentLength(body.length);
+        typeMapper.fromJavaType(objectMapper.constructType(object.getClass()), messageProperties);
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(final Message message) {
+        final MessageProperties messageProperties = message.getMessageProperties();
+        if (messageProperties == null || messageProperties.getContentType() == null
+                || !messageProperties.getContentType().contains("cbor")) {
+            return message.getBody();
+        }
+        try {
+            return objectMapper.readValue(message.getBody(), typeMapper.toJavaType(messageProperties));
+        } catch (final IOException e) {
+            throw new MessageConversionException("Failed to convert CBOR message content", e);
+        }
+    }
+}
@@ -41,9 +41,29 @@ public class PagedList<T> extends RepresentationModel<PagedList<T>> {
 
     @JsonProperty
     private final List<T> content;
+    /**
+     * The total amount of elements, <code>null</code> if not counted.
+     */
     @JsonProperty
-    private final long total;
+    private final Long total;
     private final int size;
+    /**
+     * The cursor of the next page in cursor paging mode, <code>null</code> if
+     * not in cursor mode or if there is no next page.
+     */
+    @JsonProperty
+    private String next;
+    /**
+     * If there is a next page, only set if the total is not counted.
+     */
+    @JsonProperty
+    private Boolean hasNext;
+    /**
+     * <code>true</code> if the total is not exact but e.g. taken from a cache,
+     * <code>null</code> otherwise.
+     */
+    @JsonProperty
+    private Boolean approximate;
 
     /**
      * creates a new paged list with the given {@code content} and {@code total}
@@ -53,8 +73,20 @@ public class PagedList<T> extends RepresentationModel<PagedList<T>> {
      * @param total the total amount of elements
      * @throws NullPointerException in case {@code content} is {@code null}.
      */
+    public PagedList(@NotNull final List<T> content, final long total) {
+        this(content, Long.valueOf(total));
+    }
+
+    /**
+     * creates a new paged list with the given {@code content} and optional
+     * {@code total}.
+     *
+     * @param content the actual content of the list
+     * @param total the total amount of elements, <code>null</code> if not counted
+     * @throws NullPointerException in case {@code content} is {@code null}.
+     */
     @JsonCreator
-    public PagedList(@JsonProperty("content") @NotNull final List<T> content, @JsonProperty("total") final long total) {
+    public PagedList(@JsonProperty("content") @NotNull final List<T> content, @JsonProperty("total") final Long total) {
         this.size = content.size();
         this.total = total;
         this.content = content;
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.mgmt.json.model.rollout;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+/**
+ * A json annotated rest model for the trace of the last execution of a rollout.
+ */
+@Data
+@Accessors(chain = true)
+@ToString
+@JsonInclude(Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MgmtRolloutExecutionTrace {
+
+    @JsonProperty
+    @Schema(description = "The status of the rollout when the execution started", example = "running")
+    private String rolloutStatus;
+
+    @JsonProperty
+    @Schema(description = "Start of the execution", example = "1691065941102")
+    private Long startedAt;
+
+    @JsonProperty
+    @Schema(description = "Duration of the execution in milliseconds", example = "120")
+    private Long durationMs;
+
+    @JsonProperty
+    @Schema(description = "The phases of the execution in the order they are started")
+    private List<Phase> phases;
+
+    @JsonProperty
+    @Schema(description = "The counts of the execution, e.g. targets assigned, actions created, events published",
+            example = "{\"actions.created\": 500}")
+    private Map<String, Long> counts;
+
+    @JsonProperty
+    @Schema(description = "The error the execution failed with, if any")
+    private String error;
+
+    @Data
+    @Accessors(chain = true)
+    @ToString
+    @JsonInclude(Include.NON_NULL)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Phase {
+
+        @JsonProperty
+        @Schema(description = "The name of the phase", example = "handleRunningRollout")
+        private String name;
+
+        @JsonProperty
+        @Schema(description = "The nesting level of the phase, 0 for the top level phases", example = "0")
+        private Integer depth;
+
+        @JsonProperty
+        @Schema(description = "Start of the phase relative to the start of the execution in milliseconds",
+                example = "5")
+        private Long startOffsetMs;
+
+        @JsonProperty
+        @Schema(description = "Duration of the phase in milliseconds", example = "100")
+        private Long durationMs;
+    }
+}
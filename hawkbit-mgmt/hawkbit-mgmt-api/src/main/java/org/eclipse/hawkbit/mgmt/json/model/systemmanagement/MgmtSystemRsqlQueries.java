@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.mgmt.json.model.systemmanagement;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+/**
+ * Body for the diagnostics of the RSQL filtered queries executed on the serving node.
+ */
+@Data
+@ToString
+@Accessors(chain = true)
+@JsonInclude(Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MgmtSystemRsqlQueries {
+
+    @JsonProperty
+    @Schema(description = "The statistics per tenant, entity and normalized RSQL, sorted by the total execution time")
+    private List<Query> queries;
+
+    @JsonProperty
+    @Schema(description = "The most recent executions which took longer than the slow query threshold, most recent first")
+    private List<Execution> slowExecutions;
+
+    @JsonProperty
+    @Schema(description = "The statistics of the cache of the parsed RSQL queries")
+    private CacheStatistics queryCache;
+
+    @JsonProperty
+    @Schema(description = "The statistics of the cache of the query fields resolved to entity attributes")
+    private CacheStatistics fieldPathCache;
+
+    @Data
+    @Accessors(chain = true)
+    @ToString
+    @JsonInclude(Include.NON_NULL)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Query {
+
+        @JsonProperty
+        @Schema(description = "The tenant", example = "DEFAULT")
+        private String tenant;
+
+        @JsonProperty
+        @Schema(description = "The queried entity", example = "JpaTarget")
+        private String entity;
+
+        @JsonProperty
+        @Schema(description = "The RSQL with the values replaced by ?", example = "(name==?;updatestatus==?)")
+        private String rsql;
+
+        @JsonProperty
+        @Schema(description = "The number of executions", example = "20")
+        private Long executions;
+
+        @JsonProperty
+        @Schema(description = "The number of failed executions, not included in the executions", example = "0")
+        private Long failures;
+
+        @JsonProperty
+        @Schema(description = "The total execution time in milliseconds", example = "1200")
+        private Long totalTimeMs;
+
+        @JsonProperty
+        @Schema(description = "The maximum execution time in milliseconds", example = "150")
+        private Long maxTimeMs;
+
+        @JsonProperty
+        @Schema(description = "The total number of rows returned by the executions", example = "400")
+        private Long rows;
+
+        @JsonProperty
+        @Schema(description = "The SQL generated for the last execution")
+        private String sql;
+    }
+
+    @Data
+    @Accessors(chain = true)
+    @ToString
+    @JsonInclude(Include.NON_NULL)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Execution {
+
+        @JsonProperty
+        @Schema(description = "The tenant", example = "DEFAULT")
+        private String tenant;
+
+        @JsonProperty
+        @Schema(description = "The queried entity", example = "JpaTarget")
+        private String entity;
+
+        @JsonProperty
+        @Schema(description = "The RSQL", example = "name==device* and updatestatus==error")
+        private String rsql;
+
+        @JsonProperty
+        @Schema(description = "The generated SQL")
+        private String sql;
+
+        @JsonProperty
+        @Schema(description = "Start of the execution", example = "1691065941102")
+        private Long startedAt;
+
+        @JsonProperty
+        @Schema(description = "Duration of the execution in milliseconds", example = "750")
+        private Long durationMs;
+
+        @JsonProperty
+        @Schema(description = "The number of returned rows, -1 if streamed", example = "50")
+        private Long rows;
+    }
+
+    @Data
+    @Accessors(chain = true)
+    @ToString
+    @JsonInclude(Include.NON_NULL)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class CacheStatistics {
+
+        @JsonProperty
+        @Schema(description = "The number of cache hits", example = "980")
+        private Long hits;
+
+        @JsonProperty
+        @Schema(description = "The number of cache misses", example = "20")
+        private Long misses;
+
+        @JsonProperty
+        @Schema(description = "The number of evicted entries", example = "0")
+        private Long evictions;
+
+        @JsonProperty
+        @Schema(description = "The approximate number of cached entries", example = "20")
+        private Long size;
+    }
+}
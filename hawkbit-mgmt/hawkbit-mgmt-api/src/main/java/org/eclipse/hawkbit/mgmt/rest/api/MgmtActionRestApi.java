@@ -45,6 +45,8 @@ public interface MgmtActionRestApi {
      *         {@code q=distributionSet.id==1}
      * @param representationModeParam the representation mode parameter specifying whether a compact
      *         or a full representation shall be returned
+     * @param cursorParam the cursor for cursor based paging, might not be present in the rest request
+     * @param countParam how the total is counted, exact, approximate or none
      * @return a list of all actions for a defined or default page request with
      *         status OK. The response is always paged. In any failure the
      *         JsonResponseExceptionHandler is handling the response.
@@ -98,7 +100,21 @@ public interface MgmtActionRestApi {
             @Schema(description = """
                     The representation mode. Can be "full" or "compact". Defaults to "compact"
                     """)
-            String representationModeParam);
+            String representationModeParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_CURSOR, required = false)
+            @Schema(description = """
+                    Opt-in cursor based paging, empty for the first page. If given, the offset is ignored and the page
+                    starts after the entry encoded in the cursor. The cursor of the next page is returned in the field
+                    next of the response. Requires a single sort field out of id, controllerId, createdAt or
+                    lastModifiedAt.""")
+            String cursorParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_COUNT,
+                    defaultValue = MgmtRestConstants.REQUEST_PARAMETER_COUNT_DEFAULT)
+            @Schema(description = """
+                    How the total is counted, exact (default), approximate or none. An approximate total is cached for a
+                    short time and flagged with approximate=true in the response. Without total the response reports if
+                    there is a next page in the field hasNext instead.""")
+            String countParam);
 
     /**
      * Handles the GET request of retrieving a specific {@link MgmtAction} by
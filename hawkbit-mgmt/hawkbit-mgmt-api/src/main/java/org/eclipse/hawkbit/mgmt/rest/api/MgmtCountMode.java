@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.mgmt.rest.api;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Enumeration of the supported modes of counting the total of a paged list.
+ */
+public enum MgmtCountMode {
+
+    /**
+     * The total is counted for every request.
+     */
+    EXACT("exact"),
+
+    /**
+     * The total is taken from a short living cache and could be outdated.
+     */
+    APPROXIMATE("approximate"),
+
+    /**
+     * The total is not counted at all, only whether there is a next page is reported.
+     */
+    NONE("none");
+
+    private final String mode;
+
+    MgmtCountMode(final String mode) {
+        this.mode = mode;
+    }
+
+    public static Optional<MgmtCountMode> fromValue(final String value) {
+        return Arrays.stream(MgmtCountMode.values()).filter(v -> v.mode.equalsIgnoreCase(value)).findFirst();
+    }
+
+    @Override
+    public String toString() {
+        return mode;
+    }
+}
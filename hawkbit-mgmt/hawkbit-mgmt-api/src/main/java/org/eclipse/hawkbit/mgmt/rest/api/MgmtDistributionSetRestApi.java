@@ -62,6 +62,7 @@ public interface MgmtDistributionSetRestApi {
      *         {@code field:direction, field:direction}
      * @param rsqlParam the search parameter in the request URL, syntax
      *         {@code q=name==abc}
+     * @param cursorParam the cursor for cursor based paging, might not be present in the rest request
      * @return a list of all set for a defined or default page request with
      *         status OK. The response is always paged. In any failure the
      *         JsonResponseExceptionHandler is handling the response.
@@ -109,7 +110,14 @@ public interface MgmtDistributionSetRestApi {
             @Schema(description = """
                     Query fields based on the Feed Item Query Language (FIQL). See Entity Definitions for
                     available fields.""")
-            String rsqlParam);
+            String rsqlParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_CURSOR, required = false)
+            @Schema(description = """
+                    Opt-in cursor based paging, empty for the first page. If given, the offset is ignored and the page
+                    starts after the entry encoded in the cursor. The cursor of the next page is returned in the field
+                    next of the response. Requires a single sort field out of id, controllerId, createdAt or
+                    lastModifiedAt.""")
+            String cursorParam);
 
     /**
      * Handles the GET request of retrieving a single DistributionSet .
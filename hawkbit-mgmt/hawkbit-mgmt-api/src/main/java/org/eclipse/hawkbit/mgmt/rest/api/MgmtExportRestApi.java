@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.mgmt.rest.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.eclipse.hawkbit.rest.json.model.ExceptionInfo;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * REST API for exporting all (or all matching) entities in a single streamed response.
+ */
+// no request mapping specified here to avoid CVE-2021-22044 in Feign client
+@Tag(name = "Export", description = "REST API for exporting all (or all matching) entities in a single streamed response.")
+public interface MgmtExportRestApi {
+
+    /**
+     * Handles the GET request of exporting all targets. The targets are written as newline delimited JSON, one
+     * target per line in the same representation as in the target list, ordered by creation.
+     *
+     * @param rsqlParam the search parameter in the request URL, syntax {@code q=name==abc}
+     * @return status OK, the targets are written directly to the response. In any failure before the first target is
+     *         written the JsonResponseExceptionHandler is handling the response.
+     */
+    @Operation(summary = "Export all targets", description = "Handles the GET request of exporting all targets as " +
+            "newline delimited JSON. Required permission: READ_TARGET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully exported"),
+            @ApiResponse(responseCode = "400", description = "Bad Request - e.g. invalid parameters",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionInfo.class))),
+            @ApiResponse(responseCode = "401", description = "The request requires user authentication.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(hidden = true))),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions, data volume restriction applies.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(hidden = true))),
+            @ApiResponse(responseCode = "429", description = "Too many requests. The server will refuse further attempts " +
+                    "and the client has to wait another second.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(hidden = true)))
+    })
+    @GetMapping(value = MgmtRestConstants.EXPORT_V1_REQUEST_MAPPING + "/targets", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<Void> exportTargets(
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false)
+            @Schema(description = """
+                    Query fields based on the Feed Item Query Language (FIQL). See Entity Definitions for
+                    available fields.""")
+            String rsqlParam);
+
+    /**
+     * Handles the GET request of exporting all actions, e.g. all actions of a rollout with
+     * {@code q=rollout.id==1}. The actions are written as newline delimited JSON, one action per line in the compact
+     * representation of the action list, ordered by creation.
+     *
+     * @param rsqlParam the search parameter in the request URL, syntax {@code q=rollout.id==1}
+     * @return status OK, the actions are written directly to the response. In any failure before the first action is
+     *         written the JsonResponseExceptionHandler is handling the response.
+     */
+    @Operation(summary = "Export all actions", description = "Handles the GET request of exporting all actions as " +
+            "newline delimited JSON. Required permission: READ_TARGET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully exported"),
+            @ApiResponse(responseCode = "400", description = "Bad Request - e.g. invalid parameters",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExceptionInfo.class))),
+            @ApiResponse(responseCode = "401", description = "The request requires user authentication.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(hidden = true))),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions, data volume restriction applies.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(hidden = true))),
+            @ApiResponse(responseCode = "429", description = "Too many requests. The server will refuse further attempts " +
+                    "and the client has to wait another second.",
+                    content = @Content(mediaType = "application/json", schema = @Schema(hidden = true)))
+    })
+    @GetMapping(value = MgmtRestConstants.EXPORT_V1_REQUEST_MAPPING + "/actions", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<Void> exportActions(
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false)
+            @Schema(description = """
+                    Query fields based on the Feed Item Query Language (FIQL). See Entity Definitions for
+                    available fields.""")
+            String rsqlParam);
+}
@@ -61,6 +61,10 @@ public final class MgmtRestConstants {
      * The action URL mapping rest resource.
      */
     public static final String ACTION_V1_REQUEST_MAPPING = BASE_V1_REQUEST_MAPPING + "/actions";
+    /**
+     * The export URL mapping rest resource.
+     */
+    public static final String EXPORT_V1_REQUEST_MAPPING = BASE_V1_REQUEST_MAPPING + "/export";
     /**
      * The software module type URL mapping rest resource.
      */
@@ -204,6 +208,24 @@ public final class MgmtRestConstants {
      * must be in the FIQL syntax.
      */
     public static final String REQUEST_PARAMETER_SEARCH = "q";
+    /**
+     * The request parameter for cursor based paging. If given, the offset is
+     * ignored and the page starts after the entry encoded in the cursor, or
+     * with the first entry if the cursor is empty. The cursor of the next page
+     * is returned in the <code>next</code> field of the paged list.
+     */
+    public static final String REQUEST_PARAMETER_PAGING_CURSOR = "cursor";
+    /**
+     * The request parameter for specifying how the total of a paged list is
+     * counted. The value of this parameter can either be "exact",
+     * "approximate" (a cached count, possibly outdated) or "none" (no total,
+     * only whether there is a next page).
+     */
+    public static final String REQUEST_PARAMETER_COUNT = "count";
+    /**
+     * The default count mode.
+     */
+    public static final String REQUEST_PARAMETER_COUNT_DEFAULT = "exact";
     /**
      * The request parameter for specifying the representation mode. The value
      * of this parameter can either be "full" or "compact".
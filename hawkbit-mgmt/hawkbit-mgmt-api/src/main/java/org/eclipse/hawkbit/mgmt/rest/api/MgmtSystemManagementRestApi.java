@@ -12,6 +12,7 @@ package org.eclipse.hawkbit.mgmt.rest.api;
 import java.util.Collection;
 
 import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtSystemCache;
+import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtSystemRsqlQueries;
 import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtSystemStatisticsRest;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.MediaType;
@@ -62,4 +63,15 @@ public interface MgmtSystemManagementRestApi {
     @DeleteMapping(value = MgmtRestConstants.SYSTEM_ADMIN_MAPPING + "/caches")
     ResponseEntity<Collection<String>> invalidateCaches();
 
+    /**
+     * Returns the diagnostics of the RSQL filtered queries executed on the
+     * serving node, i.e. the statistics per tenant, entity and normalized RSQL
+     * and the most recent slow queries with the generated SQL.
+     *
+     * @return the RSQL query diagnostics of the serving node
+     */
+    @GetMapping(value = MgmtRestConstants.SYSTEM_ADMIN_MAPPING + "/rsql", produces = { MediaTypes.HAL_JSON_VALUE,
+            MediaType.APPLICATION_JSON_VALUE })
+    ResponseEntity<MgmtSystemRsqlQueries> getRsqlQueries();
+
 }
@@ -97,6 +97,8 @@ public interface MgmtTargetRestApi {
      *         {@code field:direction, field:direction}
      * @param rsqlParam the search parameter in the request URL, syntax
      *         {@code q=name==abc}
+     * @param cursorParam the cursor for cursor based paging, might not be present in the rest request
+     * @param countParam how the total is counted, exact, approximate or none
      * @return a list of all targets for a defined or default page request with
      *         status OK. The response is always paged. In any failure the
      *         JsonResponseExceptionHandler is handling the response.
@@ -144,7 +146,21 @@ public interface MgmtTargetRestApi {
             @Schema(description = """
                     Query fields based on the Feed Item Query Language (FIQL). See Entity Definitions for
                     available fields.""")
-            String rsqlParam);
+            String rsqlParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_CURSOR, required = false)
+            @Schema(description = """
+                    Opt-in cursor based paging, empty for the first page. If given, the offset is ignored and the page
+                    starts after the entry encoded in the cursor. The cursor of the next page is returned in the field
+                    next of the response. Requires a single sort field out of id, controllerId, createdAt or
+                    lastModifiedAt.""")
+            String cursorParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_COUNT,
+                    defaultValue = MgmtRestConstants.REQUEST_PARAMETER_COUNT_DEFAULT)
+            @Schema(description = """
+                    How the total is counted, exact (default), approximate or none. An approximate total is cached for a
+                    short time and flagged with approximate=true in the response. Without total the response reports if
+                    there is a next page in the field hasNext instead.""")
+            String countParam);
 
     /**
      * Handles the POST request of creating new targets. The request body must
@@ -363,6 +379,7 @@ public interface MgmtTargetRestApi {
      *         {@code field:direction, field:direction}
      * @param rsqlParam the search parameter in the request URL, syntax
      *         {@code q=status==pending}
+     * @param cursorParam the cursor for cursor based paging, might not be present in the rest request
      * @return a list of all Actions for a defined or default page request with
      *         status OK. The response is always paged. In any failure the
      *         JsonResponseExceptionHandler is handling the response.
@@ -411,7 +428,14 @@ public interface MgmtTargetRestApi {
             @Schema(description = """
                     Query fields based on the Feed Item Query Language (FIQL). See Entity Definitions for
                     available fields.""")
-            String rsqlParam);
+            String rsqlParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_CURSOR, required = false)
+            @Schema(description = """
+                    Opt-in cursor based paging, empty for the first page. If given, the offset is ignored and the page
+                    starts after the entry encoded in the cursor. The cursor of the next page is returned in the field
+                    next of the response. Requires a single sort field out of id, controllerId, createdAt or
+                    lastModifiedAt.""")
+            String cursorParam);
 
     /**
      * Handles the GET request of retrieving a specific Actions of a specific
@@ -532,6 +556,7 @@ public interface MgmtTargetRestApi {
      *         rest request then default value will be applied
      * @param sortParam the sorting parameter in the request URL, syntax
      *         {@code field:direction, field:direction}
+     * @param cursorParam the cursor for cursor based paging, might not be present in the rest request
      * @return a list of all ActionStatus for a defined or default page request
      *         with status OK. The response is always paged. In any failure the
      *         JsonResponseExceptionHandler is handling the response.
@@ -563,7 +588,8 @@ public interface MgmtTargetRestApi {
             @PathVariable("actionId") Long actionId,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_OFFSET, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET) int pagingOffsetParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT) int pagingLimitParam,
-            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SORTING, required = false) String sortParam);
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SORTING, required = false) String sortParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_CURSOR, required = false) String cursorParam);
 
     /**
      * Handles the GET request of retrieving the assigned distribution set of a
@@ -56,6 +56,17 @@ public class PagedListTest {
         assertListSize(knownTotal, knownContentList);
     }
 
+    @Test
+    @Description("Create list without total and verify that only the size is set.")
+    public void createListWithoutTotal() {
+        final List<String> knownContentList = List.of("content1", "content2");
+
+        final PagedList<String> pagedList = new PagedList<>(knownContentList, null).setHasNext(true);
+        assertThat(pagedList.getTotal()).as("total is not counted").isNull();
+        assertThat(pagedList.getHasNext()).as("has next page").isTrue();
+        assertThat(pagedList.getSize()).as("list size is wrong").isEqualTo(knownContentList.size());
+    }
+
     private void assertListSize(final long knownTotal, final List<String> knownContentList) {
         final PagedList<String> pagedList = new PagedList<>(knownContentList, knownTotal);
         assertThat(pagedList.getTotal()).as("total size is wrong").isEqualTo(knownTotal);
@@ -9,19 +9,21 @@
  */
 package org.eclipse.hawkbit.mgmt.rest.resource;
 
+import java.util.function.LongSupplier;
+
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.hawkbit.mgmt.json.model.PagedList;
 import org.eclipse.hawkbit.mgmt.json.model.action.MgmtAction;
 import org.eclipse.hawkbit.mgmt.rest.api.MgmtActionRestApi;
+import org.eclipse.hawkbit.mgmt.rest.api.MgmtCountMode;
 import org.eclipse.hawkbit.mgmt.rest.api.MgmtRepresentationMode;
 import org.eclipse.hawkbit.mgmt.rest.resource.util.PagingUtility;
+import org.eclipse.hawkbit.mgmt.rest.resource.util.TotalCountCache;
 import org.eclipse.hawkbit.repository.DeploymentManagement;
-import org.eclipse.hawkbit.repository.OffsetBasedPageRequest;
 import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
@@ -33,34 +35,33 @@ public class MgmtActionResource implements MgmtActionRestApi {
 
     private final DeploymentManagement deploymentManagement;
 
-    MgmtActionResource(final DeploymentManagement deploymentManagement) {
+    private final TotalCountCache totalCountCache;
+
+    MgmtActionResource(final DeploymentManagement deploymentManagement, final TotalCountCache totalCountCache) {
         this.deploymentManagement = deploymentManagement;
+        this.totalCountCache = totalCountCache;
     }
 
     @Override
     public ResponseEntity<PagedList<MgmtAction>> getActions(final int pagingOffsetParam, final int pagingLimitParam,
-            final String sortParam, final String rsqlParam, final String representationModeParam) {
+            final String sortParam, final String rsqlParam, final String representationModeParam, final String cursorParam,
+            final String countParam) {
 
         final int sanitizedOffsetParam = PagingUtility.sanitizeOffsetParam(pagingOffsetParam);
         final int sanitizedLimitParam = PagingUtility.sanitizePageLimitParam(pagingLimitParam);
         final Sort sorting = PagingUtility.sanitizeActionSortParam(sortParam);
-        final Pageable pageable = new OffsetBasedPageRequest(sanitizedOffsetParam, sanitizedLimitParam, sorting);
-
-        final Slice<Action> actions;
-        final Long totalActionCount;
-        if (rsqlParam != null) {
-            actions = this.deploymentManagement.findActions(rsqlParam, pageable);
-            totalActionCount = this.deploymentManagement.countActions(rsqlParam);
-        } else {
-            actions = this.deploymentManagement.findActionsAll(pageable);
-            totalActionCount = this.deploymentManagement.countActionsAll();
-        }
+        final MgmtCountMode countMode = PagingUtility.sanitizeCountParam(countParam);
+        final Pageable pageable = PagingUtility.toPageable(sanitizedOffsetParam, sanitizedLimitParam, sorting, cursorParam);
 
         final MgmtRepresentationMode repMode = getRepresentationModeFromString(representationModeParam);
 
-        return ResponseEntity
-                .ok(new PagedList<>(MgmtActionMapper.toResponse(actions.getContent(), repMode), totalActionCount));
-
+        final LongSupplier count = rsqlParam == null
+                ? deploymentManagement::countActionsAll
+                : () -> deploymentManagement.countActions(rsqlParam);
+        return ResponseEntity.ok(PagingUtility.toPagedList(pageable, countMode,
+                page -> rsqlParam == null ? deploymentManagement.findActionsAll(page) : deploymentManagement.findActions(rsqlParam, page),
+                countMode == MgmtCountMode.APPROXIMATE ? () -> totalCountCache.get(Action.class, rsqlParam, count) : count,
+                actions -> MgmtActionMapper.toResponse(actions, repMode)));
     }
 
     @Override
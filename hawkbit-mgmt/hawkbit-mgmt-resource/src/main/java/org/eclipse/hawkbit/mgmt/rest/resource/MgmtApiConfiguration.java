@@ -9,8 +9,15 @@
  */
 package org.eclipse.hawkbit.mgmt.rest.resource;
 
+import java.time.Duration;
+
+import org.eclipse.hawkbit.mgmt.rest.resource.util.TotalCountCache;
 import org.eclipse.hawkbit.rest.OpenApiConfiguration;
 import org.eclipse.hawkbit.rest.RestConfiguration;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -28,4 +35,16 @@ import org.springframework.stereotype.Controller;
 @PropertySource("classpath:/hawkbit-mgmt-api-defaults.properties")
 public class MgmtApiConfiguration {
 
+    /**
+     * @param tenantAware to get the current tenant
+     * @param timeToLive the time after which an approximate total is counted again
+     * @return the cache of the approximate totals of the list APIs
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    TotalCountCache totalCountCache(
+            final TenantAware tenantAware,
+            @Value("${hawkbit.server.rest.mgmt.approximate-count-ttl:PT10S}") final Duration timeToLive) {
+        return new TotalCountCache(tenantAware, timeToLive);
+    }
 }
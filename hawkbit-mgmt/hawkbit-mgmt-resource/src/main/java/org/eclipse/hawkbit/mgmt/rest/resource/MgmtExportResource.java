@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.mgmt.rest.resource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.eclipse.hawkbit.mgmt.rest.api.MgmtExportRestApi;
+import org.eclipse.hawkbit.mgmt.rest.api.MgmtRepresentationMode;
+import org.eclipse.hawkbit.repository.DeploymentManagement;
+import org.eclipse.hawkbit.repository.TargetManagement;
+import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.rest.util.RequestResponseContextHolder;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.eclipse.hawkbit.utils.TenantConfigHelper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Resource handling the streamed export of targets and actions as newline delimited JSON. The entities are read
+ * with a database cursor in chunks and every chunk is written and flushed to the response before the next one is
+ * read, so the memory consumption does not depend on the number of exported entities.
+ */
+@RestController
+public class MgmtExportResource implements MgmtExportRestApi {
+
+    /**
+     * Number of entities read from the database and written to the response at once.
+     */
+    static final int EXPORT_CHUNK_SIZE = 500;
+
+    private final TargetManagement targetManagement;
+    private final DeploymentManagement deploymentManagement;
+    private final TenantConfigHelper tenantConfigHelper;
+    private final ObjectWriter ndJsonWriter;
+
+    MgmtExportResource(
+            final TargetManagement targetManagement, final DeploymentManagement deploymentManagement,
+            final SystemSecurityContext systemSecurityContext,
+            final TenantConfigurationManagement tenantConfigurationManagement, final ObjectMapper objectMapper) {
+        this.targetManagement = targetManagement;
+        this.deploymentManagement = deploymentManagement;
+        this.tenantConfigHelper = TenantConfigHelper.usingContext(systemSecurityContext, tenantConfigurationManagement);
+        // the response stream is not closed by the writer, so in case of a failure before anything is written the
+        // exception handler is still able to write the error response
+        this.ndJsonWriter = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+    }
+
+    @Override
+    public ResponseEntity<Void> exportTargets(final String rsqlParam) {
+        return export(
+                (final Consumer<List<Target>> chunkConsumer) ->
+                        targetManagement.streamByRsql(rsqlParam, EXPORT_CHUNK_SIZE, chunkConsumer),
+                chunk -> MgmtTargetMapper.toResponse(chunk, tenantConfigHelper));
+    }
+
+    @Override
+    public ResponseEntity<Void> exportActions(final String rsqlParam) {
+        return export(
+                (final Consumer<List<Action>> chunkConsumer) ->
+                        deploymentManagement.streamActions(rsqlParam, EXPORT_CHUNK_SIZE, chunkConsumer),
+                chunk -> MgmtActionMapper.toResponse(chunk, MgmtRepresentationMode.COMPACT));
+    }
+
+    private <T> ResponseEntity<Void> export(
+            final Consumer<Consumer<List<T>>> stream, final Function<List<T>, List<?>> toResponse) {
+        final HttpServletResponse response = RequestResponseContextHolder.getHttpServletResponse();
+        try (final SequenceWriter writer = ndJsonWriter.writeValues(response.getOutputStream())) {
+            stream.accept(chunk -> {
+                try {
+                    // the content type is set not until the first chunk is read, otherwise the exception handler
+                    // could not write the (JSON) error response if e.g. the RSQL filter is invalid
+                    setContentType(response);
+                    writer.writeAll(toResponse.apply(chunk));
+                    writer.flush();
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        setContentType(response);
+
+        return ResponseEntity.ok().build();
+    }
+
+    private static void setContentType(final HttpServletResponse response) {
+        if (!response.isCommitted()) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        }
+    }
+}
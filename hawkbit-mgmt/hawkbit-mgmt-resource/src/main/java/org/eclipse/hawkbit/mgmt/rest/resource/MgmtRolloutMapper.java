@@ -22,6 +22,7 @@ import org.eclipse.hawkbit.mgmt.json.model.rollout.MgmtRolloutCondition;
 import org.eclipse.hawkbit.mgmt.json.model.rollout.MgmtRolloutCondition.Condition;
 import org.eclipse.hawkbit.mgmt.json.model.rollout.MgmtRolloutErrorAction;
 import org.eclipse.hawkbit.mgmt.json.model.rollout.MgmtRolloutErrorAction.ErrorAction;
+import org.eclipse.hawkbit.mgmt.json.model.rollout.MgmtRolloutExecutionTrace;
 import org.eclipse.hawkbit.mgmt.json.model.rollout.MgmtRolloutResponseBody;
 import org.eclipse.hawkbit.mgmt.json.model.rollout.MgmtRolloutRestRequestBodyPost;
 import org.eclipse.hawkbit.mgmt.json.model.rollout.MgmtRolloutRestRequestBodyPut;
@@ -40,6 +41,7 @@ import org.eclipse.hawkbit.repository.builder.RolloutGroupCreate;
 import org.eclipse.hawkbit.repository.builder.RolloutUpdate;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.RolloutExecutionTrace;
 import org.eclipse.hawkbit.repository.model.RolloutGroup;
 import org.eclipse.hawkbit.repository.model.RolloutGroup.RolloutGroupErrorAction;
 import org.eclipse.hawkbit.repository.model.RolloutGroup.RolloutGroupErrorCondition;
@@ -255,6 +257,22 @@ final class MgmtRolloutMapper {
         return body;
     }
 
+    static MgmtRolloutExecutionTrace toResponseExecutionTrace(final RolloutExecutionTrace trace) {
+        return new MgmtRolloutExecutionTrace()
+                .setRolloutStatus(trace.getRolloutStatus().toString().toLowerCase())
+                .setStartedAt(trace.getStartedAt())
+                .setDurationMs(trace.getDurationMs())
+                .setPhases(trace.getPhases().stream()
+                        .map(phase -> new MgmtRolloutExecutionTrace.Phase()
+                                .setName(phase.getName())
+                                .setDepth(phase.getDepth())
+                                .setStartOffsetMs(phase.getStartOffsetMs())
+                                .setDurationMs(phase.getDurationMs()))
+                        .toList())
+                .setCounts(trace.getCounts())
+                .setError(trace.getError());
+    }
+
     private static RolloutGroupErrorCondition mapErrorCondition(final Condition condition) {
         if (Condition.THRESHOLD == condition) {
             return RolloutGroupErrorCondition.THRESHOLD;
@@ -18,6 +18,7 @@ import jakarta.validation.ValidationException;
 
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.hawkbit.mgmt.json.model.PagedList;
+import org.eclipse.hawkbit.mgmt.json.model.rollout.MgmtRolloutExecutionTrace;
 import org.eclipse.hawkbit.mgmt.json.model.rollout.MgmtRolloutResponseBody;
 import org.eclipse.hawkbit.mgmt.json.model.rollout.MgmtRolloutRestRequestBodyPost;
 import org.eclipse.hawkbit.mgmt.json.model.rollout.MgmtRolloutRestRequestBodyPut;
@@ -130,6 +131,15 @@ public class MgmtRolloutResource implements MgmtRolloutRestApi {
         return ResponseEntity.ok(MgmtRolloutMapper.toResponseRollout(findRolloutById, true));
     }
 
+    @Override
+    public ResponseEntity<MgmtRolloutExecutionTrace> getLastExecutionTrace(
+            @PathVariable("rolloutId") final Long rolloutId) {
+        return rolloutManagement.getLastExecutionTrace(rolloutId)
+                .map(MgmtRolloutMapper::toResponseExecutionTrace)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
     @Override
     public ResponseEntity<MgmtRolloutResponseBody> create(
             @RequestBody final MgmtRolloutRestRequestBodyPost rolloutRequestBody) {
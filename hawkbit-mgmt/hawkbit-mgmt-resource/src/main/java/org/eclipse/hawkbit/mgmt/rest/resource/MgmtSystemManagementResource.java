@@ -17,10 +17,12 @@ import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
 import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtSystemCache;
+import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtSystemRsqlQueries;
 import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtSystemStatisticsRest;
 import org.eclipse.hawkbit.mgmt.json.model.systemmanagement.MgmtSystemTenantServiceUsage;
 import org.eclipse.hawkbit.mgmt.rest.api.MgmtSystemManagementRestApi;
 import org.eclipse.hawkbit.repository.SystemManagement;
+import org.eclipse.hawkbit.repository.report.model.RsqlQueryReport;
 import org.eclipse.hawkbit.repository.report.model.SystemUsageReportWithTenants;
 import org.eclipse.hawkbit.repository.report.model.TenantUsage;
 import org.springframework.cache.CacheManager;
@@ -108,6 +110,55 @@ public class MgmtSystemManagementResource implements MgmtSystemManagementRestApi
         return ResponseEntity.ok(cacheNames);
     }
 
+    /**
+     * Returns the diagnostics of the RSQL filtered queries executed on this node.
+     *
+     * @return the RSQL query diagnostics of this node
+     */
+    @Override
+    public ResponseEntity<MgmtSystemRsqlQueries> getRsqlQueries() {
+        final RsqlQueryReport report = systemManagement.getRsqlQueryReport();
+        return ResponseEntity.ok(new MgmtSystemRsqlQueries()
+                .setQueries(report.getQueries().stream().map(MgmtSystemManagementResource::convertQuery).toList())
+                .setSlowExecutions(report.getSlowExecutions().stream()
+                        .map(MgmtSystemManagementResource::convertExecution).toList())
+                .setQueryCache(convertCacheStatistics(report.getQueryCache()))
+                .setFieldPathCache(convertCacheStatistics(report.getFieldPathCache())));
+    }
+
+    private static MgmtSystemRsqlQueries.Query convertQuery(final RsqlQueryReport.Query query) {
+        return new MgmtSystemRsqlQueries.Query()
+                .setTenant(query.getTenant())
+                .setEntity(query.getEntity())
+                .setRsql(query.getRsql())
+                .setExecutions(query.getExecutions())
+                .setFailures(query.getFailures())
+                .setTotalTimeMs(query.getTotalTimeMs())
+                .setMaxTimeMs(query.getMaxTimeMs())
+                .setRows(query.getRows())
+                .setSql(query.getSql());
+    }
+
+    private static MgmtSystemRsqlQueries.Execution convertExecution(final RsqlQueryReport.Execution execution) {
+        return new MgmtSystemRsqlQueries.Execution()
+                .setTenant(execution.getTenant())
+                .setEntity(execution.getEntity())
+                .setRsql(execution.getRsql())
+                .setSql(execution.getSql())
+                .setStartedAt(execution.getStartedAt())
+                .setDurationMs(execution.getDurationMs())
+                .setRows(execution.getRows());
+    }
+
+    private static MgmtSystemRsqlQueries.CacheStatistics convertCacheStatistics(
+            final RsqlQueryReport.CacheStatistics cacheStatistics) {
+        return new MgmtSystemRsqlQueries.CacheStatistics()
+                .setHits(cacheStatistics.getHits())
+                .setMisses(cacheStatistics.getMisses())
+                .setEvictions(cacheStatistics.getEvictions())
+                .setSize(cacheStatistics.getSize());
+    }
+
     private static MgmtSystemTenantServiceUsage convertTenant(final TenantUsage tenant) {
         final MgmtSystemTenantServiceUsage result = new MgmtSystemTenantServiceUsage();
         result.setTenantName(tenant.getTenantName());
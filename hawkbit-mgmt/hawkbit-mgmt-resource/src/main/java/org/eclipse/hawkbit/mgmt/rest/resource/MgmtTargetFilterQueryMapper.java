@@ -78,7 +78,7 @@ public final class MgmtTargetFilterQueryMapper {
                     linkTo(methodOn(MgmtDistributionSetRestApi.class).getDistributionSets(
                             Integer.parseInt(MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET),
                             Integer.parseInt(MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT), null,
-                            "name==" + distributionSet.getName() + ";version==" + distributionSet.getVersion())).withRel("DS").expand());
+                            "name==" + distributionSet.getName() + ";version==" + distributionSet.getVersion(), null)).withRel("DS").expand());
         }
 
         return targetRest;
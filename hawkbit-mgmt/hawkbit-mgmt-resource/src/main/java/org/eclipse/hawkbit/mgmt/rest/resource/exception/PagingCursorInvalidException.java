@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.mgmt.rest.resource.exception;
+
+import java.io.Serial;
+
+import org.eclipse.hawkbit.exception.AbstractServerRtException;
+import org.eclipse.hawkbit.exception.SpServerError;
+
+/**
+ * Exception used by the REST API in case of an invalid paging cursor.
+ */
+public class PagingCursorInvalidException extends AbstractServerRtException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new PagingCursorInvalidException with {@link SpServerError#SP_REST_PAGING_CURSOR_INVALID} error.
+     *
+     * @param cause the cause (which is saved for later retrieval by the getCause() method). (A null value is permitted, and indicates
+     *         that the cause is nonexistent or unknown.)
+     */
+    public PagingCursorInvalidException(final Throwable cause) {
+        super(SpServerError.SP_REST_PAGING_CURSOR_INVALID, cause);
+    }
+}
\ No newline at end of file
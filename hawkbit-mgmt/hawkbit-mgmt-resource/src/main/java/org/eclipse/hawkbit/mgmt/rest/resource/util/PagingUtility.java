@@ -9,12 +9,25 @@
  */
 package org.eclipse.hawkbit.mgmt.rest.resource.util;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.eclipse.hawkbit.mgmt.json.model.PagedList;
+import org.eclipse.hawkbit.mgmt.rest.api.MgmtCountMode;
 import org.eclipse.hawkbit.mgmt.rest.api.MgmtRestConstants;
+import org.eclipse.hawkbit.mgmt.rest.resource.exception.PagingCursorInvalidException;
+import org.eclipse.hawkbit.mgmt.rest.resource.exception.SortParameterUnsupportedFieldException;
 import org.eclipse.hawkbit.repository.ActionFields;
 import org.eclipse.hawkbit.repository.ActionStatusFields;
 import org.eclipse.hawkbit.repository.DistributionSetFields;
 import org.eclipse.hawkbit.repository.DistributionSetMetadataFields;
 import org.eclipse.hawkbit.repository.DistributionSetTypeFields;
+import org.eclipse.hawkbit.repository.KeysetPageRequest;
+import org.eclipse.hawkbit.repository.OffsetBasedPageRequest;
 import org.eclipse.hawkbit.repository.RolloutFields;
 import org.eclipse.hawkbit.repository.RolloutGroupFields;
 import org.eclipse.hawkbit.repository.SoftwareModuleFields;
@@ -24,14 +37,27 @@ import org.eclipse.hawkbit.repository.TagFields;
 import org.eclipse.hawkbit.repository.TargetFields;
 import org.eclipse.hawkbit.repository.TargetFilterQueryFields;
 import org.eclipse.hawkbit.repository.TargetTypeFields;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.Order;
 
 /**
  * Utility class for for paged body generation.
  */
 public final class PagingUtility {
 
+    /**
+     * Properties which could be used for sorting in cursor mode. They are not nullable and (in combination with the id)
+     * unique, so the position after the last entry of a page is well-defined.
+     */
+    private static final Set<String> CURSOR_SORT_PROPERTIES = Set.of(
+            KeysetPageRequest.ID, TargetFields.CONTROLLERID.getJpaEntityFieldName(), "createdAt", "lastModifiedAt");
+    private static final String CURSOR_DELIMITER = ":";
+
     /*
      * utility constructor private.
      */
@@ -54,6 +80,11 @@ public final class PagingUtility {
         return pageLimit;
     }
 
+    public static MgmtCountMode sanitizeCountParam(final String countParam) {
+        // no need for a 400, exact counting is always a safe fallback
+        return MgmtCountMode.fromValue(countParam).orElse(MgmtCountMode.EXACT);
+    }
+
     public static Sort sanitizeTargetSortParam(final String sortParam) {
         if (sortParam == null) {
             // default
@@ -167,4 +198,104 @@ public final class PagingUtility {
         }
         return Sort.by(SortUtility.parse(RolloutGroupFields.class, sortParam));
     }
+
+    /**
+     * Creates the {@link Pageable} for a list request. If the cursor parameter is not given, an offset based page
+     * request is returned. Otherwise, the offset is ignored and a keyset based page request is returned which starts
+     * after the entry encoded in the cursor or, if the cursor is empty, with the first entry.
+     *
+     * @param offset the sanitized offset
+     * @param limit the sanitized limit
+     * @param sort the sanitized sort, must have a single order by id, controllerId, createdAt or lastModifiedAt in cursor mode
+     * @param cursor the cursor parameter, <code>null</code> for offset based paging
+     * @return the page request
+     * @throws SortParameterUnsupportedFieldException if the sort could not be used in cursor mode
+     * @throws PagingCursorInvalidException if the cursor is not well-formed or doesn't match the sort
+     */
+    public static Pageable toPageable(final int offset, final int limit, final Sort sort, final String cursor) {
+        if (cursor == null) {
+            return new OffsetBasedPageRequest(offset, limit, sort);
+        }
+
+        final List<Order> orders = sort.toList();
+        if (orders.size() != 1 || !CURSOR_SORT_PROPERTIES.contains(orders.get(0).getProperty())) {
+            throw new SortParameterUnsupportedFieldException(new IllegalArgumentException(
+                    "Cursor paging requires a single sort field out of " + CURSOR_SORT_PROPERTIES));
+        }
+        final Order order = orders.get(0);
+        if (cursor.isEmpty()) {
+            return new KeysetPageRequest(limit, order);
+        }
+
+        try {
+            final String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(CURSOR_DELIMITER, 4);
+            if (parts.length != 4 || Direction.fromString(parts[0]) != order.getDirection()
+                    || !parts[1].equals(order.getProperty())) {
+                throw new IllegalArgumentException("Cursor doesn't match the sort " + order);
+            }
+            return new KeysetPageRequest(limit, order, parts[3], Long.parseLong(parts[2]));
+        } catch (final IllegalArgumentException e) {
+            throw new PagingCursorInvalidException(e);
+        }
+    }
+
+    /**
+     * Returns the cursor of the page following the given content.
+     *
+     * @param pageable the page request the content has been read with
+     * @param content the content of the page
+     * @return the cursor for the next page, <code>null</code> if not in cursor mode or if there is no next page
+     */
+    public static String nextCursor(final Pageable pageable, final List<?> content) {
+        if (!(pageable instanceof KeysetPageRequest keysetPageRequest) || content.size() < pageable.getPageSize()) {
+            return null;
+        }
+
+        final Object last = content.get(content.size() - 1);
+        final Order order = keysetPageRequest.getOrder();
+        final BeanWrapper accessor = PropertyAccessorFactory.forBeanPropertyAccess(last);
+        final Object id = accessor.getPropertyValue(KeysetPageRequest.ID);
+        final Object value = accessor.getPropertyValue(order.getProperty());
+        final String cursor = String.join(CURSOR_DELIMITER,
+                order.getDirection().name(), order.getProperty(), String.valueOf(id), String.valueOf(value));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a page and creates the paged list of it with the total counted as requested by the count mode. If the
+     * total shall not be counted, one more entry than requested is read to report if there is a next page.
+     *
+     * @param pageable the requested page
+     * @param countMode how to count the total
+     * @param find reads the page of the given page request
+     * @param count counts the total, exact or approximate according to the count mode
+     * @param toResponse maps the content of the page to the response
+     * @return the paged list
+     */
+    public static <T, R> PagedList<R> toPagedList(
+            final Pageable pageable, final MgmtCountMode countMode, final Function<Pageable, Slice<T>> find,
+            final LongSupplier count, final Function<List<T>, List<R>> toResponse) {
+        if (countMode != MgmtCountMode.NONE) {
+            final List<T> content = find.apply(pageable).getContent();
+            return new PagedList<>(toResponse.apply(content), count.getAsLong())
+                    .setApproximate(countMode == MgmtCountMode.APPROXIMATE ? Boolean.TRUE : null)
+                    .setNext(nextCursor(pageable, content));
+        }
+
+        final List<T> lookAhead = find.apply(withPageSize(pageable, pageable.getPageSize() + 1)).getContent();
+        final boolean hasNext = lookAhead.size() > pageable.getPageSize();
+        final List<T> content = hasNext ? lookAhead.subList(0, pageable.getPageSize()) : lookAhead;
+        return new PagedList<>(toResponse.apply(content), null)
+                .setHasNext(hasNext)
+                .setNext(hasNext ? nextCursor(pageable, content) : null);
+    }
+
+    private static Pageable withPageSize(final Pageable pageable, final int pageSize) {
+        if (pageable instanceof KeysetPageRequest keysetPageRequest) {
+            return new KeysetPageRequest(
+                    pageSize, keysetPageRequest.getOrder(), keysetPageRequest.getAfterValue(), keysetPageRequest.getAfterId());
+        }
+        return new OffsetBasedPageRequest(pageable.getOffset(), pageSize, pageable.getSort());
+    }
 }
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.mgmt.rest.resource.util;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Short living cache of the totals of the Mgmt list APIs, per tenant, user, entity type and RSQL filter. Used if the
+ * client accepts an approximate total, so the (potentially expensive) count with the same filter is executed once per
+ * time to live and not with every page request. The cached totals are not invalidated on changes, so they could be
+ * outdated by up to the time to live.
+ * <p/>
+ * The counts apply the access rules of the current user, so the totals are cached per user name and authorities and a
+ * user never gets a total counted for another user.
+ */
+public class TotalCountCache {
+
+    private static final long MAX_SIZE = 10_000;
+
+    private final TenantAware tenantAware;
+    private final Cache<Key, Long> totals;
+
+    /**
+     * @param tenantAware to get current tenant
+     * @param timeToLive the time after which a cached total is counted again
+     */
+    public TotalCountCache(final TenantAware tenantAware, final Duration timeToLive) {
+        this.tenantAware = tenantAware;
+        this.totals = Caffeine.newBuilder().expireAfterWrite(timeToLive).maximumSize(MAX_SIZE).build();
+    }
+
+    /**
+     * Returns the cached total of the entities matching the filter or counts and caches it if not cached (anymore).
+     *
+     * @param entityType the type of the counted entities
+     * @param rsql the RSQL filter, <code>null</code> if all entities are counted
+     * @param count to count the entities if not cached
+     * @return the (possibly outdated) total
+     */
+    public long get(final Class<?> entityType, final String rsql, final LongSupplier count) {
+        return totals.get(
+                new Key(tenantAware.getCurrentTenant(), currentUser(), entityType, rsql == null ? "" : rsql.strip()),
+                key -> count.getAsLong());
+    }
+
+    private static User currentUser() {
+        return Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication())
+                .map(authentication -> new User(authentication.getName(), authorities(authentication)))
+                .orElse(User.NONE);
+    }
+
+    private static Set<String> authorities(final Authentication authentication) {
+        return authentication.getAuthorities() == null
+                ? Collections.emptySet()
+                : authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+    }
+
+    private record User(String name, Set<String> authorities) {
+
+        private static final User NONE = new User(null, Collections.emptySet());
+    }
+
+    private record Key(String tenant, User user, Class<?> entityType, String rsql) {}
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.mgmt.rest.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.eclipse.hawkbit.mgmt.rest.api.MgmtExportRestApi;
+import org.eclipse.hawkbit.mgmt.rest.api.MgmtRestConstants;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.rest.util.MockMvcResultPrinter;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+/**
+ * Integration test for the {@link MgmtExportRestApi}.
+ */
+@Feature("Component Tests - Management API")
+@Story("Export Resource")
+class MgmtExportResourceTest extends AbstractManagementApiIntegrationTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    @Description("Verifies that all targets are exported as newline delimited JSON, even if more than one chunk is needed.")
+    void exportAllTargets() throws Exception {
+        final int count = MgmtExportResource.EXPORT_CHUNK_SIZE + 5;
+        final List<String> expected = testdataFactory.createTargets("export", count).stream()
+                .map(Target::getControllerId).collect(Collectors.toList());
+
+        final List<JsonNode> exported = export(MgmtRestConstants.EXPORT_V1_REQUEST_MAPPING + "/targets");
+
+        assertThat(exported).hasSize(count);
+        assertThat(exported).extracting(node -> node.get("controllerId").asText()).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    @Description("Verifies that only the targets matching the RSQL filter are exported.")
+    void exportTargetsByRsql() throws Exception {
+        testdataFactory.createTargets("exportA", 3);
+        testdataFactory.createTargets("exportB", 2);
+
+        final List<JsonNode> exported = export(MgmtRestConstants.EXPORT_V1_REQUEST_MAPPING + "/targets?q=controllerId==exportB*");
+
+        assertThat(exported).extracting(node -> node.get("controllerId").asText()).containsExactlyInAnyOrder("exportB0", "exportB1");
+    }
+
+    @Test
+    @Description("Verifies that exporting targets with an invalid RSQL filter results in a bad request.")
+    void exportTargetsWithInvalidRsql() throws Exception {
+        mvc.perform(get(MgmtRestConstants.EXPORT_V1_REQUEST_MAPPING + "/targets?q=unknownField==1"))
+                .andDo(MockMvcResultPrinter.print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Description("Verifies that the actions matching the RSQL filter are exported in compact representation.")
+    void exportActionsByRsql() throws Exception {
+        final DistributionSet ds = testdataFactory.createDistributionSet();
+        final List<Target> targets = testdataFactory.createTargets("exportAction", 3);
+        assignDistributionSet(ds.getId(), targets.get(0).getControllerId());
+        assignDistributionSet(ds.getId(), targets.get(1).getControllerId());
+        assignDistributionSet(ds.getId(), targets.get(2).getControllerId());
+
+        final List<JsonNode> exported = export(
+                MgmtRestConstants.EXPORT_V1_REQUEST_MAPPING + "/actions?q=target.controllerId=in=(exportAction0,exportAction2)");
+
+        assertThat(exported).hasSize(2);
+        assertThat(exported).allSatisfy(node -> {
+            assertThat(node.get("type").asText()).isEqualTo("update");
+            assertThat(node.get("status").asText()).isEqualTo("pending");
+        });
+    }
+
+    private List<JsonNode> export(final String url) throws Exception {
+        final String body = mvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        final List<JsonNode> nodes = new ArrayList<>();
+        for (final String line : Arrays.stream(body.split("\n")).filter(line -> !line.isBlank()).toList()) {
+            nodes.add(MAPPER.readTree(line));
+        }
+        return nodes;
+    }
+}
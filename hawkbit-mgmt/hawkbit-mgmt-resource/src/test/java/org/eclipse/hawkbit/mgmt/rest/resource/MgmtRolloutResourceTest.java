@@ -131,6 +131,28 @@ class MgmtRolloutResourceTest extends AbstractManagementApiIntegrationTest {
         }
     }
 
+    @Test
+    @Description("Handles the GET request of retrieving the trace of the last execution of a rollout.")
+    void getLastExecutionTrace() throws Exception {
+        testdataFactory.createTargets(4, "rollout", "description");
+        final DistributionSet dsA = testdataFactory.createDistributionSet("");
+        final Rollout rollout = createRollout("rollout1", 2, dsA.getId(), "controllerId==rollout*");
+
+        mvc.perform(get(MgmtRestConstants.ROLLOUT_V1_REQUEST_MAPPING + "/{rolloutId}/trace", rollout.getId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultPrinter.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rolloutStatus", equalTo("creating")))
+                .andExpect(jsonPath("$.phases[0].name", equalTo("handleCreateRollout")))
+                .andExpect(jsonPath("$.phases[0].depth", equalTo(0)))
+                .andExpect(jsonPath("$.durationMs").exists());
+
+        mvc.perform(get(MgmtRestConstants.ROLLOUT_V1_REQUEST_MAPPING + "/{rolloutId}/trace", 1234L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultPrinter.print())
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @Description("Handles the GET request of retrieving a all targets of a specific deploy group of a rollout.")
     public void getRolloutDeployGroupTargetsWithParameters() throws Exception {
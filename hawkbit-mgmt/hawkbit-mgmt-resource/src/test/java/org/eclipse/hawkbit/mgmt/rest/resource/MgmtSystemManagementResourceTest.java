@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.mgmt.rest.resource;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.eclipse.hawkbit.im.authentication.SpPermission;
+import org.eclipse.hawkbit.mgmt.rest.api.MgmtRestConstants;
+import org.eclipse.hawkbit.repository.test.util.WithUser;
+import org.eclipse.hawkbit.rest.util.MockMvcResultPrinter;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Spring MVC Tests against the MgmtSystemManagementResource.
+ */
+@Feature("Component Tests - Management API")
+@Story("System Management Resource")
+class MgmtSystemManagementResourceTest extends AbstractManagementApiIntegrationTest {
+
+    private static final String RSQL_QUERIES_URL = MgmtRestConstants.SYSTEM_ADMIN_MAPPING + "/rsql";
+    private static final String QUERY_PATH = "$.queries[?(@.rsql=='(controllerid==?;description==?)')]";
+
+    @Test
+    @Description("Verifies that the diagnostics of the executed RSQL queries and of the RSQL caches are returned.")
+    void getRsqlQueries() throws Exception {
+        testdataFactory.createTargets("rsqlReport", 3);
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                            .param(MgmtRestConstants.REQUEST_PARAMETER_SEARCH, "controllerId==rsqlReport*;description==*"))
+                    .andExpect(status().isOk());
+        }
+
+        mvc.perform(get(RSQL_QUERIES_URL))
+                .andDo(MockMvcResultPrinter.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(QUERY_PATH + ".entity", hasItem("JpaTarget")))
+                .andExpect(jsonPath(QUERY_PATH + ".sql").isNotEmpty())
+                .andExpect(jsonPath(QUERY_PATH + ".failures", hasItem(0)))
+                .andExpect(jsonPath("$.slowExecutions").isArray())
+                .andExpect(jsonPath("$.queryCache.hits").isNumber())
+                .andExpect(jsonPath("$.queryCache.size").isNumber())
+                .andExpect(jsonPath("$.fieldPathCache.hits").isNumber());
+    }
+
+    @Test
+    @WithUser(allSpPermissions = true, removeFromAllPermission = SpPermission.SYSTEM_ADMIN)
+    @Description("Verifies that the RSQL query diagnostics are only returned to system admins.")
+    void getRsqlQueriesWithoutSystemAdminPermission() throws Exception {
+        mvc.perform(get(RSQL_QUERIES_URL))
+                .andDo(MockMvcResultPrinter.print())
+                .andExpect(status().isForbidden());
+    }
+}
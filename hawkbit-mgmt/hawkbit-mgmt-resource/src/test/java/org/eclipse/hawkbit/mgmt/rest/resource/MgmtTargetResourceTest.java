@@ -82,6 +82,7 @@ import org.eclipse.hawkbit.repository.model.TargetMetadata;
 import org.eclipse.hawkbit.repository.model.TargetTag;
 import org.eclipse.hawkbit.repository.model.TargetType;
 import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
+import org.eclipse.hawkbit.repository.test.util.SecurityContextSwitch;
 import org.eclipse.hawkbit.repository.test.util.WithUser;
 import org.eclipse.hawkbit.rest.exception.MessageNotReadableException;
 import org.eclipse.hawkbit.rest.json.model.ExceptionInfo;
@@ -698,6 +699,125 @@ class MgmtTargetResourceTest extends AbstractManagementApiIntegrationTest {
                 .andExpect(jsonPath("$.content.[?(@.name=='" + idE + "')].updateStatus", contains("registered")));
     }
 
+    @Test
+    @Description("Ensures that targets could be paged with cursor, following the next cursor until the last page.")
+    void getTargetsWithPagingCursor() throws Exception {
+        createTargetsAlphabetical(5);
+
+        final MvcResult first = mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_CURSOR, "")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, "2"))
+                .andExpect(status().isOk()).andDo(MockMvcResultPrinter.print())
+                .andExpect(jsonPath(JSON_PATH_PAGED_LIST_TOTAL, equalTo(5)))
+                .andExpect(jsonPath("$.content[*].controllerId", contains("a", "b")))
+                .andExpect(jsonPath("$.next", notNullValue()))
+                .andReturn();
+
+        final MvcResult second = mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_CURSOR, nextCursor(first))
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_OFFSET, "4")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, "2"))
+                .andExpect(status().isOk()).andDo(MockMvcResultPrinter.print())
+                .andExpect(jsonPath(JSON_PATH_PAGED_LIST_TOTAL, equalTo(5)))
+                .andExpect(jsonPath("$.content[*].controllerId", contains("c", "d")))
+                .andReturn();
+
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_CURSOR, nextCursor(second))
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, "2"))
+                .andExpect(status().isOk()).andDo(MockMvcResultPrinter.print())
+                .andExpect(jsonPath(JSON_PATH_PAGED_LIST_TOTAL, equalTo(5)))
+                .andExpect(jsonPath("$.content[*].controllerId", contains("e")))
+                .andExpect(jsonPath("$.next").doesNotExist());
+
+        // descending by creation time, with filter
+        final MvcResult descending = mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_CURSOR, "")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_SORTING, "createdAt:DESC")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_SEARCH, "name!=e")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(JSON_PATH_PAGED_LIST_TOTAL, equalTo(4)))
+                .andExpect(jsonPath("$.content[*].controllerId", contains("d", "c", "b")))
+                .andReturn();
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_CURSOR, nextCursor(descending))
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_SORTING, "createdAt:DESC")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_SEARCH, "name!=e")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].controllerId", contains("a")));
+
+        // cursor doesn't match the sort
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_CURSOR, nextCursor(first))
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_SORTING, "createdAt:DESC"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode", equalTo(SpServerError.SP_REST_PAGING_CURSOR_INVALID.getKey())));
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_CURSOR, "not a cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode", equalTo(SpServerError.SP_REST_PAGING_CURSOR_INVALID.getKey())));
+        // sort field not supported in cursor mode
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_CURSOR, "")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_SORTING, "name:ASC"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode", equalTo(SpServerError.SP_REST_SORT_PARAM_INVALID_FIELD.getKey())));
+    }
+
+    @Test
+    @Description("Ensures that targets could be paged without counting the total or with an approximate (cached) total.")
+    void getTargetsWithCountMode() throws Exception {
+        createTargetsAlphabetical(5);
+
+        // no total, but if there is a next page
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_COUNT, "none")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, "2"))
+                .andExpect(status().isOk()).andDo(MockMvcResultPrinter.print())
+                .andExpect(jsonPath(JSON_PATH_PAGED_LIST_TOTAL).doesNotExist())
+                .andExpect(jsonPath(JSON_PATH_PAGED_LIST_SIZE, equalTo(2)))
+                .andExpect(jsonPath("$.hasNext", equalTo(true)))
+                .andExpect(jsonPath("$.content[*].controllerId", contains("a", "b")));
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_COUNT, "none")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_OFFSET, "3")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(JSON_PATH_PAGED_LIST_TOTAL).doesNotExist())
+                .andExpect(jsonPath("$.hasNext", equalTo(false)))
+                .andExpect(jsonPath("$.content[*].controllerId", contains("d", "e")));
+
+        // approximate total is cached, so a new target is not counted yet
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_COUNT, "approximate")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_SEARCH, "name!=z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(JSON_PATH_PAGED_LIST_TOTAL, equalTo(5)))
+                .andExpect(jsonPath("$.approximate", equalTo(true)));
+        testdataFactory.createTarget("f");
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_COUNT, "approximate")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_SEARCH, "name!=z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(JSON_PATH_PAGED_LIST_TOTAL, equalTo(5)))
+                .andExpect(jsonPath(JSON_PATH_PAGED_LIST_SIZE, equalTo(6)));
+        // the totals are cached per user since the count applies the access rules of the user
+        SecurityContextSwitch.runAs(SecurityContextSwitch.withUser("target_reader", SpPermission.READ_TARGET), () ->
+                mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                                .param(MgmtRestConstants.REQUEST_PARAMETER_COUNT, "approximate")
+                                .param(MgmtRestConstants.REQUEST_PARAMETER_SEARCH, "name!=z"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath(JSON_PATH_PAGED_LIST_TOTAL, equalTo(6)))
+                        .andExpect(jsonPath("$.approximate", equalTo(true))));
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_SEARCH, "name!=z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(JSON_PATH_PAGED_LIST_TOTAL, equalTo(6)))
+                .andExpect(jsonPath("$.approximate").doesNotExist());
+    }
+
     @Test
     @Description("Ensures that the get request for a target works.")
     void getSingleTarget() throws Exception {
@@ -2640,6 +2760,10 @@ class MgmtTargetResourceTest extends AbstractManagementApiIntegrationTest {
         }
     }
 
+    private static String nextCursor(final MvcResult result) throws Exception {
+        return JsonPath.compile("$.next").read(result.getResponse().getContentAsString()).toString();
+    }
+
     /**
      * helper method to create a target and start an action on it.
      *
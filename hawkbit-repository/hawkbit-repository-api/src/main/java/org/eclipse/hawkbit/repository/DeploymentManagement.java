@@ -11,9 +11,11 @@ package org.eclipse.hawkbit.repository;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
@@ -227,6 +229,19 @@ public interface DeploymentManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
     Slice<Action> findActions(@NotNull String rsqlParam, @NotNull Pageable pageable);
 
+    /**
+     * Streams all {@link Action}s, or the actions matching the given RSQL query, ordered by id in chunks to the
+     * consumer. The actions are read with a single database cursor and detached after each chunk, so the memory
+     * consumption doesn't depend on the number of actions. The chunk list is reused, so the consumer must not keep a
+     * reference to it.
+     *
+     * @param rsqlParam RSQL query string, <code>null</code> for all actions
+     * @param chunkSize the number of actions per chunk
+     * @param chunkConsumer consumer of the chunks, called within the reading transaction
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    void streamActions(String rsqlParam, int chunkSize, @NotNull Consumer<List<Action>> chunkConsumer);
+
     /**
      * Retrieves all {@link Action}s assigned to a specific {@link Target} and a
      * given specification.
@@ -332,6 +347,20 @@ public interface DeploymentManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
     List<Action> findActiveActionsWithHighestWeight(@NotEmpty String controllerId, int maxActionCount);
 
+    /**
+     * Retrieves the active {@link Action}s with highest weight that are
+     * assigned to the {@link Target}s with the given controller ids, with a
+     * constant number of queries instead of one per target.
+     *
+     * @param controllerIds identifies the targets to retrieve the actions from
+     * @param maxActionCount max size of the returned list per target
+     * @return the actions per controller id, targets without active actions
+     *         are not contained
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    Map<String, List<Action>> findActiveActionsWithHighestWeight(@NotEmpty Collection<String> controllerIds,
+            int maxActionCount);
+
     /**
      * Get weight of an Action. Returns the default value if the weight is null
      * according to the properties.
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository;
+
+import java.io.Serializable;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Order;
+
+/**
+ * An implementation of the {@link PageRequest} for keyset (also known as cursor) based paging. Instead of skipping
+ * the entries of the previous pages by an offset, the page starts after the last entry of the previous page, given by
+ * the value of its sort property and its id. So the database could seek to the start of the page by index instead of
+ * reading and discarding all entries of the previous pages.
+ * <p/>
+ * The entries are sorted by the sort property and then by the id, both in the direction of the order, so the order is
+ * stable even if the values of the sort property are not unique. The sort property must be a simple, not nullable
+ * property of the entity.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public final class KeysetPageRequest extends PageRequest {
+
+    /**
+     * The id property the entries are sorted by in addition to the sort property.
+     */
+    public static final String ID = "id";
+
+    private static final long serialVersionUID = 1L;
+
+    private final Order order;
+    private final Serializable afterValue;
+    private final Long afterId;
+
+    /**
+     * Creates a new {@link KeysetPageRequest} for the first page.
+     *
+     * @param limit the limit of the page to be returned.
+     * @param order the order of the entries
+     */
+    public KeysetPageRequest(final int limit, final Order order) {
+        this(limit, order, null, null);
+    }
+
+    /**
+     * Creates a new {@link KeysetPageRequest} for the page after the given entry.
+     *
+     * @param limit the limit of the page to be returned.
+     * @param order the order of the entries
+     * @param afterValue value of the sort property of the last entry of the previous page, ignored if sorted by id
+     * @param afterId id of the last entry of the previous page, <code>null</code> for the first page
+     */
+    public KeysetPageRequest(final int limit, final Order order, final Serializable afterValue, final Long afterId) {
+        super(0, limit, ID.equals(order.getProperty())
+                ? Sort.by(order)
+                : Sort.by(order, new Order(order.getDirection(), ID)));
+        this.order = order;
+        this.afterValue = afterValue;
+        this.afterId = afterId;
+    }
+
+    /**
+     * @return <code>true</code> if this is the first page
+     */
+    public boolean isFirst() {
+        return afterId == null;
+    }
+}
@@ -75,7 +75,76 @@ public class RepositoryProperties {
 
     /**
      * The minimum period (in milli-seconds) on which dynamic rollouts should make attempt to involve
-     * new targets
+     * new targets by a full scan of the targets. In between only the targets created or updated since the
+     * last attempt are checked.
      */
     private long dynamicRolloutsMinInvolvePeriodMS = 60_000;
-}
\ No newline at end of file
+
+    /**
+     * The maximum number of created or updated targets collected per dynamic rollout between two attempts to
+     * involve new targets. If exceeded a full scan of the targets is made instead.
+     */
+    private int dynamicRolloutsMaxCandidates = 10_000;
+
+    /**
+     * Set to <code>true</code> to (re-)evaluate running rollouts in reaction to the
+     * action updates of their groups instead of relying only on the rollout scheduler.
+     */
+    private boolean eventDrivenRolloutEvaluation;
+
+    /**
+     * Time (in milli-seconds) the action updates of a rollout group are collected
+     * before the rollout is evaluated. Bursts of updates within that time are
+     * coalesced into one evaluation.
+     */
+    private long rolloutEvaluationDebounceMS = 500;
+
+    /**
+     * If event driven rollout evaluation is enabled, the minimum period (in milli-seconds)
+     * on which the rollout scheduler re-evaluates a running rollout that has already
+     * been evaluated because of action updates.
+     */
+    private long rolloutEvaluationSafetyNetPeriodMS = 60_000;
+
+    /**
+     * The period (in milli-seconds) on which the auto assignment checks all targets against a target filter. In
+     * between only the targets created or changed (also by the controller) since the last check are checked, as long
+     * as the target filter query, its distribution set and the entities the query may refer to (e.g. tags) are not
+     * changed. 0 (default) disables the incremental check, i.e. all targets are checked every time.
+     */
+    private long autoAssignFullScanPeriodMS;
+
+    /**
+     * The time (in milli-seconds) the targets modified before the last auto assignment check are checked again, in
+     * order to cover modifications committed after the check and clock differences between the nodes.
+     */
+    private long autoAssignCheckOverlapMS = 10_000;
+
+    /**
+     * Maximum number of rows (e.g. actions of a rollout) purged in one transaction by the background purge.
+     * Deleted rollouts with more targets are not deleted at once but purged in chunks of that size.
+     */
+    private int purgeChunkSize = 500;
+
+    /**
+     * Maximum number of chunks purged per tenant and purge run.
+     */
+    private int purgeMaxChunksPerRun = 100;
+
+    /**
+     * Pause (in milli-seconds) between two purged chunks, in order to limit the load of the purge on the
+     * database.
+     */
+    private long purgeChunkPauseMS = 50;
+
+    /**
+     * The minimum execution time (in milli-seconds) of an RSQL filtered query to be kept, with its generated SQL,
+     * as slow query for diagnostics.
+     */
+    private long rsqlSlowQueryThresholdMS = 500;
+
+    /**
+     * Maximum number of the most recent slow RSQL filtered queries kept per node.
+     */
+    private int rsqlSlowQueriesMaxSize = 100;
+}
@@ -11,6 +11,8 @@ package org.eclipse.hawkbit.repository;
 
 import static org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
 
+import java.util.Collection;
+
 import org.eclipse.hawkbit.repository.model.Rollout;
 import org.eclipse.hawkbit.repository.model.RolloutGroup;
 import org.eclipse.hawkbit.repository.model.Target;
@@ -49,4 +51,20 @@ public interface RolloutHandler {
      */
     @PreAuthorize(SpringEvalExpressions.IS_SYSTEM_CODE)
     void handleAll();
+
+    /**
+     * Process only the given {@link Rollout.RolloutStatus#RUNNING} rollouts of the
+     * current tenant, e.g. as reaction of action changes. Rollouts in other states
+     * are left to {@link #handleAll()}.
+     *
+     * @param rolloutIds ids of the rollouts to be evaluated
+     * @return <code>true</code> if the rollouts have been handled, <code>false</code> if
+     *         the handler is currently busy (e.g. the tenant is handled by another
+     *         thread or node) and the call shall be retried later
+     */
+    @PreAuthorize(SpringEvalExpressions.IS_SYSTEM_CODE)
+    default boolean handleRunning(final Collection<Long> rolloutIds) {
+        handleAll();
+        return true;
+    }
 }
@@ -31,6 +31,7 @@ import org.eclipse.hawkbit.repository.exception.RolloutIllegalStateException;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.Rollout;
 import org.eclipse.hawkbit.repository.model.Rollout.RolloutStatus;
+import org.eclipse.hawkbit.repository.model.RolloutExecutionTrace;
 import org.eclipse.hawkbit.repository.model.RolloutGroup;
 import org.eclipse.hawkbit.repository.model.RolloutGroup.RolloutGroupStatus;
 import org.eclipse.hawkbit.repository.model.RolloutGroupConditions;
@@ -271,6 +272,17 @@ public interface RolloutManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_ROLLOUT_MANAGEMENT_READ)
     Optional<Rollout> getWithDetailedStatus(long rolloutId);
 
+    /**
+     * Get the trace of the last execution of the rollout by the rollout executor. The traces are kept in memory
+     * so only the executions on this node are known.
+     *
+     * @param rolloutId rollout id
+     * @return the trace of the last execution or empty if the rollout has not been executed on this node yet
+     * @throws EntityNotFoundException if rollout with given ID does not exist
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_ROLLOUT_MANAGEMENT_READ)
+    Optional<RolloutExecutionTrace> getLastExecutionTrace(long rolloutId);
+
     /**
      * Checks if rollout with given ID exists.
      *
@@ -17,6 +17,7 @@ import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
 import org.eclipse.hawkbit.repository.model.DistributionSetType;
 import org.eclipse.hawkbit.repository.model.SoftwareModuleType;
 import org.eclipse.hawkbit.repository.model.TenantMetaData;
+import org.eclipse.hawkbit.repository.report.model.RsqlQueryReport;
 import org.eclipse.hawkbit.repository.report.model.SystemUsageReport;
 import org.eclipse.hawkbit.repository.report.model.SystemUsageReportWithTenants;
 import org.eclipse.hawkbit.tenancy.TenantAware;
@@ -79,6 +80,15 @@ public interface SystemManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_SYSTEM_ADMIN)
     SystemUsageReport getSystemUsageStatistics();
 
+    /**
+     * Diagnostics of the RSQL filtered queries executed on this node, i.e. the execution times, row counts and
+     * generated SQL per tenant, entity and normalized RSQL and the most recent slow queries.
+     *
+     * @return RsqlQueryReport of this node
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_SYSTEM_ADMIN)
+    RsqlQueryReport getRsqlQueryReport();
+
     /**
      * @return {@link TenantMetaData} of {@link TenantAware#getCurrentTenant()}
      */
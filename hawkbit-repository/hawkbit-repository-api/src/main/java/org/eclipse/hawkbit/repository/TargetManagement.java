@@ -229,6 +229,23 @@ public interface TargetManagement {
     Slice<Target> findByTargetFilterQueryAndNonDSAndCompatibleAndUpdatable(@NotNull Pageable pageRequest,
             long distributionSetId, @NotNull String rsqlParam);
 
+    /**
+     * Same as {@link #findByTargetFilterQueryAndNonDSAndCompatibleAndUpdatable(Pageable, long, String)} but
+     * restricted to the targets created or changed since the given time. In contrast to
+     * {@link Target#getLastModifiedAt()}, the changes by the controller (e.g. of the attributes or the update status)
+     * and of the tags and metadata are considered as well.
+     *
+     * @param pageRequest the pageRequest to enhance the query for paging and sorting
+     * @param modifiedSince the time (in milliseconds) since the targets are created or changed
+     * @param distributionSetId id of the {@link DistributionSet}
+     * @param rsqlParam filter definition in RSQL syntax
+     * @return a slice of the found {@link Target}s
+     * @throws EntityNotFoundException if distribution set with given ID does not exist
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_UPDATE_TARGET)
+    Slice<Target> findByModifiedSinceAndTargetFilterQueryAndNonDSAndCompatibleAndUpdatable(@NotNull Pageable pageRequest,
+            long modifiedSince, long distributionSetId, @NotNull String rsqlParam);
+
     /**
      * Counts all targets for all the given parameter {@link TargetFilterQuery} and
      * that don't have the specified distribution set in their action history and
@@ -264,6 +281,25 @@ public interface TargetManagement {
             @NotNull Pageable pageRequest, final long rolloutId, final int weight, final long firstGroupId, @NotNull String targetFilterQuery,
             @NotNull DistributionSetType distributionSetType);
 
+    /**
+     * Same as
+     * {@link #findByNotInGEGroupAndNotInActiveActionGEWeightOrInRolloutAndTargetFilterQueryAndCompatibleAndUpdatable(Pageable, long, int, long, String, DistributionSetType)}
+     * but restricted to the given targets, e.g. the recently created or updated ones.
+     *
+     * @param pageRequest the pageRequest to enhance the query for paging and sorting
+     * @param targetIds the ids of the targets to check
+     * @param rolloutId the id of the rollout
+     * @param weight the weight of the rollout
+     * @param firstGroupId the id of the first group of the rollout
+     * @param targetFilterQuery filter definition in RSQL syntax
+     * @param distributionSetType type of the {@link DistributionSet} the targets must be compatible with
+     * @return a slice of the found {@link Target}s
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_UPDATE_TARGET)
+    Slice<Target> findByIdInAndNotInGEGroupAndNotInActiveActionGEWeightOrInRolloutAndTargetFilterQueryAndCompatibleAndUpdatable(
+            @NotNull Pageable pageRequest, @NotEmpty Collection<Long> targetIds, final long rolloutId, final int weight,
+            final long firstGroupId, @NotNull String targetFilterQuery, @NotNull DistributionSetType distributionSetType);
+
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
     long countByActionsInRolloutGroup(final long rolloutGroupId);
 
@@ -439,6 +475,21 @@ public interface TargetManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
     Slice<Target> findByRsql(@NotNull Pageable pageable, @NotNull String rsqlParam);
 
+    /**
+     * Streams all targets, or the targets matching the given RSQL query, ordered by id in chunks to the consumer. The
+     * targets are read with a single database cursor and detached after each chunk, so the memory consumption doesn't
+     * depend on the number of targets. The chunk list is reused, so the consumer must not keep a reference to it.
+     *
+     * @param rsqlParam in RSQL notation, <code>null</code> for all targets
+     * @param chunkSize the number of targets per chunk
+     * @param chunkConsumer consumer of the chunks, called within the reading transaction
+     * @throws RSQLParameterUnsupportedFieldException if a field in the RSQL string is used but not provided by the
+     *         given {@code fieldNameProvider}
+     * @throws RSQLParameterSyntaxException if the RSQL syntax is wrong
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    void streamByRsql(String rsqlParam, int chunkSize, @NotNull Consumer<List<Target>> chunkConsumer);
+
     /**
      * Retrieves all target based on {@link TargetFilterQuery}.
      *
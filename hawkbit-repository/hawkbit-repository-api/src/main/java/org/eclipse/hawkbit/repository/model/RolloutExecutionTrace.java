@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.model;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+
+/**
+ * The trace of the last execution of a {@link Rollout} by the rollout executor on this node. Holds the phases the
+ * execution went through, with their durations, and the counts of the targets assigned, the actions created and
+ * the events published.
+ */
+@Data
+public class RolloutExecutionTrace {
+
+    private final long rolloutId;
+    private final Rollout.RolloutStatus rolloutStatus;
+    private final long startedAt;
+    private final long durationMs;
+    private final List<Phase> phases;
+    private final Map<String, Long> counts;
+    private final String error;
+
+    /**
+     * A phase of the rollout execution, e.g. a <code>handle*</code> method or a unit running in its own
+     * transaction.
+     */
+    @Data
+    public static class Phase {
+
+        private final String name;
+        // the nesting level, 0 for the top level phases
+        private final int depth;
+        // start relative to the start of the execution
+        private final long startOffsetMs;
+        private final long durationMs;
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.report.model;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Diagnostics of the RSQL filtered queries executed on this node. Holds the statistics per tenant, entity and
+ * normalized RSQL (i.e. with the values replaced by <code>?</code>) and the most recent slow executions with the
+ * generated SQL, as well as the statistics of the caches of the parsed RSQL queries and of the resolved query fields.
+ */
+@Data
+public class RsqlQueryReport {
+
+    // sorted by the total execution time, descending
+    private final List<Query> queries;
+    // most recent first
+    private final List<Execution> slowExecutions;
+    private final CacheStatistics queryCache;
+    private final CacheStatistics fieldPathCache;
+
+    /**
+     * Statistics of the executions of the queries with the same tenant, entity and normalized RSQL.
+     */
+    @Data
+    public static class Query {
+
+        private final String tenant;
+        private final String entity;
+        private final String rsql;
+        private final long executions;
+        // the number of failed executions, not included in the executions
+        private final long failures;
+        private final long totalTimeMs;
+        private final long maxTimeMs;
+        // the total number of rows returned by all executions
+        private final long rows;
+        // the SQL generated for the last execution
+        private final String sql;
+    }
+
+    /**
+     * A single execution of an RSQL filtered query which took longer than the slow query threshold.
+     */
+    @Data
+    public static class Execution {
+
+        private final String tenant;
+        private final String entity;
+        private final String rsql;
+        private final String sql;
+        private final long startedAt;
+        private final long durationMs;
+        private final long rows;
+    }
+
+    /**
+     * Hit / miss statistics of a cache used when the RSQL queries are built.
+     */
+    @Data
+    public static class CacheStatistics {
+
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        // the approximate number of cached entries
+        private final long size;
+    }
+}
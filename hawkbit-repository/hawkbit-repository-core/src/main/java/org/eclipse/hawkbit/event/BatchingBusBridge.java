@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.hawkbit.repository.event.remote.RemoteTenantAwareEvent;
+import org.springframework.cloud.bus.BusBridge;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+/**
+ * {@link BusBridge} which collects the outgoing {@link RemoteTenantAwareEvent}s
+ * and sends them as one {@link RemoteEventBatch}. A batch is sent as soon as it
+ * contains the max number of events or the max delay since its first event has
+ * passed. Other events, e.g. of the bus itself, are sent directly after the
+ * pending batch, so the order of all events sent by this node is kept.
+ *
+ * Optionally the events of a batch share a batch key, e.g. their
+ * {@link RemoteEventRouting#routingKey(RemoteApplicationEvent) routing key}, so
+ * the batch can be routed like its events. An event with another key than the
+ * pending batch sends the pending batch.
+ */
+@Slf4j
+public class BatchingBusBridge implements BusBridge, AutoCloseable {
+
+    private final BusBridge delegate;
+    private final int maxEvents;
+    private final long maxDelay;
+    private final Function<RemoteApplicationEvent, Object> batchKey;
+    private final ScheduledExecutorService scheduler;
+
+    // guarded by this
+    private List<RemoteApplicationEvent> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    /**
+     * Constructor.
+     *
+     * @param delegate the bridge which sends the events and batches to the bus
+     * @param maxEvents the max number of events per batch
+     * @param maxDelay the max delay of an event in milliseconds
+     */
+    public BatchingBusBridge(final BusBridge delegate, final int maxEvents, final long maxDelay) {
+        this(delegate, maxEvents, maxDelay, event -> null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param delegate the bridge which sends the events and batches to the bus
+     * @param maxEvents the max number of events per batch
+     * @param maxDelay the max delay of an event in milliseconds
+     * @param batchKey the key which the events of a batch share
+     */
+    public BatchingBusBridge(final BusBridge delegate, final int maxEvents, final long maxDelay,
+            final Function<RemoteApplicationEvent, Object> batchKey) {
+        this.delegate = delegate;
+        this.maxEvents = maxEvents;
+        this.maxDelay = maxDelay;
+        this.batchKey = batchKey;
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "bus-batch-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public synchronized void send(final RemoteApplicationEvent event) {
+        if (!(event instanceof RemoteTenantAwareEvent)) {
+            flush();
+            delegate.send(event);
+            return;
+        }
+
+        if (!pending.isEmpty() && !isSameRoute(pending.get(0), event)) {
+            flush();
+        }
+        pending.add(event);
+        if (pending.size() >= maxEvents) {
+            flush();
+        } else if (pending.size() == 1) {
+            scheduledFlush = scheduler.schedule(this::flushScheduled, maxDelay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends the pending batch and stops the scheduler.
+     */
+    @Override
+    public synchronized void close() {
+        flush();
+        scheduler.shutdownNow();
+    }
+
+    private synchronized void flushScheduled() {
+        try {
+            flush();
+        } catch (final RuntimeException e) {
+            log.error("Failed to send batch of remote events", e);
+        }
+    }
+
+    private void flush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        final List<RemoteApplicationEvent> events = pending;
+        pending = new ArrayList<>();
+        if (events.size() == 1) {
+            delegate.send(events.get(0));
+        } else {
+            final RemoteApplicationEvent first = events.get(0);
+            log.trace("Send batch of {} remote events", events.size());
+            delegate.send(new RemoteEventBatch(this, first.getOriginService(), first.getDestinationService(), events));
+        }
+    }
+
+    private boolean isSameRoute(final RemoteApplicationEvent first, final RemoteApplicationEvent event) {
+        return Objects.equals(first.getOriginService(), event.getOriginService())
+                && Objects.equals(first.getDestinationService(), event.getDestinationService())
+                && Objects.equals(batchKey.apply(first), batchKey.apply(event));
+    }
+}
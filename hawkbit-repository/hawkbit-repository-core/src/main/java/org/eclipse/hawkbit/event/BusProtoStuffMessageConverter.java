@@ -9,6 +9,11 @@
  */
 package org.eclipse.hawkbit.event;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
 import io.protostuff.LinkedBuffer;
 import io.protostuff.ProtobufIOUtil;
 import io.protostuff.Schema;
@@ -31,6 +36,11 @@ import org.springframework.util.MimeType;
  * message header information will get lost. So in this implementation the
  * information about the event-type is encoded in the payload of the message
  * directly using the encoded values of {@link EventType}.
+ *
+ * A {@link RemoteEventBatch} is written as one frame: the class header of the
+ * batch followed by the length delimited batch and, per contained event, its
+ * length delimited class header and content. The serialization buffers are
+ * reused per thread and the events are read directly from the payload.
  */
 @Slf4j
 public class BusProtoStuffMessageConverter extends AbstractMessageConverter {
@@ -40,6 +50,8 @@ public class BusProtoStuffMessageConverter extends AbstractMessageConverter {
      * The length of the class type length of the payload.
      */
     private static final byte EVENT_TYPE_LENGTH = 2;
+    private static final int MAX_POOLED_SIZE = 1024 * 1024;
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
 
     /**
      * Constructor.
@@ -58,11 +70,11 @@ public class BusProtoStuffMessageConverter extends AbstractMessageConverter {
             final Object conversionHint) {
         final Object objectPayload = message.getPayload();
         if (objectPayload instanceof byte[] payload) {
-            final byte[] clazzHeader = extractClazzHeader(payload);
-            final byte[] content = extraxtContent(payload);
-
-            final EventType eventType = readClassHeader(clazzHeader);
-            return readContent(eventType, content);
+            final EventType eventType = readClassHeader(payload, 0);
+            if (RemoteEventBatch.class.equals(eventType.getTargetClass())) {
+                return readBatch(payload);
+            }
+            return readContent(eventType, payload, EVENT_TYPE_LENGTH, payload.length - EVENT_TYPE_LENGTH);
         }
         return null;
     }
@@ -70,68 +82,167 @@ public class BusProtoStuffMessageConverter extends AbstractMessageConverter {
     @Override
     protected Object convertToInternal(final Object payload, final MessageHeaders headers,
             final Object conversionHint) {
-
-        final byte[] clazzHeader = writeClassHeader(payload.getClass());
-
-        final byte[] writeContent = writeContent(payload);
-
-        return mergeClassHeaderAndContent(clazzHeader, writeContent);
-    }
-
-    private static Object readContent(final EventType eventType, final byte[] content) {
-        final Class<?> targetClass = eventType.getTargetClass();
-        if (targetClass == null) {
-            log.error("Cannot read clazz header for given EventType value {}, missing mapping", eventType.getValue());
-            throw new MessageConversionException("Missing mapping of EventType for value " + eventType.getValue());
+        final EventType eventType = eventType(payload.getClass());
+        final ByteArrayOutputStream out = BUFFERS.get().out();
+        try {
+            writeMessage(out, eventType, false);
+            if (payload instanceof RemoteEventBatch batch) {
+                writeBatch(out, batch);
+            } else {
+                writeMessage(out, payload, false);
+            }
+            return out.toByteArray();
+        } catch (final IOException e) {
+            throw new MessageConversionException("Cannot write event " + payload.getClass(), e);
+        } finally {
+            BUFFERS.get().release();
         }
-        @SuppressWarnings("unchecked") final Schema<Object> schema = (Schema<Object>) RuntimeSchema.getSchema(targetClass);
-        final Object deserializeEvent = schema.newMessage();
-        ProtobufIOUtil.mergeFrom(content, deserializeEvent, schema);
-        return deserializeEvent;
     }
 
-    private static byte[] mergeClassHeaderAndContent(final byte[] clazzHeader, final byte[] writeContent) {
-        final byte[] body = new byte[clazzHeader.length + writeContent.length];
-        System.arraycopy(clazzHeader, 0, body, 0, clazzHeader.length);
-        System.arraycopy(writeContent, 0, body, clazzHeader.length, writeContent.length);
-        return body;
+    // frame: delimited batch header, then per event its delimited class header and content
+    private static void writeBatch(final ByteArrayOutputStream out, final RemoteEventBatch batch) throws IOException {
+        writeMessage(out, batch, true);
+        for (final RemoteApplicationEvent event : batch.getEvents()) {
+            writeMessage(out, eventType(event.getClass()), true);
+            writeMessage(out, event, true);
+        }
     }
 
-    private static byte[] extractClazzHeader(final byte[] payload) {
-        final byte[] clazzHeader = new byte[EVENT_TYPE_LENGTH];
-        System.arraycopy(payload, 0, clazzHeader, 0, EVENT_TYPE_LENGTH);
-        return clazzHeader;
+    private static RemoteEventBatch readBatch(final byte[] payload) {
+        final FrameReader reader = new FrameReader(payload, EVENT_TYPE_LENGTH);
+        final RemoteEventBatch batch = reader.next(RemoteEventBatch.class);
+        final List<RemoteApplicationEvent> events = new ArrayList<>();
+        while (reader.hasNext()) {
+            final Class<?> eventClass = targetClass(reader.next(EventType.class));
+            events.add((RemoteApplicationEvent) reader.next(eventClass));
+        }
+        batch.setEvents(events);
+        return batch;
     }
 
-    private static byte[] extraxtContent(final byte[] payload) {
-        final byte[] content = new byte[payload.length - EVENT_TYPE_LENGTH];
-        System.arraycopy(payload, EVENT_TYPE_LENGTH, content, 0, content.length);
-        return content;
+    private static Object readContent(final EventType eventType, final byte[] payload, final int offset,
+            final int length) {
+        final Schema<Object> schema = schema(targetClass(eventType));
+        final Object deserializeEvent = schema.newMessage();
+        ProtobufIOUtil.mergeFrom(payload, offset, length, deserializeEvent, schema);
+        return deserializeEvent;
     }
 
-    private static EventType readClassHeader(final byte[] typeInformation) {
+    private static EventType readClassHeader(final byte[] payload, final int offset) {
         final Schema<EventType> schema = RuntimeSchema.getSchema(EventType.class);
         final EventType deserializedType = schema.newMessage();
-        ProtobufIOUtil.mergeFrom(typeInformation, deserializedType, schema);
+        ProtobufIOUtil.mergeFrom(payload, offset, EVENT_TYPE_LENGTH, deserializedType, schema);
         return deserializedType;
     }
 
-    private static byte[] writeContent(final Object payload) {
-        final Class<?> serializeClass = payload.getClass();
-        @SuppressWarnings("unchecked") final Schema<Object> schema = (Schema<Object>) RuntimeSchema.getSchema(serializeClass);
-        final LinkedBuffer buffer = LinkedBuffer.allocate();
-        return ProtobufIOUtil.toByteArray(payload, schema, buffer);
+    private static void writeMessage(final ByteArrayOutputStream out, final Object message, final boolean delimited)
+            throws IOException {
+        final Schema<Object> schema = schema(message.getClass());
+        final LinkedBuffer buffer = BUFFERS.get().buffer();
+        try {
+            if (delimited) {
+                ProtobufIOUtil.writeDelimitedTo(out, message, schema, buffer);
+            } else {
+                ProtobufIOUtil.writeTo(out, message, schema, buffer);
+            }
+        } finally {
+            buffer.clear();
+        }
     }
 
-    private static byte[] writeClassHeader(final Class<?> clazz) {
+    private static EventType eventType(final Class<?> clazz) {
         final EventType clazzEventType = EventType.from(clazz);
         if (clazzEventType == null) {
             log.error("There is no mapping to EventType for the given class {}", clazz);
             throw new MessageConversionException("Missing EventType for given class : " + clazz);
         }
-        @SuppressWarnings("unchecked") final Schema<Object> schema = (Schema<Object>) RuntimeSchema
-                .getSchema((Class<?>) EventType.class);
-        final LinkedBuffer buffer = LinkedBuffer.allocate();
-        return ProtobufIOUtil.toByteArray(clazzEventType, schema, buffer);
+        return clazzEventType;
+    }
+
+    private static Class<?> targetClass(final EventType eventType) {
+        final Class<?> targetClass = eventType.getTargetClass();
+        if (targetClass == null) {
+            log.error("Cannot read clazz header for given EventType value {}, missing mapping", eventType.getValue());
+            throw new MessageConversionException("Missing mapping of EventType for value " + eventType.getValue());
+        }
+        return targetClass;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Schema<T> schema(final Class<?> clazz) {
+        return (Schema<T>) RuntimeSchema.getSchema(clazz);
+    }
+
+    /**
+     * The serialization buffers of a thread, reused for all messages it
+     * converts. The output stream is dropped if a huge batch made it grow
+     * beyond {@link #MAX_POOLED_SIZE}.
+     */
+    private static final class Buffers {
+
+        private final LinkedBuffer buffer = LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE);
+        private ByteArrayOutputStream out = new ByteArrayOutputStream(LinkedBuffer.DEFAULT_BUFFER_SIZE);
+
+        private LinkedBuffer buffer() {
+            return buffer;
+        }
+
+        private ByteArrayOutputStream out() {
+            return out;
+        }
+
+        private void release() {
+            if (out.size() > MAX_POOLED_SIZE) {
+                out = new ByteArrayOutputStream(LinkedBuffer.DEFAULT_BUFFER_SIZE);
+            } else {
+                out.reset();
+            }
+        }
+    }
+
+    /**
+     * Reads the length delimited messages of a frame directly from the payload.
+     */
+    private static final class FrameReader {
+
+        private final byte[] payload;
+        private int offset;
+
+        private FrameReader(final byte[] payload, final int offset) {
+            this.payload = payload;
+            this.offset = offset;
+        }
+
+        private boolean hasNext() {
+            return offset < payload.length;
+        }
+
+        private <T> T next(final Class<?> clazz) {
+            final int length = readLength();
+            if (length > payload.length - offset) {
+                throw new MessageConversionException("Truncated event batch");
+            }
+            final Schema<T> schema = schema(clazz);
+            final T message = schema.newMessage();
+            ProtobufIOUtil.mergeFrom(payload, offset, length, message, schema);
+            offset += length;
+            return message;
+        }
+
+        // raw varint32 as written by ProtobufIOUtil.writeDelimitedTo
+        private int readLength() {
+            int length = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                if (offset >= payload.length) {
+                    throw new MessageConversionException("Truncated event batch");
+                }
+                final byte b = payload[offset++];
+                length |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return length;
+                }
+            }
+            throw new MessageConversionException("Malformed length in event batch");
+        }
     }
 }
@@ -9,6 +9,8 @@
  */
 package org.eclipse.hawkbit.event;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -169,6 +171,9 @@ public class EventType {
         TYPES.put(44, TargetTypeCreatedEvent.class);
         TYPES.put(45, TargetTypeUpdatedEvent.class);
         TYPES.put(46, TargetTypeDeletedEvent.class);
+
+        // envelope of batched remote events
+        TYPES.put(47, RemoteEventBatch.class);
     }
 
     /**
@@ -198,4 +203,11 @@ public class EventType {
     public Class<?> getTargetClass() {
         return TYPES.get(value);
     }
+
+    /**
+     * @return the classes of all event types
+     */
+    public static Collection<Class<?>> getTargetClasses() {
+        return Collections.unmodifiableCollection(TYPES.values());
+    }
 }
\ No newline at end of file
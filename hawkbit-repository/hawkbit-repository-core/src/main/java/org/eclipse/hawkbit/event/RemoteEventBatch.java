@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.event;
+
+import java.io.Serial;
+import java.util.Collections;
+import java.util.List;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+/**
+ * Envelope of remote events which are distributed as one bus message, see
+ * {@link BatchingBusBridge}. The events may be of different types and tenants
+ * but share the origin and destination service of the envelope.
+ *
+ * The envelope is never published to the listeners, the receiving node
+ * publishes the contained events one by one in their original order.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class RemoteEventBatch extends RemoteApplicationEvent {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // written and read by the BusProtoStuffMessageConverter as part of the frame
+    private transient List<RemoteApplicationEvent> events = Collections.emptyList();
+
+    /**
+     * Default constructor.
+     */
+    public RemoteEventBatch() {
+        // for serialization libs like protostuff
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param source the source of the batch
+     * @param originService the origin service of the events
+     * @param destinationService the destination service of the events
+     * @param events the events
+     */
+    public RemoteEventBatch(final Object source, final String originService, final String destinationService,
+            final List<RemoteApplicationEvent> events) {
+        super(source, originService, () -> destinationService);
+        this.events = events;
+    }
+
+    void setEvents(final List<RemoteApplicationEvent> events) {
+        this.events = events;
+    }
+}
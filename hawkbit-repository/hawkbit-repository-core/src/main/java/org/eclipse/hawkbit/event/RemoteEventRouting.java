@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.eclipse.hawkbit.repository.event.remote.RemoteTenantAwareEvent;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+/**
+ * Routing keys of the remote events on the bus. The routing key of an event is
+ * {@code <event type value>.<tenant>}, e.g. {@code 24.DEFAULT} for a
+ * {@code TargetPollEvent} of the tenant DEFAULT. A node receives only the
+ * events matching the binding keys of its queue, so a node which doesn't
+ * listen to an event type doesn't receive and deserialize its events.
+ *
+ * Events which are not mapped by {@link EventType} or not tenant aware are
+ * routed with {@code 0._}, batches of events with different routing keys with
+ * {@code 47._}. These keys are bound by every node.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class RemoteEventRouting {
+
+    /**
+     * Message header of the routing key of an event.
+     */
+    public static final String ROUTING_KEY_HEADER = "hawkbit_routing_key";
+
+    private static final String NO_TENANT = "_";
+    private static final String UNMAPPED = "0." + NO_TENANT;
+
+    /**
+     * @param event the event
+     * @return the routing key of the event
+     */
+    public static String routingKey(final RemoteApplicationEvent event) {
+        if (event instanceof RemoteEventBatch batch) {
+            return routingKey(batch);
+        }
+
+        final EventType eventType = EventType.from(event.getClass());
+        if (eventType == null) {
+            return UNMAPPED;
+        }
+        return eventType.getValue() + "." + (event instanceof RemoteTenantAwareEvent tenantAwareEvent
+                ? word(tenantAwareEvent.getTenant())
+                : NO_TENANT);
+    }
+
+    /**
+     * Returns the binding keys of a node which consumes the given event types.
+     *
+     * @param eventClasses the classes of the consumed events
+     * @param tenants the consumed tenants, all tenants if empty
+     * @return the binding keys
+     */
+    public static List<String> bindingKeys(final Collection<Class<?>> eventClasses,
+            final Collection<String> tenants) {
+        final List<String> bindingKeys = new ArrayList<>();
+        bindingKeys.add("0.#");
+        bindingKeys.add(EventType.from(RemoteEventBatch.class).getValue() + ".#");
+        for (final Class<?> eventClass : eventClasses) {
+            final EventType eventType = EventType.from(eventClass);
+            if (eventType == null) {
+                throw new IllegalArgumentException("Missing EventType for given class : " + eventClass);
+            }
+            if (tenants.isEmpty()) {
+                bindingKeys.add(eventType.getValue() + ".*");
+            } else {
+                tenants.forEach(tenant -> bindingKeys.add(eventType.getValue() + "." + word(tenant)));
+                bindingKeys.add(eventType.getValue() + "." + NO_TENANT);
+            }
+        }
+        return bindingKeys;
+    }
+
+    // a batch has the routing key of its events if they share it
+    private static String routingKey(final RemoteEventBatch batch) {
+        String routingKey = null;
+        for (final RemoteApplicationEvent event : batch.getEvents()) {
+            final String eventRoutingKey = routingKey(event);
+            if (routingKey != null && !routingKey.equals(eventRoutingKey)) {
+                return EventType.from(RemoteEventBatch.class).getValue() + "." + NO_TENANT;
+            }
+            routingKey = eventRoutingKey;
+        }
+        return routingKey == null ? UNMAPPED : routingKey;
+    }
+
+    // a tenant is one word of the routing key
+    private static String word(final String tenant) {
+        return tenant == null ? NO_TENANT : tenant.toUpperCase(Locale.ROOT).replace('.', '_');
+    }
+}
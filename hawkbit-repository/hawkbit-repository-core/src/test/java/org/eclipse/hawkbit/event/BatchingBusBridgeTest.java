@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.qameta.allure.Description;
+import org.eclipse.hawkbit.repository.event.remote.TargetPollEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+public class BatchingBusBridgeTest {
+
+    private final List<RemoteApplicationEvent> sent = new CopyOnWriteArrayList<>();
+    private BatchingBusBridge underTest;
+
+    @AfterEach
+    public void after() {
+        underTest.close();
+    }
+
+    @Test
+    @Description("Verifies that a batch is sent when it contains the max number of events")
+    public void batchIsSentWhenFull() {
+        underTest = new BatchingBusBridge(sent::add, 3, 60_000);
+        final List<RemoteApplicationEvent> events = List.of(event("1", "tenant"), event("2", "otherTenant"),
+                event("3", "tenant"));
+
+        events.subList(0, 2).forEach(underTest::send);
+        assertThat(sent).isEmpty();
+        underTest.send(events.get(2));
+
+        assertThat(sent).hasSize(1);
+        assertThat(sent.get(0)).isInstanceOf(RemoteEventBatch.class);
+        assertThat(((RemoteEventBatch) sent.get(0)).getEvents()).containsExactlyElementsOf(events);
+        assertThat(sent.get(0).getOriginService()).isEqualTo(events.get(0).getOriginService());
+        assertThat(sent.get(0).getDestinationService()).isEqualTo(events.get(0).getDestinationService());
+    }
+
+    @Test
+    @Description("Verifies that a batch is sent after the max delay and a single event is sent without batch")
+    public void batchIsSentAfterMaxDelay() {
+        underTest = new BatchingBusBridge(sent::add, 100, 50);
+        final RemoteApplicationEvent event1 = event("1", "tenant");
+        final RemoteApplicationEvent event2 = event("2", "tenant");
+
+        underTest.send(event1);
+        await().atMost(Duration.ofSeconds(5)).until(() -> sent.size() == 1);
+        assertThat(sent).containsExactly(event1);
+
+        underTest.send(event1);
+        underTest.send(event2);
+        await().atMost(Duration.ofSeconds(5)).until(() -> sent.size() == 2);
+        assertThat(((RemoteEventBatch) sent.get(1)).getEvents()).containsExactly(event1, event2);
+    }
+
+    @Test
+    @Description("Verifies that other events are sent directly after the pending batch, so the order is kept")
+    public void otherEventsAreSentAfterPendingBatch() {
+        underTest = new BatchingBusBridge(sent::add, 100, 60_000);
+        final RemoteApplicationEvent event1 = event("1", "tenant");
+        final RemoteApplicationEvent event2 = event("2", "tenant");
+        final RemoteApplicationEvent refreshEvent = new RefreshRemoteApplicationEvent(this, "node", () -> "**");
+
+        underTest.send(event1);
+        underTest.send(event2);
+        underTest.send(refreshEvent);
+
+        assertThat(sent).hasSize(2);
+        assertThat(((RemoteEventBatch) sent.get(0)).getEvents()).containsExactly(event1, event2);
+        assertThat(sent.get(1)).isSameAs(refreshEvent);
+    }
+
+    @Test
+    @Description("Verifies that the pending events are sent on close")
+    public void pendingEventsAreSentOnClose() {
+        underTest = new BatchingBusBridge(sent::add, 100, 60_000);
+        final RemoteApplicationEvent event = event("1", "tenant");
+
+        underTest.send(event);
+        underTest.close();
+
+        assertThat(sent).containsExactly(event);
+    }
+
+    private static RemoteApplicationEvent event(final String controllerId, final String tenant) {
+        return new TargetPollEvent(controllerId, tenant, "node");
+    }
+}
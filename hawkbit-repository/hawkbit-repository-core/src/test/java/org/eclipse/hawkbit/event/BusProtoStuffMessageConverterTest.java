@@ -14,8 +14,11 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.Mockito.when;
 
 import java.util.HashMap;
+import java.util.List;
 
 import io.qameta.allure.Description;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetPollEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.RemoteEntityEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.TargetCreatedEvent;
 import org.eclipse.hawkbit.repository.model.Target;
@@ -61,6 +64,31 @@ public class BusProtoStuffMessageConverterTest {
         assertThat(deserializedEvent).isEqualTo(targetCreatedEvent);
     }
 
+    @Test
+    @Description("Verifies that a batch of events of different types and tenants can be successfully serialized and deserialized")
+    public void successfullySerializeAndDeserializeEventBatch() {
+        final TargetCreatedEvent targetCreatedEvent = new TargetCreatedEvent(targetMock, "1");
+        final TargetPollEvent targetPollEvent = new TargetPollEvent("controller", "otherTenant", "1");
+        final TargetDeletedEvent targetDeletedEvent = new TargetDeletedEvent("tenant", 2L, "controller2", null,
+                Target.class, "1");
+        final RemoteEventBatch batch = new RemoteEventBatch(this, targetCreatedEvent.getOriginService(),
+                targetCreatedEvent.getDestinationService(),
+                List.of(targetCreatedEvent, targetPollEvent, targetDeletedEvent));
+        // serialize
+        final Object serializedBatch = underTest.convertToInternal(batch, new MessageHeaders(new HashMap<>()), null);
+        assertThat(serializedBatch).isInstanceOf(byte[].class);
+
+        // deserialize
+        when(messageMock.getPayload()).thenReturn(serializedBatch);
+        final Object deserializedBatch = underTest.convertFromInternal(messageMock, RemoteApplicationEvent.class, null);
+        assertThat(deserializedBatch).isInstanceOf(RemoteEventBatch.class);
+        assertThat(((RemoteEventBatch) deserializedBatch).getId()).isEqualTo(batch.getId());
+        assertThat(((RemoteEventBatch) deserializedBatch).getDestinationService())
+                .isEqualTo(batch.getDestinationService());
+        assertThat(((RemoteEventBatch) deserializedBatch).getEvents())
+                .containsExactly(targetCreatedEvent, targetPollEvent, targetDeletedEvent);
+    }
+
     @Test
     @Description("Verifies that a MessageConversationException is thrown on missing event-type information encoding")
     public void missingEventTypeMappingThrowsMessageConversationException() {
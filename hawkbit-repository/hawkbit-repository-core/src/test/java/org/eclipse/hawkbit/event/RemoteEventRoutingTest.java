@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.List;
+
+import io.qameta.allure.Description;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetPollEvent;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+
+public class RemoteEventRoutingTest {
+
+    @Test
+    @Description("Verifies that the routing key of an event consists of its event type and tenant")
+    public void routingKeyOfEvent() {
+        assertThat(RemoteEventRouting.routingKey(new TargetPollEvent("controller", "my.tenant", "node")))
+                .isEqualTo("24.MY_TENANT");
+        assertThat(RemoteEventRouting.routingKey(new RefreshRemoteApplicationEvent(this, "node", () -> "**")))
+                .isEqualTo("0._");
+    }
+
+    @Test
+    @Description("Verifies that a batch has the routing key of its events if they share it")
+    public void routingKeyOfBatch() {
+        final TargetPollEvent poll1 = new TargetPollEvent("controller1", "tenant", "node");
+        final TargetPollEvent poll2 = new TargetPollEvent("controller2", "TENANT", "node");
+        final TargetPollEvent poll3 = new TargetPollEvent("controller3", "otherTenant", "node");
+
+        assertThat(RemoteEventRouting.routingKey(batch(poll1, poll2))).isEqualTo("24.TENANT");
+        assertThat(RemoteEventRouting.routingKey(batch(poll1, poll3))).isEqualTo("47._");
+    }
+
+    @Test
+    @Description("Verifies the binding keys of the consumed event types and tenants")
+    public void bindingKeys() {
+        assertThat(RemoteEventRouting.bindingKeys(List.of(TargetPollEvent.class, TargetDeletedEvent.class), List.of()))
+                .containsExactly("0.#", "47.#", "24.*", "3.*");
+        assertThat(RemoteEventRouting.bindingKeys(List.of(TargetPollEvent.class), List.of("tenant", "other.tenant")))
+                .containsExactly("0.#", "47.#", "24.TENANT", "24.OTHER_TENANT", "24._");
+        final List<Class<?>> unmappedClasses = List.of(Target.class);
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> RemoteEventRouting.bindingKeys(unmappedClasses, List.of()));
+    }
+
+    private static RemoteEventBatch batch(final TargetPollEvent... events) {
+        return new RemoteEventBatch(new Object(), "node", events[0].getDestinationService(), List.of(events));
+    }
+}
@@ -11,7 +11,9 @@ package org.eclipse.hawkbit.repository.jpa;
 
 import jakarta.persistence.EntityManager;
 
+import org.aopalliance.intercept.MethodInterceptor;
 import org.eclipse.hawkbit.repository.BaseRepositoryTypeProvider;
+import org.eclipse.hawkbit.repository.jpa.rsql.RsqlQueryProfiler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
 import org.springframework.data.repository.Repository;
@@ -46,6 +48,19 @@ public class CustomBaseRepositoryFactoryBean<T extends Repository<S, ID>, S, ID>
     protected RepositoryFactorySupport createRepositoryFactory(final EntityManager entityManager) {
         final RepositoryFactorySupport rfs = super.createRepositoryFactory(entityManager);
         rfs.setRepositoryBaseClass(baseRepoProvider.getBaseRepositoryType(getObjectType()));
+        // the RSQL applied by a repository call must not stick to the (pooled) thread and be assigned to a later query
+        rfs.addRepositoryProxyPostProcessor((factory, repositoryInformation) -> factory.addAdvice(
+                (MethodInterceptor) invocation -> {
+                    Throwable error = null;
+                    try {
+                        return invocation.proceed();
+                    } catch (final Throwable e) {
+                        error = e;
+                        throw e;
+                    } finally {
+                        RsqlQueryProfiler.repositoryCallFinished(error);
+                    }
+                }));
         return rfs;
     }
 }
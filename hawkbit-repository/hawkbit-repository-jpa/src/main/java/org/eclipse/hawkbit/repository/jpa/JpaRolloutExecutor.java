@@ -16,8 +16,10 @@ import java.lang.reflect.Proxy;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
@@ -26,6 +28,7 @@ import java.util.stream.StreamSupport;
 import jakarta.persistence.EntityManager;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.ListUtils;
 import org.eclipse.hawkbit.repository.DeploymentManagement;
 import org.eclipse.hawkbit.repository.QuotaManagement;
 import org.eclipse.hawkbit.repository.RepositoryProperties;
@@ -40,16 +43,23 @@ import org.eclipse.hawkbit.repository.event.remote.RolloutStoppedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.RolloutUpdatedEvent;
 import org.eclipse.hawkbit.repository.exception.AssignmentQuotaExceededException;
 import org.eclipse.hawkbit.repository.exception.RolloutIllegalStateException;
+import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
 import org.eclipse.hawkbit.repository.jpa.executor.AfterTransactionCommitExecutor;
 import org.eclipse.hawkbit.repository.jpa.management.JpaRolloutManagement;
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRolloutGroup;
 import org.eclipse.hawkbit.repository.jpa.model.RolloutTargetGroup;
+import org.eclipse.hawkbit.repository.jpa.purge.PurgeEngine;
+import org.eclipse.hawkbit.repository.jpa.purge.PurgeType;
 import org.eclipse.hawkbit.repository.jpa.repository.ActionRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.RolloutGroupRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.RolloutRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.RolloutTargetGroupRepository;
+import org.eclipse.hawkbit.repository.jpa.repository.TargetFilterQueryRepository;
+import org.eclipse.hawkbit.repository.jpa.rollout.DynamicRolloutCandidates;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutExecutionProfiler;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutStatusCounter;
 import org.eclipse.hawkbit.repository.jpa.rollout.condition.EvaluatorNotConfiguredException;
 import org.eclipse.hawkbit.repository.jpa.rollout.condition.RolloutGroupEvaluationManager;
 import org.eclipse.hawkbit.repository.jpa.utils.DeploymentHelper;
@@ -120,6 +130,11 @@ public class JpaRolloutExecutor implements RolloutExecutor {
     private final EventPublisherHolder eventPublisherHolder;
     private final TenantAware tenantAware;
     private final RepositoryProperties repositoryProperties;
+    private final RolloutStatusCounter rolloutStatusCounter;
+    private final PurgeEngine purgeEngine;
+    private final DynamicRolloutCandidates dynamicRolloutCandidates;
+    private final RolloutExecutionProfiler profiler;
+    private final TargetFilterQueryRepository targetFilterQueryRepository;
     private final Map<Long, AtomicLong> lastDynamicGroupFill = new ConcurrentHashMap<>();
 
     public JpaRolloutExecutor(
@@ -131,7 +146,10 @@ public class JpaRolloutExecutor implements RolloutExecutor {
             final RolloutGroupEvaluationManager evaluationManager, final RolloutApprovalStrategy rolloutApprovalStrategy,
             final EntityManager entityManager, final PlatformTransactionManager txManager,
             final AfterTransactionCommitExecutor afterCommit, final EventPublisherHolder eventPublisherHolder,
-            final TenantAware tenantAware, final RepositoryProperties repositoryProperties) {
+            final TenantAware tenantAware, final RepositoryProperties repositoryProperties,
+            final RolloutStatusCounter rolloutStatusCounter, final PurgeEngine purgeEngine,
+            final DynamicRolloutCandidates dynamicRolloutCandidates, final RolloutExecutionProfiler profiler,
+            final TargetFilterQueryRepository targetFilterQueryRepository) {
         this.actionRepository = actionRepository;
         this.rolloutGroupRepository = rolloutGroupRepository;
         this.rolloutTargetGroupRepository = rolloutTargetGroupRepository;
@@ -149,37 +167,48 @@ public class JpaRolloutExecutor implements RolloutExecutor {
         this.eventPublisherHolder = eventPublisherHolder;
         this.tenantAware = tenantAware;
         this.repositoryProperties = repositoryProperties;
+        this.rolloutStatusCounter = rolloutStatusCounter;
+        this.purgeEngine = purgeEngine;
+        this.dynamicRolloutCandidates = dynamicRolloutCandidates;
+        this.profiler = profiler;
+        this.targetFilterQueryRepository = targetFilterQueryRepository;
     }
 
     @Override
     public void execute(final Rollout rollout) {
         log.debug("Processing rollout {}", rollout.getId());
 
+        profiler.execute(rollout, () -> handle(rollout));
+
+        log.debug("Rollout {} processed", rollout.getId());
+    }
+
+    private void handle(final Rollout rollout) {
         switch (rollout.getStatus()) {
             case CREATING:
-                handleCreateRollout((JpaRollout) rollout);
+                profiler.phase("handleCreateRollout", () -> handleCreateRollout((JpaRollout) rollout));
                 break;
             case READY:
-                handleReadyRollout(rollout);
+                profiler.phase("handleReadyRollout", () -> handleReadyRollout(rollout));
                 break;
             case STARTING:
                 // the lastModifiedBy user is probably the user that has actually called the rollout start (unless overridden) - not the creator
                 SpringSecurityAuditorAware.setAuditorOverride(rollout.getLastModifiedBy());
                 try {
-                    handleStartingRollout(rollout);
+                    profiler.phase("handleStartingRollout", () -> handleStartingRollout(rollout));
                 } finally {
                     // clear, ALWAYS, the set auditor override
                     SpringSecurityAuditorAware.clearAuditorOverride();
                 }
                 break;
             case RUNNING:
-                handleRunningRollout((JpaRollout) rollout);
+                profiler.phase("handleRunningRollout", () -> handleRunningRollout((JpaRollout) rollout));
                 break;
             case STOPPING:
                 // the lastModifiedBy user is probably the user that has actually called the rollout stop (unless overridden) - not the creator
                 SpringSecurityAuditorAware.setAuditorOverride(rollout.getLastModifiedBy());
                 try {
-                    handleStopRollout((JpaRollout) rollout);
+                    profiler.phase("handleStopRollout", () -> handleStopRollout((JpaRollout) rollout));
                 } finally {
                     // clear, ALWAYS, the set auditor override
                     SpringSecurityAuditorAware.clearAuditorOverride();
@@ -189,7 +218,7 @@ public class JpaRolloutExecutor implements RolloutExecutor {
                 // the lastModifiedBy user is probably the user that has actually called the rollout delete (unless overridden) - not the creator
                 SpringSecurityAuditorAware.setAuditorOverride(rollout.getLastModifiedBy());
                 try {
-                    handleDeleteRollout((JpaRollout) rollout);
+                    profiler.phase("handleDeleteRollout", () -> handleDeleteRollout((JpaRollout) rollout));
                 } finally {
                     // clear, ALWAYS, the set auditor override
                     SpringSecurityAuditorAware.clearAuditorOverride();
@@ -199,8 +228,6 @@ public class JpaRolloutExecutor implements RolloutExecutor {
                 log.error("Rollout in status {} not supposed to be handled!", rollout.getStatus());
                 break;
         }
-
-        log.debug("Rollout {} processed", rollout.getId());
     }
 
     private void handleCreateRollout(final JpaRollout rollout) {
@@ -219,8 +246,8 @@ public class JpaRolloutExecutor implements RolloutExecutor {
                 continue;
             }
 
-            final RolloutGroup filledGroup = fillRolloutGroupWithTargets(rollout, (JpaRolloutGroup) group,
-                    rolloutGroups);
+            final RolloutGroup filledGroup = profiler.phase("fillRolloutGroupWithTargets",
+                    () -> fillRolloutGroupWithTargets(rollout, (JpaRolloutGroup) group, rolloutGroups));
             if (RolloutGroupStatus.READY == filledGroup.getStatus()) {
                 readyGroups++;
                 totalTargets += filledGroup.getTotalTargets();
@@ -251,6 +278,7 @@ public class JpaRolloutExecutor implements RolloutExecutor {
 
     private void handleDeleteRollout(final JpaRollout rollout) {
         log.debug("handleDeleteRollout called for {}", rollout.getId());
+        stopDynamicGroupFill(rollout);
 
         // check if there are actions beyond schedule
         boolean hardDeleteRolloutGroups = !actionRepository.existsByRolloutIdAndStatusNotIn(rollout.getId(),
@@ -262,7 +290,7 @@ public class JpaRolloutExecutor implements RolloutExecutor {
         }
         // clean up all scheduled actions
         final Slice<JpaAction> scheduledActions = findScheduledActionsByRollout(rollout);
-        deleteScheduledActions(rollout, scheduledActions);
+        profiler.phase("deleteScheduledActions", () -> deleteScheduledActions(rollout, scheduledActions));
 
         // avoid another scheduler round and re-check if all scheduled actions
         // has been cleaned up. we flush first to ensure that will include the deletion above
@@ -293,9 +321,10 @@ public class JpaRolloutExecutor implements RolloutExecutor {
 
     private void handleStopRollout(final JpaRollout rollout) {
         log.debug("handleStopRollout called for {}", rollout.getId());
+        stopDynamicGroupFill(rollout);
         // clean up all scheduled actions
         final Slice<JpaAction> scheduledActions = findScheduledActionsByRollout(rollout);
-        deleteScheduledActions(rollout, scheduledActions);
+        profiler.phase("deleteScheduledActions", () -> deleteScheduledActions(rollout, scheduledActions));
 
         // avoid another scheduler round and re-check if all scheduled actions
         // has been cleaned up. we flush first to ensure that the we include the
@@ -320,6 +349,7 @@ public class JpaRolloutExecutor implements RolloutExecutor {
         final List<Long> groupIds = rollout.getRolloutGroups().stream().map(RolloutGroup::getId)
                 .collect(Collectors.toList());
 
+        profiler.count(RolloutExecutionProfiler.EVENTS_PUBLISHED, 1);
         afterCommit.afterCommit(() -> eventPublisherHolder.getEventPublisher().publishEvent(new RolloutStoppedEvent(
                 tenantAware.getCurrentTenant(), eventPublisherHolder.getApplicationId(), rollout.getId(), groupIds)));
     }
@@ -336,15 +366,16 @@ public class JpaRolloutExecutor implements RolloutExecutor {
     private void handleStartingRollout(final Rollout rollout) {
         log.debug("handleStartingRollout called for rollout {}", rollout.getId());
 
-        if (ensureAllGroupsAreScheduled(rollout)) {
-            startFirstRolloutGroup(rollout);
+        if (profiler.phase("scheduleRolloutGroups", () -> ensureAllGroupsAreScheduled(rollout))) {
+            profiler.phase("startFirstRolloutGroup", () -> startFirstRolloutGroup(rollout));
         }
     }
 
     private void handleRunningRollout(final JpaRollout rollout) {
         log.debug("handleRunningRollout called for rollout {}", rollout.getId());
 
-        if (rollout.isDynamic() && fillDynamicRolloutGroupsWithTargets(rollout)) {
+        if (rollout.isDynamic() && profiler.phase("fillDynamicRolloutGroupsWithTargets",
+                () -> fillDynamicRolloutGroupsWithTargets(rollout))) {
             log.debug("Dynamic group created for rollout {}", rollout.getId());
             return;
         }
@@ -358,10 +389,11 @@ public class JpaRolloutExecutor implements RolloutExecutor {
         if (runningGroups.isEmpty()) {
             // no running rollouts, probably there was an error somewhere at the latest group. And the latest group has
             // been switched from running into error state. So we need to find the latest group which
-            executeLatestRolloutGroup(rollout);
+            profiler.phase("executeLatestRolloutGroup", () -> executeLatestRolloutGroup(rollout));
         } else {
             log.debug("Rollout {} has {} running groups", rollout.getId(), runningGroups.size());
-            executeRunningGroups(rollout, runningGroups, rollout.getRolloutGroups().get(rollout.getRolloutGroups().size() - 1));
+            profiler.phase("executeRunningGroups", () -> executeRunningGroups(rollout, runningGroups,
+                    rollout.getRolloutGroups().get(rollout.getRolloutGroups().size() - 1)));
         }
 
         if (isRolloutComplete(rollout)) {
@@ -373,6 +405,17 @@ public class JpaRolloutExecutor implements RolloutExecutor {
 
     private void hardDeleteRollout(final JpaRollout rollout) {
         sendRolloutGroupDeletedEvents(rollout);
+        profiler.remove(rollout.getId());
+        if (rollout.getTotalTargets() > repositoryProperties.getPurgeChunkSize()) {
+            // too big to be deleted at once (the actions and target assignments are deleted by cascade) - so
+            // it is hidden as deleted and purged in chunks in the background
+            log.debug("Rollout {} has {} targets -> purge in background", rollout.getId(), rollout.getTotalTargets());
+            rollout.setStatus(RolloutStatus.DELETED);
+            rollout.setDeleted(true);
+            rolloutRepository.save(rollout);
+            purgeEngine.markForPurge(PurgeType.ROLLOUT, rollout.getId());
+            return;
+        }
         rolloutRepository.delete(rollout);
     }
 
@@ -385,6 +428,11 @@ public class JpaRolloutExecutor implements RolloutExecutor {
                         .map(Action::getId)
                         .toList();
                 actionRepository.deleteByIdIn(actionIds);
+                // the bulk delete bypasses the rollout status counters
+                rolloutStatusCounter.recountByRollout(rollout.getId());
+                // without the actions the distribution set could be auto assigned to the targets again
+                targetFilterQueryRepository.resetAutoAssignCheckedAt();
+                profiler.count(RolloutExecutionProfiler.EVENTS_PUBLISHED, 1);
                 afterCommit.afterCommit(() -> eventPublisherHolder.getEventPublisher()
                         .publishEvent(new RolloutUpdatedEvent(rollout, eventPublisherHolder.getApplicationId())));
             } catch (final RuntimeException e) {
@@ -400,6 +448,7 @@ public class JpaRolloutExecutor implements RolloutExecutor {
 
     private void sendRolloutGroupDeletedEvents(final JpaRollout rollout) {
         final List<Long> groupIds = rollout.getRolloutGroups().stream().map(RolloutGroup::getId).toList();
+        profiler.count(RolloutExecutionProfiler.EVENTS_PUBLISHED, groupIds.size());
         afterCommit.afterCommit(() -> groupIds.forEach(rolloutGroupId -> eventPublisherHolder.getEventPublisher()
                 .publishEvent(new RolloutGroupDeletedEvent(tenantAware.getCurrentTenant(), rolloutGroupId,
                         JpaRolloutGroup.class, eventPublisherHolder.getApplicationId()))));
@@ -503,12 +552,23 @@ public class JpaRolloutExecutor implements RolloutExecutor {
     }
 
     private boolean isRolloutGroupComplete(final JpaRollout rollout, final JpaRolloutGroup rolloutGroup) {
+        final List<Status> terminationStatuses = ActionType.DOWNLOAD_ONLY == rollout.getActionType() ?
+                DOWNLOAD_ONLY_ACTION_TERMINATION_STATUSES : DEFAULT_ACTION_TERMINATION_STATUSES;
+        if (rolloutStatusCounter.countByRolloutGroupIdAndStatus(rolloutGroup.getId(),
+                EnumSet.complementOf(EnumSet.copyOf(terminationStatuses))) > 0) {
+            return false;
+        }
+
+        // the group is completed once, so confirm it on the actions in order to never complete it because of
+        // deviating counters
         final Long actionsLeftForRollout =
-                actionRepository.countByRolloutAndRolloutGroupAndStatusNotIn(
-                        rollout, rolloutGroup,
-                        ActionType.DOWNLOAD_ONLY == rollout.getActionType() ?
-                                DOWNLOAD_ONLY_ACTION_TERMINATION_STATUSES : DEFAULT_ACTION_TERMINATION_STATUSES);
-        return actionsLeftForRollout == 0;
+                actionRepository.countByRolloutAndRolloutGroupAndStatusNotIn(rollout, rolloutGroup, terminationStatuses);
+        if (actionsLeftForRollout > 0) {
+            log.warn("Rollout status counters of group {} deviate from the actions. Recount.", rolloutGroup.getId());
+            rolloutStatusCounter.recount(List.of(rolloutGroup.getId()));
+            return false;
+        }
+        return true;
     }
 
     private boolean checkErrorState(final Rollout rollout, final RolloutGroup rolloutGroup) {
@@ -653,7 +713,8 @@ public class JpaRolloutExecutor implements RolloutExecutor {
 
     private Long assignTargetsToGroupInNewTransaction(final JpaRollout rollout, final RolloutGroup group,
             final String targetFilter, final long limit) {
-        return DeploymentHelper.runInNewTransaction(txManager, "assignTargetsToRolloutGroup", status -> {
+        final Long assigned = profiler.phase("assignTargetsToGroupInNewTransaction",
+                () -> DeploymentHelper.runInNewTransaction(txManager, "assignTargetsToRolloutGroup", status -> {
             final PageRequest pageRequest = PageRequest.of(0, Math.toIntExact(limit));
             final List<Long> readyGroups = RolloutHelper.getGroupsByStatusIncludingGroup(rollout.getRolloutGroups(),
                     RolloutGroupStatus.READY, group);
@@ -669,15 +730,20 @@ public class JpaRolloutExecutor implements RolloutExecutor {
             createAssignmentOfTargetsToGroup(targets, group);
 
             return Long.valueOf(targets.getNumberOfElements());
-        });
+        }));
+        profiler.count(RolloutExecutionProfiler.TARGETS_ASSIGNED, assigned);
+        return assigned;
     }
 
     // return if group change is made
     private boolean fillDynamicRolloutGroupsWithTargets(final JpaRollout rollout) {
+        final String tenant = tenantAware.getCurrentTenant();
         final AtomicLong lastFill = lastDynamicGroupFill.computeIfAbsent(rollout.getId(), id -> new AtomicLong(0));
         final long now = System.currentTimeMillis();
-        if (now - lastFill.get() < repositoryProperties.getDynamicRolloutsMinInvolvePeriodMS()) {
-            // too early to make another dynamic involvement attempt
+        // full scan only from time to time, in between only the created or updated targets are checked
+        final boolean fullScan = now - lastFill.get() >= repositoryProperties.getDynamicRolloutsMinInvolvePeriodMS();
+        if (!fullScan && !dynamicRolloutCandidates.hasCandidates(tenant, rollout.getId())) {
+            // no new candidates and too early to make another full scan
             return false;
         }
 
@@ -695,6 +761,12 @@ public class JpaRolloutExecutor implements RolloutExecutor {
             return true;
         }
 
+        final Set<Long> candidates = fullScan ? null : dynamicRolloutCandidates.poll(tenant, rollout.getId());
+        if (candidates == null) {
+            // the full scan covers all candidates collected so far
+            dynamicRolloutCandidates.reset(tenant, rollout.getId());
+        }
+
         // there are more to be filled for the last group do this until there are more matching
         try {
             long targetsLeftToAdd = expectedInGroup - currentlyInGroup;
@@ -704,18 +776,35 @@ public class JpaRolloutExecutor implements RolloutExecutor {
                     // before the rollout
                     rollout.getTargetFilterQuery(), group);
             long newActions = 0;
-            do {
-                // Add up to TRANSACTION_TARGETS actions of the left targets
-                // In case a TransactionException is thrown this loop aborts
-                final int createdActions = createActionsForDynamicGroupInNewTransaction(rollout, group, groupTargetFilter,
-                        Math.min(TRANSACTION_TARGETS, targetsLeftToAdd));
-                if (createdActions == 0) {
-                    break; // no more to assign
-                } else {
+            if (candidates == null) {
+                do {
+                    // Add up to TRANSACTION_TARGETS actions of the left targets
+                    // In case a TransactionException is thrown this loop aborts
+                    final int createdActions = createActionsForDynamicGroupInNewTransaction(rollout, group,
+                            groupTargetFilter, null, Math.min(TRANSACTION_TARGETS, targetsLeftToAdd));
+                    if (createdActions == 0) {
+                        break; // no more to assign
+                    } else {
+                        newActions += createdActions;
+                        targetsLeftToAdd -= createdActions;
+                    }
+                } while (targetsLeftToAdd > 0);
+            } else {
+                final List<List<Long>> chunks = ListUtils.partition(List.copyOf(candidates),
+                        Constants.MAX_ENTRIES_IN_STATEMENT);
+                int chunk = 0;
+                for (; chunk < chunks.size() && targetsLeftToAdd > 0; chunk++) {
+                    final int createdActions = createActionsForDynamicGroupInNewTransaction(rollout, group,
+                            groupTargetFilter, chunks.get(chunk), Math.min(TRANSACTION_TARGETS, targetsLeftToAdd));
                     newActions += createdActions;
                     targetsLeftToAdd -= createdActions;
                 }
-            } while (targetsLeftToAdd > 0);
+                if (targetsLeftToAdd <= 0) {
+                    // the group is full - the last checked and the unchecked candidates are left for the next group
+                    chunks.subList(Math.max(chunk - 1, 0), chunks.size())
+                            .forEach(ids -> dynamicRolloutCandidates.offer(tenant, rollout.getId(), ids));
+                }
+            }
 
             if (newActions > 0) {
                 updateTotalTargetCount(group, group.getTotalTargets() + newActions);
@@ -730,11 +819,20 @@ public class JpaRolloutExecutor implements RolloutExecutor {
             log.warn(TRANSACTION_ASSIGNING_TARGETS_TO_ROLLOUT_GROUP_FAILED, e);
         }
 
-        // set to skip for some time
-        lastFill.set(now);
+        if (candidates == null) {
+            // set to skip full scan for some time
+            lastFill.set(now);
+        }
         return false;
     }
 
+    private void stopDynamicGroupFill(final JpaRollout rollout) {
+        if (rollout.isDynamic()) {
+            lastDynamicGroupFill.remove(rollout.getId());
+            dynamicRolloutCandidates.remove(tenantAware.getCurrentTenant(), rollout.getId());
+        }
+    }
+
     private void createDynamicGroup(final JpaRollout rollout, final JpaRolloutGroup lastGroup, final int groupCount,
             final RolloutGroupStatus status) {
         try {
@@ -777,17 +875,24 @@ public class JpaRolloutExecutor implements RolloutExecutor {
         rollout.setRolloutGroupsCreated(rollout.getRolloutGroupsCreated() + 1);
         rolloutRepository.save(rollout);
         ((JpaRolloutManagement) rolloutManagement).publishRolloutGroupCreatedEventAfterCommit(savedGroup, rollout);
+        profiler.count(RolloutExecutionProfiler.EVENTS_PUBLISHED, 1);
     }
 
+    // targetIds null means all targets
     private int createActionsForDynamicGroupInNewTransaction(final JpaRollout rollout, final RolloutGroup group,
-            final String targetFilter, final long limit) {
-        return DeploymentHelper.runInNewTransaction(txManager, "createActionsForRolloutDynamicGroup", status -> {
+            final String targetFilter, final List<Long> targetIds, final long limit) {
+        final int created = profiler.phase("createActionsForDynamicGroupInNewTransaction",
+                () -> DeploymentHelper.runInNewTransaction(txManager, "createActionsForRolloutDynamicGroup", status -> {
             final PageRequest pageRequest = PageRequest.of(0, Math.toIntExact(limit));
-            final Slice<Target> targets = targetManagement.findByNotInGEGroupAndNotInActiveActionGEWeightOrInRolloutAndTargetFilterQueryAndCompatibleAndUpdatable(
-                    pageRequest,
-                    rollout.getId(), rollout.getWeight().orElse(1000), // Dynamic rollouts shall always have weight!
-                    rolloutGroupRepository.findByRolloutOrderByIdAsc(rollout).get(0).getId(),
-                    targetFilter, rollout.getDistributionSet().getType());
+            final int weight = rollout.getWeight().orElse(1000); // Dynamic rollouts shall always have weight!
+            final long firstGroupId = rolloutGroupRepository.findByRolloutOrderByIdAsc(rollout).get(0).getId();
+            final Slice<Target> targets = targetIds == null
+                    ? targetManagement.findByNotInGEGroupAndNotInActiveActionGEWeightOrInRolloutAndTargetFilterQueryAndCompatibleAndUpdatable(
+                            pageRequest, rollout.getId(), weight, firstGroupId, targetFilter,
+                            rollout.getDistributionSet().getType())
+                    : targetManagement.findByIdInAndNotInGEGroupAndNotInActiveActionGEWeightOrInRolloutAndTargetFilterQueryAndCompatibleAndUpdatable(
+                            pageRequest, targetIds, rollout.getId(), weight, firstGroupId, targetFilter,
+                            rollout.getDistributionSet().getType());
 
             if (targets.getNumberOfElements() == 0) {
                 return 0;
@@ -802,7 +907,10 @@ public class JpaRolloutExecutor implements RolloutExecutor {
             }
 
             return newActions.size();
-        });
+        }));
+        profiler.count(RolloutExecutionProfiler.TARGETS_ASSIGNED, created);
+        profiler.count(RolloutExecutionProfiler.ACTIONS_CREATED, created);
+        return created;
     }
 
     /**
@@ -846,7 +954,8 @@ public class JpaRolloutExecutor implements RolloutExecutor {
 
     private Long createActionsForTargetsInNewTransaction(
             final Rollout rollout, final RolloutGroup group, final int limit) {
-        return DeploymentHelper.runInNewTransaction(txManager, "createActionsForTargets", status -> {
+        final Long created = profiler.phase("createActionsForTargetsInNewTransaction",
+                () -> DeploymentHelper.runInNewTransaction(txManager, "createActionsForTargets", status -> {
             final Slice<Target> targets =
                     targetManagement.findByInRolloutGroupWithoutAction(PageRequest.of(0, limit), group.getId());
 
@@ -858,7 +967,9 @@ public class JpaRolloutExecutor implements RolloutExecutor {
             }
 
             return Long.valueOf(targets.getNumberOfElements());
-        });
+        }));
+        profiler.count(RolloutExecutionProfiler.ACTIONS_CREATED, created);
+        return created;
     }
 
     private void createAssignmentOfTargetsToGroup(final Slice<Target> targets, final RolloutGroup group) {
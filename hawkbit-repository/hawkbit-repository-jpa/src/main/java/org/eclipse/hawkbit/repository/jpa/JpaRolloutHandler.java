@@ -9,15 +9,21 @@
  */
 package org.eclipse.hawkbit.repository.jpa;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.hawkbit.ContextAware;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.RolloutExecutor;
 import org.eclipse.hawkbit.repository.RolloutHandler;
 import org.eclipse.hawkbit.repository.RolloutManagement;
 import org.eclipse.hawkbit.repository.jpa.utils.DeploymentHelper;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.Rollout.RolloutStatus;
 import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.springframework.integration.support.locks.LockRegistry;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -34,6 +40,10 @@ public class JpaRolloutHandler implements RolloutHandler {
     private final LockRegistry lockRegistry;
     private final PlatformTransactionManager txManager;
     private final ContextAware contextAware;
+    private final RepositoryProperties repositoryProperties;
+    // last evaluation time of running rollouts per tenant - used (if event driven evaluation is enabled) to let
+    // the scheduler skip the rollouts which have been recently evaluated in reaction of action updates
+    private final Map<String, Map<Long, Long>> lastRunningEvaluation = new ConcurrentHashMap<>();
 
     /**
      * Constructor
@@ -43,45 +53,67 @@ public class JpaRolloutHandler implements RolloutHandler {
      * @param rolloutExecutor to trigger executions for a specific rollout
      * @param lockRegistry to lock processes
      * @param txManager transaction manager interface
+     * @param contextAware to run the rollout execution in the rollout context
+     * @param repositoryProperties to check if the rollouts are evaluated event driven
      */
     public JpaRolloutHandler(final TenantAware tenantAware, final RolloutManagement rolloutManagement,
             final RolloutExecutor rolloutExecutor, final LockRegistry lockRegistry,
             final PlatformTransactionManager txManager,
-            final ContextAware contextAware) {
+            final ContextAware contextAware, final RepositoryProperties repositoryProperties) {
         this.tenantAware = tenantAware;
         this.rolloutManagement = rolloutManagement;
         this.rolloutExecutor = rolloutExecutor;
         this.lockRegistry = lockRegistry;
         this.txManager = txManager;
         this.contextAware = contextAware;
+        this.repositoryProperties = repositoryProperties;
     }
 
     @Override
     public void handleAll() {
         final List<Long> rollouts = rolloutManagement.findActiveRollouts();
         if (rollouts.isEmpty()) {
+            lastRunningEvaluation.remove(tenantAware.getCurrentTenant());
             return;
         }
 
+        if (repositoryProperties.isEventDrivenRolloutEvaluation()) {
+            // forget the rollouts which are not active anymore
+            lastRunningEvaluation(tenantAware.getCurrentTenant()).keySet().retainAll(rollouts);
+        }
+        handleWithLock(rollouts, false);
+    }
+
+    @Override
+    public boolean handleRunning(final Collection<Long> rolloutIds) {
+        if (rolloutIds.isEmpty()) {
+            return true;
+        }
+
+        return handleWithLock(rolloutIds, true);
+    }
+
+    private boolean handleWithLock(final Collection<Long> rollouts, final boolean runningOnly) {
         final String handlerId = createRolloutLockKey(tenantAware.getCurrentTenant());
         final Lock lock = lockRegistry.obtain(handlerId);
         if (!lock.tryLock()) {
             if (log.isTraceEnabled()) {
                 log.trace("Could not perform lock {}", lock);
             }
-            return;
+            return false;
         }
 
         try {
             log.debug("Trigger handling {} rollouts.", rollouts.size());
             rollouts.forEach(rolloutId -> {
                 try {
-                    handleRolloutInNewTransaction(rolloutId, handlerId);
+                    handleRolloutInNewTransaction(rolloutId, handlerId, runningOnly);
                 } catch (final Throwable throwable) {
                     log.error("Failed to process rollout with id {}", rolloutId, throwable);
                 }
             });
             log.debug("Finished handling of the rollouts.");
+            return true;
         } finally {
             if (log.isTraceEnabled()) {
                 log.trace("Unlock lock {}", lock);
@@ -96,10 +128,13 @@ public class JpaRolloutHandler implements RolloutHandler {
 
     // run in a tenant context, i.e. contextAware.getCurrentTenant() returns the tenant
     // the rollout is made for
-    private void handleRolloutInNewTransaction(final long rolloutId, final String handlerId) {
+    private void handleRolloutInNewTransaction(final long rolloutId, final String handlerId, final boolean runningOnly) {
         DeploymentHelper.runInNewTransaction(txManager, handlerId + "-" + rolloutId, status -> {
             rolloutManagement.get(rolloutId).ifPresentOrElse(
                     rollout -> {
+                        if (skipEvaluation(rollout, runningOnly)) {
+                            return;
+                        }
                         // auditor is retrieved and set on transaction commit
                         // if not overridden, the system user will be the auditor
                         rollout.getAccessControlContext().ifPresentOrElse(
@@ -121,4 +156,34 @@ public class JpaRolloutHandler implements RolloutHandler {
             return 0L;
         });
     }
+
+    private boolean skipEvaluation(final Rollout rollout, final boolean runningOnly) {
+        final Map<Long, Long> lastEvaluations = lastRunningEvaluation(contextAware.getCurrentTenant());
+        if (rollout.getStatus() != RolloutStatus.RUNNING) {
+            lastEvaluations.remove(rollout.getId());
+            // the event driven evaluation handles only the running rollouts, the rest is left to the scheduler
+            return runningOnly;
+        }
+        if (!repositoryProperties.isEventDrivenRolloutEvaluation()) {
+            return false;
+        }
+
+        final long now = System.currentTimeMillis();
+        // dynamic rollouts shall be still checked regularly by the scheduler for new targets to involve
+        if (!runningOnly && !rollout.isDynamic()) {
+            final Long lastEvaluation = lastEvaluations.get(rollout.getId());
+            if (lastEvaluation != null &&
+                    now - lastEvaluation < repositoryProperties.getRolloutEvaluationSafetyNetPeriodMS()) {
+                log.trace("Rollout {} has been evaluated recently. Skip scheduled evaluation.", rollout.getId());
+                return true;
+            }
+        }
+
+        lastEvaluations.put(rollout.getId(), now);
+        return false;
+    }
+
+    private Map<Long, Long> lastRunningEvaluation(final String tenant) {
+        return lastRunningEvaluation.computeIfAbsent(tenant, t -> new ConcurrentHashMap<>());
+    }
 }
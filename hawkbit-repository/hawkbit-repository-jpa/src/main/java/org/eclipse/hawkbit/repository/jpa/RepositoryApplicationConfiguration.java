@@ -18,8 +18,10 @@ import java.util.concurrent.ScheduledExecutorService;
 import javax.sql.DataSource;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.validation.Validation;
 
+import io.micrometer.observation.ObservationRegistry;
 import org.eclipse.hawkbit.ContextAware;
 import org.eclipse.hawkbit.artifact.repository.ArtifactRepository;
 import org.eclipse.hawkbit.repository.ArtifactEncryption;
@@ -73,6 +75,7 @@ import org.eclipse.hawkbit.repository.jpa.autoassign.AutoAssignScheduler;
 import org.eclipse.hawkbit.repository.jpa.autocleanup.AutoActionCleanup;
 import org.eclipse.hawkbit.repository.jpa.autocleanup.AutoCleanupScheduler;
 import org.eclipse.hawkbit.repository.jpa.autocleanup.CleanupTask;
+import org.eclipse.hawkbit.repository.jpa.autocleanup.RolloutStatusCountReconciliation;
 import org.eclipse.hawkbit.repository.jpa.builder.JpaDistributionSetBuilder;
 import org.eclipse.hawkbit.repository.jpa.builder.JpaDistributionSetTypeBuilder;
 import org.eclipse.hawkbit.repository.jpa.builder.JpaRolloutBuilder;
@@ -112,10 +115,13 @@ import org.eclipse.hawkbit.repository.jpa.model.JpaSoftwareModule;
 import org.eclipse.hawkbit.repository.jpa.model.JpaSoftwareModuleType;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTargetType;
+import org.eclipse.hawkbit.repository.jpa.model.RolloutStatusCountListener;
 import org.eclipse.hawkbit.repository.jpa.model.helper.AfterTransactionCommitExecutorHolder;
 import org.eclipse.hawkbit.repository.jpa.model.helper.EntityInterceptorHolder;
 import org.eclipse.hawkbit.repository.jpa.model.helper.SecurityTokenGeneratorHolder;
 import org.eclipse.hawkbit.repository.jpa.model.helper.TenantAwareHolder;
+import org.eclipse.hawkbit.repository.jpa.purge.PurgeEngine;
+import org.eclipse.hawkbit.repository.jpa.purge.PurgeScheduler;
 import org.eclipse.hawkbit.repository.jpa.repository.ActionRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.ActionStatusRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.DistributionSetMetadataRepository;
@@ -135,7 +141,11 @@ import org.eclipse.hawkbit.repository.jpa.repository.TargetMetadataRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.TargetRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.TargetTagRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.TargetTypeRepository;
+import org.eclipse.hawkbit.repository.jpa.rollout.DynamicRolloutCandidates;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutEvaluationTrigger;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutExecutionProfiler;
 import org.eclipse.hawkbit.repository.jpa.rollout.RolloutScheduler;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutStatusCounter;
 import org.eclipse.hawkbit.repository.jpa.rollout.condition.PauseRolloutGroupAction;
 import org.eclipse.hawkbit.repository.jpa.rollout.condition.RolloutGroupActionEvaluator;
 import org.eclipse.hawkbit.repository.jpa.rollout.condition.RolloutGroupConditionEvaluator;
@@ -145,6 +155,7 @@ import org.eclipse.hawkbit.repository.jpa.rollout.condition.ThresholdRolloutGrou
 import org.eclipse.hawkbit.repository.jpa.rollout.condition.ThresholdRolloutGroupSuccessCondition;
 import org.eclipse.hawkbit.repository.jpa.rsql.DefaultRsqlVisitorFactory;
 import org.eclipse.hawkbit.repository.jpa.rsql.RsqlParserValidationOracle;
+import org.eclipse.hawkbit.repository.jpa.rsql.RsqlQueryProfiler;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.DistributionSetType;
 import org.eclipse.hawkbit.repository.model.Rollout;
@@ -168,6 +179,7 @@ import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.eclipse.hawkbit.tenancy.UserAuthoritiesResolver;
 import org.eclipse.hawkbit.utils.TenantConfigHelper;
 import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.sessions.Session;
 import org.hibernate.validator.BaseHibernateValidatorConfiguration;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.ObjectProvider;
@@ -175,6 +187,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
@@ -182,6 +195,7 @@ import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.boot.autoconfigure.orm.jpa.JpaBaseConfiguration;
 import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
 import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.cloud.bus.ServiceMatcher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
@@ -286,6 +300,9 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
         properties.put(PersistenceUnitProperties.BATCH_WRITING, "JDBC");
         // Batch size
         properties.put(PersistenceUnitProperties.BATCH_WRITING_SIZE, "500");
+        // Maintain the rollout status counters
+        properties.put(PersistenceUnitProperties.SESSION_EVENT_LISTENER_CLASS,
+                RolloutStatusCountListener.SessionListener.class.getName());
         return properties;
     }
 
@@ -344,15 +361,16 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    ThresholdRolloutGroupErrorCondition thresholdRolloutGroupErrorCondition(final ActionRepository actionRepository) {
-        return new ThresholdRolloutGroupErrorCondition(actionRepository);
+    ThresholdRolloutGroupErrorCondition thresholdRolloutGroupErrorCondition(
+            final RolloutStatusCounter rolloutStatusCounter) {
+        return new ThresholdRolloutGroupErrorCondition(rolloutStatusCounter);
     }
 
     @Bean
     @ConditionalOnMissingBean
     ThresholdRolloutGroupSuccessCondition thresholdRolloutGroupSuccessCondition(
-            final ActionRepository actionRepository) {
-        return new ThresholdRolloutGroupSuccessCondition(actionRepository);
+            final RolloutStatusCounter rolloutStatusCounter) {
+        return new ThresholdRolloutGroupSuccessCondition(rolloutStatusCounter);
     }
 
     @Bean
@@ -611,10 +629,11 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
     @ConditionalOnMissingBean
     TargetTypeManagement targetTypeManagement(final TargetTypeRepository targetTypeRepository,
             final TargetRepository targetRepository, final DistributionSetTypeRepository distributionSetTypeRepository,
+            final TargetFilterQueryRepository targetFilterQueryRepository,
             final VirtualPropertyReplacer virtualPropertyReplacer, final JpaProperties properties,
             final QuotaManagement quotaManagement) {
         return new JpaTargetTypeManagement(targetTypeRepository, targetRepository, distributionSetTypeRepository,
-                virtualPropertyReplacer, properties.getDatabase(), quotaManagement);
+                targetFilterQueryRepository, virtualPropertyReplacer, properties.getDatabase(), quotaManagement);
     }
 
     /**
@@ -652,11 +671,11 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
             final TargetFilterQueryRepository targetFilterQueryRepository,
             final TargetTypeRepository targetTypeRepository, final TargetTagRepository targetTagRepository,
             final EventPublisherHolder eventPublisherHolder, final TenantAware tenantAware,
-            final VirtualPropertyReplacer virtualPropertyReplacer,
+            final VirtualPropertyReplacer virtualPropertyReplacer, final RolloutStatusCounter rolloutStatusCounter,
             final JpaProperties properties, final DistributionSetManagement distributionSetManagement) {
         return new JpaTargetManagement(entityManager, distributionSetManagement, quotaManagement, targetRepository,
                 targetTypeRepository, targetMetadataRepository, rolloutGroupRepository, targetFilterQueryRepository,
-                targetTagRepository, eventPublisherHolder, tenantAware, virtualPropertyReplacer,
+                targetTagRepository, eventPublisherHolder, tenantAware, virtualPropertyReplacer, rolloutStatusCounter,
                 properties.getDatabase());
     }
 
@@ -693,9 +712,10 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
     @Bean
     @ConditionalOnMissingBean
     TargetTagManagement targetTagManagement(final TargetTagRepository targetTagRepository,
+            final TargetFilterQueryRepository targetFilterQueryRepository,
             final VirtualPropertyReplacer virtualPropertyReplacer,
             final JpaProperties properties) {
-        return new JpaTargetTagManagement(targetTagRepository, virtualPropertyReplacer,
+        return new JpaTargetTagManagement(targetTagRepository, targetFilterQueryRepository, virtualPropertyReplacer,
                 properties.getDatabase());
     }
 
@@ -757,9 +777,10 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
     @ConditionalOnMissingBean
     RolloutHandler rolloutHandler(final TenantAware tenantAware, final RolloutManagement rolloutManagement,
             final RolloutExecutor rolloutExecutor, final LockRegistry lockRegistry,
-            final PlatformTransactionManager txManager, final ContextAware contextAware) {
+            final PlatformTransactionManager txManager, final ContextAware contextAware,
+            final RepositoryProperties repositoryProperties) {
         return new JpaRolloutHandler(tenantAware, rolloutManagement, rolloutExecutor, lockRegistry, txManager,
-                contextAware);
+                contextAware, repositoryProperties);
     }
 
     @Bean
@@ -773,11 +794,15 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
             final RolloutGroupEvaluationManager evaluationManager, final RolloutApprovalStrategy rolloutApprovalStrategy,
             final EntityManager entityManager, final PlatformTransactionManager txManager,
             final AfterTransactionCommitExecutor afterCommit, final EventPublisherHolder eventPublisherHolder,
-            final TenantAware tenantAware, final RepositoryProperties repositoryProperties) {
+            final TenantAware tenantAware, final RepositoryProperties repositoryProperties,
+            final RolloutStatusCounter rolloutStatusCounter, final PurgeEngine purgeEngine,
+            final DynamicRolloutCandidates dynamicRolloutCandidates, final RolloutExecutionProfiler profiler,
+            final TargetFilterQueryRepository targetFilterQueryRepository) {
         return new JpaRolloutExecutor(actionRepository, rolloutGroupRepository, rolloutTargetGroupRepository,
                 rolloutRepository, targetManagement, deploymentManagement, rolloutGroupManagement, rolloutManagement,
                 quotaManagement, evaluationManager, rolloutApprovalStrategy, entityManager, txManager, afterCommit,
-                eventPublisherHolder, tenantAware, repositoryProperties);
+                eventPublisherHolder, tenantAware, repositoryProperties, rolloutStatusCounter, purgeEngine,
+                dynamicRolloutCandidates, profiler, targetFilterQueryRepository);
     }
 
     @Bean
@@ -809,6 +834,21 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
                 systemSecurityContext);
     }
 
+    /**
+     * {@link RolloutStatusCounter} bean.
+     *
+     * @param entityManager to run the native queries
+     * @param txManager to recount in chunks
+     * @param tenantAware to get the current tenant
+     * @return a new {@link RolloutStatusCounter}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    RolloutStatusCounter rolloutStatusCounter(final EntityManager entityManager,
+            final PlatformTransactionManager txManager, final TenantAware tenantAware) {
+        return new RolloutStatusCounter(entityManager, txManager, tenantAware);
+    }
+
     /**
      * {@link JpaRolloutGroupManagement} bean.
      *
@@ -820,9 +860,10 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
             final RolloutRepository rolloutRepository, final ActionRepository actionRepository,
             final TargetRepository targetRepository, final EntityManager entityManager,
             final VirtualPropertyReplacer virtualPropertyReplacer, final RolloutStatusCache rolloutStatusCache,
-            final JpaProperties properties) {
+            final RolloutStatusCounter rolloutStatusCounter, final JpaProperties properties) {
         return new JpaRolloutGroupManagement(rolloutGroupRepository, rolloutRepository, actionRepository,
-                targetRepository, entityManager, virtualPropertyReplacer, rolloutStatusCache, properties.getDatabase());
+                targetRepository, entityManager, virtualPropertyReplacer, rolloutStatusCache, rolloutStatusCounter,
+                properties.getDatabase());
     }
 
     /**
@@ -840,11 +881,13 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
             final VirtualPropertyReplacer virtualPropertyReplacer, final PlatformTransactionManager txManager,
             final TenantConfigurationManagement tenantConfigurationManagement, final QuotaManagement quotaManagement,
             final SystemSecurityContext systemSecurityContext, final TenantAware tenantAware, final AuditorAware<String> auditorAware,
-            final JpaProperties properties, final RepositoryProperties repositoryProperties) {
+            final JpaProperties properties, final RepositoryProperties repositoryProperties,
+            final RolloutStatusCounter rolloutStatusCounter, final TargetFilterQueryRepository targetFilterQueryRepository) {
         return new JpaDeploymentManagement(entityManager, actionRepository, distributionSetManagement, targetRepository, actionStatusRepository,
                 auditorProvider,
                 eventPublisherHolder, afterCommit, virtualPropertyReplacer, txManager, tenantConfigurationManagement,
-                quotaManagement, systemSecurityContext, tenantAware, auditorAware, properties.getDatabase(), repositoryProperties);
+                quotaManagement, systemSecurityContext, tenantAware, auditorAware, properties.getDatabase(), repositoryProperties,
+                rolloutStatusCounter, targetFilterQueryRepository);
     }
 
     @Bean
@@ -923,15 +966,22 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
      * @param targetManagement to get targets
      * @param deploymentManagement to assign distribution sets to targets
      * @param transactionManager to run transactions
+     * @param virtualPropertyReplacer to resolve the virtual properties of the target filter queries
+     * @param targetFilterQueryRepository to store the time the targets are checked
+     * @param repositoryProperties to get the periods of the checks
      * @return a new {@link AutoAssignChecker}
      */
     @Bean
     @ConditionalOnMissingBean
     AutoAssignExecutor autoAssignExecutor(final TargetFilterQueryManagement targetFilterQueryManagement,
             final TargetManagement targetManagement, final DeploymentManagement deploymentManagement,
-            final PlatformTransactionManager transactionManager, final ContextAware contextAware) {
+            final PlatformTransactionManager transactionManager, final ContextAware contextAware,
+            final VirtualPropertyReplacer virtualPropertyReplacer,
+            final TargetFilterQueryRepository targetFilterQueryRepository,
+            final RepositoryProperties repositoryProperties) {
         return new AutoAssignChecker(targetFilterQueryManagement, targetManagement, deploymentManagement,
-                transactionManager, contextAware);
+                transactionManager, contextAware, virtualPropertyReplacer, targetFilterQueryRepository,
+                repositoryProperties);
     }
 
     /**
@@ -971,6 +1021,17 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
         return new AutoActionCleanup(deploymentManagement, configManagement);
     }
 
+    /**
+     * {@link RolloutStatusCountReconciliation} bean.
+     *
+     * @param rolloutStatusCounter to recount the rollout status counters
+     * @return a new {@link RolloutStatusCountReconciliation} bean
+     */
+    @Bean
+    CleanupTask rolloutStatusCountReconciliation(final RolloutStatusCounter rolloutStatusCounter) {
+        return new RolloutStatusCountReconciliation(rolloutStatusCounter);
+    }
+
     /**
      * {@link AutoCleanupScheduler} bean.
      *
@@ -990,6 +1051,99 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
         return new AutoCleanupScheduler(systemManagement, systemSecurityContext, lockRegistry, cleanupTasks);
     }
 
+    /**
+     * {@link RolloutExecutionProfiler} bean. The rollout executions are observed with the
+     * {@link ObservationRegistry} if there is such, e.g. provided by the actuator.
+     *
+     * @param observationRegistry the optional observation registry
+     * @param tenantAware to get the current tenant
+     * @return a new {@link RolloutExecutionProfiler} bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    RolloutExecutionProfiler rolloutExecutionProfiler(final ObjectProvider<ObservationRegistry> observationRegistry,
+            final TenantAware tenantAware) {
+        return new RolloutExecutionProfiler(observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP),
+                tenantAware);
+    }
+
+    /**
+     * {@link RsqlQueryProfiler} bean, registered as listener of the EclipseLink session. The RSQL filtered queries
+     * are observed with the {@link ObservationRegistry} if there is such, e.g. provided by the actuator.
+     *
+     * @param observationRegistry the optional observation registry
+     * @param tenantAware to get the current tenant
+     * @param repositoryProperties to get the slow query threshold
+     * @param entityManagerFactory to get the EclipseLink session
+     * @return a new {@link RsqlQueryProfiler} bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    RsqlQueryProfiler rsqlQueryProfiler(final ObjectProvider<ObservationRegistry> observationRegistry,
+            final TenantAware tenantAware, final RepositoryProperties repositoryProperties,
+            final EntityManagerFactory entityManagerFactory) {
+        final RsqlQueryProfiler rsqlQueryProfiler = new RsqlQueryProfiler(
+                observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP), tenantAware, repositoryProperties);
+        entityManagerFactory.unwrap(Session.class).getEventManager().addListener(rsqlQueryProfiler.getSessionListener());
+        return rsqlQueryProfiler;
+    }
+
+    /**
+     * {@link DynamicRolloutCandidates} bean.
+     *
+     * @param repositoryProperties to get the max number of collected candidates
+     * @return a new {@link DynamicRolloutCandidates} bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    DynamicRolloutCandidates dynamicRolloutCandidates(final RepositoryProperties repositoryProperties) {
+        return new DynamicRolloutCandidates(repositoryProperties);
+    }
+
+    /**
+     * {@link PurgeEngine} bean.
+     *
+     * @param entityManager to run the native queries
+     * @param txManager to run each chunk in its own transaction
+     * @param rolloutRepository to delete the purged rollouts
+     * @param targetFilterQueryRepository to reset the auto assignment checks after purged actions
+     * @param tenantAware to get the current tenant
+     * @param repositoryProperties for the chunk size and the rate limits
+     * @param observationRegistry to observe the purge, if there is such
+     * @return a new {@link PurgeEngine} bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    PurgeEngine purgeEngine(final EntityManager entityManager, final PlatformTransactionManager txManager,
+            final RolloutRepository rolloutRepository, final TargetFilterQueryRepository targetFilterQueryRepository,
+            final TenantAware tenantAware, final RepositoryProperties repositoryProperties,
+            final ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new PurgeEngine(entityManager, txManager, rolloutRepository, targetFilterQueryRepository, tenantAware,
+                repositoryProperties, observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+    }
+
+    /**
+     * {@link PurgeScheduler} bean.
+     * <p/>
+     * Note: does not activate in test profile, otherwise it is hard to test the
+     * purge functionality.
+     *
+     * @param systemManagement to find all tenants
+     * @param systemSecurityContext to run as system
+     * @param lockRegistry to lock the tenant for the purge
+     * @param purgeEngine to run the purge
+     * @return a new {@link PurgeScheduler} bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @Profile("!test")
+    @ConditionalOnProperty(prefix = "hawkbit.purge.scheduler", name = "enabled", matchIfMissing = true)
+    PurgeScheduler purgeScheduler(final SystemManagement systemManagement,
+            final SystemSecurityContext systemSecurityContext, final LockRegistry lockRegistry,
+            final PurgeEngine purgeEngine) {
+        return new PurgeScheduler(systemManagement, systemSecurityContext, lockRegistry, purgeEngine);
+    }
+
     /**
      * {@link RolloutScheduler} bean.
      * <p/>
@@ -1010,6 +1164,28 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
         return new RolloutScheduler(systemManagement, rolloutHandler, systemSecurityContext);
     }
 
+    /**
+     * {@link RolloutEvaluationTrigger} bean.
+     * <p/>
+     * Note: activates only on the nodes the rollout scheduler is enabled for.
+     *
+     * @param rolloutHandler to run the rollout handler
+     * @param systemSecurityContext to run as system
+     * @param executorService to schedule the debounced evaluations
+     * @param serviceMatcher to ignore the action updates of other nodes, if there is a bus
+     * @param repositoryProperties to get the debounce time
+     * @return a new {@link RolloutEvaluationTrigger} bean.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnExpression("${hawkbit.rollout.scheduler.enabled:true} and ${hawkbit.server.repository.event-driven-rollout-evaluation:false}")
+    RolloutEvaluationTrigger rolloutEvaluationTrigger(final RolloutHandler rolloutHandler,
+            final SystemSecurityContext systemSecurityContext, final ScheduledExecutorService executorService,
+            final ObjectProvider<ServiceMatcher> serviceMatcher, final RepositoryProperties repositoryProperties) {
+        return new RolloutEvaluationTrigger(rolloutHandler, systemSecurityContext, executorService,
+                serviceMatcher.getIfAvailable(), repositoryProperties);
+    }
+
     /**
      * Creates the {@link RsqlVisitorFactory} bean.
      *
@@ -11,6 +11,11 @@ package org.eclipse.hawkbit.repository.jpa.autoassign;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import jakarta.persistence.PersistenceException;
 
@@ -18,12 +23,21 @@ import lombok.extern.slf4j.Slf4j;
 import org.eclipse.hawkbit.ContextAware;
 import org.eclipse.hawkbit.exception.AbstractServerRtException;
 import org.eclipse.hawkbit.repository.DeploymentManagement;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.TargetFilterQueryManagement;
 import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTargetFilterQuery;
+import org.eclipse.hawkbit.repository.jpa.repository.TargetFilterQueryRepository;
+import org.eclipse.hawkbit.repository.jpa.rsql.TargetRsqlMatcher;
+import org.eclipse.hawkbit.repository.jpa.rsql.TargetSnapshot;
+import org.eclipse.hawkbit.repository.jpa.utils.DeploymentHelper;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetFilterQuery;
+import org.eclipse.hawkbit.repository.rsql.VirtualPropertyReplacer;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,11 +48,26 @@ import org.springframework.transaction.annotation.Transactional;
  * queries are listed. For every target filter query (TFQ) the auto assign DS is
  * retrieved. All targets get listed per target filter query, that match the TFQ
  * and that don't have the auto assign DS in their action history.
+ * <p/>
+ * If enabled by {@link RepositoryProperties#getAutoAssignFullScanPeriodMS()}, the
+ * time the targets of a TFQ are checked is stored with the TFQ, so the next check
+ * is restricted to the targets created or changed since then (also by the
+ * controller, see {@link JpaTarget#getChangedAt()}). All targets are checked
+ * again if the query or the auto assign DS of the TFQ changes, if changes of
+ * other entities may change the result of the query (e.g. tag or distribution
+ * set renames, target type compatibility, deleted actions), and once per full
+ * scan period.
  */
 @Slf4j
 public class AutoAssignChecker extends AbstractAutoAssignExecutor {
 
     private final TargetManagement targetManagement;
+    private final VirtualPropertyReplacer virtualPropertyReplacer;
+    private final TargetFilterQueryRepository targetFilterQueryRepository;
+    private final RepositoryProperties repositoryProperties;
+
+    // target filter query id -> time of the last check of all targets by this node
+    private final Map<Long, Long> lastFullScan = new ConcurrentHashMap<>();
 
     /**
      * Instantiates a new auto assign checker
@@ -48,12 +77,21 @@ public class AutoAssignChecker extends AbstractAutoAssignExecutor {
      * @param deploymentManagement to assign distribution sets to targets
      * @param transactionManager to run transactions
      * @param contextAware to handle the context
+     * @param virtualPropertyReplacer to resolve the virtual properties of the target filter queries
+     * @param targetFilterQueryRepository to store the time the targets are checked
+     * @param repositoryProperties to get the periods of the checks
      */
     public AutoAssignChecker(final TargetFilterQueryManagement targetFilterQueryManagement,
             final TargetManagement targetManagement, final DeploymentManagement deploymentManagement,
-            final PlatformTransactionManager transactionManager, final ContextAware contextAware) {
+            final PlatformTransactionManager transactionManager, final ContextAware contextAware,
+            final VirtualPropertyReplacer virtualPropertyReplacer,
+            final TargetFilterQueryRepository targetFilterQueryRepository,
+            final RepositoryProperties repositoryProperties) {
         super(targetFilterQueryManagement, deploymentManagement, transactionManager, contextAware);
         this.targetManagement = targetManagement;
+        this.virtualPropertyReplacer = virtualPropertyReplacer;
+        this.targetFilterQueryRepository = targetFilterQueryRepository;
+        this.repositoryProperties = repositoryProperties;
     }
 
     @Override
@@ -68,7 +106,15 @@ public class AutoAssignChecker extends AbstractAutoAssignExecutor {
     public void checkSingleTarget(String controllerId) {
         log.debug("Auto assign check call for tenant {} and device {} started", getContextAware().getCurrentTenant(),
                 controllerId);
-        forEachFilterWithAutoAssignDS(filter -> checkForDevice(controllerId, filter));
+        // the target is loaded and matched in memory, so only the filters it matches are checked in the database. An
+        // assignment changes the target (e.g. its assigned distribution set), so it is reloaded for the next filters
+        final AtomicReference<Optional<TargetSnapshot>> target = new AtomicReference<>(getTargetSnapshot(controllerId));
+        forEachFilterWithAutoAssignDS(filter -> {
+            final Optional<TargetSnapshot> snapshot = target.get();
+            if ((snapshot.isEmpty() || matches(snapshot.get(), filter)) && checkForDevice(controllerId, filter)) {
+                target.set(getTargetSnapshot(controllerId));
+            }
+        });
         log.debug("Auto assign check call for tenant {} and device {} finished", getContextAware().getCurrentTenant(),
                 controllerId);
     }
@@ -83,23 +129,32 @@ public class AutoAssignChecker extends AbstractAutoAssignExecutor {
     private void checkByTargetFilterQueryAndAssignDS(final TargetFilterQuery targetFilterQuery) {
         log.debug("Auto assign check call for tenant {} and target filter query id {} started",
                 getContextAware().getCurrentTenant(), targetFilterQuery.getId());
+        final long checkStartedAt = System.currentTimeMillis();
+        final Long modifiedSince = getModifiedSince(targetFilterQuery, checkStartedAt);
         try {
             int count;
             do {
-                final List<String> controllerIds = targetManagement
-                        .findByTargetFilterQueryAndNonDSAndCompatibleAndUpdatable(
-                                PageRequest.of(0, Constants.MAX_ENTRIES_IN_STATEMENT),
-                                targetFilterQuery.getAutoAssignDistributionSet().getId(), targetFilterQuery.getQuery())
+                final List<String> controllerIds = findTargets(targetFilterQuery, modifiedSince)
                         .getContent().stream().map(Target::getControllerId).toList();
                 log.debug(
-                        "Retrieved {} auto assign targets for tenant {} and target filter query id {}, starting with assignment",
-                        controllerIds.size(), getContextAware().getCurrentTenant(), targetFilterQuery.getId());
+                        "Retrieved {} auto assign targets for tenant {} and target filter query id {} (changed since {}), starting with assignment",
+                        controllerIds.size(), getContextAware().getCurrentTenant(), targetFilterQuery.getId(), modifiedSince);
 
                 count = runTransactionalAssignment(targetFilterQuery, controllerIds);
                 log.debug(
                         "Assignment for {} auto assign targets for tenant {} and target filter query id {} finished",
                         controllerIds.size(), getContextAware().getCurrentTenant(), targetFilterQuery.getId());
             } while (count == Constants.MAX_ENTRIES_IN_STATEMENT);
+
+            if (isIncremental()) {
+                if (modifiedSince == null) {
+                    lastFullScan.put(targetFilterQuery.getId(), checkStartedAt);
+                }
+                DeploymentHelper.runInNewTransaction(getTransactionManager(), "autoAssignCheckedAt", status -> {
+                    targetFilterQueryRepository.updateAutoAssignCheckedAt(targetFilterQuery.getId(), checkStartedAt);
+                    return null;
+                });
+            }
         } catch (final PersistenceException | AbstractServerRtException e) {
             log.error("Error during auto assign check of target filter query id {}", targetFilterQuery.getId(), e);
         }
@@ -107,16 +162,70 @@ public class AutoAssignChecker extends AbstractAutoAssignExecutor {
                 getContextAware().getCurrentTenant(), targetFilterQuery.getId());
     }
 
-    private void checkForDevice(final String controllerId, final TargetFilterQuery targetFilterQuery) {
+    private Slice<Target> findTargets(final TargetFilterQuery targetFilterQuery, final Long modifiedSince) {
+        final PageRequest pageRequest = PageRequest.of(0, Constants.MAX_ENTRIES_IN_STATEMENT);
+        final long distributionSetId = targetFilterQuery.getAutoAssignDistributionSet().getId();
+        return modifiedSince == null
+                ? targetManagement.findByTargetFilterQueryAndNonDSAndCompatibleAndUpdatable(
+                        pageRequest, distributionSetId, targetFilterQuery.getQuery())
+                : targetManagement.findByModifiedSinceAndTargetFilterQueryAndNonDSAndCompatibleAndUpdatable(
+                        pageRequest, modifiedSince, distributionSetId, targetFilterQuery.getQuery());
+    }
+
+    // returns the time since the targets have to be checked, or null if all targets have to be checked
+    private Long getModifiedSince(final TargetFilterQuery targetFilterQuery, final long now) {
+        final Long checkedAt = targetFilterQuery instanceof JpaTargetFilterQuery jpaTargetFilterQuery
+                ? jpaTargetFilterQuery.getAutoAssignCheckedAt()
+                : null;
+        if (checkedAt == null || !isIncremental() || isTimeDependent(targetFilterQuery.getQuery())) {
+            return null;
+        }
+
+        // the full scan period starts with the first check on this node, the stored check time is trusted until then
+        final long lastFullScanAt = lastFullScan.computeIfAbsent(targetFilterQuery.getId(), id -> now);
+        if (now - lastFullScanAt >= repositoryProperties.getAutoAssignFullScanPeriodMS()) {
+            return null;
+        }
+        return checkedAt - repositoryProperties.getAutoAssignCheckOverlapMS();
+    }
+
+    private boolean isIncremental() {
+        return repositoryProperties.getAutoAssignFullScanPeriodMS() > 0;
+    }
+
+    // the result of queries on the last poll time or with time macros changes without modification of the targets
+    private static boolean isTimeDependent(final String query) {
+        return query.contains("${") || query.toLowerCase(Locale.ROOT).contains("lastcontrollerrequestat");
+    }
+
+    private Optional<TargetSnapshot> getTargetSnapshot(final String controllerId) {
+        return Optional.ofNullable(DeploymentHelper.runInNewTransaction(getTransactionManager(), "autoAssignTargetSnapshot",
+                status -> targetManagement.getByControllerID(controllerId)
+                        .map(JpaTarget.class::cast).map(TargetSnapshot::of).orElse(null)));
+    }
+
+    private boolean matches(final TargetSnapshot target, final TargetFilterQuery targetFilterQuery) {
+        try {
+            return TargetRsqlMatcher.compile(targetFilterQuery.getQuery(), virtualPropertyReplacer).test(target);
+        } catch (final RuntimeException e) {
+            // let the database check decide and report the error
+            log.debug("Failed to match target filter query id {} in memory", targetFilterQuery.getId(), e);
+            return true;
+        }
+    }
+
+    // returns true if the distribution set of the target filter query has been assigned to the target
+    private boolean checkForDevice(final String controllerId, final TargetFilterQuery targetFilterQuery) {
         log.debug("Auto assign check call for tenant {} and target filter query id {} for device {} started",
                 getContextAware().getCurrentTenant(), targetFilterQuery.getId(), controllerId);
+        boolean assigned = false;
         try {
             final boolean controllerIdMatches = targetManagement.isTargetMatchingQueryAndDSNotAssignedAndCompatibleAndUpdatable(
                     controllerId, targetFilterQuery.getAutoAssignDistributionSet().getId(),
                     targetFilterQuery.getQuery());
 
             if (controllerIdMatches) {
-                runTransactionalAssignment(targetFilterQuery, Collections.singletonList(controllerId));
+                assigned = runTransactionalAssignment(targetFilterQuery, Collections.singletonList(controllerId)) > 0;
             }
 
         } catch (final PersistenceException | AbstractServerRtException e) {
@@ -124,5 +233,6 @@ public class AutoAssignChecker extends AbstractAutoAssignExecutor {
         }
         log.debug("Auto assign check call for tenant {} and target filter query id {} finished",
                 getContextAware().getCurrentTenant(), targetFilterQuery.getId());
+        return assigned;
     }
 }
@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.autocleanup;
+
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutStatusCounter;
+
+/**
+ * A cleanup task which recounts the rollout status counters of the tenant from the actions. The counters are
+ * maintained incrementally, this task fixes deviations caused by changes that bypass them, e.g. actions deleted
+ * by database cascades.
+ */
+public class RolloutStatusCountReconciliation implements CleanupTask {
+
+    private static final String ID = "rollout-status-count-reconciliation";
+
+    private final RolloutStatusCounter rolloutStatusCounter;
+
+    /**
+     * Constructs the rollout status counter reconciliation.
+     *
+     * @param rolloutStatusCounter The {@link RolloutStatusCounter} to recount.
+     */
+    public RolloutStatusCountReconciliation(final RolloutStatusCounter rolloutStatusCounter) {
+        this.rolloutStatusCounter = rolloutStatusCounter;
+    }
+
+    @Override
+    public void run() {
+        rolloutStatusCounter.recountAll();
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+}
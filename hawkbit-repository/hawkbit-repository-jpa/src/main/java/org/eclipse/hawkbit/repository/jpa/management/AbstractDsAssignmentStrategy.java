@@ -24,6 +24,7 @@ import org.eclipse.hawkbit.repository.QuotaManagement;
 import org.eclipse.hawkbit.repository.RepositoryConstants;
 import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.event.remote.CancelTargetAssignmentEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.ActionUpdatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
 import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
 import org.eclipse.hawkbit.repository.jpa.executor.AfterTransactionCommitExecutor;
@@ -40,6 +41,7 @@ import org.eclipse.hawkbit.repository.jpa.repository.TargetRepository;
 import org.eclipse.hawkbit.repository.jpa.utils.QuotaHelper;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.BaseEntity;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.DistributionSetAssignmentResult;
 import org.eclipse.hawkbit.repository.model.Rollout;
@@ -130,6 +132,13 @@ public abstract class AbstractDsAssignmentStrategy {
                 .publishEvent(new TargetUpdatedEvent(target, eventPublisherHolder.getApplicationId())));
     }
 
+    protected void sendActionUpdatedEvent(final JpaAction action) {
+        afterCommit.afterCommit(() -> eventPublisherHolder.getEventPublisher()
+                .publishEvent(new ActionUpdatedEvent(action, BaseEntity.getIdOrNull(action.getTarget()),
+                        BaseEntity.getIdOrNull(action.getRollout()), BaseEntity.getIdOrNull(action.getRolloutGroup()),
+                        eventPublisherHolder.getApplicationId())));
+    }
+
     /**
      * Cancels {@link Action}s that are no longer necessary and sends
      * cancellations to the controller.
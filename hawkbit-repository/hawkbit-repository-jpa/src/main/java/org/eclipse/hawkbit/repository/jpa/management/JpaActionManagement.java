@@ -14,15 +14,20 @@ import static org.eclipse.hawkbit.repository.model.Action.Status.ERROR;
 import static org.eclipse.hawkbit.repository.model.Action.Status.FINISHED;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.ListUtils;
 import org.eclipse.hawkbit.repository.QuotaManagement;
 import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
 import org.eclipse.hawkbit.repository.jpa.builder.JpaActionStatusCreate;
+import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
 import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction_;
@@ -132,6 +137,21 @@ public class JpaActionManagement {
         return actions.stream().sorted(actionImportance).limit(maxActionCount).collect(Collectors.toList());
     }
 
+    Map<String, List<Action>> findActiveActionsWithHighestWeightConsideringDefault(
+            final Collection<String> controllerIds, final int maxActionCount) {
+        final Map<String, List<Action>> actions = new HashMap<>();
+        ListUtils.partition(new ArrayList<>(controllerIds), Constants.MAX_ENTRIES_IN_STATEMENT).forEach(
+                partition -> actionRepository
+                        .findAll(ActionSpecifications.byTargetControllerIdInAndActiveFetchTargetAndDS(partition))
+                        .forEach(action -> actions.computeIfAbsent(action.getTarget().getControllerId(),
+                                controllerId -> new ArrayList<>()).add(action)));
+        final Comparator<Action> actionImportance = Comparator.comparingInt(this::getWeightConsideringDefault)
+                .reversed().thenComparing(Action::getId);
+        actions.replaceAll((controllerId, targetActions) -> targetActions.stream().sorted(actionImportance)
+                .limit(maxActionCount).collect(Collectors.toList()));
+        return actions;
+    }
+
     private static boolean isIntermediateStatus(final JpaActionStatus actionStatus) {
         return FINISHED != actionStatus.getStatus() && ERROR != actionStatus.getStatus();
     }
@@ -17,6 +17,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +25,7 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -60,11 +62,14 @@ import org.eclipse.hawkbit.repository.jpa.executor.AfterTransactionCommitExecuto
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
 import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
 import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus_;
+import org.eclipse.hawkbit.repository.jpa.model.JpaAction_;
 import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSet;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
 import org.eclipse.hawkbit.repository.jpa.repository.ActionRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.ActionStatusRepository;
+import org.eclipse.hawkbit.repository.jpa.repository.TargetFilterQueryRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.TargetRepository;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutStatusCounter;
 import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
 import org.eclipse.hawkbit.repository.jpa.specifications.ActionSpecifications;
 import org.eclipse.hawkbit.repository.jpa.specifications.TargetSpecifications;
@@ -97,6 +102,7 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.orm.jpa.vendor.Database;
 import org.springframework.retry.RetryCallback;
@@ -126,10 +132,13 @@ public class JpaDeploymentManagement extends JpaActionManagement implements Depl
     private static final String QUERY_DELETE_ACTIONS_BY_STATE_AND_LAST_MODIFIED_DEFAULT = "DELETE FROM sp_action WHERE tenant=#tenant AND status IN (%s) AND last_modified_at<#last_modified_at LIMIT "
             + ACTION_PAGE_LIMIT;
 
+    private static final String QUERY_ROLLOUT_GROUPS_OF_ACTIONS_BY_STATE_AND_LAST_MODIFIED = "SELECT DISTINCT rolloutgroup FROM sp_action WHERE tenant=#tenant AND status IN (%s) AND last_modified_at<#last_modified_at AND rolloutgroup IS NOT NULL";
+
     private static final EnumMap<Database, String> QUERY_DELETE_ACTIONS_BY_STATE_AND_LAST_MODIFIED;
     private final EntityManager entityManager;
     private final DistributionSetManagement distributionSetManagement;
     private final TargetRepository targetRepository;
+    private final TargetFilterQueryRepository targetFilterQueryRepository;
     private final AuditorAware<String> auditorProvider;
     private final VirtualPropertyReplacer virtualPropertyReplacer;
     private final PlatformTransactionManager txManager;
@@ -140,6 +149,7 @@ public class JpaDeploymentManagement extends JpaActionManagement implements Depl
     private final TenantAware tenantAware;
     private final AuditorAware<String> auditorAware;
     private final Database database;
+    private final RolloutStatusCounter rolloutStatusCounter;
     private final RetryTemplate retryTemplate;
 
     static {
@@ -158,11 +168,13 @@ public class JpaDeploymentManagement extends JpaActionManagement implements Depl
             final VirtualPropertyReplacer virtualPropertyReplacer, final PlatformTransactionManager txManager,
             final TenantConfigurationManagement tenantConfigurationManagement, final QuotaManagement quotaManagement,
             final SystemSecurityContext systemSecurityContext, final TenantAware tenantAware, final AuditorAware<String> auditorAware,
-            final Database database, final RepositoryProperties repositoryProperties) {
+            final Database database, final RepositoryProperties repositoryProperties,
+            final RolloutStatusCounter rolloutStatusCounter, final TargetFilterQueryRepository targetFilterQueryRepository) {
         super(actionRepository, actionStatusRepository, quotaManagement, repositoryProperties);
         this.entityManager = entityManager;
         this.distributionSetManagement = distributionSetManagement;
         this.targetRepository = targetRepository;
+        this.targetFilterQueryRepository = targetFilterQueryRepository;
         this.auditorProvider = auditorProvider;
         this.virtualPropertyReplacer = virtualPropertyReplacer;
         this.txManager = txManager;
@@ -177,6 +189,7 @@ public class JpaDeploymentManagement extends JpaActionManagement implements Depl
         this.tenantAware = tenantAware;
         this.auditorAware = auditorAware;
         this.database = database;
+        this.rolloutStatusCounter = rolloutStatusCounter;
         this.retryTemplate = createRetryTemplate();
     }
 
@@ -299,6 +312,16 @@ public class JpaDeploymentManagement extends JpaActionManagement implements Depl
         return JpaManagementHelper.findAllWithoutCountBySpec(actionRepository, pageable, specList);
     }
 
+    @Override
+    public void streamActions(final String rsqlParam, final int chunkSize, final Consumer<List<Action>> chunkConsumer) {
+        Specification<JpaAction> spec = ActionSpecifications.fetchTargetAndRollout();
+        if (rsqlParam != null) {
+            spec = spec.and(RSQLUtility.buildRsqlSpecification(rsqlParam, ActionFields.class, virtualPropertyReplacer, database));
+        }
+        actionRepository.scroll(spec, Sort.by(JpaAction_.ID), chunkSize,
+                chunk -> chunkConsumer.accept(Collections.unmodifiableList(chunk)));
+    }
+
     @Override
     public Page<Action> findActionsByTarget(final String rsqlParam, final String controllerId,
             final Pageable pageable) {
@@ -322,7 +345,8 @@ public class JpaDeploymentManagement extends JpaActionManagement implements Depl
     public Page<ActionStatus> findActionStatusByAction(final Pageable pageReq, final long actionId) {
         assertActionExistsAndAccessible(actionId);
 
-        return actionStatusRepository.findByActionId(pageReq, actionId);
+        return actionStatusRepository.findAll(ActionSpecifications.actionStatusByActionId(actionId), pageReq)
+                .map(ActionStatus.class::cast);
     }
 
     @Override
@@ -379,6 +403,17 @@ public class JpaDeploymentManagement extends JpaActionManagement implements Depl
         return findActiveActionsWithHighestWeightConsideringDefault(controllerId, maxActionCount);
     }
 
+    @Override
+    public Map<String, List<Action>> findActiveActionsWithHighestWeight(final Collection<String> controllerIds,
+            final int maxActionCount) {
+        final Map<String, List<Action>> actions = findActiveActionsWithHighestWeightConsideringDefault(controllerIds,
+                maxActionCount);
+        // the actions are fetched with their targets, so only the actions of the readable targets are kept
+        targetRepository.getAccessController().ifPresent(acm -> actions.values()
+                .removeIf(targetActions -> !isReadAllowed(acm, (JpaTarget) targetActions.get(0).getTarget())));
+        return actions;
+    }
+
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
     @Retryable(include = {
@@ -436,7 +471,13 @@ public class JpaDeploymentManagement extends JpaActionManagement implements Depl
                     throw new EntityNotFoundException(Target.class, targetIds);
                 }
             });
+            // the bulk update bypasses the rollout status counters, so the affected groups have to be recounted
+            final List<Long> rolloutGroupIds = actionRepository.findRolloutGroupIdsByTargetIdsAndActiveAndStatus(
+                    targetIds, false, Status.SCHEDULED);
             actionRepository.switchStatus(Status.CANCELED, targetIds, false, Status.SCHEDULED);
+            if (!rolloutGroupIds.isEmpty()) {
+                rolloutStatusCounter.recount(rolloutGroupIds);
+            }
         } else {
             log.debug("The Multi Assignments feature is enabled: No need to cancel inactive scheduled actions.");
         }
@@ -449,22 +490,22 @@ public class JpaDeploymentManagement extends JpaActionManagement implements Depl
                 txManager,
                 "startScheduledActions-" + rolloutId,
                 status -> {
-                    final PageRequest pageRequest = PageRequest.of(0, ACTION_PAGE_LIMIT);
-                    final Page<Action> groupScheduledActions;
+                    // limited to the max entries of IN statements the ids are used in
+                    final PageRequest pageRequest = PageRequest.of(0, Constants.MAX_ENTRIES_IN_STATEMENT);
+                    final List<Long> groupScheduledActionIds;
                     if (rolloutGroupParentId == null) {
-                        groupScheduledActions = actionRepository.findByRolloutIdAndRolloutGroupParentIsNullAndStatus(pageRequest, rolloutId,
-                                Action.Status.SCHEDULED);
+                        groupScheduledActionIds = actionRepository.findIdsByRolloutIdAndRolloutGroupParentIsNullAndStatus(
+                                rolloutId, Action.Status.SCHEDULED, pageRequest);
                     } else {
-                        groupScheduledActions = actionRepository.findByRolloutIdAndRolloutGroupParentIdAndStatus(pageRequest, rolloutId,
-                                rolloutGroupParentId, Action.Status.SCHEDULED);
+                        groupScheduledActionIds = actionRepository.findIdsByRolloutIdAndRolloutGroupParentIdAndStatus(
+                                rolloutId, rolloutGroupParentId, Action.Status.SCHEDULED, pageRequest);
                     }
 
-                    if (groupScheduledActions.getContent().isEmpty()) {
+                    if (groupScheduledActionIds.isEmpty()) {
                         return 0L;
                     } else {
-                        // self invocation won't check @PreAuthorize but it is already checked for the method
-                        startScheduledActions(groupScheduledActions.getContent());
-                        return groupScheduledActions.getTotalElements();
+                        startScheduledActionsByIds(distributionSetId, groupScheduledActionIds);
+                        return (long) groupScheduledActionIds.size();
                     }
                 }) > 0) ;
     }
@@ -520,14 +561,32 @@ public class JpaDeploymentManagement extends JpaActionManagement implements Depl
         final String queryStr = String.format(getQueryForDeleteActionsByStatusAndLastModifiedBeforeString(database),
                 formatInClauseWithNumberKeys(statusCount));
         final Query deleteQuery = entityManager.createNativeQuery(queryStr);
+        // the native delete bypasses the rollout status counters, so the affected groups have to be recounted
+        final Query rolloutGroupsQuery = entityManager.createNativeQuery(
+                String.format(QUERY_ROLLOUT_GROUPS_OF_ACTIONS_BY_STATE_AND_LAST_MODIFIED,
+                        formatInClauseWithNumberKeys(statusCount)));
+
+        for (final Query query : List.of(deleteQuery, rolloutGroupsQuery)) {
+            IntStream.range(0, statusCount)
+                    .forEach(i -> query.setParameter(String.valueOf(i), statusArr[i].ordinal()));
+            query.setParameter("tenant", tenantAware.getCurrentTenant().toUpperCase());
+            query.setParameter("last_modified_at", lastModified);
+        }
 
-        IntStream.range(0, statusCount)
-                .forEach(i -> deleteQuery.setParameter(String.valueOf(i), statusArr[i].ordinal()));
-        deleteQuery.setParameter("tenant", tenantAware.getCurrentTenant().toUpperCase());
-        deleteQuery.setParameter("last_modified_at", lastModified);
+        @SuppressWarnings("unchecked")
+        final List<Long> rolloutGroupIds = ((List<Number>) rolloutGroupsQuery.getResultList()).stream()
+                .map(Number::longValue).toList();
 
         log.debug("Action cleanup: Executing the following (native) query: {}", deleteQuery);
-        return deleteQuery.executeUpdate();
+        final int deleted = deleteQuery.executeUpdate();
+        if (!rolloutGroupIds.isEmpty()) {
+            rolloutStatusCounter.recount(rolloutGroupIds);
+        }
+        if (deleted > 0) {
+            // the targets are not changed, but without the actions their distribution sets could be auto assigned again
+            targetFilterQueryRepository.resetAutoAssignCheckedAt();
+        }
+        return deleted;
     }
 
     @Override
@@ -944,6 +1003,69 @@ public class JpaDeploymentManagement extends JpaActionManagement implements Depl
         assignmentStrategy.sendTargetUpdatedEvents(set, targets);
     }
 
+    /**
+     * Starts the given scheduled actions of a rollout with set based statements, i.e. without loading and saving
+     * the actions one by one. The actions are loaded only at the end, with a single query, in order to document
+     * the initial status of the started ones and to send the events.
+     */
+    private void startScheduledActionsByIds(final long distributionSetId, final List<Long> actionIds) {
+        final long now = System.currentTimeMillis();
+        final String currentUser = auditorProvider.getCurrentAuditor().orElse(null);
+
+        final Set<Long> pendingActionIds = new HashSet<>(actionIds);
+        if (!isMultiAssignmentsEnabled()) {
+            final List<Long> alreadyAssignedActionIds = actionRepository
+                    .findIdsByIdInAndDistributionSetAssignedToTarget(actionIds);
+            if (!alreadyAssignedActionIds.isEmpty()) {
+                // the targets have already the distribution set assigned, we don't
+                // need to start the scheduled actions, just finish them.
+                log.debug("{} targets have distribution set {} assigned. Closing actions...",
+                        alreadyAssignedActionIds.size(), distributionSetId);
+                actionRepository.setStatusAndActive(Status.FINISHED, false, now, currentUser,
+                        alreadyAssignedActionIds);
+                actionStatusRepository.saveAll(alreadyAssignedActionIds.stream().map(actionId -> new JpaActionStatus(
+                        entityManager.getReference(JpaAction.class, actionId), Status.RUNNING, now,
+                        RepositoryConstants.SERVER_MESSAGE_PREFIX
+                                + "Distribution Set is already assigned. Skipping this action."))
+                        .toList());
+                pendingActionIds.removeAll(alreadyAssignedActionIds);
+            }
+        }
+        if (!pendingActionIds.isEmpty()) {
+            final List<Long> targetIds = actionRepository.findTargetIdsByIdIn(pendingActionIds);
+            // updated first, so that the targets are not in the persistence context with the old assignment yet
+            onlineDsAssignmentStrategy.setAssignedDistributionSetAndTargetStatus(
+                    entityManager.getReference(JpaDistributionSet.class, distributionSetId),
+                    ListUtils.partition(targetIds, Constants.MAX_ENTRIES_IN_STATEMENT), currentUser);
+            if (!isMultiAssignmentsEnabled()) {
+                closeOrCancelOpenDeviceActionsOfTargets(targetIds);
+            }
+
+            final List<Long> waitingActionIds = isConfirmationFlowEnabled()
+                    ? actionRepository.findIdsByIdInAndConfirmationRequired(pendingActionIds)
+                    : Collections.emptyList();
+            if (!waitingActionIds.isEmpty()) {
+                actionRepository.setStatusAndActive(Status.WAIT_FOR_CONFIRMATION, true, now, currentUser,
+                        waitingActionIds);
+            }
+            actionRepository.setStatusAndActive(Status.RUNNING, true, now, currentUser,
+                    ListUtils.removeAll(pendingActionIds, waitingActionIds));
+        }
+        // the bulk updates bypass the rollout status counters
+        rolloutStatusCounter.move(Status.SCHEDULED, actionIds);
+
+        // the bulk updates bypass the entity listeners, so the update events are sent explicitly
+        final List<JpaAction> updatedActions = actionRepository.findByIdIn(actionIds);
+        updatedActions.forEach(onlineDsAssignmentStrategy::sendActionUpdatedEvent);
+        final List<JpaAction> startedActions = updatedActions.stream()
+                .filter(action -> pendingActionIds.contains(action.getId())).toList();
+        if (!startedActions.isEmpty()) {
+            setInitialActionStatusOfRolloutGroup(startedActions);
+            startedActions.forEach(action -> onlineDsAssignmentStrategy.sendTargetUpdatedEvent((JpaTarget) action.getTarget()));
+            onlineDsAssignmentStrategy.sendDeploymentEvents(distributionSetId, Collections.unmodifiableList(startedActions));
+        }
+    }
+
     private JpaAction closeActionIfSetWasAlreadyAssigned(final JpaAction action) {
         if (isMultiAssignmentsEnabled()) {
             return action;
@@ -977,8 +1099,11 @@ public class JpaDeploymentManagement extends JpaActionManagement implements Depl
     }
 
     private void closeOrCancelOpenDeviceActions(final List<JpaAction> actions) {
-        final List<Long> targetIds = actions.stream().map(JpaAction::getTarget).map(Target::getId)
-                .collect(Collectors.toList());
+        closeOrCancelOpenDeviceActionsOfTargets(actions.stream().map(JpaAction::getTarget).map(Target::getId)
+                .collect(Collectors.toList()));
+    }
+
+    private void closeOrCancelOpenDeviceActionsOfTargets(final List<Long> targetIds) {
         if (isActionsAutocloseEnabled()) {
             onlineDsAssignmentStrategy.closeObsoleteUpdateActions(targetIds);
         } else {
@@ -1048,6 +1173,15 @@ public class JpaDeploymentManagement extends JpaActionManagement implements Depl
         }
     }
 
+    private static boolean isReadAllowed(final AccessController<JpaTarget> accessController, final JpaTarget target) {
+        try {
+            accessController.assertOperationAllowed(AccessController.Operation.READ, target);
+            return true;
+        } catch (final InsufficientPermissionException e) {
+            return false;
+        }
+    }
+
     private JpaAction assertTargetUpdateAllowed(final JpaAction action) {
         targetRepository.findOne(TargetSpecifications.hasId(action.getTarget().getId())).ifPresentOrElse(target -> {
             targetRepository.getAccessController()
@@ -183,6 +183,11 @@ public class JpaDistributionSetManagement implements DistributionSetManagement {
         update.getName().ifPresent(set::setName);
         update.getDescription().ifPresent(set::setDescription);
         update.getVersion().ifPresent(set::setVersion);
+        if (update.getName().isPresent() || update.getVersion().isPresent()) {
+            // the targets with the set assigned or installed are not changed, but could match other target filter
+            // queries now
+            targetFilterQueryRepository.resetAutoAssignCheckedAt();
+        }
 
         // lock/unlock ONLY if locked flag is present!
         if (Boolean.TRUE.equals(update.locked())) {
@@ -55,9 +55,10 @@ import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSet;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRolloutGroup;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRollout_;
-import org.eclipse.hawkbit.repository.jpa.repository.ActionRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.RolloutGroupRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.RolloutRepository;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutExecutionProfiler;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutStatusCounter;
 import org.eclipse.hawkbit.repository.jpa.rollout.condition.StartNextGroupRolloutGroupSuccessAction;
 import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
 import org.eclipse.hawkbit.repository.jpa.specifications.RolloutSpecification;
@@ -67,6 +68,7 @@ import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.DistributionSetType;
 import org.eclipse.hawkbit.repository.model.Rollout;
 import org.eclipse.hawkbit.repository.model.Rollout.RolloutStatus;
+import org.eclipse.hawkbit.repository.model.RolloutExecutionTrace;
 import org.eclipse.hawkbit.repository.model.RolloutGroup;
 import org.eclipse.hawkbit.repository.model.RolloutGroup.RolloutGroupStatus;
 import org.eclipse.hawkbit.repository.model.RolloutGroupConditions;
@@ -126,15 +128,17 @@ public class JpaRolloutManagement implements RolloutManagement {
     @Autowired
     private RolloutGroupRepository rolloutGroupRepository;
     @Autowired
-    private ActionRepository actionRepository;
-    @Autowired
     private AfterTransactionCommitExecutor afterCommit;
     @Autowired
     private QuotaManagement quotaManagement;
     @Autowired
     private RolloutStatusCache rolloutStatusCache;
     @Autowired
+    private RolloutStatusCounter rolloutStatusCounter;
+    @Autowired
     private StartNextGroupRolloutGroupSuccessAction startNextRolloutGroupAction;
+    @Autowired
+    private RolloutExecutionProfiler rolloutExecutionProfiler;
 
     public JpaRolloutManagement(final TargetManagement targetManagement,
             final DistributionSetManagement distributionSetManagement, final EventPublisherHolder eventPublisherHolder,
@@ -307,7 +311,7 @@ public class JpaRolloutManagement implements RolloutManagement {
         List<TotalTargetCountActionStatus> rolloutStatusCountItems = rolloutStatusCache.getRolloutStatus(rolloutId);
 
         if (CollectionUtils.isEmpty(rolloutStatusCountItems)) {
-            rolloutStatusCountItems = actionRepository.getStatusCountByRolloutId(rolloutId);
+            rolloutStatusCountItems = rolloutStatusCounter.getStatusCountByRolloutId(List.of(rolloutId));
             rolloutStatusCache.putRolloutStatus(rolloutId, rolloutStatusCountItems);
         }
 
@@ -317,6 +321,14 @@ public class JpaRolloutManagement implements RolloutManagement {
         return rollout;
     }
 
+    @Override
+    public Optional<RolloutExecutionTrace> getLastExecutionTrace(final long rolloutId) {
+        if (!rolloutRepository.existsById(rolloutId)) {
+            throw new EntityNotFoundException(Rollout.class, rolloutId);
+        }
+        return rolloutExecutionProfiler.getLastExecutionTrace(rolloutId);
+    }
+
     @Override
     public boolean exists(final long rolloutId) {
         return rolloutRepository.existsById(rolloutId);
@@ -710,7 +722,7 @@ public class JpaRolloutManagement implements RolloutManagement {
                 .collect(Collectors.toList());
 
         if (!rolloutIds.isEmpty()) {
-            final List<TotalTargetCountActionStatus> resultList = actionRepository
+            final List<TotalTargetCountActionStatus> resultList = rolloutStatusCounter
                     .getStatusCountByRolloutId(rolloutIds);
             final Map<Long, List<TotalTargetCountActionStatus>> fromDb = resultList.stream()
                     .collect(Collectors.groupingBy(TotalTargetCountActionStatus::getId));
@@ -28,6 +28,7 @@ import org.eclipse.hawkbit.repository.jpa.configuration.MultiTenantJpaTransactio
 import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSetType;
 import org.eclipse.hawkbit.repository.jpa.model.JpaSoftwareModuleType;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTenantMetaData;
+import org.eclipse.hawkbit.repository.jpa.purge.PurgeEngine;
 import org.eclipse.hawkbit.repository.jpa.repository.DistributionSetRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.DistributionSetTagRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.DistributionSetTypeRepository;
@@ -40,10 +41,12 @@ import org.eclipse.hawkbit.repository.jpa.repository.TargetTagRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.TargetTypeRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.TenantConfigurationRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.TenantMetaDataRepository;
+import org.eclipse.hawkbit.repository.jpa.rsql.RsqlQueryProfiler;
 import org.eclipse.hawkbit.repository.jpa.utils.DeploymentHelper;
 import org.eclipse.hawkbit.repository.model.DistributionSetType;
 import org.eclipse.hawkbit.repository.model.SoftwareModuleType;
 import org.eclipse.hawkbit.repository.model.TenantMetaData;
+import org.eclipse.hawkbit.repository.report.model.RsqlQueryReport;
 import org.eclipse.hawkbit.repository.report.model.SystemUsageReport;
 import org.eclipse.hawkbit.repository.report.model.SystemUsageReportWithTenants;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
@@ -103,6 +106,8 @@ public class JpaSystemManagement implements CurrentTenantCacheKeyGenerator, Syst
     @Autowired
     private RolloutRepository rolloutRepository;
     @Autowired
+    private PurgeEngine purgeEngine;
+    @Autowired
     private TenantAware tenantAware;
     @Autowired
     private TenantStatsManagement systemStatsManagement;
@@ -120,6 +125,8 @@ public class JpaSystemManagement implements CurrentTenantCacheKeyGenerator, Syst
     private ArtifactRepository artifactRepository;
     @Autowired
     private RepositoryProperties repositoryProperties;
+    @Autowired
+    private RsqlQueryProfiler rsqlQueryProfiler;
 
     /**
      * Constructor.
@@ -170,6 +177,7 @@ public class JpaSystemManagement implements CurrentTenantCacheKeyGenerator, Syst
             targetRepository.deleteByTenant(tenant);
             targetFilterQueryRepository.deleteByTenant(tenant);
             rolloutRepository.deleteByTenant(tenant);
+            purgeEngine.deleteByTenant(tenant);
             targetTypeRepository.deleteByTenant(tenant);
             targetTagRepository.deleteByTenant(tenant);
             distributionSetTagRepository.deleteByTenant(tenant);
@@ -246,6 +254,12 @@ public class JpaSystemManagement implements CurrentTenantCacheKeyGenerator, Syst
                 tenantMetaDataRepository.count());
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public RsqlQueryReport getRsqlQueryReport() {
+        return rsqlQueryProfiler.getReport();
+    }
+
     @Override
     public TenantMetaData getTenantMetadata() {
         final String tenant = tenantAware.getCurrentTenant();
@@ -262,7 +262,10 @@ public class JpaTargetFilterQueryManagement implements TargetFilterQueryManageme
                         targetFilterQuery.getAutoAssignDistributionSet().getId());
             }
 
-            // set the new query
+            // set the new query, all targets have to be checked again
+            if (!query.equals(targetFilterQuery.getQuery())) {
+                targetFilterQuery.setAutoAssignCheckedAt(null);
+            }
             targetFilterQuery.setQuery(query);
         });
         update.getConfirmationRequired().ifPresent(targetFilterQuery::setConfirmationRequired);
@@ -276,6 +279,8 @@ public class JpaTargetFilterQueryManagement implements TargetFilterQueryManageme
         final JpaTargetFilterQuery targetFilterQuery = findTargetFilterQueryOrThrowExceptionIfNotFound(
                 update.getTargetFilterId());
 
+        // all targets have to be checked again for the new distribution set
+        targetFilterQuery.setAutoAssignCheckedAt(null);
         if (update.getDsId() == null) {
             targetFilterQuery.setAccessControlContext(null);
             targetFilterQuery.setAutoAssignDistributionSet(null);
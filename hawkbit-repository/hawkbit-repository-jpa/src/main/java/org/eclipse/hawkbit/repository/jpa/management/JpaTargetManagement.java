@@ -66,6 +66,7 @@ import org.eclipse.hawkbit.repository.jpa.repository.TargetMetadataRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.TargetRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.TargetTagRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.TargetTypeRepository;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutStatusCounter;
 import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
 import org.eclipse.hawkbit.repository.jpa.specifications.SpecificationsBuilder;
 import org.eclipse.hawkbit.repository.jpa.specifications.TargetSpecifications;
@@ -129,6 +130,8 @@ public class JpaTargetManagement implements TargetManagement {
 
     private final VirtualPropertyReplacer virtualPropertyReplacer;
 
+    private final RolloutStatusCounter rolloutStatusCounter;
+
     private final Database database;
 
     public JpaTargetManagement(final EntityManager entityManager,
@@ -139,7 +142,7 @@ public class JpaTargetManagement implements TargetManagement {
             final TargetFilterQueryRepository targetFilterQueryRepository,
             final TargetTagRepository targetTagRepository, final EventPublisherHolder eventPublisherHolder,
             final TenantAware tenantAware, final VirtualPropertyReplacer virtualPropertyReplacer,
-            final Database database) {
+            final RolloutStatusCounter rolloutStatusCounter, final Database database) {
         this.entityManager = entityManager;
         this.distributionSetManagement = distributionSetManagement;
         this.quotaManagement = quotaManagement;
@@ -152,6 +155,7 @@ public class JpaTargetManagement implements TargetManagement {
         this.eventPublisherHolder = eventPublisherHolder;
         this.tenantAware = tenantAware;
         this.virtualPropertyReplacer = virtualPropertyReplacer;
+        this.rolloutStatusCounter = rolloutStatusCounter;
         this.database = database;
     }
 
@@ -264,7 +268,7 @@ public class JpaTargetManagement implements TargetManagement {
                     targets.stream().map(Target::getId).filter(id -> !ids.contains(id)).toList());
         }
 
-        targetRepository.deleteAll(targets);
+        deleteAndRecountRolloutStatus(targets);
     }
 
     @Override
@@ -272,7 +276,7 @@ public class JpaTargetManagement implements TargetManagement {
     @Retryable(include = {
             ConcurrencyFailureException.class }, maxAttempts = Constants.TX_RT_MAX, backoff = @Backoff(delay = Constants.TX_RT_DELAY))
     public void deleteByControllerID(final String controllerId) {
-        targetRepository.delete(getByControllerIdAndThrowIfNotFound(controllerId));
+        deleteAndRecountRolloutStatus(List.of(getByControllerIdAndThrowIfNotFound(controllerId)));
     }
 
     @Override
@@ -292,6 +296,25 @@ public class JpaTargetManagement implements TargetManagement {
                 .map(Target.class::cast);
     }
 
+    @Override
+    public Slice<Target> findByModifiedSinceAndTargetFilterQueryAndNonDSAndCompatibleAndUpdatable(
+            final Pageable pageRequest, final long modifiedSince, final long distributionSetId,
+            final String targetFilterQuery) {
+        final DistributionSet jpaDistributionSet = distributionSetManagement.getOrElseThrowException(distributionSetId);
+        final Long distSetTypeId = jpaDistributionSet.getType().getId();
+
+        return targetRepository
+                .findAllWithoutCount(AccessController.Operation.UPDATE,
+                        combineWithAnd(List.of(
+                                TargetSpecifications.isChangedSince(modifiedSince),
+                                RSQLUtility.buildRsqlSpecification(targetFilterQuery, TargetFields.class,
+                                        virtualPropertyReplacer, database),
+                                TargetSpecifications.hasNotDistributionSetInActions(distributionSetId),
+                                TargetSpecifications.isCompatibleWithDistributionSetType(distSetTypeId))),
+                        pageRequest)
+                .map(Target.class::cast);
+    }
+
     @Override
     public long countByRsqlAndNonDSAndCompatibleAndUpdatable(final long distributionSetId,
             final String targetFilterQuery) {
@@ -337,6 +360,23 @@ public class JpaTargetManagement implements TargetManagement {
                 .map(Target.class::cast);
     }
 
+    @Override
+    public Slice<Target> findByIdInAndNotInGEGroupAndNotInActiveActionGEWeightOrInRolloutAndTargetFilterQueryAndCompatibleAndUpdatable(
+            final Pageable pageRequest, final Collection<Long> targetIds, final long rolloutId, final int weight,
+            final long firstGroupId, final String targetFilterQuery, final DistributionSetType distributionSetType) {
+        return targetRepository
+                .findAllWithoutCount(AccessController.Operation.UPDATE,
+                        combineWithAnd(List.of(
+                                TargetSpecifications.hasIdIn(targetIds),
+                                RSQLUtility.buildRsqlSpecification(targetFilterQuery, TargetFields.class,
+                                        virtualPropertyReplacer, database),
+                                TargetSpecifications.isNotInGERolloutGroup(firstGroupId),
+                                TargetSpecifications.hasNoActiveActionWithGEWeightOrInRollout(weight, rolloutId),
+                                TargetSpecifications.isCompatibleWithDistributionSetType(distributionSetType.getId()))),
+                        pageRequest)
+                .map(Target.class::cast);
+    }
+
     @Override
     public long countByActionsInRolloutGroup(final long rolloutGroupId) {
         return targetRepository.count(TargetSpecifications.isInActionRolloutGroup(rolloutGroupId));
@@ -456,6 +496,16 @@ public class JpaTargetManagement implements TargetManagement {
                 .buildRsqlSpecification(targetFilterQuery, TargetFields.class, virtualPropertyReplacer, database)));
     }
 
+    @Override
+    public void streamByRsql(final String rsqlParam, final int chunkSize, final Consumer<List<Target>> chunkConsumer) {
+        Specification<JpaTarget> spec = TargetSpecifications.fetchTargetType();
+        if (rsqlParam != null) {
+            spec = spec.and(RSQLUtility.buildRsqlSpecification(rsqlParam, TargetFields.class, virtualPropertyReplacer, database));
+        }
+        targetRepository.scroll(spec, Sort.by(JpaTarget_.ID), chunkSize,
+                chunk -> chunkConsumer.accept(Collections.unmodifiableList(chunk)));
+    }
+
     @Override
     public Slice<Target> findByTargetFilterQuery(final Pageable pageable, final long targetFilterQueryId) {
         final TargetFilterQuery targetFilterQuery = targetFilterQueryRepository.findById(targetFilterQueryId)
@@ -891,6 +941,18 @@ public class JpaTargetManagement implements TargetManagement {
         return controllerIds.stream().filter(id -> !foundTargetMap.containsKey(id)).toList();
     }
 
+    private void deleteAndRecountRolloutStatus(final List<JpaTarget> targets) {
+        // the actions of the targets are deleted by the database cascade which bypasses the rollout status
+        // counters, so the affected groups have to be recounted after the deletion is flushed
+        final List<Long> rolloutGroupIds = rolloutStatusCounter
+                .getRolloutGroupIdsByTargetIds(targets.stream().map(JpaTarget::getId).toList());
+        targetRepository.deleteAll(targets);
+        if (!rolloutGroupIds.isEmpty()) {
+            entityManager.flush();
+            rolloutStatusCounter.recount(rolloutGroupIds);
+        }
+    }
+
     private JpaTarget getByControllerIdAndThrowIfNotFound(final String controllerId) {
         return targetRepository.findOne(TargetSpecifications.hasControllerId(controllerId))
                 .orElseThrow(() -> new EntityNotFoundException(Target.class, controllerId));
@@ -26,6 +26,7 @@ import org.eclipse.hawkbit.repository.jpa.builder.JpaTagCreate;
 import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTargetTag;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTargetTag_;
+import org.eclipse.hawkbit.repository.jpa.repository.TargetFilterQueryRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.TargetTagRepository;
 import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
 import org.eclipse.hawkbit.repository.model.TargetTag;
@@ -47,15 +48,18 @@ import org.springframework.validation.annotation.Validated;
 public class JpaTargetTagManagement implements TargetTagManagement {
 
     private final TargetTagRepository targetTagRepository;
+    private final TargetFilterQueryRepository targetFilterQueryRepository;
 
     private final VirtualPropertyReplacer virtualPropertyReplacer;
     private final Database database;
 
     public JpaTargetTagManagement(
             final TargetTagRepository targetTagRepository,
+            final TargetFilterQueryRepository targetFilterQueryRepository,
             final VirtualPropertyReplacer virtualPropertyReplacer,
             final Database database) {
         this.targetTagRepository = targetTagRepository;
+        this.targetFilterQueryRepository = targetFilterQueryRepository;
         this.virtualPropertyReplacer = virtualPropertyReplacer;
         this.database = database;
     }
@@ -95,6 +99,8 @@ public class JpaTargetTagManagement implements TargetTagManagement {
                 targetTagRepository
                         .findOne(((root, query, cb) -> cb.equal(root.get(JpaTargetTag_.name), targetTagName)))
                         .orElseThrow(() -> new EntityNotFoundException(TargetTag.class, targetTagName)));
+        // the tagged targets are not changed, but could match other target filter queries now
+        targetFilterQueryRepository.resetAutoAssignCheckedAt();
     }
 
     @Override
@@ -133,7 +139,11 @@ public class JpaTargetTagManagement implements TargetTagManagement {
         final JpaTargetTag tag = targetTagRepository.findById(update.getId())
                 .orElseThrow(() -> new EntityNotFoundException(TargetTag.class, update.getId()));
 
-        update.getName().ifPresent(tag::setName);
+        update.getName().ifPresent(name -> {
+            tag.setName(name);
+            // the tagged targets are not changed, but could match other target filter queries now
+            targetFilterQueryRepository.resetAutoAssignCheckedAt();
+        });
         update.getDescription().ifPresent(tag::setDescription);
         update.getColour().ifPresent(tag::setColour);
 
@@ -30,6 +30,7 @@ import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
 import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSetType;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTargetType;
 import org.eclipse.hawkbit.repository.jpa.repository.DistributionSetTypeRepository;
+import org.eclipse.hawkbit.repository.jpa.repository.TargetFilterQueryRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.TargetRepository;
 import org.eclipse.hawkbit.repository.jpa.repository.TargetTypeRepository;
 import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
@@ -58,6 +59,7 @@ public class JpaTargetTypeManagement implements TargetTypeManagement {
     private final TargetTypeRepository targetTypeRepository;
     private final TargetRepository targetRepository;
     private final DistributionSetTypeRepository distributionSetTypeRepository;
+    private final TargetFilterQueryRepository targetFilterQueryRepository;
 
     private final VirtualPropertyReplacer virtualPropertyReplacer;
 
@@ -69,16 +71,20 @@ public class JpaTargetTypeManagement implements TargetTypeManagement {
      *
      * @param targetTypeRepository Target type repository
      * @param targetRepository Target repository
+     * @param distributionSetTypeRepository Distribution set type repository
+     * @param targetFilterQueryRepository Target filter query repository
      * @param virtualPropertyReplacer replacer
      * @param database database
      */
     public JpaTargetTypeManagement(final TargetTypeRepository targetTypeRepository,
             final TargetRepository targetRepository, final DistributionSetTypeRepository distributionSetTypeRepository,
+            final TargetFilterQueryRepository targetFilterQueryRepository,
             final VirtualPropertyReplacer virtualPropertyReplacer, final Database database,
             final QuotaManagement quotaManagement) {
         this.targetTypeRepository = targetTypeRepository;
         this.targetRepository = targetRepository;
         this.distributionSetTypeRepository = distributionSetTypeRepository;
+        this.targetFilterQueryRepository = targetFilterQueryRepository;
         this.virtualPropertyReplacer = virtualPropertyReplacer;
         this.database = database;
         this.quotaManagement = quotaManagement;
@@ -175,7 +181,11 @@ public class JpaTargetTypeManagement implements TargetTypeManagement {
 
         final JpaTargetType type = getByIdAndThrowIfNotFound(typeUpdate.getId());
 
-        typeUpdate.getName().ifPresent((type::setName));
+        typeUpdate.getName().ifPresent(name -> {
+            type.setName(name);
+            // the targets of the type are not changed, but could match other target filter queries now
+            targetFilterQueryRepository.resetAutoAssignCheckedAt();
+        });
         typeUpdate.getDescription().ifPresent(type::setDescription);
         typeUpdate.getColour().ifPresent(type::setColour);
 
@@ -199,6 +209,8 @@ public class JpaTargetTypeManagement implements TargetTypeManagement {
         final JpaTargetType type = getByIdAndThrowIfNotFound(id);
         assertDistributionSetTypeQuota(id, distributionSetTypeIds.size());
         dsTypes.forEach(type::addCompatibleDistributionSetType);
+        // targets of the type could become compatible with auto assigned distribution sets
+        targetFilterQueryRepository.resetAutoAssignCheckedAt();
 
         return targetTypeRepository.save(type);
     }
@@ -25,6 +25,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.ConstraintMode;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.ForeignKey;
 import jakarta.persistence.Index;
@@ -76,11 +77,13 @@ import org.eclipse.persistence.descriptors.DescriptorEvent;
         @Index(name = "sp_idx_target_03", columnList = "tenant,controller_id,assigned_distribution_set"),
         @Index(name = "sp_idx_target_04", columnList = "tenant,created_at"),
         @Index(name = "sp_idx_target_05", columnList = "tenant,last_modified_at"),
+        @Index(name = "sp_idx_target_06", columnList = "tenant,changed_at"),
         @Index(name = "sp_idx_target_prim", columnList = "tenant,id") }, uniqueConstraints = @UniqueConstraint(columnNames = {
         "controller_id", "tenant" }, name = "uk_tenant_controller_id"))
 // exception squid:S2160 - BaseEntity equals/hashcode is handling correctly for
 // sub entities
 @SuppressWarnings("squid:S2160")
+@EntityListeners(TargetChangeListener.class)
 @Slf4j
 public class JpaTarget extends AbstractJpaNamedEntity implements Target, EventAwareEntity {
 
@@ -88,7 +91,7 @@ public class JpaTarget extends AbstractJpaNamedEntity implements Target, EventAw
     private static final long serialVersionUID = 1L;
 
     private static final List<String> TARGET_UPDATE_EVENT_IGNORE_FIELDS = Arrays.asList("lastTargetQuery", "address",
-            "optLockRevision", "lastModifiedAt", "lastModifiedBy");
+            "optLockRevision", "lastModifiedAt", "lastModifiedBy", "changedAt");
 
     @Column(name = "controller_id", length = Target.CONTROLLER_ID_MAX_SIZE, updatable = false, nullable = false)
     @Size(min = 1, max = Target.CONTROLLER_ID_MAX_SIZE)
@@ -123,6 +126,10 @@ public class JpaTarget extends AbstractJpaNamedEntity implements Target, EventAw
     @Column(name = "install_date")
     private Long installationDate;
 
+    // unlike the last modified audit entry, set on the changes by the controller as well, see TargetChangeListener
+    @Column(name = "changed_at")
+    private Long changedAt;
+
     @Column(name = "update_status", nullable = false)
     @ObjectTypeConverter(name = "updateStatus", objectType = TargetUpdateStatus.class, dataType = Integer.class, conversionValues = {
             @ConversionValue(objectValue = "UNKNOWN", dataValue = "0"),
@@ -175,7 +182,8 @@ public class JpaTarget extends AbstractJpaNamedEntity implements Target, EventAw
     @CollectionTable(
             name = "sp_target_attributes",
             joinColumns = {
-                    @JoinColumn(name = "target_id", nullable = false, updatable = false) }, foreignKey = @ForeignKey(value = ConstraintMode.CONSTRAINT, name = "fk_targ_attrib_target"))
+                    @JoinColumn(name = "target_id", nullable = false, updatable = false) }, foreignKey = @ForeignKey(value = ConstraintMode.CONSTRAINT, name = "fk_targ_attrib_target"),
+            indexes = { @Index(name = "sp_idx_target_attributes_key_value", columnList = "attribute_key,attribute_value,target_id") })
     private Map<String, String> controllerAttributes;
 
     @CascadeOnDelete
@@ -287,6 +295,13 @@ public class JpaTarget extends AbstractJpaNamedEntity implements Target, EventAw
         return installationDate;
     }
 
+    /**
+     * @return the time of the last change of the target, its attributes, tags or metadata, also by the controller
+     */
+    public Long getChangedAt() {
+        return changedAt;
+    }
+
     @Override
     public TargetUpdateStatus getUpdateStatus() {
         return updateStatus;
@@ -355,6 +370,13 @@ public class JpaTarget extends AbstractJpaNamedEntity implements Target, EventAw
         this.installationDate = installationDate;
     }
 
+    /**
+     * @param changedAt time of the last change
+     */
+    public void setChangedAt(final Long changedAt) {
+        this.changedAt = changedAt;
+    }
+
     /**
      * @param lastTargetQuery last query ID
      */
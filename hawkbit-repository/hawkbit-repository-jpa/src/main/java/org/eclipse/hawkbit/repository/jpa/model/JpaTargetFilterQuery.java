@@ -87,6 +87,10 @@ public class JpaTargetFilterQuery extends AbstractJpaTenantAwareBaseEntity
     @Column(name = "access_control_context", nullable = true)
     private String accessControlContext;
 
+    // targets modified before are already checked for the auto assignment, null if all targets have to be checked
+    @Column(name = "auto_assign_checked_at", nullable = true)
+    private Long autoAssignCheckedAt;
+
     public JpaTargetFilterQuery() {
         // Default constructor for JPA.
     }
@@ -181,6 +185,14 @@ public class JpaTargetFilterQuery extends AbstractJpaTenantAwareBaseEntity
         this.accessControlContext = accessControlContext;
     }
 
+    public Long getAutoAssignCheckedAt() {
+        return autoAssignCheckedAt;
+    }
+
+    public void setAutoAssignCheckedAt(final Long autoAssignCheckedAt) {
+        this.autoAssignCheckedAt = autoAssignCheckedAt;
+    }
+
     @Override
     public void fireCreateEvent(final DescriptorEvent descriptorEvent) {
         EventPublisherHolder.getInstance().getEventPublisher().publishEvent(
@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.RolloutGroup;
+import org.eclipse.persistence.descriptors.DescriptorEvent;
+import org.eclipse.persistence.descriptors.DescriptorEventAdapter;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.DirectToFieldChangeRecord;
+import org.eclipse.persistence.queries.DataModifyQuery;
+import org.eclipse.persistence.queries.UpdateObjectQuery;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+
+/**
+ * Maintains the <code>sp_rollout_status_count</code> table, i.e. the count of the actions per
+ * {@link RolloutGroup} and action {@link Status}.
+ * <p/>
+ * The status changes of the rollout actions are collected as deltas in the unit of work and applied by the
+ * {@link SessionListener} after all the changes are written, i.e. in the same transaction and with one
+ * statement per rollout group and status. The counter rows of a rollout group are created, for all the statuses, in
+ * the flush which inserts the group (see {@link RolloutGroupListener}), so the actions of the group, which could be
+ * created by concurrent transactions, always find them.
+ * <p/>
+ * Note: bulk statements (JPQL or native) bypass the listener, so the counters of the affected rollout groups
+ * have to be recounted by the caller.
+ */
+public class RolloutStatusCountListener extends DescriptorEventAdapter {
+
+    private static final String DELTAS_PROPERTY = RolloutStatusCountListener.class.getName() + ".deltas";
+    private static final String STATUS_ATTRIBUTE = "status";
+    private static final int STATUS_COUNT = Status.values().length;
+
+    @Override
+    public void postInsert(final DescriptorEvent event) {
+        final JpaAction action = (JpaAction) event.getObject();
+        if (action.getRolloutGroup() != null) {
+            delta(event.getSession(), action).add(action.getStatus(), 1);
+        }
+    }
+
+    @Override
+    public void postUpdate(final DescriptorEvent event) {
+        final JpaAction action = (JpaAction) event.getObject();
+        if (action.getRolloutGroup() == null) {
+            return;
+        }
+
+        final DirectToFieldChangeRecord statusChange = (DirectToFieldChangeRecord) ((UpdateObjectQuery) event
+                .getQuery()).getObjectChangeSet().getChangesForAttributeNamed(STATUS_ATTRIBUTE);
+        if (statusChange != null && statusChange.getOldValue() != statusChange.getNewValue()) {
+            final Delta delta = delta(event.getSession(), action);
+            delta.add((Status) statusChange.getOldValue(), -1);
+            delta.add((Status) statusChange.getNewValue(), 1);
+        }
+    }
+
+    @Override
+    public void postDelete(final DescriptorEvent event) {
+        final JpaAction action = (JpaAction) event.getObject();
+        if (action.getRolloutGroup() != null) {
+            delta(event.getSession(), action).add(action.getStatus(), -1);
+        }
+    }
+
+    private static Delta delta(final AbstractSession session, final JpaAction action) {
+        return deltas(session).computeIfAbsent(action.getRolloutGroup().getId(),
+                group -> new Delta(action.getRollout().getId()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Long, Delta> deltas(final AbstractSession session) {
+        Map<Long, Delta> deltas = (Map<Long, Delta>) session.getProperty(DELTAS_PROPERTY);
+        if (deltas == null) {
+            // sorted by rollout group in order to always lock the counters in the same order
+            deltas = new TreeMap<>();
+            session.setProperty(DELTAS_PROPERTY, deltas);
+        }
+        return deltas;
+    }
+
+    /**
+     * Creates the counters of the inserted rollout groups.
+     */
+    public static class RolloutGroupListener extends DescriptorEventAdapter {
+
+        @Override
+        public void postInsert(final DescriptorEvent event) {
+            final JpaRolloutGroup rolloutGroup = (JpaRolloutGroup) event.getObject();
+            deltas(event.getSession()).computeIfAbsent(rolloutGroup.getId(),
+                    group -> new Delta(rolloutGroup.getRollout().getId())).created = true;
+        }
+    }
+
+    private static final class Delta {
+
+        private final long rollout;
+        private final long[] counts = new long[STATUS_COUNT];
+        // the rollout group is inserted with this unit of work, so its counters have to be created
+        private boolean created;
+
+        private Delta(final long rollout) {
+            this.rollout = rollout;
+        }
+
+        private void add(final Status status, final long count) {
+            if (status != null) {
+                counts[status.ordinal()] += count;
+            }
+        }
+    }
+
+    /**
+     * Applies the deltas collected by the {@link RolloutStatusCountListener} at the end of each flush of the
+     * unit of work. Registered as EclipseLink session event listener.
+     */
+    @Slf4j
+    public static class SessionListener extends SessionEventAdapter {
+
+        private static final String UPDATE = "UPDATE sp_rollout_status_count SET action_count = action_count + #DELTA WHERE rollout_group = #ROLLOUT_GROUP AND status = #STATUS";
+        private static final String INSERT = "INSERT INTO sp_rollout_status_count (rollout_group, rollout, status, action_count) VALUES ";
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void prepareUnitOfWork(final SessionEvent event) {
+            final AbstractSession session = (AbstractSession) event.getSession();
+            final Map<Long, Delta> deltas = (Map<Long, Delta>) session.getProperty(DELTAS_PROPERTY);
+            if (deltas == null || deltas.isEmpty()) {
+                return;
+            }
+            session.removeProperty(DELTAS_PROPERTY);
+            deltas.forEach((rolloutGroup, delta) -> apply(session, rolloutGroup, delta));
+        }
+
+        private static void apply(final AbstractSession session, final long rolloutGroup, final Delta delta) {
+            if (delta.created) {
+                insert(session, rolloutGroup, delta);
+                return;
+            }
+            for (int status = 0; status < STATUS_COUNT; status++) {
+                if (delta.counts[status] != 0
+                        && update(session, rolloutGroup, status, delta.counts[status]) == 0) {
+                    // the counters are created with the rollout group (or by the migration for the existing
+                    // groups), so they are missing only if they have been deleted
+                    log.warn("Counters of rollout group {} are missing, recreate them", rolloutGroup);
+                    insert(session, rolloutGroup, delta);
+                    return;
+                }
+            }
+        }
+
+        private static int update(final AbstractSession session, final long rolloutGroup, final int status,
+                final long delta) {
+            final DataModifyQuery query = new DataModifyQuery(UPDATE);
+            // the update count is needed, so the statement must not be added to the JDBC batch
+            query.setIsBatchExecutionSupported(false);
+            query.addArgument("DELTA");
+            query.addArgument("ROLLOUT_GROUP");
+            query.addArgument("STATUS");
+            return ((Number) session.executeQuery(query, List.of(delta, rolloutGroup, status))).intValue();
+        }
+
+        private static void insert(final AbstractSession session, final long rolloutGroup, final Delta delta) {
+            final DataModifyQuery query = new DataModifyQuery(INSERT + IntStream.range(0, STATUS_COUNT)
+                    .mapToObj(status -> "(" + rolloutGroup + ", " + delta.rollout + ", " + status + ", "
+                            + Math.max(0, delta.counts[status]) + ")")
+                    .collect(Collectors.joining(", ")));
+            query.setIsBatchExecutionSupported(false);
+            session.executeQuery(query);
+        }
+    }
+}
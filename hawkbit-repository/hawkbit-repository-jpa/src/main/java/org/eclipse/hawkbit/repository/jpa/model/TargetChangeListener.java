@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.model;
+
+import java.util.Set;
+
+import org.eclipse.persistence.descriptors.DescriptorEvent;
+import org.eclipse.persistence.descriptors.DescriptorEventAdapter;
+import org.eclipse.persistence.queries.WriteObjectQuery;
+
+/**
+ * Sets {@link JpaTarget#getChangedAt()} on the creation and on every change of a {@link JpaTarget}, including the
+ * changes of its attributes and tags. In contrast to the last modified audit entry it is set on the changes by the
+ * controller as well, so the auto assignment can check only the targets changed since its last check.
+ */
+public class TargetChangeListener extends DescriptorEventAdapter {
+
+    // the poll time is changed on every poll, queries on it are time dependent anyway
+    private static final Set<String> IGNORE_FIELDS = Set.of("lastTargetQuery", "optLockRevision", "changedAt");
+
+    @Override
+    public void prePersist(final DescriptorEvent event) {
+        ((JpaTarget) event.getObject()).setChangedAt(System.currentTimeMillis());
+    }
+
+    @Override
+    public void preUpdateWithChanges(final DescriptorEvent event) {
+        // the change set is recalculated after this event, so the change is written with the same update
+        if (((WriteObjectQuery) event.getQuery()).getObjectChangeSet().getChangedAttributeNames().stream()
+                .anyMatch(field -> !IGNORE_FIELDS.contains(field))) {
+            ((JpaTarget) event.getObject()).setChangedAt(System.currentTimeMillis());
+        }
+    }
+}
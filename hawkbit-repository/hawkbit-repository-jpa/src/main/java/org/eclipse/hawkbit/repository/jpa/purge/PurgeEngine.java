@@ -0,0 +1,305 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.purge;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
+import org.eclipse.hawkbit.repository.jpa.repository.RolloutRepository;
+import org.eclipse.hawkbit.repository.jpa.repository.TargetFilterQueryRepository;
+import org.eclipse.hawkbit.repository.jpa.utils.DeploymentHelper;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Removes the dependent rows of entities marked as pending purge in small chunks, each in its own transaction.
+ * The rows are removed from the deepest tables first and selected by indexed columns, so a chunk holds only a
+ * few locks for a short time. The pending purges are stored in <code>sp_pending_purge</code>, so an interrupted
+ * purge is resumed with the next run.
+ * <p/>
+ * Every purge run with pending purges is observed as {@value #OBSERVATION_NAME} {@link Observation} with the tenant
+ * as low cardinality key value and the number of pending, purged entities, purged chunks and purged rows as high
+ * cardinality key values. Every chunk is observed as {@value #CHUNK_OBSERVATION_NAME} {@link Observation} with the
+ * tenant, the entity type and the result (<code>partial</code> or <code>completed</code>) as low cardinality key
+ * values. So, if a meter handler is registered with the {@link ObservationRegistry}, the purged chunks and entities
+ * are counted (and timed) per tenant and entity type.
+ * <p/>
+ * No access control applied
+ */
+@Slf4j
+public class PurgeEngine {
+
+    public static final String OBSERVATION_NAME = "hawkbit.purge";
+    public static final String CHUNK_OBSERVATION_NAME = "hawkbit.purge.chunk";
+    public static final String PARTIAL = "partial";
+    public static final String COMPLETED = "completed";
+
+    private static final String INSERT_PENDING = "INSERT INTO sp_pending_purge (entity_type, entity_id, tenant, created_at) VALUES (#entity_type, #entity_id, #tenant, #created_at)";
+    private static final String SELECT_PENDING = "SELECT entity_type, entity_id FROM sp_pending_purge WHERE tenant = #tenant ORDER BY created_at";
+    private static final String COUNT_PENDING = "SELECT COUNT(entity_id) FROM sp_pending_purge WHERE tenant = #tenant";
+    private static final String DELETE_PENDING_BY_TENANT = "DELETE FROM sp_pending_purge WHERE tenant = #tenant";
+    private static final String DELETE_PENDING = "DELETE FROM sp_pending_purge WHERE entity_type = #entity_type AND entity_id = #entity_id";
+
+    private static final String SELECT_ROLLOUT_GROUPS = "SELECT id FROM sp_rolloutgroup WHERE rollout = #rollout";
+    private static final String SELECT_ACTIONS = "SELECT id FROM sp_action WHERE rolloutgroup = #rollout_group";
+    private static final String DELETE_ACTION_STATUS_MESSAGES = "DELETE FROM sp_action_status_messages WHERE action_status_id IN (SELECT id FROM sp_action_status WHERE tenant = #tenant AND action IN (%s))";
+    private static final String DELETE_ACTION_STATUS = "DELETE FROM sp_action_status WHERE tenant = #tenant AND action IN (%s)";
+    private static final String DELETE_ACTIONS = "DELETE FROM sp_action WHERE id IN (%s)";
+    private static final String SELECT_ROLLOUT_TARGETS = "SELECT target_id FROM sp_rollouttargetgroup WHERE rolloutGroup_Id = #rollout_group";
+    private static final String DELETE_ROLLOUT_TARGETS = "DELETE FROM sp_rollouttargetgroup WHERE rolloutGroup_Id = #rollout_group AND target_id IN (%s)";
+
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager txManager;
+    private final RolloutRepository rolloutRepository;
+    private final TargetFilterQueryRepository targetFilterQueryRepository;
+    private final TenantAware tenantAware;
+    private final RepositoryProperties repositoryProperties;
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * Constructor.
+     *
+     * @param entityManager to run the native queries
+     * @param txManager to run each chunk in its own transaction
+     * @param rolloutRepository to delete the purged rollouts
+     * @param targetFilterQueryRepository to reset the auto assignment checks after purged actions
+     * @param tenantAware to get the current tenant
+     * @param repositoryProperties for the chunk size and the rate limits
+     * @param observationRegistry to observe the purge runs and chunks
+     */
+    public PurgeEngine(final EntityManager entityManager, final PlatformTransactionManager txManager,
+            final RolloutRepository rolloutRepository, final TargetFilterQueryRepository targetFilterQueryRepository,
+            final TenantAware tenantAware, final RepositoryProperties repositoryProperties,
+            final ObservationRegistry observationRegistry) {
+        this.entityManager = entityManager;
+        this.txManager = txManager;
+        this.rolloutRepository = rolloutRepository;
+        this.targetFilterQueryRepository = targetFilterQueryRepository;
+        this.tenantAware = tenantAware;
+        this.repositoryProperties = repositoryProperties;
+        this.observationRegistry = observationRegistry;
+    }
+
+    /**
+     * Marks an entity of the current tenant as pending purge. Has to be called in the transaction which hides the
+     * entity (e.g. marks it as deleted).
+     *
+     * @param type the type of the entity
+     * @param entityId the id of the entity
+     */
+    @Transactional
+    public void markForPurge(final PurgeType type, final long entityId) {
+        entityManager.createNativeQuery(INSERT_PENDING)
+                .setParameter("entity_type", type.name())
+                .setParameter("entity_id", entityId)
+                .setParameter("tenant", tenantAware.getCurrentTenant().toUpperCase())
+                .setParameter("created_at", System.currentTimeMillis())
+                .executeUpdate();
+    }
+
+    /**
+     * Purges the entities of the current tenant which are marked as pending purge, oldest first, up to
+     * {@link RepositoryProperties#getPurgeMaxChunksPerRun()} chunks. Entities which are not completely purged
+     * are continued with the next run.
+     *
+     * @return the number of the purged chunks
+     */
+    public int purge() {
+        final String tenant = tenantAware.getCurrentTenant().toUpperCase();
+        final List<Object[]> pending = DeploymentHelper.runInNewTransaction(txManager, "purge-pending-" + tenant,
+                status -> {
+                    @SuppressWarnings("unchecked")
+                    final List<Object[]> rows = entityManager.createNativeQuery(SELECT_PENDING)
+                            .setParameter("tenant", tenant).getResultList();
+                    return rows;
+                });
+
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        final Observation observation = Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                .contextualName("purge")
+                .lowCardinalityKeyValue(KeyValue.of("tenant", tenant))
+                .highCardinalityKeyValue(KeyValue.of("pending", String.valueOf(pending.size())))
+                .start();
+        int chunks = 0;
+        int entities = 0;
+        long rows = 0;
+        final Observation.Scope scope = observation.openScope();
+        try {
+            for (final Object[] row : pending) {
+                final PurgeType type = PurgeType.valueOf((String) row[0]);
+                final long entityId = ((Number) row[1]).longValue();
+                boolean done = false;
+                while (!done && chunks < repositoryProperties.getPurgeMaxChunksPerRun()) {
+                    if (chunks > 0) {
+                        pause();
+                    }
+                    final int purgedRows = purgeChunkInNewTransaction(tenant, type, entityId);
+                    done = purgedRows == 0;
+                    rows += purgedRows;
+                    chunks++;
+                }
+                if (!done) {
+                    break;
+                }
+                entities++;
+            }
+        } catch (final RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            scope.close();
+            // added before the stop, so the handlers see them
+            observation.highCardinalityKeyValue(KeyValue.of("chunks", String.valueOf(chunks)))
+                    .highCardinalityKeyValue(KeyValue.of("entities", String.valueOf(entities)))
+                    .highCardinalityKeyValue(KeyValue.of("rows", String.valueOf(rows)))
+                    .stop();
+        }
+        log.debug("Purged {} chunks of tenant {}", chunks, tenant);
+        return chunks;
+    }
+
+    /**
+     * Removes all pending purges of the given tenant, e.g. when the tenant is deleted.
+     *
+     * @param tenant the tenant
+     */
+    @Transactional
+    public void deleteByTenant(final String tenant) {
+        entityManager.createNativeQuery(DELETE_PENDING_BY_TENANT).setParameter("tenant", tenant.toUpperCase())
+                .executeUpdate();
+    }
+
+    /**
+     * @return the number of entities of the current tenant which are pending purge
+     */
+    @Transactional(readOnly = true)
+    public long countPending() {
+        return ((Number) entityManager.createNativeQuery(COUNT_PENDING)
+                .setParameter("tenant", tenantAware.getCurrentTenant().toUpperCase()).getSingleResult()).longValue();
+    }
+
+    private int purgeChunkInNewTransaction(final String tenant, final PurgeType type, final long entityId) {
+        final Observation observation = Observation.createNotStarted(CHUNK_OBSERVATION_NAME, observationRegistry)
+                .contextualName("purge chunk")
+                .lowCardinalityKeyValue(KeyValue.of("tenant", tenant))
+                .lowCardinalityKeyValue(KeyValue.of("type", type.name()))
+                .highCardinalityKeyValue(KeyValue.of("entity", String.valueOf(entityId)))
+                .start();
+        try {
+            final int rows = DeploymentHelper.runInNewTransaction(txManager, "purge-" + type + "-" + entityId,
+                    status -> purgeChunk(tenant, type, entityId));
+            observation.lowCardinalityKeyValue(KeyValue.of("result", rows == 0 ? COMPLETED : PARTIAL))
+                    .highCardinalityKeyValue(KeyValue.of("rows", String.valueOf(rows)));
+            return rows;
+        } catch (final RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    // returns the number of the purged dependent rows, 0 if there were none left and the entity itself is purged
+    private int purgeChunk(final String tenant, final PurgeType type, final long entityId) {
+        switch (type) {
+            case ROLLOUT:
+                final int rows = purgeRolloutChunk(tenant, entityId);
+                if (rows > 0) {
+                    return rows;
+                }
+                rolloutRepository.findById(entityId).ifPresent(rolloutRepository::delete);
+                break;
+            default:
+                throw new IllegalStateException("Unsupported purge type " + type);
+        }
+        entityManager.createNativeQuery(DELETE_PENDING).setParameter("entity_type", type.name())
+                .setParameter("entity_id", entityId).executeUpdate();
+        log.info("Purged {} {} of tenant {}", type, entityId, tenant);
+        return 0;
+    }
+
+    // returns the number of the purged rows, 0 if there is nothing left to purge
+    private int purgeRolloutChunk(final String tenant, final long rolloutId) {
+        @SuppressWarnings("unchecked")
+        final List<Number> groupIds = entityManager.createNativeQuery(SELECT_ROLLOUT_GROUPS)
+                .setParameter("rollout", rolloutId).getResultList();
+        for (final Number groupId : groupIds) {
+            final List<Number> actionIds = selectChunk(SELECT_ACTIONS, groupId);
+            if (!actionIds.isEmpty()) {
+                // deepest tables first
+                delete(DELETE_ACTION_STATUS_MESSAGES, actionIds, tenant);
+                delete(DELETE_ACTION_STATUS, actionIds, tenant);
+                delete(DELETE_ACTIONS, actionIds, null);
+                // without the actions the distribution set could be auto assigned to the targets again
+                targetFilterQueryRepository.resetAutoAssignCheckedAt();
+                return actionIds.size();
+            }
+        }
+        for (final Number groupId : groupIds) {
+            final List<Number> targetIds = selectChunk(SELECT_ROLLOUT_TARGETS, groupId);
+            if (!targetIds.isEmpty()) {
+                final Query query = inQuery(DELETE_ROLLOUT_TARGETS, targetIds);
+                query.setParameter("rollout_group", groupId.longValue()).executeUpdate();
+                return targetIds.size();
+            }
+        }
+        return 0;
+    }
+
+    private List<Number> selectChunk(final String queryStr, final Number rolloutGroupId) {
+        @SuppressWarnings("unchecked")
+        final List<Number> ids = entityManager.createNativeQuery(queryStr)
+                .setParameter("rollout_group", rolloutGroupId.longValue())
+                .setMaxResults(Math.min(repositoryProperties.getPurgeChunkSize(), Constants.MAX_ENTRIES_IN_STATEMENT))
+                .getResultList();
+        return ids;
+    }
+
+    private void delete(final String queryStr, final List<Number> ids, final String tenant) {
+        final Query query = inQuery(queryStr, ids);
+        if (tenant != null) {
+            query.setParameter("tenant", tenant);
+        }
+        query.executeUpdate();
+    }
+
+    private Query inQuery(final String queryStr, final List<Number> ids) {
+        final Query query = entityManager.createNativeQuery(String.format(queryStr,
+                IntStream.range(0, ids.size()).mapToObj(i -> "#" + i).collect(Collectors.joining(","))));
+        IntStream.range(0, ids.size()).forEach(i -> query.setParameter(String.valueOf(i), ids.get(i).longValue()));
+        return query;
+    }
+
+    private void pause() {
+        final long pause = repositoryProperties.getPurgeChunkPauseMS();
+        if (pause > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(pause);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.purge;
+
+import java.util.concurrent.locks.Lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.hawkbit.repository.SystemManagement;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.springframework.integration.support.locks.LockRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Scheduler to run the {@link PurgeEngine} for each tenant. The delay between the runs can be configured using
+ * the property from {#PROP_SCHEDULER_DELAY_PLACEHOLDER}.
+ */
+@Slf4j
+public class PurgeScheduler {
+
+    private static final String PURGE = "purge";
+    private static final String SEP = ".";
+    private static final String PROP_SCHEDULER_DELAY_PLACEHOLDER = "${hawkbit.purge.scheduler.fixedDelay:10000}";
+
+    private final SystemManagement systemManagement;
+    private final SystemSecurityContext systemSecurityContext;
+    private final LockRegistry lockRegistry;
+    private final PurgeEngine purgeEngine;
+
+    /**
+     * Constructor.
+     *
+     * @param systemManagement to find all tenants
+     * @param systemSecurityContext to run as system
+     * @param lockRegistry to lock the tenant for the purge
+     * @param purgeEngine to run the purge
+     */
+    public PurgeScheduler(final SystemManagement systemManagement, final SystemSecurityContext systemSecurityContext,
+            final LockRegistry lockRegistry, final PurgeEngine purgeEngine) {
+        this.systemManagement = systemManagement;
+        this.systemSecurityContext = systemSecurityContext;
+        this.lockRegistry = lockRegistry;
+        this.purgeEngine = purgeEngine;
+    }
+
+    /**
+     * Scheduler method called by the spring-async mechanism. Runs the {@link PurgeEngine#purge()} for each tenant
+     * in the {@link SystemSecurityContext}.
+     */
+    @Scheduled(initialDelayString = PROP_SCHEDULER_DELAY_PLACEHOLDER, fixedDelayString = PROP_SCHEDULER_DELAY_PLACEHOLDER)
+    public void run() {
+        log.debug("Purge scheduler has been triggered.");
+        systemSecurityContext.runAsSystem(() -> {
+            systemManagement.forEachTenant(tenant -> {
+                final Lock lock = lockRegistry.obtain(PURGE + SEP + tenant);
+                if (!lock.tryLock()) {
+                    return;
+                }
+                try {
+                    purgeEngine.purge();
+                } catch (final RuntimeException e) {
+                    log.error("Purge of tenant {} failed.", tenant, e);
+                } finally {
+                    lock.unlock();
+                }
+            });
+            return null;
+        });
+    }
+}
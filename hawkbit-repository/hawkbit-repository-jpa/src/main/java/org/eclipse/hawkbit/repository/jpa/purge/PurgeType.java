@@ -0,0 +1,23 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.purge;
+
+/**
+ * The types of entities which could be marked as pending purge, i.e. which are already deleted from the user
+ * point of view while their dependent rows are removed in the background by the {@link PurgeEngine}.
+ */
+public enum PurgeType {
+
+    /**
+     * A deleted rollout. Its actions (with their status entries and messages) and target group assignments are
+     * purged group by group, the rollout itself last.
+     */
+    ROLLOUT
+}
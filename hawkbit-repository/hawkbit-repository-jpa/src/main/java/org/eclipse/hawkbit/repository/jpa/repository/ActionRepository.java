@@ -75,6 +75,21 @@ public interface ActionRepository extends BaseEntityRepository<JpaAction> {
     void switchStatus(@Param("statusToSet") Action.Status statusToSet, @Param("targetsIds") List<Long> targetIds,
             @Param("active") boolean active, @Param("currentStatus") Action.Status currentStatus);
 
+    /**
+     * Retrieves the IDs of the rollout groups of the actions which are affected by
+     * {@link #switchStatus(Status, List, boolean, Status)}.
+     * <p/>
+     * No access control applied
+     *
+     * @param targetIds the IDs of the targets of the actions
+     * @param active the active flag of the actions
+     * @param currentStatus the current status of the actions
+     * @return the IDs of the rollout groups
+     */
+    @Query("SELECT DISTINCT a.rolloutGroup.id FROM JpaAction a WHERE a.target.id IN :targetsIds AND a.active = :active AND a.status = :currentStatus AND a.rolloutGroup IS NOT NULL")
+    List<Long> findRolloutGroupIdsByTargetIdsAndActiveAndStatus(@Param("targetsIds") List<Long> targetIds,
+            @Param("active") boolean active, @Param("currentStatus") Action.Status currentStatus);
+
     /**
      * Retrieves an {@link Action} that matches the queried externalRef.
      *
@@ -216,39 +231,104 @@ public interface ActionRepository extends BaseEntityRepository<JpaAction> {
     boolean existsByRolloutIdAndStatusNotIn(@Param("rolloutId") Long rolloutId, @Param("status") Status status);
 
     /**
-     * Retrieving all actions referring to a given rollout with a specific action as
-     * parent reference and a specific status.
-     * <p/>
-     * Finding all actions of a specific rolloutgroup parent relation.
+     * Retrieves the IDs of the actions of a specific rollout referring a specific
+     * parent rolloutgroup in a specific status. The IDs are returned as plain list,
+     * i.e. without counting all the matching actions.
      * <p/>
      * No access control applied
      *
-     * @param pageable page parameters
      * @param rollout the rollout the actions belong to
      * @param rolloutGroupParent the parent rolloutgroup the actions should reference
      * @param actionStatus the status the actions have
-     * @return the actions referring a specific rollout and a specific parent
-     *         rolloutgroup in a specific status
+     * @param pageable page parameters
+     * @return the IDs of the actions
      */
-    @EntityGraph(attributePaths = { "target", "target.autoConfirmationStatus", "rolloutGroup" }, type = EntityGraphType.LOAD)
-    Page<Action> findByRolloutIdAndRolloutGroupParentIdAndStatus(Pageable pageable, Long rollout,
-            Long rolloutGroupParent, Status actionStatus);
+    @Query("SELECT a.id FROM JpaAction a WHERE a.rollout.id = :rollout AND a.rolloutGroup.parent.id = :rolloutGroupParent AND a.status = :status ORDER BY a.id")
+    List<Long> findIdsByRolloutIdAndRolloutGroupParentIdAndStatus(@Param("rollout") long rollout,
+            @Param("rolloutGroupParent") long rolloutGroupParent, @Param("status") Status actionStatus,
+            Pageable pageable);
 
     /**
-     * Retrieving all actions referring to the first group of a rollout.
+     * Retrieves the IDs of the actions of the first group of a rollout in a specific
+     * status. The IDs are returned as plain list, i.e. without counting all the
+     * matching actions.
      * <p/>
      * No access control applied
      *
-     * @param pageable page parameters
      * @param rollout the rollout the actions belong to
      * @param actionStatus the status the actions have
-     * @return the actions referring a specific rollout and a specific parent
-     *         rolloutgroup in a specific status
+     * @param pageable page parameters
+     * @return the IDs of the actions
+     */
+    @Query("SELECT a.id FROM JpaAction a WHERE a.rollout.id = :rollout AND a.rolloutGroup.parent IS NULL AND a.status = :status ORDER BY a.id")
+    List<Long> findIdsByRolloutIdAndRolloutGroupParentIsNullAndStatus(@Param("rollout") long rollout,
+            @Param("status") Status actionStatus, Pageable pageable);
+
+    /**
+     * Retrieves the IDs of those of the given actions which distribution set is
+     * already assigned to their target.
+     * <p/>
+     * No access control applied
+     *
+     * @param actionIds the IDs of the actions
+     * @return the IDs of the actions
+     */
+    @Query("SELECT a.id FROM JpaAction a WHERE a.id IN :actionIds AND a.target.assignedDistributionSet = a.distributionSet")
+    List<Long> findIdsByIdInAndDistributionSetAssignedToTarget(@Param("actionIds") Collection<Long> actionIds);
+
+    /**
+     * Retrieves the IDs of those of the given actions which have to be confirmed
+     * before they are started, i.e. their rollout group requires a confirmation
+     * and their target has no auto confirmation active.
+     * <p/>
+     * No access control applied
+     *
+     * @param actionIds the IDs of the actions
+     * @return the IDs of the actions
+     */
+    @Query("SELECT a.id FROM JpaAction a JOIN a.target t LEFT JOIN t.autoConfirmationStatus c WHERE a.id IN :actionIds AND a.rolloutGroup.confirmationRequired = true AND c IS NULL")
+    List<Long> findIdsByIdInAndConfirmationRequired(@Param("actionIds") Collection<Long> actionIds);
+
+    /**
+     * Retrieves the IDs of the targets of the given actions.
+     * <p/>
+     * No access control applied
+     *
+     * @param actionIds the IDs of the actions
+     * @return the IDs of the targets
      */
-    @EntityGraph(attributePaths = { "target", "target.autoConfirmationStatus",
-            "rolloutGroup" }, type = EntityGraphType.LOAD)
-    Page<Action> findByRolloutIdAndRolloutGroupParentIsNullAndStatus(Pageable pageable, Long rollout,
-            Status actionStatus);
+    @Query("SELECT a.target.id FROM JpaAction a WHERE a.id IN :actionIds")
+    List<Long> findTargetIdsByIdIn(@Param("actionIds") Collection<Long> actionIds);
+
+    /**
+     * Retrieves the given actions together with their targets and rollout
+     * groups.
+     * <p/>
+     * No access control applied
+     *
+     * @param actionIds the IDs of the actions
+     * @return the actions
+     */
+    @EntityGraph(attributePaths = { "target", "target.autoConfirmationStatus", "rolloutGroup" }, type = EntityGraphType.LOAD)
+    List<JpaAction> findByIdIn(Collection<Long> actionIds);
+
+    /**
+     * Switches the status and the active flag of the given actions.
+     * <p/>
+     * No access control applied
+     *
+     * @param status the status to be set
+     * @param active the active flag to be set
+     * @param lastModifiedAt the modification timestamp
+     * @param lastModifiedBy the modifying user
+     * @param actionIds the IDs of the actions
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE JpaAction a SET a.status = :status, a.active = :active, a.lastModifiedAt = :lastModifiedAt, a.lastModifiedBy = :lastModifiedBy WHERE a.id IN :actionIds")
+    void setStatusAndActive(@Param("status") Status status, @Param("active") boolean active,
+            @Param("lastModifiedAt") long lastModifiedAt, @Param("lastModifiedBy") String lastModifiedBy,
+            @Param("actionIds") Collection<Long> actionIds);
 
     /**
      * Retrieves all actions for a specific rollout and in a specific status.
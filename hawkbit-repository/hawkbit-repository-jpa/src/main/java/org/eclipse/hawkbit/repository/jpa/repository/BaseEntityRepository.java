@@ -37,7 +37,7 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional(readOnly = true)
 public interface BaseEntityRepository<T extends AbstractJpaTenantAwareBaseEntity>
         extends PagingAndSortingRepository<T, Long>, CrudRepository<T, Long>, JpaSpecificationExecutor<T>,
-        NoCountSliceRepository<T>, ACMRepository<T> {
+        NoCountSliceRepository<T>, ScrollRepository<T>, ACMRepository<T> {
 
     /**
      * Overrides
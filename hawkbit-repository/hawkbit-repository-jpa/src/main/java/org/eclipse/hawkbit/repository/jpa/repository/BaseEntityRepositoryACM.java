@@ -17,6 +17,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 import jakarta.transaction.Transactional;
@@ -213,6 +214,12 @@ public class BaseEntityRepositoryACM<T extends AbstractJpaTenantAwareBaseEntity>
                 accessController.appendAccessRules(AccessController.Operation.READ, spec), pageable);
     }
 
+    @Override
+    public void scroll(final Specification<T> spec, final Sort sort, final int chunkSize, final Consumer<List<T>> chunkConsumer) {
+        repository.scroll(
+                accessController.appendAccessRules(AccessController.Operation.READ, spec), sort, chunkSize, chunkConsumer);
+    }
+
     @Override
     @Transactional
     @NonNull
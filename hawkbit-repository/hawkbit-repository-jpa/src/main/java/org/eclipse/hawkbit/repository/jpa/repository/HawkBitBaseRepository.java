@@ -10,19 +10,31 @@
 package org.eclipse.hawkbit.repository.jpa.repository;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.transaction.Transactional;
 
 import org.eclipse.hawkbit.repository.BaseRepositoryTypeProvider;
+import org.eclipse.hawkbit.repository.KeysetPageRequest;
 import org.eclipse.hawkbit.repository.jpa.acm.AccessController;
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.QueryHints;
+import org.eclipse.persistence.config.ResultSetConcurrency;
+import org.eclipse.persistence.config.ResultSetType;
+import org.eclipse.persistence.queries.ScrollableCursor;
+import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
@@ -30,20 +42,25 @@ import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 
 /**
- * Repository implementation that allows findAll with disabled count query.
+ * Repository implementation that allows findAll with disabled count query, scrolling over all entities with a database
+ * cursor and supports keyset paging with {@link KeysetPageRequest}.
  *
  * @param <T> the domain type the repository manages
  * @param <ID> the type of the id of the entity the repository manages
  */
 public class HawkBitBaseRepository<T, ID extends Serializable> extends SimpleJpaRepository<T, ID>
-        implements NoCountSliceRepository<T>, ACMRepository<T> {
+        implements NoCountSliceRepository<T>, ScrollRepository<T>, ACMRepository<T> {
+
+    private final EntityManager entityManager;
 
     public HawkBitBaseRepository(final Class<T> domainClass, final EntityManager em) {
         super(domainClass, em);
+        this.entityManager = em;
     }
 
     public HawkBitBaseRepository(final JpaEntityInformation<T, ?> entityInformation, final EntityManager entityManager) {
         super(entityInformation, entityManager);
+        this.entityManager = entityManager;
     }
 
     @Override
@@ -57,6 +74,37 @@ public class HawkBitBaseRepository<T, ID extends Serializable> extends SimpleJpa
         return pageable.isUnpaged() ? new PageImpl<>(query.getResultList()) : readPageWithoutCount(query, pageable);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public void scroll(
+            @Nullable final Specification<T> spec, final Sort sort, final int chunkSize, final Consumer<List<T>> chunkConsumer) {
+        final TypedQuery<T> query = getQuery(spec, sort);
+        // forward only, read only cursor so the JDBC driver could stream the rows instead of buffering the result set
+        query.setHint(QueryHints.SCROLLABLE_CURSOR, HintValues.TRUE);
+        query.setHint(QueryHints.RESULT_SET_TYPE, ResultSetType.ForwardOnly);
+        query.setHint(QueryHints.RESULT_SET_CONCURRENCY, ResultSetConcurrency.ReadOnly);
+        query.setHint(QueryHints.JDBC_FETCH_SIZE, chunkSize);
+
+        final ScrollableCursor cursor = (ScrollableCursor) ((TypedQuery<?>) query).getSingleResult();
+        try {
+            final List<T> chunk = new ArrayList<>(chunkSize);
+            while (cursor.hasNext()) {
+                chunk.add((T) cursor.next());
+                if (chunk.size() == chunkSize) {
+                    chunkConsumer.accept(chunk);
+                    chunk.clear();
+                    cursor.clear();
+                    entityManager.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                chunkConsumer.accept(chunk);
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
     @Override
     @Transactional
     @NonNull
@@ -111,6 +159,55 @@ public class HawkBitBaseRepository<T, ID extends Serializable> extends SimpleJpa
         return getClass().getSimpleName() + '<' + getDomainClass().getSimpleName() + '>';
     }
 
+    @Override
+    @NonNull
+    protected TypedQuery<T> getQuery(@Nullable final Specification<T> spec, @NonNull final Pageable pageable) {
+        if (pageable instanceof KeysetPageRequest keysetPageRequest && !keysetPageRequest.isFirst()) {
+            return super.getQuery(Specification.where(spec).and(after(keysetPageRequest)), pageable);
+        }
+        return super.getQuery(spec, pageable);
+    }
+
+    @Override
+    @NonNull
+    protected <S extends T> Page<S> readPage(
+            @NonNull final TypedQuery<S> query, @NonNull final Class<S> domainClass, @NonNull final Pageable pageable,
+            @Nullable final Specification<S> spec) {
+        if (pageable instanceof KeysetPageRequest) {
+            // the page is always read from the start of the (keyset restricted) query, so the total count could
+            // not be derived from the content and has to be counted with the original specification
+            query.setFirstResult(0);
+            query.setMaxResults(pageable.getPageSize());
+            final List<S> content = query.getResultList();
+            final long total = getCountQuery(spec, domainClass).getResultList().stream()
+                    .mapToLong(count -> count == null ? 0 : count).sum();
+            return new PageImpl<>(content, pageable, total);
+        }
+        return super.readPage(query, domainClass, pageable, spec);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <S> Specification<S> after(final KeysetPageRequest pageRequest) {
+        return (root, query, cb) -> {
+            final boolean ascending = pageRequest.getOrder().isAscending();
+            final Path<Long> idPath = root.get(KeysetPageRequest.ID);
+            final Predicate afterId = ascending
+                    ? cb.greaterThan(idPath, pageRequest.getAfterId())
+                    : cb.lessThan(idPath, pageRequest.getAfterId());
+            final String property = pageRequest.getOrder().getProperty();
+            if (KeysetPageRequest.ID.equals(property)) {
+                return afterId;
+            }
+
+            final Path<Comparable> keyPath = root.get(property);
+            final Comparable afterValue = (Comparable) DefaultConversionService.getSharedInstance()
+                    .convert(pageRequest.getAfterValue(), keyPath.getJavaType());
+            return cb.or(
+                    ascending ? cb.greaterThan(keyPath, afterValue) : cb.lessThan(keyPath, afterValue),
+                    cb.and(cb.equal(keyPath, afterValue), afterId));
+        };
+    }
+
     private <S extends T> Page<S> readPageWithoutCount(final TypedQuery<S> query, final Pageable pageable) {
         query.setFirstResult((int) pageable.getOffset());
         query.setMaxResults(pageable.getPageSize());
@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.repository;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
+
+/**
+ * Repository interface that offers reading of (potentially) all entities with constant memory consumption.
+ *
+ * @param <T> entity type
+ */
+public interface ScrollRepository<T> {
+
+    /**
+     * Reads all entities matching the spec with a single forward only database cursor and passes them in chunks to
+     * the consumer. After each chunk the persistence context is cleared, so the entities of the chunk are detached
+     * and could be garbage collected. Hence, this method must not be called within a transaction with pending changes.
+     * The chunk list is reused, so the consumer must not keep a reference to it.
+     *
+     * @param spec to search for, <code>null</code> for all entities
+     * @param sort the order in which the entities are read
+     * @param chunkSize the size of the chunks, used as JDBC fetch size as well
+     * @param chunkConsumer consumer of the chunks
+     */
+    void scroll(@Nullable Specification<T> spec, Sort sort, int chunkSize, Consumer<List<T>> chunkConsumer);
+}
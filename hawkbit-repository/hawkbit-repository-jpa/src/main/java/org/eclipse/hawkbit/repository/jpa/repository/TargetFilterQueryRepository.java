@@ -49,6 +49,30 @@ public interface TargetFilterQueryRepository
     @Query("update JpaTargetFilterQuery d set d.autoAssignDistributionSet = NULL, d.autoAssignActionType = NULL, d.accessControlContext = NULL where d.autoAssignDistributionSet in :ids")
     void unsetAutoAssignDistributionSetAndActionTypeAndAccessContext(@Param("ids") Long... dsIds);
 
+    /**
+     * Sets the time until which the targets are checked for the auto assignment of a target filter, if the
+     * target filter has not been modified since then.
+     * <p/>
+     * No access control applied
+     *
+     * @param id the id of the target filter
+     * @param checkedAt the time the check of the targets has been started
+     */
+    @Modifying
+    @Transactional
+    @Query("update JpaTargetFilterQuery f set f.autoAssignCheckedAt = :checkedAt where f.id = :id and f.lastModifiedAt < :checkedAt")
+    void updateAutoAssignCheckedAt(@Param("id") long id, @Param("checkedAt") long checkedAt);
+
+    /**
+     * Resets the auto assignment check time of all target filters, so all targets are checked again.
+     * <p/>
+     * No access control applied
+     */
+    @Modifying
+    @Transactional
+    @Query("update JpaTargetFilterQuery f set f.autoAssignCheckedAt = NULL where f.autoAssignCheckedAt IS NOT NULL")
+    void resetAutoAssignCheckedAt();
+
     /**
      * Counts all target filters that have a given auto assign distribution set
      * assigned.
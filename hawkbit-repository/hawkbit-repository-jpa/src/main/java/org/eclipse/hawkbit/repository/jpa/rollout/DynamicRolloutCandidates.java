@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.event.remote.entity.RemoteEntityEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Collects the ids of the targets which are created or updated (e.g. attributes or target type changed) as
+ * candidates for the running dynamic rollouts of their tenant. This way the dynamic rollout groups could be filled
+ * by matching only the candidates against the rollout filter instead of scanning all targets of the tenant.
+ * <p/>
+ * A dynamic rollout is registered with its first full scan ({@link #reset(String, long)}). Until then, or if
+ * more than {@link RepositoryProperties#getDynamicRolloutsMaxCandidates()} candidates are collected for it, a
+ * full scan is required and {@link #poll(String, long)} returns <code>null</code>.
+ */
+@Slf4j
+public class DynamicRolloutCandidates {
+
+    // marks that a full scan is required, compared by identity
+    private static final Set<Long> FULL_SCAN = Collections.unmodifiableSet(new HashSet<>());
+
+    private final RepositoryProperties repositoryProperties;
+
+    // tenant -> (rollout id -> candidate target ids)
+    private final Map<String, Map<Long, Set<Long>>> candidates = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param repositoryProperties to get the max number of collected candidates
+     */
+    public DynamicRolloutCandidates(final RepositoryProperties repositoryProperties) {
+        this.repositoryProperties = repositoryProperties;
+    }
+
+    @EventListener(classes = TargetCreatedEvent.class)
+    public void onTargetCreated(final TargetCreatedEvent event) {
+        add(event);
+    }
+
+    @EventListener(classes = TargetUpdatedEvent.class)
+    public void onTargetUpdated(final TargetUpdatedEvent event) {
+        add(event);
+    }
+
+    /**
+     * Checks if the dynamic rollout has to be checked for new targets.
+     *
+     * @param tenant the tenant of the rollout
+     * @param rolloutId the id of the rollout
+     * @return <code>true</code> if there are candidates collected for the rollout or a full scan is required
+     */
+    public boolean hasCandidates(final String tenant, final long rolloutId) {
+        final Map<Long, Set<Long>> tenantCandidates = candidates.get(key(tenant));
+        if (tenantCandidates == null) {
+            return true;
+        }
+        final Set<Long> rolloutCandidates = tenantCandidates.get(rolloutId);
+        return rolloutCandidates == null || rolloutCandidates == FULL_SCAN || !rolloutCandidates.isEmpty();
+    }
+
+    /**
+     * Returns and removes the candidates collected for the dynamic rollout.
+     *
+     * @param tenant the tenant of the rollout
+     * @param rolloutId the id of the rollout
+     * @return the candidate target ids or <code>null</code> if a full scan is required
+     */
+    public Set<Long> poll(final String tenant, final long rolloutId) {
+        final Map<Long, Set<Long>> tenantCandidates = candidates.get(key(tenant));
+        if (tenantCandidates == null) {
+            return null;
+        }
+        final AtomicReference<Set<Long>> polled = new AtomicReference<>();
+        tenantCandidates.computeIfPresent(rolloutId, (id, rolloutCandidates) -> {
+            polled.set(rolloutCandidates);
+            return ConcurrentHashMap.newKeySet();
+        });
+        return polled.get() == FULL_SCAN ? null : polled.get();
+    }
+
+    /**
+     * Gives back candidates which are polled but not processed, e.g. because the rollout group has been filled.
+     *
+     * @param tenant the tenant of the rollout
+     * @param rolloutId the id of the rollout
+     * @param targetIds the candidates to give back
+     */
+    public void offer(final String tenant, final long rolloutId, final Collection<Long> targetIds) {
+        final Map<Long, Set<Long>> tenantCandidates = candidates.get(key(tenant));
+        if (tenantCandidates != null) {
+            tenantCandidates.computeIfPresent(rolloutId, (id, rolloutCandidates) -> addAll(rolloutCandidates, targetIds));
+        }
+    }
+
+    /**
+     * Registers the dynamic rollout and clears its candidates. Has to be called before a full scan, since it
+     * covers all candidates collected so far.
+     *
+     * @param tenant the tenant of the rollout
+     * @param rolloutId the id of the rollout
+     */
+    public void reset(final String tenant, final long rolloutId) {
+        candidates.computeIfAbsent(key(tenant), t -> new ConcurrentHashMap<>())
+                .put(rolloutId, ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * Unregisters the rollout, e.g. when it is stopped or deleted.
+     *
+     * @param tenant the tenant of the rollout
+     * @param rolloutId the id of the rollout
+     */
+    public void remove(final String tenant, final long rolloutId) {
+        final Map<Long, Set<Long>> tenantCandidates = candidates.get(key(tenant));
+        if (tenantCandidates != null) {
+            tenantCandidates.remove(rolloutId);
+        }
+    }
+
+    private void add(final RemoteEntityEvent<?> event) {
+        final Map<Long, Set<Long>> tenantCandidates = candidates.get(key(event.getTenant()));
+        if (tenantCandidates == null || event.getEntityId() == null) {
+            return;
+        }
+        final Set<Long> targetIds = Set.of(event.getEntityId());
+        tenantCandidates.replaceAll((rolloutId, rolloutCandidates) -> addAll(rolloutCandidates, targetIds));
+    }
+
+    private Set<Long> addAll(final Set<Long> rolloutCandidates, final Collection<Long> targetIds) {
+        if (rolloutCandidates == FULL_SCAN) {
+            return FULL_SCAN;
+        }
+        rolloutCandidates.addAll(targetIds);
+        if (rolloutCandidates.size() > repositoryProperties.getDynamicRolloutsMaxCandidates()) {
+            log.debug("Too many dynamic rollout candidates collected. Fall back to a full scan.");
+            return FULL_SCAN;
+        }
+        return rolloutCandidates;
+    }
+
+    private static String key(final String tenant) {
+        return tenant.toUpperCase();
+    }
+}
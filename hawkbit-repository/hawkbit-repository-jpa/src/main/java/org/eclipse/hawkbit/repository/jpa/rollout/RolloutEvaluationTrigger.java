@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.RolloutHandler;
+import org.eclipse.hawkbit.repository.event.remote.entity.ActionUpdatedEvent;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.springframework.cloud.bus.ServiceMatcher;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+
+/**
+ * Triggers the evaluation of running rollouts in reaction to {@link ActionUpdatedEvent}s of their actions. The
+ * updates are collected per rollout group and flushed, per tenant, after
+ * {@link RepositoryProperties#getRolloutEvaluationDebounceMS()}, so a burst of action updates results in one
+ * {@link RolloutHandler#handleRunning(java.util.Collection)} call for the affected rollouts.
+ * <p/>
+ * Only the updates made by this node are handled. The events received from other nodes via the bus are ignored since
+ * the node which has made the update evaluates the rollouts.
+ * <p/>
+ * The {@link RolloutScheduler} is still needed for the rollouts that are not running and as a safety net
+ * for the running ones.
+ */
+@Slf4j
+public class RolloutEvaluationTrigger {
+
+    private final RolloutHandler rolloutHandler;
+    private final SystemSecurityContext systemSecurityContext;
+    private final ScheduledExecutorService executorService;
+    private final ServiceMatcher serviceMatcher;
+    private final long debounceMS;
+
+    // tenant -> (rollout group id -> rollout id) of the groups with pending evaluation
+    private final Map<String, Map<Long, Long>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param rolloutHandler to evaluate the rollouts
+     * @param systemSecurityContext to run as system
+     * @param executorService to schedule the debounced evaluation
+     * @param serviceMatcher to recognize the events of other nodes, <code>null</code> if there is no bus
+     * @param repositoryProperties to get the debounce time
+     */
+    public RolloutEvaluationTrigger(final RolloutHandler rolloutHandler,
+            final SystemSecurityContext systemSecurityContext, final ScheduledExecutorService executorService,
+            @Nullable final ServiceMatcher serviceMatcher, final RepositoryProperties repositoryProperties) {
+        this.rolloutHandler = rolloutHandler;
+        this.systemSecurityContext = systemSecurityContext;
+        this.executorService = executorService;
+        this.serviceMatcher = serviceMatcher;
+        this.debounceMS = repositoryProperties.getRolloutEvaluationDebounceMS();
+    }
+
+    @EventListener(classes = ActionUpdatedEvent.class)
+    public void onActionUpdated(final ActionUpdatedEvent event) {
+        if (event.getRolloutId() == null || event.getRolloutGroupId() == null) {
+            return;
+        }
+        if (serviceMatcher != null && !serviceMatcher.isFromSelf(event)) {
+            // the node which has updated the action evaluates the rollout
+            return;
+        }
+
+        schedule(event.getTenant(), Map.of(event.getRolloutGroupId(), event.getRolloutId()));
+    }
+
+    private void schedule(final String tenant, final Map<Long, Long> groups) {
+        final boolean[] first = new boolean[1];
+        pending.compute(tenant, (t, tenantPending) -> {
+            if (tenantPending == null) {
+                // the first pending group of the tenant - the flush has to be scheduled
+                first[0] = true;
+                return new ConcurrentHashMap<>(groups);
+            }
+            tenantPending.putAll(groups);
+            return tenantPending;
+        });
+
+        if (first[0]) {
+            executorService.schedule(() -> flush(tenant), debounceMS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush(final String tenant) {
+        final Map<Long, Long> groups = pending.remove(tenant);
+        if (groups == null || groups.isEmpty()) {
+            return;
+        }
+
+        final Set<Long> rollouts = new HashSet<>(groups.values());
+        log.debug("Evaluate {} rollouts of tenant {} because of updates in {} rollout groups", rollouts.size(),
+                tenant, groups.size());
+        try {
+            final boolean handled = systemSecurityContext.runAsSystemAsTenant(
+                    () -> rolloutHandler.handleRunning(rollouts), tenant);
+            if (!handled) {
+                log.trace("Rollout handler of tenant {} is busy. Reschedule evaluation.", tenant);
+                schedule(tenant, groups);
+            }
+        } catch (final RuntimeException e) {
+            log.error("Failed to evaluate rollouts {} of tenant {}", rollouts, tenant, e);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.RolloutExecutionTrace;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+
+/**
+ * Instruments the execution of the rollouts. Every phase (e.g. the <code>handle*</code> methods of the executor or
+ * the units running in their own transaction) is observed as {@value #OBSERVATION_NAME} {@link Observation} with
+ * the phase and the tenant as low cardinality and the rollout id as high cardinality key values. So, if a meter
+ * handler is registered with the {@link ObservationRegistry}, timers per phase and tenant are recorded. The
+ * counts of an execution (e.g. targets assigned, actions created, events published) are added to the observation of
+ * the whole execution before it is stopped: their order of magnitude (e.g. <code>&lt;100</code>) as low cardinality
+ * key values, so the timers of the executions are tagged with them, and the exact counts as high cardinality key
+ * values with the suffix {@value #EXACT_SUFFIX}.
+ * <p/>
+ * Additionally, the trace of the last execution of every rollout is kept in memory, up to {@link #MAX_TRACES}
+ * rollouts, and could be retrieved via {@link #getLastExecutionTrace(long)}.
+ */
+@Slf4j
+public class RolloutExecutionProfiler {
+
+    public static final String OBSERVATION_NAME = "hawkbit.rollout.execution";
+    public static final String EXECUTE = "execute";
+
+    public static final String TARGETS_ASSIGNED = "targets.assigned";
+    public static final String ACTIONS_CREATED = "actions.created";
+    public static final String EVENTS_PUBLISHED = "events.published";
+
+    public static final String EXACT_SUFFIX = ".exact";
+
+    static final int MAX_TRACES = 10_000;
+
+    private final ObservationRegistry observationRegistry;
+    private final TenantAware tenantAware;
+
+    private final ThreadLocal<Recorder> current = new ThreadLocal<>();
+    // insertion ordered, the re-executed rollouts are re-inserted, so the eldest is the least recently executed
+    private final Map<Long, RolloutExecutionTrace> lastTraces = Collections.synchronizedMap(
+            new LinkedHashMap<>() {
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<Long, RolloutExecutionTrace> eldest) {
+                    return size() > MAX_TRACES;
+                }
+            });
+
+    /**
+     * Constructor.
+     *
+     * @param observationRegistry to create the observations
+     * @param tenantAware to get the current tenant
+     */
+    public RolloutExecutionProfiler(final ObservationRegistry observationRegistry, final TenantAware tenantAware) {
+        this.observationRegistry = observationRegistry;
+        this.tenantAware = tenantAware;
+    }
+
+    /**
+     * Runs and traces an execution of the rollout.
+     *
+     * @param rollout the executed rollout
+     * @param execution the execution
+     */
+    public void execute(final Rollout rollout, final Runnable execution) {
+        final Recorder recorder = new Recorder(rollout, tenantAware.getCurrentTenant());
+        final Recorder outer = current.get();
+        current.set(recorder);
+        final Observation observation = observation(EXECUTE, recorder).start();
+        String error = null;
+        final Observation.Scope scope = observation.openScope();
+        try {
+            execution.run();
+        } catch (final RuntimeException e) {
+            error = e.getClass().getName() + ": " + e.getMessage();
+            observation.error(e);
+            throw e;
+        } finally {
+            scope.close();
+            restore(outer);
+            // added before the stop, so the handlers see them
+            recorder.counts.forEach((name, count) -> observation
+                    .lowCardinalityKeyValue(KeyValue.of(name, magnitude(count)))
+                    .highCardinalityKeyValue(KeyValue.of(name + EXACT_SUFFIX, String.valueOf(count))));
+            observation.stop();
+            final RolloutExecutionTrace trace = recorder.toTrace(error);
+            synchronized (lastTraces) {
+                lastTraces.remove(rollout.getId());
+                lastTraces.put(rollout.getId(), trace);
+            }
+            log.trace("Rollout {} executed: {}", rollout.getId(), trace);
+        }
+    }
+
+    /**
+     * Runs and observes a phase of the current rollout execution. If called outside a rollout execution it just
+     * runs the phase.
+     *
+     * @param phase the name of the phase
+     * @param supplier the phase
+     * @param <T> the type of the result
+     * @return the result of the phase
+     */
+    public <T> T phase(final String phase, final Supplier<T> supplier) {
+        final Recorder recorder = current.get();
+        if (recorder == null) {
+            return supplier.get();
+        }
+
+        final int index = recorder.start(phase);
+        try {
+            return observation(phase, recorder).observe(supplier);
+        } finally {
+            recorder.stop(index);
+        }
+    }
+
+    /**
+     * Runs and observes a phase of the current rollout execution. If called outside a rollout execution it just
+     * runs the phase.
+     *
+     * @param phase the name of the phase
+     * @param runnable the phase
+     */
+    public void phase(final String phase, final Runnable runnable) {
+        phase(phase, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * Adds to a count of the current rollout execution. Ignored if called outside a rollout execution.
+     *
+     * @param name the name of the count
+     * @param delta the delta to add
+     */
+    public void count(final String name, final long delta) {
+        final Recorder recorder = current.get();
+        if (recorder != null && delta != 0) {
+            recorder.counts.merge(name, delta, Long::sum);
+        }
+    }
+
+    /**
+     * @param rolloutId the id of the rollout
+     * @return the trace of the last execution of the rollout on this node
+     */
+    public Optional<RolloutExecutionTrace> getLastExecutionTrace(final long rolloutId) {
+        return Optional.ofNullable(lastTraces.get(rolloutId));
+    }
+
+    /**
+     * Removes the trace of the rollout, e.g. when it is deleted.
+     *
+     * @param rolloutId the id of the rollout
+     */
+    public void remove(final long rolloutId) {
+        lastTraces.remove(rolloutId);
+    }
+
+    private Observation observation(final String phase, final Recorder recorder) {
+        return Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                .contextualName("rollout " + phase)
+                .lowCardinalityKeyValue(KeyValue.of("phase", phase))
+                .lowCardinalityKeyValue(KeyValue.of("tenant", recorder.tenant))
+                .highCardinalityKeyValue(KeyValue.of("rollout", String.valueOf(recorder.rolloutId)));
+    }
+
+    // bounded number of values, so it could be used as low cardinality key value
+    static String magnitude(final long count) {
+        if (count <= 0) {
+            return "0";
+        }
+        for (long bound = 10; bound <= 10_000; bound *= 10) {
+            if (count < bound) {
+                return "<" + bound;
+            }
+        }
+        return ">=10000";
+    }
+
+    private void restore(final Recorder outer) {
+        if (outer == null) {
+            current.remove();
+        } else {
+            current.set(outer);
+        }
+    }
+
+    private static class Recorder {
+
+        private final long rolloutId;
+        private final Rollout.RolloutStatus rolloutStatus;
+        private final String tenant;
+        private final long startedAt = System.currentTimeMillis();
+        private final long startedAtNanos = System.nanoTime();
+        private final List<long[]> phaseTimes = new ArrayList<>();
+        private final List<String> phaseNames = new ArrayList<>();
+        private final List<Integer> phaseDepths = new ArrayList<>();
+        private final Map<String, Long> counts = new LinkedHashMap<>();
+        private int depth;
+
+        private Recorder(final Rollout rollout, final String tenant) {
+            rolloutId = rollout.getId();
+            rolloutStatus = rollout.getStatus();
+            this.tenant = tenant;
+        }
+
+        private int start(final String phase) {
+            phaseNames.add(phase);
+            phaseDepths.add(depth++);
+            phaseTimes.add(new long[] { System.nanoTime(), -1 });
+            return phaseNames.size() - 1;
+        }
+
+        private void stop(final int index) {
+            depth--;
+            phaseTimes.get(index)[1] = System.nanoTime();
+        }
+
+        private RolloutExecutionTrace toTrace(final String error) {
+            final long now = System.nanoTime();
+            final List<RolloutExecutionTrace.Phase> phases = new ArrayList<>(phaseNames.size());
+            for (int i = 0; i < phaseNames.size(); i++) {
+                final long[] times = phaseTimes.get(i);
+                phases.add(new RolloutExecutionTrace.Phase(phaseNames.get(i), phaseDepths.get(i),
+                        toMs(times[0] - startedAtNanos), toMs((times[1] < 0 ? now : times[1]) - times[0])));
+            }
+            return new RolloutExecutionTrace(rolloutId, rolloutStatus, startedAt, toMs(now - startedAtNanos),
+                    Collections.unmodifiableList(phases), Collections.unmodifiableMap(new LinkedHashMap<>(counts)),
+                    error);
+        }
+
+        private static long toMs(final long nanos) {
+            return nanos / 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.ListUtils;
+import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
+import org.eclipse.hawkbit.repository.jpa.model.RolloutStatusCountListener;
+import org.eclipse.hawkbit.repository.jpa.utils.DeploymentHelper;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.TotalTargetCountActionStatus;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reads and recounts the action status counters of the rollout groups, maintained by the
+ * {@link RolloutStatusCountListener}. The reads touch one row per rollout group and status, independent of the
+ * number of actions.
+ * <p/>
+ * No access control applied
+ */
+@Slf4j
+@Transactional(readOnly = true)
+public class RolloutStatusCounter {
+
+    private static final String SELECT_BY_ROLLOUT = "SELECT rollout, status, SUM(action_count) FROM sp_rollout_status_count WHERE rollout IN (%s) GROUP BY rollout, status HAVING SUM(action_count) > 0";
+    private static final String SELECT_BY_ROLLOUT_GROUP = "SELECT rollout_group, status, action_count FROM sp_rollout_status_count WHERE rollout_group IN (%s) AND action_count > 0";
+    private static final String SUM_BY_ROLLOUT_GROUP_AND_STATUS = "SELECT SUM(action_count) FROM sp_rollout_status_count WHERE rollout_group = #rollout_group AND status IN (%s)";
+    private static final String SELECT_ROLLOUT_GROUPS_BY_TARGET = "SELECT DISTINCT rolloutgroup FROM sp_action WHERE target IN (%s) AND rolloutgroup IS NOT NULL";
+    private static final String SELECT_BY_ACTION = "SELECT rolloutgroup, status, COUNT(id) FROM sp_action WHERE id IN (%s) AND rolloutgroup IS NOT NULL GROUP BY rolloutgroup, status";
+    private static final String ADD = "UPDATE sp_rollout_status_count SET action_count = action_count + #delta WHERE rollout_group = #rollout_group AND status = #status";
+    // locks the counter rows, so the deltas of concurrent transactions are applied before or after the recount
+    private static final String LOCK_BY_ROLLOUT_GROUP = "UPDATE sp_rollout_status_count SET action_count = action_count WHERE rollout_group IN (%s)";
+    private static final String RECOUNT_BY_ROLLOUT_GROUP = "UPDATE sp_rollout_status_count SET action_count = (SELECT COUNT(a.id) FROM sp_action a WHERE a.rolloutgroup = sp_rollout_status_count.rollout_group AND a.status = sp_rollout_status_count.status) WHERE rollout_group IN (%s)";
+    private static final String SELECT_ROLLOUT_GROUPS_BY_ROLLOUT = "SELECT DISTINCT rollout_group FROM sp_rollout_status_count WHERE rollout = #rollout";
+    private static final String SELECT_ROLLOUT_GROUPS_BY_TENANT = "SELECT DISTINCT c.rollout_group FROM sp_rollout_status_count c WHERE c.rollout IN (SELECT r.id FROM sp_rollout r WHERE r.tenant = #tenant)";
+
+    // the number of rollout groups recounted with one statement
+    private static final int RECOUNT_CHUNK_SIZE = 20;
+
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager txManager;
+    private final TenantAware tenantAware;
+
+    /**
+     * Constructor.
+     *
+     * @param entityManager to run the native queries
+     * @param txManager to recount the rollout groups of the tenant in chunks, each in its own transaction
+     * @param tenantAware to get the current tenant
+     */
+    public RolloutStatusCounter(final EntityManager entityManager, final PlatformTransactionManager txManager,
+            final TenantAware tenantAware) {
+        this.entityManager = entityManager;
+        this.txManager = txManager;
+        this.tenantAware = tenantAware;
+    }
+
+    /**
+     * Get the count of the actions per status for each of the given rollouts. Statuses without actions are
+     * skipped.
+     *
+     * @param rolloutIds the ids of the rollouts
+     * @return the status counts with the rollout id as {@link TotalTargetCountActionStatus#getId()}
+     */
+    public List<TotalTargetCountActionStatus> getStatusCountByRolloutId(final Collection<Long> rolloutIds) {
+        return select(SELECT_BY_ROLLOUT, rolloutIds);
+    }
+
+    /**
+     * Get the count of the actions per status for each of the given rollout groups. Statuses without actions
+     * are skipped.
+     *
+     * @param rolloutGroupIds the ids of the rollout groups
+     * @return the status counts with the rollout group id as {@link TotalTargetCountActionStatus#getId()}
+     */
+    public List<TotalTargetCountActionStatus> getStatusCountByRolloutGroupId(final Collection<Long> rolloutGroupIds) {
+        return select(SELECT_BY_ROLLOUT_GROUP, rolloutGroupIds);
+    }
+
+    /**
+     * Get the count of the actions of a rollout group in one of the given statuses.
+     *
+     * @param rolloutGroupId the id of the rollout group
+     * @param statuses the statuses to count the actions for
+     * @return the number of actions
+     */
+    public long countByRolloutGroupIdAndStatus(final long rolloutGroupId, final Collection<Status> statuses) {
+        if (statuses.isEmpty()) {
+            return 0;
+        }
+
+        final List<Status> statusList = new ArrayList<>(statuses);
+        final Query query = entityManager
+                .createNativeQuery(String.format(SUM_BY_ROLLOUT_GROUP_AND_STATUS, inClause(statusList.size())));
+        IntStream.range(0, statusList.size())
+                .forEach(i -> query.setParameter(String.valueOf(i), statusList.get(i).ordinal()));
+        query.setParameter("rollout_group", rolloutGroupId);
+        final Number count = (Number) query.getSingleResult();
+        return count == null ? 0 : count.longValue();
+    }
+
+    /**
+     * Get the rollout groups the given targets have actions in, e.g. to recount them after the targets (and
+     * their actions) are deleted.
+     *
+     * @param targetIds the ids of the targets
+     * @return the ids of the rollout groups
+     */
+    public List<Long> getRolloutGroupIdsByTargetIds(final Collection<Long> targetIds) {
+        final List<Long> result = new ArrayList<>();
+        ListUtils.partition(new ArrayList<>(targetIds), Constants.MAX_ENTRIES_IN_STATEMENT).forEach(chunk -> {
+            final Query query = entityManager
+                    .createNativeQuery(String.format(SELECT_ROLLOUT_GROUPS_BY_TARGET, inClause(chunk.size())));
+            IntStream.range(0, chunk.size()).forEach(i -> query.setParameter(String.valueOf(i), chunk.get(i)));
+            @SuppressWarnings("unchecked")
+            final List<Number> rows = query.getResultList();
+            rows.forEach(row -> result.add(row.longValue()));
+        });
+        return result;
+    }
+
+    /**
+     * Recounts the counters of the given rollout groups from the actions. Has to be called after bulk changes
+     * of the actions (i.e. JPQL or native statements) which are not seen by the
+     * {@link RolloutStatusCountListener}. The counter rows are locked before the actions are counted, so the
+     * deltas of concurrent status changes are not lost.
+     *
+     * @param rolloutGroupIds the ids of the rollout groups
+     */
+    @Transactional
+    public void recount(final Collection<Long> rolloutGroupIds) {
+        ListUtils.partition(new ArrayList<>(rolloutGroupIds), RECOUNT_CHUNK_SIZE).forEach(this::recountChunk);
+    }
+
+    /**
+     * Moves the given actions in the counters from the given status to their current status, i.e. applies bulk
+     * status changes of actions which all had the same status before. Cheaper than {@link #recount(Collection)}
+     * since only the given actions are counted.
+     *
+     * @param fromStatus the status the actions had before the change
+     * @param actionIds the ids of the changed actions
+     */
+    @Transactional
+    public void move(final Status fromStatus, final Collection<Long> actionIds) {
+        ListUtils.partition(new ArrayList<>(actionIds), Constants.MAX_ENTRIES_IN_STATEMENT).forEach(chunk -> {
+            final Query query = entityManager.createNativeQuery(String.format(SELECT_BY_ACTION, inClause(chunk.size())));
+            IntStream.range(0, chunk.size()).forEach(i -> query.setParameter(String.valueOf(i), chunk.get(i)));
+            @SuppressWarnings("unchecked")
+            final List<Object[]> rows = query.getResultList();
+            rows.forEach(row -> {
+                final long rolloutGroupId = ((Number) row[0]).longValue();
+                final int status = ((Number) row[1]).intValue();
+                final long count = ((Number) row[2]).longValue();
+                if (status != fromStatus.ordinal()) {
+                    add(rolloutGroupId, fromStatus.ordinal(), -count);
+                    add(rolloutGroupId, status, count);
+                }
+            });
+        });
+    }
+
+    /**
+     * Recounts the counters of all the groups of the given rollout from the actions.
+     *
+     * @param rolloutId the id of the rollout
+     */
+    @Transactional
+    public void recountByRollout(final long rolloutId) {
+        @SuppressWarnings("unchecked")
+        final List<Number> rows = entityManager.createNativeQuery(SELECT_ROLLOUT_GROUPS_BY_ROLLOUT)
+                .setParameter("rollout", rolloutId).getResultList();
+        recount(rows.stream().map(Number::longValue).toList());
+    }
+
+    /**
+     * Recounts the counters of all the rollouts of the current tenant from the actions, in order to fix
+     * deviations caused by changes that bypass the counters (e.g. cascade deletes of actions). The rollout groups
+     * are recounted in chunks, each in its own transaction, so the counter rows are locked only for a short time.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void recountAll() {
+        final String tenant = tenantAware.getCurrentTenant().toUpperCase();
+        final List<Long> rolloutGroupIds = DeploymentHelper.runInNewTransaction(txManager,
+                "rollout-status-groups-" + tenant, status -> {
+                    @SuppressWarnings("unchecked")
+                    final List<Number> rows = entityManager.createNativeQuery(SELECT_ROLLOUT_GROUPS_BY_TENANT)
+                            .setParameter("tenant", tenant).getResultList();
+                    return rows.stream().map(Number::longValue).toList();
+                });
+        ListUtils.partition(rolloutGroupIds, RECOUNT_CHUNK_SIZE).forEach(ids -> DeploymentHelper
+                .runInNewTransaction(txManager, "rollout-status-recount-" + tenant, status -> {
+                    recountChunk(ids);
+                    return null;
+                }));
+        log.debug("Recounted rollout status counters of {} rollout groups of tenant {}", rolloutGroupIds.size(),
+                tenant);
+    }
+
+    private void recountChunk(final List<Long> rolloutGroupIds) {
+        final String in = inClause(rolloutGroupIds.size());
+        final Query lock = entityManager.createNativeQuery(String.format(LOCK_BY_ROLLOUT_GROUP, in));
+        IntStream.range(0, rolloutGroupIds.size())
+                .forEach(i -> lock.setParameter(String.valueOf(i), rolloutGroupIds.get(i)));
+        lock.executeUpdate();
+        // a separate statement, so the actions are counted after the counter rows are locked
+        final Query recount = entityManager.createNativeQuery(String.format(RECOUNT_BY_ROLLOUT_GROUP, in));
+        IntStream.range(0, rolloutGroupIds.size())
+                .forEach(i -> recount.setParameter(String.valueOf(i), rolloutGroupIds.get(i)));
+        recount.executeUpdate();
+    }
+
+    private void add(final long rolloutGroupId, final int status, final long delta) {
+        entityManager.createNativeQuery(ADD).setParameter("delta", delta).setParameter("rollout_group", rolloutGroupId)
+                .setParameter("status", status).executeUpdate();
+    }
+
+    private List<TotalTargetCountActionStatus> select(final String queryTemplate, final Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<TotalTargetCountActionStatus> result = new ArrayList<>();
+        ListUtils.partition(new ArrayList<>(ids), Constants.MAX_ENTRIES_IN_STATEMENT).forEach(chunk -> {
+            final Query query = entityManager.createNativeQuery(String.format(queryTemplate, inClause(chunk.size())));
+            IntStream.range(0, chunk.size()).forEach(i -> query.setParameter(String.valueOf(i), chunk.get(i)));
+            @SuppressWarnings("unchecked")
+            final List<Object[]> rows = query.getResultList();
+            rows.forEach(row -> result.add(new TotalTargetCountActionStatus(((Number) row[0]).longValue(),
+                    Status.values()[((Number) row[1]).intValue()], ((Number) row[2]).longValue())));
+        });
+        return result;
+    }
+
+    private static String inClause(final int count) {
+        return IntStream.range(0, count).mapToObj(i -> "#" + i).collect(Collectors.joining(","));
+    }
+}
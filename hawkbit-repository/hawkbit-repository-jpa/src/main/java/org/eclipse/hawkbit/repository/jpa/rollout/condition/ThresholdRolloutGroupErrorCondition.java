@@ -9,8 +9,10 @@
  */
 package org.eclipse.hawkbit.repository.jpa.rollout.condition;
 
+import java.util.List;
+
 import lombok.extern.slf4j.Slf4j;
-import org.eclipse.hawkbit.repository.jpa.repository.ActionRepository;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutStatusCounter;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Rollout;
 import org.eclipse.hawkbit.repository.model.RolloutGroup;
@@ -22,10 +24,10 @@ import org.eclipse.hawkbit.repository.model.RolloutGroup;
 public class ThresholdRolloutGroupErrorCondition
         implements RolloutGroupConditionEvaluator<RolloutGroup.RolloutGroupErrorCondition> {
 
-    private final ActionRepository actionRepository;
+    private final RolloutStatusCounter rolloutStatusCounter;
 
-    public ThresholdRolloutGroupErrorCondition(final ActionRepository actionRepository) {
-        this.actionRepository = actionRepository;
+    public ThresholdRolloutGroupErrorCondition(final RolloutStatusCounter rolloutStatusCounter) {
+        this.rolloutStatusCounter = rolloutStatusCounter;
     }
 
     @Override
@@ -36,8 +38,8 @@ public class ThresholdRolloutGroupErrorCondition
     @Override
     public boolean eval(final Rollout rollout, final RolloutGroup rolloutGroup, final String expression) {
         final long totalGroup = rolloutGroup.getTotalTargets();
-        final Long error = actionRepository.countByRolloutIdAndRolloutGroupIdAndStatus(rollout.getId(),
-                rolloutGroup.getId(), Action.Status.ERROR);
+        final long error = rolloutStatusCounter.countByRolloutGroupIdAndStatus(rolloutGroup.getId(),
+                List.of(Action.Status.ERROR));
         try {
             final Integer threshold = Integer.valueOf(expression);
 
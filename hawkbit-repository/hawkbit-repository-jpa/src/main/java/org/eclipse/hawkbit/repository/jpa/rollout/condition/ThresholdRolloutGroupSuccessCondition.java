@@ -9,8 +9,10 @@
  */
 package org.eclipse.hawkbit.repository.jpa.rollout.condition;
 
+import java.util.List;
+
 import lombok.extern.slf4j.Slf4j;
-import org.eclipse.hawkbit.repository.jpa.repository.ActionRepository;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutStatusCounter;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Rollout;
 import org.eclipse.hawkbit.repository.model.RolloutGroup;
@@ -23,10 +25,10 @@ import org.eclipse.hawkbit.repository.model.RolloutGroup;
 public class ThresholdRolloutGroupSuccessCondition
         implements RolloutGroupConditionEvaluator<RolloutGroup.RolloutGroupSuccessCondition> {
 
-    private final ActionRepository actionRepository;
+    private final RolloutStatusCounter rolloutStatusCounter;
 
-    public ThresholdRolloutGroupSuccessCondition(final ActionRepository actionRepository) {
-        this.actionRepository = actionRepository;
+    public ThresholdRolloutGroupSuccessCondition(final RolloutStatusCounter rolloutStatusCounter) {
+        this.rolloutStatusCounter = rolloutStatusCounter;
     }
 
     @Override
@@ -46,8 +48,8 @@ public class ThresholdRolloutGroupSuccessCondition
         final Action.Status completeActionStatus = (Action.ActionType.DOWNLOAD_ONLY == rollout.getActionType())
                 ? Action.Status.DOWNLOADED
                 : Action.Status.FINISHED;
-        final long finished = this.actionRepository.countByRolloutIdAndRolloutGroupIdAndStatus(rollout.getId(),
-                rolloutGroup.getId(), completeActionStatus);
+        final long finished = this.rolloutStatusCounter.countByRolloutGroupIdAndStatus(rolloutGroup.getId(),
+                List.of(completeActionStatus));
         try {
             final int threshold = Integer.parseInt(expression);
             // calculate threshold
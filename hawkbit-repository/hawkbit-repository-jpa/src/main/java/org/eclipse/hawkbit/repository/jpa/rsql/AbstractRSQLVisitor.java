@@ -32,6 +32,13 @@ public abstract class AbstractRSQLVisitor<A extends Enum<A> & RsqlQueryField> {
     }
 
     protected QuertPath getQuertPath(final ComparisonNode node) {
+        // the resolution depends on the selector only, so it is shared by all the visitors of the field type
+        final RsqlQueryCache.FieldPath fieldPath = RsqlQueryCache.getFieldPath(
+                rsqlQueryFieldType, node.getSelector(), () -> resolveFieldPath(node));
+        return new QuertPath(rsqlQueryFieldType.cast(fieldPath.enumValue()), fieldPath.jpaPath());
+    }
+
+    private RsqlQueryCache.FieldPath resolveFieldPath(final ComparisonNode node) {
         final int firstSeparatorIndex = node.getSelector().indexOf(RsqlQueryField.SUB_ATTRIBUTE_SEPARATOR);
         final String enumName = (firstSeparatorIndex == -1
                 ? node.getSelector()
@@ -66,7 +73,7 @@ public abstract class AbstractRSQLVisitor<A extends Enum<A> & RsqlQueryField> {
                 }
             }
 
-            return new QuertPath(enumValue, split);
+            return new RsqlQueryCache.FieldPath(enumValue, split);
         } catch (final IllegalArgumentException e) {
             throw createRSQLParameterUnsupportedException(node, e);
         }
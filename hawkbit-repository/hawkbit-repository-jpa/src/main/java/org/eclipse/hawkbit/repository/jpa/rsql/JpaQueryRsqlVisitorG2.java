@@ -109,11 +109,18 @@ public class JpaQueryRsqlVisitorG2<A extends Enum<A> & RsqlQueryField, T>
     @Override
     public List<Predicate> visit(final ComparisonNode node, final String param) {
         final QuertPath queryField = getQuertPath(node);
+        if (isElementCollectionMap(queryField.getEnumValue()) && !isNegation(node)) {
+            // e.g. attribute.hwRevision==B2 - a join of the map would multiply the rows per matching entry (and so
+            // would need a distinct), so check for a matching entry in a subquery which could use the key / value index
+            return Collections.singletonList(toExistsSubQueryPredicate(node, queryField));
+        }
+
+        return toPredicates(node, queryField, getFieldPath(root, queryField));
+    }
 
+    private List<Predicate> toPredicates(final ComparisonNode node, final QuertPath queryField, final Path<?> fieldPath) {
         final List<String> values = node.getArguments();
         final List<Object> transformedValues = new ArrayList<>();
-        final Path<?> fieldPath = getFieldPath(root, queryField);
-
         for (final String value : values) {
             transformedValues.add(convertValueIfNecessary(node, queryField.getEnumValue(), fieldPath, value));
         }
@@ -140,6 +147,16 @@ public class JpaQueryRsqlVisitorG2<A extends Enum<A> & RsqlQueryField, T>
         }
     }
 
+    // a map of basic values (element collection) in difference to a map like one-to-many relation (e.g. metadata)
+    private static boolean isElementCollectionMap(final RsqlQueryField enumField) {
+        return enumField.isMap() && enumField.getSubEntityMapTuple().isEmpty();
+    }
+
+    private static boolean isNegation(final ComparisonNode node) {
+        final String operator = node.getOperator().getSymbol();
+        return "!=".equals(operator) || "=out=".equals(operator);
+    }
+
     private static boolean isSimpleField(final String[] split, final boolean isMapKeyField) {
         return split.length == 1 || (split.length == 2 && isMapKeyField);
     }
@@ -366,6 +383,19 @@ public class JpaQueryRsqlVisitorG2<A extends Enum<A> & RsqlQueryField, T>
                         : cb.notEqual(fieldPath, transformedValue));
     }
 
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Predicate toExistsSubQueryPredicate(final ComparisonNode node, final QuertPath queryField) {
+        final Class<?> javaType = root.getJavaType();
+        final Subquery<?> subquery = query.subquery(javaType);
+        final Root subqueryRoot = subquery.from(javaType);
+        final List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(
+                root.get(queryField.getEnumValue().identifierFieldName()),
+                subqueryRoot.get(queryField.getEnumValue().identifierFieldName())));
+        predicates.addAll(toPredicates(node, queryField, getFieldPath(subqueryRoot, queryField)));
+        return cb.exists(subquery.select(subqueryRoot).where(predicates.toArray(new Predicate[0])));
+    }
+
     @SuppressWarnings({ "unchecked", "rawtypes" })
     private Predicate toNotExistsSubQueryPredicate(final QuertPath queryField, final Path<?> fieldPath,
             final Function<Expression<String>, Predicate> subQueryPredicateProvider) {
@@ -15,6 +15,7 @@ import java.util.Set;
 
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 
@@ -107,18 +108,29 @@ public final class RSQLUtility {
             final String rsql, final Class<A> fieldNameProvider) {
         final RSQLVisitor<Void, String> visitor =
                 RsqlConfigHolder.getInstance().getRsqlVisitorFactory().validationRsqlVisitor(fieldNameProvider);
-        final Node rootNode = parseRsql(rsql);
+        final Node rootNode = parseRsql(rsql, fieldNameProvider);
         rootNode.accept(visitor);
     }
 
-    private static Node parseRsql(final String rsql) {
+    /**
+     * Parses the RSQL string and validates its fields against the given field type. The parsed queries are cached, see
+     * {@link RsqlQueryCache}, so a query is parsed and validated only once.
+     */
+    static <A extends Enum<A> & RsqlQueryField> Node parseRsql(final String rsql, final Class<A> fieldNameProvider) {
+        final boolean lowerCase = RsqlConfigHolder.getInstance().isCaseInsensitiveDB() || RsqlConfigHolder.getInstance().isIgnoreCase();
+        return RsqlQueryCache.getQuery(rsql, fieldNameProvider, lowerCase, () -> {
+            final Node rootNode = parseRsql(rsql, lowerCase);
+            // resolves (and so caches) the paths of all the fields or fails if a field is not supported
+            rootNode.accept(new FieldValidationRsqlVisitor<>(fieldNameProvider));
+            return rootNode;
+        });
+    }
+
+    private static Node parseRsql(final String rsql, final boolean lowerCase) {
         log.debug("Parsing rsql string {}", rsql);
         try {
             final Set<ComparisonOperator> operators = RSQLOperators.defaultOperators();
-            return new RSQLParser(operators).parse(
-                    RsqlConfigHolder.getInstance().isCaseInsensitiveDB() || RsqlConfigHolder.getInstance().isIgnoreCase()
-                            ? rsql.toLowerCase()
-                            : rsql);
+            return new RSQLParser(operators).parse(lowerCase ? rsql.toLowerCase() : rsql);
         } catch (final IllegalArgumentException e) {
             throw new RSQLParameterSyntaxException("RSQL filter must not be null", e);
         } catch (final RSQLParserException e) {
@@ -126,6 +138,25 @@ public final class RSQLUtility {
         }
     }
 
+    /**
+     * Makes the query distinct if the root has (possibly nested) joins of to-many relations (e.g. tags or metadata),
+     * since only these could multiply the root rows. Otherwise, the query is left as it is so the database doesn't have
+     * to de-duplicate the (possibly large) result without need. To-many conditions which are put in subqueries don't
+     * join the root and hence don't need distinct.
+     *
+     * @param root the root of the query
+     * @param query the query to make distinct if needed
+     */
+    static void distinctIfToManyJoined(final Root<?> root, final CriteriaQuery<?> query) {
+        if (hasToManyJoin(root)) {
+            query.distinct(true);
+        }
+    }
+
+    private static boolean hasToManyJoin(final From<?, ?> from) {
+        return from.getJoins().stream().anyMatch(join -> join.getAttribute().isCollection() || hasToManyJoin(join));
+    }
+
     private static final class RSQLSpecification<A extends Enum<A> & RsqlQueryField, T> implements Specification<T> {
 
         @Serial
@@ -146,8 +177,7 @@ public final class RSQLUtility {
 
         @Override
         public Predicate toPredicate(final Root<T> root, final CriteriaQuery<?> query, final CriteriaBuilder cb) {
-            final Node rootNode = parseRsql(rsql);
-            query.distinct(true);
+            final Node rootNode = parseRsql(rsql, enumType);
 
             final RSQLVisitor<List<Predicate>, String> jpqQueryRSQLVisitor =
                     RsqlConfigHolder.getInstance().isLegacyRsqlVisitor() ?
@@ -162,6 +192,8 @@ public final class RSQLUtility {
                                             !RsqlConfigHolder.getInstance().isCaseInsensitiveDB() && RsqlConfigHolder.getInstance()
                                                     .isIgnoreCase());
             final List<Predicate> accept = rootNode.accept(jpqQueryRSQLVisitor);
+            distinctIfToManyJoined(root, query);
+            RsqlQueryProfiler.applied(rsql, rootNode);
 
             if (CollectionUtils.isEmpty(accept)) {
                 return cb.conjunction();
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.rsql;
+
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import cz.jirutka.rsql.parser.ast.Node;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.eclipse.hawkbit.repository.report.model.RsqlQueryReport;
+
+/**
+ * Bounded caches of the parsed and validated RSQL queries and of the JPA paths the query fields are resolved to. The
+ * same filters (e.g. of target filter queries, rollouts or UI lists) are evaluated again and again, so the parsing and
+ * the field resolution shall be done once per query and not for every {@link org.springframework.data.jpa.domain.Specification}
+ * call.
+ * <p/>
+ * The parsed nodes are immutable and the resolved paths are never modified by the visitors, so both could be shared
+ * between threads. Queries which fail to parse or to validate are not cached.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class RsqlQueryCache {
+
+    private static final int MAX_QUERIES = 1_000;
+    private static final int MAX_FIELD_PATHS = 1_000;
+
+    private static final Cache<QueryKey, Node> QUERIES = Caffeine.newBuilder()
+            .maximumSize(MAX_QUERIES).recordStats().build();
+    private static final Cache<FieldKey, FieldPath> FIELD_PATHS = Caffeine.newBuilder()
+            .maximumSize(MAX_FIELD_PATHS).recordStats().build();
+
+    /**
+     * @return the hit / miss statistics of the parsed queries
+     */
+    static RsqlQueryReport.CacheStatistics getQueryStatistics() {
+        return toReport(QUERIES);
+    }
+
+    /**
+     * @return the hit / miss statistics of the resolved field paths
+     */
+    static RsqlQueryReport.CacheStatistics getFieldPathStatistics() {
+        return toReport(FIELD_PATHS);
+    }
+
+    /**
+     * Clears the caches, e.g. if the RSQL configuration has changed.
+     */
+    public static void invalidateAll() {
+        QUERIES.invalidateAll();
+        FIELD_PATHS.invalidateAll();
+    }
+
+    static Node getQuery(final String rsql, final Class<?> fieldType, final boolean lowerCase, final Supplier<Node> parser) {
+        if (rsql == null) {
+            return parser.get();
+        }
+        return QUERIES.get(new QueryKey(rsql, fieldType, lowerCase), key -> parser.get());
+    }
+
+    static FieldPath getFieldPath(final Class<?> fieldType, final String selector, final Supplier<FieldPath> resolver) {
+        return FIELD_PATHS.get(new FieldKey(fieldType, selector), key -> resolver.get());
+    }
+
+    private static RsqlQueryReport.CacheStatistics toReport(final Cache<?, ?> cache) {
+        final CacheStats stats = cache.stats();
+        return new RsqlQueryReport.CacheStatistics(
+                stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.estimatedSize());
+    }
+
+    /**
+     * A query field resolved to its enum value and the path of the JPA entity attribute.
+     */
+    record FieldPath(Enum<?> enumValue, String[] jpaPath) {}
+
+    private record QueryKey(String rsql, Class<?> fieldType, boolean lowerCase) {}
+
+    private record FieldKey(Class<?> fieldType, String selector) {}
+}
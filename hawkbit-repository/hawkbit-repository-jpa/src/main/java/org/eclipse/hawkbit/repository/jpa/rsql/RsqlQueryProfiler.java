@@ -0,0 +1,294 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.rsql;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.Node;
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.report.model.RsqlQueryReport;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.eclipse.persistence.queries.Cursor;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.queries.ReadQuery;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.SessionEventListener;
+
+/**
+ * Instruments the execution of the RSQL filtered queries. The RSQL specifications register the applied RSQL for the
+ * current thread and the {@link #getSessionListener() session listener} (registered with the EclipseLink session)
+ * assigns it to the next read query executed by the thread. So, the execution time, the number of returned rows and
+ * the generated SQL are known per RSQL.
+ * <p/>
+ * Every execution is observed as {@value #OBSERVATION_NAME} {@link Observation} with the entity and the tenant as
+ * low cardinality and the normalized RSQL as high cardinality key values. So, if a meter handler is registered with
+ * the {@link ObservationRegistry}, timers per entity and tenant are recorded. Additionally, statistics per tenant,
+ * entity and normalized RSQL (i.e. with the values replaced by <code>?</code>), up to {@link #MAX_QUERIES}, and the
+ * most recent slow executions are kept in memory and could be retrieved via {@link #getReport()}.
+ * <p/>
+ * EclipseLink fires no event for a failed query, so a query which is still running when the repository call of the
+ * thread finishes (see {@link #repositoryCallFinished(Throwable)}) or when the thread starts the next RSQL filtered
+ * query has failed. Its observation is stopped with the error and it is counted as failure.
+ */
+@Slf4j
+public class RsqlQueryProfiler {
+
+    public static final String OBSERVATION_NAME = "hawkbit.rsql.query";
+
+    static final int MAX_QUERIES = 1_000;
+
+    // the RSQL specifications applied by the current thread to the query which is executed next
+    private static final ThreadLocal<List<Applied>> APPLIED = new ThreadLocal<>();
+    // the RSQL filtered query executed by the current thread
+    private static final ThreadLocal<Running> RUNNING = new ThreadLocal<>();
+
+    private final ObservationRegistry observationRegistry;
+    private final TenantAware tenantAware;
+    private final RepositoryProperties repositoryProperties;
+
+    private final Cache<QueryKey, Statistics> queries = Caffeine.newBuilder().maximumSize(MAX_QUERIES).build();
+    // most recent first
+    private final Deque<RsqlQueryReport.Execution> slowExecutions = new ArrayDeque<>();
+    private final SessionEventListener sessionListener = new SessionListener();
+
+    /**
+     * Constructor.
+     *
+     * @param observationRegistry to create the observations
+     * @param tenantAware to get the current tenant
+     * @param repositoryProperties to get the slow query threshold and the number of kept slow queries
+     */
+    public RsqlQueryProfiler(final ObservationRegistry observationRegistry, final TenantAware tenantAware,
+            final RepositoryProperties repositoryProperties) {
+        this.observationRegistry = observationRegistry;
+        this.tenantAware = tenantAware;
+        this.repositoryProperties = repositoryProperties;
+    }
+
+    /**
+     * @return the listener to be registered with the EclipseLink session
+     */
+    public SessionEventListener getSessionListener() {
+        return sessionListener;
+    }
+
+    /**
+     * @return the statistics of the RSQL filtered queries, the most recent slow executions and the statistics of the
+     *         RSQL caches on this node
+     */
+    public RsqlQueryReport getReport() {
+        final List<RsqlQueryReport.Query> queryReports = queries.asMap().entrySet().stream()
+                .map(entry -> entry.getValue().toReport(entry.getKey()))
+                .sorted(Comparator.comparingLong(RsqlQueryReport.Query::getTotalTimeMs).reversed())
+                .toList();
+        final List<RsqlQueryReport.Execution> slowExecutionReports;
+        synchronized (slowExecutions) {
+            slowExecutionReports = List.copyOf(slowExecutions);
+        }
+        return new RsqlQueryReport(queryReports, slowExecutionReports,
+                RsqlQueryCache.getQueryStatistics(), RsqlQueryCache.getFieldPathStatistics());
+    }
+
+    /**
+     * Registers the RSQL applied to the query which is going to be executed next by the current thread.
+     *
+     * @param rsql the RSQL
+     * @param node the parsed RSQL
+     */
+    static void applied(final String rsql, final Node node) {
+        List<Applied> applied = APPLIED.get();
+        if (applied == null) {
+            applied = new ArrayList<>(1);
+            APPLIED.set(applied);
+        }
+        applied.add(new Applied(rsql, node));
+    }
+
+    /**
+     * Called when a repository call of the current thread has finished. Clears the RSQL which has been applied but
+     * not assigned to a query (e.g. if the building of the query has failed), so it is not assigned to a query of a
+     * later call, and records the query which is still running as failed.
+     *
+     * @param error the error the call has failed with, <code>null</code> if it has succeeded
+     */
+    public static void repositoryCallFinished(final Throwable error) {
+        APPLIED.remove();
+        final Running current = RUNNING.get();
+        if (current != null) {
+            RUNNING.remove();
+            current.profiler.failed(current, error == null ? new IllegalStateException("Query returned no result") : error);
+        }
+    }
+
+    /**
+     * @param node the parsed RSQL
+     * @return the RSQL with lower case selectors and all the values replaced by <code>?</code>, so the queries which
+     *         differ only in the values are the same
+     */
+    static String normalize(final Node node) {
+        if (node instanceof LogicalNode logicalNode) {
+            return logicalNode.getChildren().stream()
+                    .map(RsqlQueryProfiler::normalize)
+                    .collect(Collectors.joining(logicalNode.getOperator().toString(), "(", ")"));
+        } else if (node instanceof ComparisonNode comparisonNode) {
+            return comparisonNode.getSelector().toLowerCase() + comparisonNode.getOperator().getSymbol()
+                    + (comparisonNode.getOperator().isMultiValue() ? "(?)" : "?");
+        } else {
+            return String.valueOf(node);
+        }
+    }
+
+    private void started(final DatabaseQuery query) {
+        final List<Applied> applied = APPLIED.get();
+        // only read queries are filtered with RSQL, e.g. the writes of a flush are not assigned to the applied RSQL
+        if (applied == null || !(query instanceof ReadQuery)) {
+            return;
+        }
+        APPLIED.remove();
+
+        final Running previous = RUNNING.get();
+        if (previous != null) {
+            previous.profiler.failed(previous, new IllegalStateException("Query replaced by the next query of the thread"));
+        }
+
+        final String tenant = tenantAware.getCurrentTenant();
+        final String entity = query.getReferenceClass() == null
+                ? query.getReferenceClassName() : query.getReferenceClass().getSimpleName();
+        final String rsql = applied.stream().map(Applied::rsql).collect(Collectors.joining(" and "));
+        final String normalizedRsql = applied.stream()
+                .map(Applied::node).map(RsqlQueryProfiler::normalize).collect(Collectors.joining(";"));
+        final Observation observation = Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                .contextualName("rsql query")
+                .lowCardinalityKeyValue(KeyValue.of("entity", String.valueOf(entity)))
+                .lowCardinalityKeyValue(KeyValue.of("tenant", String.valueOf(tenant)))
+                .highCardinalityKeyValue(KeyValue.of("rsql", normalizedRsql))
+                .start();
+        RUNNING.set(new Running(this, query, new QueryKey(tenant, entity, normalizedRsql), rsql, observation,
+                System.currentTimeMillis(), System.nanoTime()));
+    }
+
+    private void finished(final DatabaseQuery query, final Object result) {
+        final Running current = RUNNING.get();
+        if (current == null || current.query != query) {
+            return;
+        }
+        RUNNING.remove();
+
+        final long durationNanos = System.nanoTime() - current.startedAtNanos;
+        final long rows = rows(result);
+        final String sql = query.getSQLString();
+        current.observation.highCardinalityKeyValue(KeyValue.of("rows", String.valueOf(rows))).stop();
+
+        queries.get(current.key, key -> new Statistics()).add(durationNanos, rows, sql);
+        if (durationNanos >= TimeUnit.MILLISECONDS.toNanos(repositoryProperties.getRsqlSlowQueryThresholdMS())) {
+            final RsqlQueryReport.Execution execution = new RsqlQueryReport.Execution(
+                    current.key.tenant, current.key.entity, current.rsql, sql, current.startedAt,
+                    toMs(durationNanos), rows);
+            log.debug("Slow RSQL query: {}", execution);
+            synchronized (slowExecutions) {
+                slowExecutions.addFirst(execution);
+                while (slowExecutions.size() > repositoryProperties.getRsqlSlowQueriesMaxSize()) {
+                    slowExecutions.removeLast();
+                }
+            }
+        }
+    }
+
+    private void failed(final Running running, final Throwable error) {
+        log.debug("RSQL query failed: tenant {}, entity {}, RSQL {}", running.key.tenant, running.key.entity,
+                running.rsql, error);
+        running.observation.error(error).stop();
+        queries.get(running.key, key -> new Statistics()).addFailure();
+    }
+
+    private static long rows(final Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        } else if (result instanceof Cursor) {
+            // streamed, the rows are not known when the query is executed
+            return -1;
+        } else {
+            return result == null ? 0 : 1;
+        }
+    }
+
+    private static long toMs(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private record Applied(String rsql, Node node) {}
+
+    private record QueryKey(String tenant, String entity, String rsql) {}
+
+    private record Running(RsqlQueryProfiler profiler, DatabaseQuery query, QueryKey key, String rsql, Observation observation, long startedAt,
+            long startedAtNanos) {}
+
+    private static class Statistics {
+
+        private long executions;
+        private long failures;
+        private long totalTimeNanos;
+        private long maxTimeNanos;
+        private long rows;
+        private String sql;
+
+        private synchronized void add(final long durationNanos, final long rows, final String sql) {
+            executions++;
+            totalTimeNanos += durationNanos;
+            maxTimeNanos = Math.max(maxTimeNanos, durationNanos);
+            if (rows > 0) {
+                this.rows += rows;
+            }
+            this.sql = sql;
+        }
+
+        private synchronized void addFailure() {
+            failures++;
+        }
+
+        private synchronized RsqlQueryReport.Query toReport(final QueryKey key) {
+            return new RsqlQueryReport.Query(key.tenant, key.entity, key.rsql, executions, failures, toMs(totalTimeNanos),
+                    toMs(maxTimeNanos), rows, sql);
+        }
+    }
+
+    /**
+     * Assigns the applied RSQL to the next read query and records its execution. Registered as EclipseLink session
+     * event listener.
+     */
+    private class SessionListener extends SessionEventAdapter {
+
+        @Override
+        public void preExecuteQuery(final SessionEvent event) {
+            started(event.getQuery());
+        }
+
+        @Override
+        public void postExecuteQuery(final SessionEvent event) {
+            finished(event.getQuery(), event.getResult());
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.rsql;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import cz.jirutka.rsql.parser.ast.AndNode;
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.OrNode;
+import cz.jirutka.rsql.parser.ast.RSQLVisitor;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.eclipse.hawkbit.repository.TargetFields;
+import org.eclipse.hawkbit.repository.exception.RSQLParameterSyntaxException;
+import org.eclipse.hawkbit.repository.exception.RSQLParameterUnsupportedFieldException;
+import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
+import org.eclipse.hawkbit.repository.rsql.RsqlConfigHolder;
+import org.eclipse.hawkbit.repository.rsql.VirtualPropertyReplacer;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Compiles RSQL queries over the {@link TargetFields} into {@link Predicate}s on {@link TargetSnapshot}s, so a single
+ * target could be matched against many queries (e.g. the auto assignment target filters) in memory instead of with a
+ * query per filter.
+ * <p/>
+ * The predicates follow the semantics of the {@link JpaQueryRsqlVisitorG2}:
+ * <ul>
+ *     <li>the values are compared ignoring the case if the RSQL is configured to ignore the case or the database is
+ *     case-insensitive</li>
+ *     <li>'*' is a wildcard in the values of '==' and '!=', '\*' a literal '*'</li>
+ *     <li>'==' with an empty value matches <code>null</code> and empty fields, '!=' and '=out=' match <code>null</code>
+ *     fields</li>
+ *     <li>a multivalued field (e.g. tag) matches if any of its values matches, and does not match with '!=' and
+ *     '=out=' if any of its values matches the negated comparison</li>
+ *     <li>an attribute or metadata matches only if the target has its key</li>
+ * </ul>
+ * The ordering comparisons of string fields use the Java string order which may differ from the collation of the
+ * database.
+ */
+public final class TargetRsqlMatcher extends AbstractRSQLVisitor<TargetFields>
+        implements RSQLVisitor<Predicate<TargetSnapshot>, String> {
+
+    private static final char LIKE_WILDCARD = '*';
+    private static final char ESCAPE_CHAR = '\\';
+
+    private final VirtualPropertyReplacer virtualPropertyReplacer;
+    private final boolean ignoreCase;
+
+    private TargetRsqlMatcher(final VirtualPropertyReplacer virtualPropertyReplacer) {
+        super(TargetFields.class);
+        this.virtualPropertyReplacer = virtualPropertyReplacer;
+        ignoreCase = RsqlConfigHolder.getInstance().isIgnoreCase() || RsqlConfigHolder.getInstance().isCaseInsensitiveDB();
+    }
+
+    /**
+     * Compiles an RSQL query over the {@link TargetFields}. The virtual properties (e.g. ${OVERDUE_TS}) are resolved
+     * at compile time, so the returned predicate shall not be kept for long.
+     *
+     * @param rsql the RSQL query
+     * @param virtualPropertyReplacer the resolver of the virtual properties, may be <code>null</code>
+     * @return the predicate which matches the targets the query selects
+     * @throws RSQLParameterUnsupportedFieldException if a field of the query is not supported
+     * @throws RSQLParameterSyntaxException if the query syntax is wrong
+     */
+    public static Predicate<TargetSnapshot> compile(final String rsql, final VirtualPropertyReplacer virtualPropertyReplacer) {
+        return RSQLUtility.parseRsql(rsql, TargetFields.class).accept(new TargetRsqlMatcher(virtualPropertyReplacer));
+    }
+
+    @Override
+    public Predicate<TargetSnapshot> visit(final AndNode node, final String param) {
+        return acceptChildren(node).stream().reduce(Predicate::and).orElse(target -> true);
+    }
+
+    @Override
+    public Predicate<TargetSnapshot> visit(final OrNode node, final String param) {
+        return acceptChildren(node).stream().reduce(Predicate::or).orElse(target -> true);
+    }
+
+    @Override
+    public Predicate<TargetSnapshot> visit(final ComparisonNode node, final String param) {
+        final QuertPath queryField = getQuertPath(node);
+        final TargetFields field = queryField.getEnumValue();
+        final String[] jpaPath = queryField.getJpaPath();
+        final boolean simpleField = jpaPath.length == 1 || (jpaPath.length == 2 && field.isMap());
+        final Function<TargetSnapshot, Collection<?>> values = values(field, jpaPath);
+
+        final List<String> arguments = node.getArguments();
+        final String operator = node.getOperator().getSymbol();
+        final Predicate<Object> valuePredicate = switch (operator) {
+            case "==" -> equalTo(node, field, arguments.get(0));
+            case "!=" -> notEqualTo(node, field, arguments.get(0), simpleField);
+            case "=gt=" -> compareTo(arguments.get(0), result -> result > 0);
+            case "=ge=" -> compareTo(arguments.get(0), result -> result >= 0);
+            case "=lt=" -> compareTo(arguments.get(0), result -> result < 0);
+            case "=le=" -> compareTo(arguments.get(0), result -> result <= 0);
+            case "=in=" -> in(node, field, arguments);
+            case "=out=" -> simpleField ? in(node, field, arguments).negate() : null;
+            default -> throw new RSQLParameterSyntaxException(
+                    "Operator symbol {" + operator + "} is either not supported or not implemented");
+        };
+        if (valuePredicate != null) {
+            return target -> values.apply(target).stream().anyMatch(valuePredicate);
+        }
+
+        // negated comparison of a multivalued field - none of the values may match
+        final Predicate<Object> matching = "=out=".equals(operator)
+                ? in(node, field, arguments)
+                : equalTo(node, field, arguments.get(0));
+        return target -> values.apply(target).stream().noneMatch(matching);
+    }
+
+    private List<Predicate<TargetSnapshot>> acceptChildren(final LogicalNode node) {
+        return node.getChildren().stream().map(child -> child.accept(this)).toList();
+    }
+
+    // the values of the field, for a field joined in the JPA query null if the relation has no entity (left join)
+    private Function<TargetSnapshot, Collection<?>> values(final TargetFields field, final String[] jpaPath) {
+        final String subAttribute = jpaPath.length > 1 ? jpaPath[1] : null;
+        return switch (field) {
+            case ID, CONTROLLERID -> target -> Collections.singletonList(target.controllerId());
+            case NAME -> target -> Collections.singletonList(target.name());
+            case DESCRIPTION -> target -> Collections.singletonList(target.description());
+            case CREATEDAT -> target -> Collections.singletonList(target.createdAt());
+            case LASTMODIFIEDAT -> target -> Collections.singletonList(target.lastModifiedAt());
+            case UPDATESTATUS -> target -> Collections.singletonList(target.updateStatus());
+            case IPADDRESS -> target -> Collections.singletonList(target.address());
+            case LASTCONTROLLERREQUESTAT -> target -> Collections.singletonList(target.lastTargetQuery());
+            case ATTRIBUTE -> target -> mapValues(target.attributes(), subAttribute);
+            case METADATA -> target -> mapValues(target.metadata(), subAttribute);
+            case TAG -> target -> target.tags().isEmpty() ? Collections.singletonList(null) : target.tags();
+            case ASSIGNEDDS -> target -> Collections.singletonList(target.assignedDistributionSet() == null
+                    ? null
+                    : "name".equals(subAttribute) ? target.assignedDistributionSet().name() : target.assignedDistributionSet().version());
+            case INSTALLEDDS -> target -> Collections.singletonList(target.installedDistributionSet() == null
+                    ? null
+                    : "name".equals(subAttribute) ? target.installedDistributionSet().name() : target.installedDistributionSet().version());
+            case TARGETTYPE -> target -> Collections.singletonList(target.targetType() == null
+                    ? null
+                    : "key".equals(subAttribute) ? target.targetType().key() : target.targetType().name());
+        };
+    }
+
+    // the values of the entries with the key, so a target without the key doesn't match
+    private List<String> mapValues(final Map<String, String> map, final String key) {
+        return map.entrySet().stream().filter(entry -> equalsCaseWise(entry.getKey(), key)).map(Map.Entry::getValue).toList();
+    }
+
+    private Predicate<Object> equalTo(final ComparisonNode node, final TargetFields field, final String value) {
+        if (field == TargetFields.UPDATESTATUS) {
+            final TargetUpdateStatus status = toUpdateStatus(node, value);
+            return status::equals;
+        }
+        if (ObjectUtils.isEmpty(value)) {
+            return fieldValue -> fieldValue == null || "".equals(fieldValue.toString());
+        }
+        if (NumberUtils.isCreatable(value)) {
+            return fieldValue -> fieldValue != null && equalsNumber(fieldValue, value);
+        }
+        if (isPattern(value)) {
+            final Pattern pattern = toPattern(value);
+            return fieldValue -> fieldValue != null && pattern.matcher(fieldValue.toString()).matches();
+        }
+        return fieldValue -> fieldValue != null && equalsCaseWise(fieldValue.toString(), value);
+    }
+
+    // the negated comparison of a single value or null, if it has to be checked that no value of a multivalued field is equal
+    private Predicate<Object> notEqualTo(final ComparisonNode node, final TargetFields field, final String value,
+            final boolean simpleField) {
+        if (field == TargetFields.UPDATESTATUS) {
+            final TargetUpdateStatus status = toUpdateStatus(node, value);
+            return fieldValue -> !status.equals(fieldValue);
+        }
+        if (ObjectUtils.isEmpty(value)) {
+            return fieldValue -> fieldValue != null && !"".equals(fieldValue.toString());
+        }
+        if (NumberUtils.isCreatable(value)) {
+            return fieldValue -> fieldValue == null || !equalsNumber(fieldValue, value);
+        }
+        return simpleField ? equalTo(node, field, value).negate() : null;
+    }
+
+    private Predicate<Object> compareTo(final String value, final Predicate<Integer> resultPredicate) {
+        final String replacedValue = virtualPropertyReplacer == null ? value : virtualPropertyReplacer.replace(value);
+        return fieldValue -> {
+            if (fieldValue == null) {
+                return false;
+            }
+            if (fieldValue instanceof Number number) {
+                final BigDecimal decimal = toDecimal(replacedValue);
+                return decimal != null && resultPredicate.test(new BigDecimal(number.toString()).compareTo(decimal));
+            }
+            return resultPredicate.test(ignoreCase
+                    ? fieldValue.toString().compareToIgnoreCase(replacedValue)
+                    : fieldValue.toString().compareTo(replacedValue));
+        };
+    }
+
+    private Predicate<Object> in(final ComparisonNode node, final TargetFields field, final List<String> values) {
+        if (field == TargetFields.UPDATESTATUS) {
+            final Set<TargetUpdateStatus> statuses = values.stream().map(value -> toUpdateStatus(node, value))
+                    .collect(Collectors.toSet());
+            return statuses::contains;
+        }
+        return fieldValue -> fieldValue != null && values.stream().anyMatch(value -> equalsCaseWise(fieldValue.toString(), value));
+    }
+
+    private boolean equalsCaseWise(final String fieldValue, final String value) {
+        return ignoreCase ? fieldValue.equalsIgnoreCase(value) : fieldValue.equals(value);
+    }
+
+    // the pattern of the like expression the JPA visitor creates, where % and _ are literals and \ escapes
+    private Pattern toPattern(final String value) {
+        final String escapedWildcard = String.valueOf(ESCAPE_CHAR) + LIKE_WILDCARD;
+        final String escaped = value.replace("%", ESCAPE_CHAR + "%").replace("_", ESCAPE_CHAR + "_");
+        final String like = escaped.contains(escapedWildcard)
+                ? escaped.replace(escapedWildcard, "$").replace(LIKE_WILDCARD, '%').replace("$", escapedWildcard)
+                : escaped.replace(LIKE_WILDCARD, '%');
+
+        final StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < like.length(); i++) {
+            final char c = like.charAt(i);
+            if (c == ESCAPE_CHAR && i + 1 < like.length()) {
+                regex.append(Pattern.quote(String.valueOf(like.charAt(++i))));
+            } else if (c == '%') {
+                regex.append(".*");
+            } else if (c == '_') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL : Pattern.DOTALL);
+    }
+
+    private static boolean isPattern(final String value) {
+        final String escapedWildcard = String.valueOf(ESCAPE_CHAR) + LIKE_WILDCARD;
+        return (value.contains(escapedWildcard) ? value.replace(escapedWildcard, "$") : value).indexOf(LIKE_WILDCARD) != -1;
+    }
+
+    private static boolean equalsNumber(final Object fieldValue, final String value) {
+        if (fieldValue instanceof Number number) {
+            final BigDecimal decimal = toDecimal(value);
+            return decimal != null && new BigDecimal(number.toString()).compareTo(decimal) == 0;
+        }
+        return fieldValue.toString().equals(value);
+    }
+
+    private static BigDecimal toDecimal(final String value) {
+        try {
+            return new BigDecimal(value.trim());
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static TargetUpdateStatus toUpdateStatus(final ComparisonNode node, final String value) {
+        try {
+            return TargetUpdateStatus.valueOf(value.toUpperCase());
+        } catch (final IllegalArgumentException e) {
+            throw new RSQLParameterUnsupportedFieldException("field {" + node.getSelector()
+                    + "} must be one of the following values {" + Arrays.stream(TargetUpdateStatus.values())
+                    .map(v -> v.name().toLowerCase()).toList()
+                    + "}", e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.rsql;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.TargetTag;
+import org.eclipse.hawkbit.repository.model.TargetType;
+import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
+
+/**
+ * Detached copy of the fields of a target which could be used in RSQL queries (see
+ * {@link org.eclipse.hawkbit.repository.TargetFields}), so a target could be matched in memory by {@link TargetRsqlMatcher}
+ * against many queries without further database access.
+ *
+ * @param controllerId the controller id
+ * @param name the name
+ * @param description the description
+ * @param createdAt the creation time
+ * @param lastModifiedAt the last modification time
+ * @param updateStatus the update status
+ * @param address the address, <code>null</code> if not known
+ * @param lastTargetQuery the time of the last controller request, <code>null</code> if never requested
+ * @param attributes the controller attributes
+ * @param metadata the metadata as key / value map
+ * @param tags the names of the tags
+ * @param assignedDistributionSet the assigned distribution set, <code>null</code> if none
+ * @param installedDistributionSet the installed distribution set, <code>null</code> if none
+ * @param targetType the target type, <code>null</code> if none
+ */
+public record TargetSnapshot(
+        String controllerId, String name, String description, long createdAt, long lastModifiedAt,
+        TargetUpdateStatus updateStatus, String address, Long lastTargetQuery,
+        Map<String, String> attributes, Map<String, String> metadata, Set<String> tags,
+        DistributionSetRef assignedDistributionSet, DistributionSetRef installedDistributionSet, TargetTypeRef targetType) {
+
+    /**
+     * Creates the snapshot of a target. Must be called in a transaction since it loads the lazy relations.
+     *
+     * @param target the target
+     * @return the snapshot
+     */
+    public static TargetSnapshot of(final JpaTarget target) {
+        final URI address = target.getAddress();
+        return new TargetSnapshot(
+                target.getControllerId(), target.getName(), target.getDescription(), target.getCreatedAt(),
+                target.getLastModifiedAt(), target.getUpdateStatus(), address == null ? null : address.toString(),
+                target.getLastTargetQuery(),
+                target.getControllerAttributes() == null
+                        ? Collections.emptyMap()
+                        : Collections.unmodifiableMap(new HashMap<>(target.getControllerAttributes())),
+                Collections.unmodifiableMap(target.getMetadata().stream()
+                        .collect(HashMap<String, String>::new, (map, metadata) -> map.put(metadata.getKey(), metadata.getValue()), HashMap::putAll)),
+                target.getTags().stream().map(TargetTag::getName).collect(Collectors.toUnmodifiableSet()),
+                DistributionSetRef.of(target.getAssignedDistributionSet()),
+                DistributionSetRef.of(target.getInstalledDistributionSet()),
+                TargetTypeRef.of(target.getTargetType()));
+    }
+
+    /**
+     * The fields of a distribution set which could be used in the target queries.
+     *
+     * @param name the name
+     * @param version the version
+     */
+    public record DistributionSetRef(String name, String version) {
+
+        private static DistributionSetRef of(final DistributionSet distributionSet) {
+            return distributionSet == null ? null : new DistributionSetRef(distributionSet.getName(), distributionSet.getVersion());
+        }
+    }
+
+    /**
+     * The fields of a target type which could be used in the target queries.
+     *
+     * @param key the key
+     * @param name the name
+     */
+    public record TargetTypeRef(String key, String name) {
+
+        private static TargetTypeRef of(final TargetType targetType) {
+            return targetType == null ? null : new TargetTypeRef(targetType.getKey(), targetType.getName());
+        }
+    }
+}
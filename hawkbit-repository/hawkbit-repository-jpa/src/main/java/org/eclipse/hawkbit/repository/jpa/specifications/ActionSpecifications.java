@@ -9,6 +9,7 @@
  */
 package org.eclipse.hawkbit.repository.jpa.specifications;
 
+import java.util.Collection;
 import java.util.List;
 
 import jakarta.persistence.criteria.Join;
@@ -17,6 +18,8 @@ import jakarta.persistence.criteria.ListJoin;
 import jakarta.persistence.criteria.SetJoin;
 
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
+import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
+import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus_;
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction_;
 import org.eclipse.hawkbit.repository.jpa.model.JpaArtifact;
 import org.eclipse.hawkbit.repository.jpa.model.JpaArtifact_;
@@ -48,6 +51,20 @@ public final class ActionSpecifications {
         return (root, query, cb) -> cb.equal(root.get(JpaAction_.target).get(JpaTarget_.controllerId), controllerId);
     }
 
+    public static Specification<JpaActionStatus> actionStatusByActionId(final long actionId) {
+        return (root, query, cb) -> cb.equal(root.get(JpaActionStatus_.action).get(JpaAction_.id), actionId);
+    }
+
+    public static Specification<JpaAction> fetchTargetAndRollout() {
+        return (root, query, cb) -> {
+            if (!query.getResultType().isAssignableFrom(Long.class)) {
+                root.fetch(JpaAction_.target);
+                root.fetch(JpaAction_.rollout, JoinType.LEFT);
+            }
+            return cb.conjunction();
+        };
+    }
+
     public static Specification<JpaAction> byTargetIdAndIsActiveAndStatus(final Long targetId, final Action.Status status) {
         return (root, query, cb) -> cb.and(
                 cb.equal(root.get(JpaAction_.target).get(JpaTarget_.id), targetId),
@@ -96,6 +113,24 @@ public final class ActionSpecifications {
         };
     }
 
+    /**
+     * Returns the active actions of the targets with the given controller ids.
+     * Fetches action's target and distribution set.
+     *
+     * @param controllerIds controller ids
+     * @return the matching actions
+     */
+    public static Specification<JpaAction> byTargetControllerIdInAndActiveFetchTargetAndDS(
+            final Collection<String> controllerIds) {
+        return (root, query, cb) -> {
+            root.fetch(JpaAction_.target);
+            root.fetch(JpaAction_.distributionSet, JoinType.LEFT);
+            return cb.and(
+                    root.get(JpaAction_.target).get(JpaTarget_.controllerId).in(controllerIds),
+                    cb.equal(root.get(JpaAction_.active), true));
+        };
+    }
+
     public static Specification<JpaAction> byDistributionSetId(final Long distributionSetId) {
         return (root, query, cb) -> cb.equal(root.get(JpaAction_.distributionSet).get(JpaTarget_.id), distributionSetId);
     }
@@ -143,6 +143,20 @@ public final class TargetSpecifications {
         };
     }
 
+    /**
+     * {@link Specification} for fetching the {@link TargetType} of the {@link Target}s.
+     *
+     * @return the {@link Target} {@link Specification}
+     */
+    public static Specification<JpaTarget> fetchTargetType() {
+        return (targetRoot, query, cb) -> {
+            if (!query.getResultType().isAssignableFrom(Long.class)) {
+                targetRoot.fetch(JpaTarget_.targetType, JoinType.LEFT);
+            }
+            return cb.conjunction();
+        };
+    }
+
     /**
      * {@link Specification} for retrieving {@link Target}s by "equal to any
      * given {@link TargetUpdateStatus}".
@@ -195,6 +209,17 @@ public final class TargetSpecifications {
                 overdueTimestamp);
     }
 
+    /**
+     * {@link Specification} for retrieving {@link Target}s created or changed since the given time, also by the
+     * controller (see {@link JpaTarget#getChangedAt()}).
+     *
+     * @param timestamp the time in milliseconds
+     * @return the {@link Target} {@link Specification}
+     */
+    public static Specification<JpaTarget> isChangedSince(final long timestamp) {
+        return (targetRoot, query, cb) -> cb.greaterThanOrEqualTo(targetRoot.get(JpaTarget_.changedAt), timestamp);
+    }
+
     /**
      * {@link Specification} for retrieving {@link Target}s by "like
      * controllerId or like name".
@@ -0,0 +1,30 @@
+CREATE TABLE sp_rollout_status_count
+(
+    rollout_group BIGINT NOT NULL,
+    rollout BIGINT NOT NULL,
+    status INTEGER NOT NULL,
+    action_count BIGINT NOT NULL,
+    PRIMARY KEY (rollout_group, status)
+);
+
+ALTER TABLE sp_rollout_status_count ADD CONSTRAINT fk_rollout_status_count_group FOREIGN KEY (rollout_group) REFERENCES sp_rolloutgroup (id) ON DELETE CASCADE;
+CREATE INDEX sp_idx_rollout_status_count_rollout ON sp_rollout_status_count (rollout, status);
+CREATE INDEX sp_idx_action_rolloutgroup_status ON sp_action (rolloutgroup, status);
+
+INSERT INTO sp_rollout_status_count (rollout_group, rollout, status, action_count)
+    SELECT g.id, g.rollout, s.status,
+        (SELECT COUNT(a.id) FROM sp_action a WHERE a.rolloutgroup = g.id AND a.status = s.status)
+    FROM sp_rolloutgroup g CROSS JOIN (
+        SELECT 0 AS status
+        UNION ALL SELECT 1
+        UNION ALL SELECT 2
+        UNION ALL SELECT 3
+        UNION ALL SELECT 4
+        UNION ALL SELECT 5
+        UNION ALL SELECT 6
+        UNION ALL SELECT 7
+        UNION ALL SELECT 8
+        UNION ALL SELECT 9
+        UNION ALL SELECT 10
+        UNION ALL SELECT 11
+    ) s;
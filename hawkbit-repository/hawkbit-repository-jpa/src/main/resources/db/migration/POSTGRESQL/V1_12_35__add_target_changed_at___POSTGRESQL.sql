@@ -0,0 +1,3 @@
+ALTER TABLE sp_target ADD COLUMN changed_at BIGINT;
+UPDATE sp_target SET changed_at = last_modified_at;
+CREATE INDEX sp_idx_target_06 ON sp_target (tenant, changed_at);
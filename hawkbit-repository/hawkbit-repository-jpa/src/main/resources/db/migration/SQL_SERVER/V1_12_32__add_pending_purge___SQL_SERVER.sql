@@ -0,0 +1,10 @@
+CREATE TABLE sp_pending_purge
+(
+    entity_type VARCHAR(32) NOT NULL,
+    entity_id NUMERIC(19) NOT NULL,
+    tenant VARCHAR(40) NOT NULL,
+    created_at NUMERIC(19) NOT NULL,
+    PRIMARY KEY (entity_type, entity_id)
+);
+
+CREATE INDEX sp_idx_pending_purge_tenant ON sp_pending_purge (tenant, created_at);
@@ -0,0 +1 @@
+ALTER TABLE sp_target_filter_query ADD auto_assign_checked_at NUMERIC(19);
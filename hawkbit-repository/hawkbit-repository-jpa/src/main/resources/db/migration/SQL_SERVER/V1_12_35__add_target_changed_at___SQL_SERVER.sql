@@ -0,0 +1,3 @@
+ALTER TABLE sp_target ADD changed_at NUMERIC(19);
+UPDATE sp_target SET changed_at = last_modified_at;
+CREATE INDEX sp_idx_target_06 ON sp_target (tenant, changed_at);
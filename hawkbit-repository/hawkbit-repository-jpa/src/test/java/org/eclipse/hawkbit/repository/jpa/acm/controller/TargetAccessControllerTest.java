@@ -295,6 +295,30 @@ class TargetAccessControllerTest extends AbstractAccessControllerTest {
                 Action.ActionType.FORCED).getAssigned()).isEqualTo(1);
     }
 
+    @Test
+    @Description("Verifies that only the active actions of readable targets are returned")
+    void verifyActiveActionsOfReadableTargets() {
+        permitAllOperations(AccessController.Operation.READ);
+        permitAllOperations(AccessController.Operation.CREATE);
+        permitAllOperations(AccessController.Operation.UPDATE);
+        final DistributionSet ds = testdataFactory.createDistributionSet("myDs");
+        final Target permittedTarget = targetManagement
+                .create(entityFactory.target().create().controllerId("device01").status(TargetUpdateStatus.REGISTERED));
+        final Target hiddenTarget = targetManagement
+                .create(entityFactory.target().create().controllerId("device02").status(TargetUpdateStatus.REGISTERED));
+        assignDistributionSet(ds.getId(),
+                Arrays.asList(permittedTarget.getControllerId(), hiddenTarget.getControllerId()),
+                Action.ActionType.FORCED);
+        // entities created - reset rules
+        testAccessControlManger.deleteAllRules();
+
+        defineAccess(AccessController.Operation.READ, permittedTarget);
+
+        assertThat(deploymentManagement.findActiveActionsWithHighestWeight(
+                Arrays.asList(permittedTarget.getControllerId(), hiddenTarget.getControllerId()), 1))
+                .containsOnlyKeys(permittedTarget.getControllerId());
+    }
+
     @Test
     @Description("Verifies only manageable targets are part of the rollout")
     void verifyRolloutTargetScope() {
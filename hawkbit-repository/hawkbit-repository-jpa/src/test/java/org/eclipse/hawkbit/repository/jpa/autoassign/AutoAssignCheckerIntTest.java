@@ -11,11 +11,13 @@ package org.eclipse.hawkbit.repository.jpa.autoassign;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions.CONTROLLER_ROLE_ANONYMOUS;
 
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -24,9 +26,12 @@ import io.qameta.allure.Description;
 import io.qameta.allure.Feature;
 import io.qameta.allure.Step;
 import io.qameta.allure.Story;
+import org.eclipse.hawkbit.im.authentication.SpPermission;
 import org.eclipse.hawkbit.repository.DeploymentManagement;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.exception.IncompleteDistributionSetException;
 import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
+import org.eclipse.hawkbit.repository.jpa.repository.TargetFilterQueryRepository;
 import org.eclipse.hawkbit.repository.jpa.specifications.ActionSpecifications;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.ActionType;
@@ -36,8 +41,13 @@ import org.eclipse.hawkbit.repository.model.DistributionSetAssignmentResult;
 import org.eclipse.hawkbit.repository.model.DistributionSetType;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetFilterQuery;
+import org.eclipse.hawkbit.repository.model.TargetTag;
 import org.eclipse.hawkbit.repository.model.TargetType;
+import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
+import org.eclipse.hawkbit.repository.test.util.SecurityContextSwitch;
 import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationProperties.TenantConfigurationKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -59,6 +69,25 @@ class AutoAssignCheckerIntTest extends AbstractJpaIntegrationTest {
     private AutoAssignChecker autoAssignChecker;
     @Autowired
     private DeploymentManagement deploymentManagement;
+    @Autowired
+    private TargetFilterQueryRepository targetFilterQueryRepository;
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
+    private long autoAssignFullScanPeriodMS;
+    private long autoAssignCheckOverlapMS;
+
+    @BeforeEach
+    void saveRepositoryProperties() {
+        autoAssignFullScanPeriodMS = repositoryProperties.getAutoAssignFullScanPeriodMS();
+        autoAssignCheckOverlapMS = repositoryProperties.getAutoAssignCheckOverlapMS();
+    }
+
+    @AfterEach
+    void restoreRepositoryProperties() {
+        repositoryProperties.setAutoAssignFullScanPeriodMS(autoAssignFullScanPeriodMS);
+        repositoryProperties.setAutoAssignCheckOverlapMS(autoAssignCheckOverlapMS);
+    }
 
     @Test
     @Description("Verifies that a running action is auto canceled by a AutoAssignment which assigns another distribution-set.")
@@ -180,6 +209,37 @@ class AutoAssignCheckerIntTest extends AbstractJpaIntegrationTest {
         verifyThatTargetsNotHaveDistributionSetAssignment(toAssignDs, targets.subList(1, 25));
     }
 
+    @Test
+    @Description("Test auto assignment for a specific device by a filter which matches only after the assignment of another filter")
+    void checkAutoAssignmentForDeviceByFilterDependingOnPreviousAssignment() {
+        final DistributionSet firstDs = testdataFactory.createDistributionSet("first");
+        final DistributionSet secondDs = testdataFactory.createDistributionSet("second");
+
+        // the first filter matches the target, the second one only targets the first filter has been assigned to
+        targetFilterQueryManagement.updateAutoAssignDS(entityFactory.targetFilterQuery()
+                .updateAutoAssign(targetFilterQueryManagement
+                        .create(entityFactory.targetFilterQuery().create().name("filterA").query("name==*")).getId())
+                .ds(firstDs.getId()));
+        targetFilterQueryManagement.updateAutoAssignDS(entityFactory.targetFilterQuery()
+                .updateAutoAssign(targetFilterQueryManagement
+                        .create(entityFactory.targetFilterQuery().create().name("filterB")
+                                .query("assignedds.name==" + firstDs.getName())).getId())
+                .ds(secondDs.getId()));
+        implicitLock(firstDs);
+        implicitLock(secondDs);
+
+        final List<Target> targets = testdataFactory.createTargets(2);
+
+        // Run the check
+        autoAssignChecker.checkSingleTarget(targets.get(0).getControllerId());
+
+        assertThat(deploymentManagement.findActionsByTarget(targets.get(0).getControllerId(), PAGE).getContent())
+                .extracting(action -> action.getDistributionSet().getId())
+                .containsExactlyInAnyOrder(firstDs.getId(), secondDs.getId());
+        verifyThatTargetsHaveDistributionSetAssignment(secondDs, targets.subList(0, 1), targets.size());
+        verifyThatTargetsNotHaveDistributionSetAssignment(firstDs, targets.subList(1, 2));
+    }
+
     @ParameterizedTest
     @MethodSource("confirmationOptions")
     @Description("Test auto assignment of a DS to filtered targets with different confirmation options")
@@ -400,6 +460,139 @@ class AutoAssignCheckerIntTest extends AbstractJpaIntegrationTest {
         assertThat(actionTargets).containsExactlyInAnyOrderElementsOf(compatibleTargets);
     }
 
+    @Test
+    @Description("Verifies that all targets are checked on every check by default")
+    void checkAllTargetsByDefault() {
+        final DistributionSet ds = testdataFactory.createDistributionSet();
+        final TargetFilterQuery filter = targetFilterQueryManagement.create(entityFactory.targetFilterQuery()
+                .create().name("default").query("name==*").autoAssignDistributionSet(ds));
+        implicitLock(ds);
+        autoAssignChecker.checkAllTargets();
+
+        // the targets are checked even if they have been checked in the future
+        targetFilterQueryRepository.updateAutoAssignCheckedAt(filter.getId(), System.currentTimeMillis() + 3_600_000);
+        final List<Target> targets = testdataFactory.createTargets(5, "default");
+        autoAssignChecker.checkAllTargets();
+        verifyThatTargetsHaveDistributionSetAssignment(ds, targets, 5);
+    }
+
+    @Test
+    @Description("Verifies that after a check only the created or modified targets are checked, until the query of the target filter changes")
+    void checkOnlyModifiedTargetsUntilQueryChanges() {
+        enableIncrementalCheck();
+        final DistributionSet ds = testdataFactory.createDistributionSet();
+        final TargetFilterQuery filter = targetFilterQueryManagement.create(entityFactory.targetFilterQuery()
+                .create().name("incremental").query("name==*").autoAssignDistributionSet(ds));
+        implicitLock(ds);
+        final List<Target> initialTargets = testdataFactory.createTargets(5, "initial");
+        autoAssignChecker.checkAllTargets();
+        verifyThatTargetsHaveDistributionSetAssignment(ds, initialTargets, 5);
+
+        // created after the check
+        final List<Target> createdTargets = testdataFactory.createTargets(5, "created");
+        autoAssignChecker.checkAllTargets();
+        verifyThatTargetsHaveDistributionSetAssignment(ds, createdTargets, 10);
+
+        // pretend the targets have been checked in the future, so the new ones are not checked
+        final long future = System.currentTimeMillis() + 3_600_000;
+        targetFilterQueryRepository.updateAutoAssignCheckedAt(filter.getId(), future);
+        final List<Target> notCheckedTargets = testdataFactory.createTargets(5, "notChecked");
+        autoAssignChecker.checkAllTargets();
+        verifyThatTargetsNotHaveDistributionSetAssignment(ds, notCheckedTargets);
+
+        // a changed query makes all targets to be checked again
+        targetFilterQueryRepository.updateAutoAssignCheckedAt(filter.getId(), future);
+        targetFilterQueryManagement.update(entityFactory.targetFilterQuery().update(filter.getId()).query("name==*Checked*"));
+        autoAssignChecker.checkAllTargets();
+        verifyThatTargetsHaveDistributionSetAssignment(ds, notCheckedTargets, 15);
+    }
+
+    @Test
+    @Description("Verifies that the incremental check considers the targets whose attributes are updated by the controller, which does not change their last modified time")
+    void incrementalCheckConsidersAttributeUpdatesOfController() throws Exception {
+        enableIncrementalCheck();
+        final DistributionSet ds = testdataFactory.createDistributionSet();
+        targetFilterQueryManagement.create(entityFactory.targetFilterQuery()
+                .create().name("attributes").query("attribute.model==incremental").autoAssignDistributionSet(ds));
+        implicitLock(ds);
+        final List<Target> targets = testdataFactory.createTargets(2, "attributes");
+        waitForNextMillisecond();
+        autoAssignChecker.checkAllTargets();
+        verifyThatTargetsNotHaveDistributionSetAssignment(ds, targets);
+
+        final Target target = targets.get(0);
+        SecurityContextSwitch.runAs(SecurityContextSwitch.withController("controller", CONTROLLER_ROLE_ANONYMOUS,
+                SpPermission.READ_TARGET), () -> controllerManagement.updateControllerAttributes(
+                target.getControllerId(), Map.of("model", "incremental"), null));
+        assertThat(targetManagement.getByControllerID(target.getControllerId()).orElseThrow().getLastModifiedAt())
+                .isEqualTo(target.getLastModifiedAt());
+
+        autoAssignChecker.checkAllTargets();
+        verifyThatTargetsHaveDistributionSetAssignment(ds, List.of(target), 2);
+        verifyThatTargetsNotHaveDistributionSetAssignment(ds, targets.subList(1, 2));
+    }
+
+    @Test
+    @Description("Verifies that the incremental check considers the targets whose update status is changed by the action status of the controller")
+    void incrementalCheckConsidersUpdateStatusChangesOfController() throws Exception {
+        enableIncrementalCheck();
+        final DistributionSet installed = testdataFactory.createDistributionSet("installed");
+        final DistributionSet ds = testdataFactory.createDistributionSet("autoAssigned");
+        final Target target = testdataFactory.createTarget("updateStatus");
+        final Long actionId = getFirstAssignedActionId(assignDistributionSet(installed.getId(), target.getControllerId()));
+        targetFilterQueryManagement.create(entityFactory.targetFilterQuery()
+                .create().name("updateStatus").query("updatestatus==in_sync").autoAssignDistributionSet(ds));
+        implicitLock(ds);
+        waitForNextMillisecond();
+        autoAssignChecker.checkAllTargets();
+        assertThat(deploymentManagement.getAssignedDistributionSet(target.getControllerId()).map(DistributionSet::getId))
+                .contains(installed.getId());
+
+        SecurityContextSwitch.runAs(SecurityContextSwitch.withController("controller", CONTROLLER_ROLE_ANONYMOUS,
+                SpPermission.READ_TARGET), () -> controllerManagement.addUpdateActionStatus(
+                entityFactory.actionStatus().create(actionId).status(Status.FINISHED)));
+        assertThat(targetManagement.getByControllerID(target.getControllerId()).orElseThrow().getUpdateStatus())
+                .isEqualTo(TargetUpdateStatus.IN_SYNC);
+
+        autoAssignChecker.checkAllTargets();
+        assertThat(deploymentManagement.getAssignedDistributionSet(target.getControllerId()).map(DistributionSet::getId))
+                .contains(ds.getId());
+    }
+
+    @Test
+    @Description("Verifies that a renamed tag makes all targets to be checked again by the incremental check")
+    void incrementalCheckConsidersRenamedTags() {
+        enableIncrementalCheck();
+        final DistributionSet ds = testdataFactory.createDistributionSet();
+        targetFilterQueryManagement.create(entityFactory.targetFilterQuery()
+                .create().name("tag").query("tag==renamed").autoAssignDistributionSet(ds));
+        implicitLock(ds);
+        final TargetTag tag = targetTagManagement.create(entityFactory.tag().create().name("tag"));
+        final List<Target> targets = testdataFactory.createTargets(2, "tagged");
+        targetManagement.assignTag(targets.stream().map(Target::getControllerId).toList(), tag.getId());
+        waitForNextMillisecond();
+        autoAssignChecker.checkAllTargets();
+        verifyThatTargetsNotHaveDistributionSetAssignment(ds, targets);
+
+        targetTagManagement.update(entityFactory.tag().update(tag.getId()).name("renamed"));
+        autoAssignChecker.checkAllTargets();
+        verifyThatTargetsHaveDistributionSetAssignment(ds, targets, 2);
+    }
+
+    // checks only the targets changed since the last check, without an overlap
+    private void enableIncrementalCheck() {
+        repositoryProperties.setAutoAssignFullScanPeriodMS(3_600_000);
+        repositoryProperties.setAutoAssignCheckOverlapMS(0);
+    }
+
+    // otherwise the targets may be changed in the millisecond the check starts, so they are checked again anyway
+    private static void waitForNextMillisecond() {
+        final long now = System.currentTimeMillis();
+        while (System.currentTimeMillis() <= now) {
+            Thread.onSpinWait();
+        }
+    }
+
     private static Stream<Arguments> confirmationOptions() {
         return Stream.of( //
                 Arguments.of(true, true, Status.WAIT_FOR_CONFIRMATION), //
@@ -21,6 +21,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
@@ -36,6 +37,7 @@ import io.qameta.allure.Story;
 import org.assertj.core.api.Assertions;
 import org.eclipse.hawkbit.repository.ActionStatusFields;
 import org.eclipse.hawkbit.repository.DeploymentManagement;
+import org.eclipse.hawkbit.repository.KeysetPageRequest;
 import org.eclipse.hawkbit.repository.event.remote.CancelTargetAssignmentEvent;
 import org.eclipse.hawkbit.repository.event.remote.MultiActionAssignEvent;
 import org.eclipse.hawkbit.repository.event.remote.MultiActionCancelEvent;
@@ -79,6 +81,7 @@ import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.DistributionSetAssignmentResult;
 import org.eclipse.hawkbit.repository.model.DistributionSetTag;
 import org.eclipse.hawkbit.repository.model.DistributionSetType;
+import org.eclipse.hawkbit.repository.model.Rollout;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetType;
@@ -93,7 +96,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.Order;
 
 /**
  * Test class testing the functionality of triggering a deployment of {@link DistributionSet}s to {@link Target}s.
@@ -288,6 +293,39 @@ class DeploymentManagementTest extends AbstractJpaIntegrationTest {
         assertThat(messages.getContent().get(0)).as("Message of action-status").isEqualTo(expectedMsg);
     }
 
+    @Test
+    @Description("Test verifies that action-states of an action could be paged by keyset, in the same order as by offset.")
+    void findActionStatusByActionWithKeysetPaging() {
+        final DistributionSet testDs = testdataFactory.createDistributionSet("TestDs", "1.0", Collections.emptyList());
+        final List<Target> testTarget = testdataFactory.createTargets(1);
+        final Long actionId = getFirstAssignedActionId(assignDistributionSet(testDs, testTarget));
+        for (int i = 0; i < 4; i++) {
+            controllerManagement.addUpdateActionStatus(
+                    entityFactory.actionStatus().create(actionId).status(Action.Status.RUNNING));
+        }
+
+        for (final Order order : List.of(Order.desc("id"), Order.asc("createdAt"), Order.desc("createdAt"))) {
+            final List<Long> expected = deploymentManagement.findActionStatusByAction(
+                    PageRequest.of(0, 10, Sort.by(order, new Order(order.getDirection(), "id"))), actionId)
+                    .map(ActionStatus::getId).getContent();
+
+            final List<Long> paged = new ArrayList<>();
+            KeysetPageRequest pageRequest = new KeysetPageRequest(2, order);
+            Page<ActionStatus> page;
+            do {
+                page = deploymentManagement.findActionStatusByAction(pageRequest, actionId);
+                assertThat(page.getTotalElements()).as("Total of all pages").isEqualTo(5L);
+                page.forEach(actionStatus -> paged.add(actionStatus.getId()));
+                if (!page.isEmpty()) {
+                    final ActionStatus last = page.getContent().get(page.getNumberOfElements() - 1);
+                    pageRequest = new KeysetPageRequest(2, order, last.getCreatedAt(), last.getId());
+                }
+            } while (page.getNumberOfElements() == 2 && paged.size() <= 5);
+
+            assertThat(paged).as("Keyset paged in order " + order).hasSize(5).containsExactlyElementsOf(expected);
+        }
+    }
+
     @Test
     @Description("Ensures that tag to distribution set assignment that does not exist will cause EntityNotFoundException.")
     void assignDistributionSetToTagThatDoesNotExistThrowsException() {
@@ -1004,6 +1042,29 @@ class DeploymentManagementTest extends AbstractJpaIntegrationTest {
         assertThat(actionRepository.findWithDetailsById(valideActionId2).get().getWeight()).get().isEqualTo(Action.WEIGHT_MIN);
     }
 
+    @Test
+    @Description("The active actions with highest weight of several targets are found at once, ordered by weight and limited per target.")
+    void findActiveActionsWithHighestWeightOfSeveralTargets() {
+        final String controllerId1 = testdataFactory.createTarget("target1").getControllerId();
+        final String controllerId2 = testdataFactory.createTarget("target2").getControllerId();
+        final String withoutActions = testdataFactory.createTarget("target3").getControllerId();
+        final Long dsId = testdataFactory.createDistributionSet().getId();
+        enableMultiAssignments();
+        final Long low = assignWithWeight(controllerId1, dsId, 100);
+        final Long high = assignWithWeight(controllerId1, dsId, 500);
+        assignWithWeight(controllerId1, dsId, 10);
+        final Long other = assignWithWeight(controllerId2, dsId, 200);
+
+        final Map<String, List<Action>> actions = deploymentManagement.findActiveActionsWithHighestWeight(
+                List.of(controllerId1, controllerId2, withoutActions, "unknown"), 2);
+
+        assertThat(actions).containsOnlyKeys(controllerId1, controllerId2);
+        assertThat(actions.get(controllerId1)).extracting(Action::getId).containsExactly(high, low)
+                .containsExactlyElementsOf(deploymentManagement.findActiveActionsWithHighestWeight(controllerId1, 2)
+                        .stream().map(Action::getId).toList());
+        assertThat(actions.get(controllerId2)).extracting(Action::getId).containsExactly(other);
+    }
+
     /**
      * test a simple deployment by calling the
      * {@link TargetRepository#assignDistributionSet(DistributionSet, Iterable)} and
@@ -1611,6 +1672,74 @@ class DeploymentManagementTest extends AbstractJpaIntegrationTest {
                 .isThrownBy(() -> deploymentManagement.assignDistributionSets(deploymentRequests));
     }
 
+    @Test
+    @Description("Verifies that starting the scheduled actions of a rollout group assigns the distribution set to the "
+            + "targets, cancels their open actions and finishes the actions of targets which have the set assigned already.")
+    void startScheduledActionsOfRolloutGroupCancelsOpenActions() {
+        final List<Target> targets = testdataFactory.createTargets("bulkStart", 4);
+        final DistributionSet oldDs = testdataFactory.createDistributionSet("bulkStartOld");
+        final DistributionSet ds = testdataFactory.createDistributionSet("bulkStart");
+        final List<Long> openActionIds = assignDistributionSet(oldDs, targets.subList(0, 2)).getAssignedEntity()
+                .stream().map(Action::getId).toList();
+        assignDistributionSet(ds, targets.subList(2, 3));
+
+        final Rollout rollout = createAndStartRollout("bulkStart", ds);
+
+        assertThat(openActionIds).allSatisfy(actionId -> assertThat(
+                deploymentManagement.findAction(actionId).orElseThrow().getStatus()).isEqualTo(Status.CANCELING));
+        assertRolloutAction(rollout, targets.get(0), Status.RUNNING, true);
+        assertRolloutAction(rollout, targets.get(1), Status.RUNNING, true);
+        assertRolloutAction(rollout, targets.get(2), Status.FINISHED, false);
+        assertRolloutAction(rollout, targets.get(3), Status.RUNNING, true);
+        assertThat(targetManagement.getByControllerID(
+                targets.stream().map(Target::getControllerId).toList())).allSatisfy(target -> {
+                    assertThat(target.getUpdateStatus()).isEqualTo(TargetUpdateStatus.PENDING);
+                    assertThat(deploymentManagement.getAssignedDistributionSet(target.getControllerId())
+                            .map(DistributionSet::getId)).contains(ds.getId());
+                });
+    }
+
+    @Test
+    @Description("Verifies that starting the scheduled actions of a rollout group keeps the open actions of the "
+            + "targets running if multi assignments are enabled.")
+    void startScheduledActionsOfRolloutGroupWithMultiAssignments() {
+        enableMultiAssignments();
+        final List<Target> targets = testdataFactory.createTargets("bulkStartMulti", 2);
+        final DistributionSet oldDs = testdataFactory.createDistributionSet("bulkStartMultiOld");
+        final DistributionSet ds = testdataFactory.createDistributionSet("bulkStartMulti");
+        final List<Long> openActionIds = assignDistributionSet(oldDs, targets).getAssignedEntity().stream()
+                .map(Action::getId).toList();
+
+        final Rollout rollout = createAndStartRollout("bulkStartMulti", ds);
+
+        assertThat(openActionIds).allSatisfy(actionId -> assertThat(
+                deploymentManagement.findAction(actionId).orElseThrow().getStatus()).isEqualTo(Status.RUNNING));
+        targets.forEach(target -> assertRolloutAction(rollout, target, Status.RUNNING, true));
+        assertThat(targetManagement.getByControllerID(
+                targets.stream().map(Target::getControllerId).toList())).allSatisfy(target -> {
+                    assertThat(target.getUpdateStatus()).isEqualTo(TargetUpdateStatus.PENDING);
+                    assertThat(deploymentManagement.getAssignedDistributionSet(target.getControllerId())
+                            .map(DistributionSet::getId)).contains(ds.getId());
+                });
+    }
+
+    private Rollout createAndStartRollout(final String prefix, final DistributionSet ds) {
+        final Rollout rollout = testdataFactory.createRolloutByVariables(prefix, "bulk start", 1,
+                "controllerId==" + prefix + "*", ds, "100", "80", ActionType.FORCED, 100, false);
+        rolloutManagement.start(rollout.getId());
+        rolloutHandler.handleAll();
+        return rollout;
+    }
+
+    private void assertRolloutAction(final Rollout rollout, final Target target, final Status status,
+            final boolean active) {
+        final Action action = deploymentManagement.findActionsByTarget(target.getControllerId(), PAGE).stream()
+                .filter(a -> a.getRollout() != null && a.getRollout().getId().equals(rollout.getId()))
+                .findAny().orElseThrow();
+        assertThat(action.getStatus()).isEqualTo(status);
+        assertThat(action.isActive()).isEqualTo(active);
+    }
+
     private JpaAction assignSet(final Target target, final DistributionSet ds) {
         assignDistributionSet(ds.getId(), target.getControllerId());
         implicitLock(ds);
@@ -1709,6 +1838,11 @@ class DeploymentManagementTest extends AbstractJpaIntegrationTest {
                 .map(Action.class::cast);
     }
 
+    private Long assignWithWeight(final String controllerId, final Long dsId, final int weight) {
+        return getFirstAssignedActionId(deploymentManagement.assignDistributionSets(List.of(
+                DeploymentManagement.deploymentRequest(controllerId, dsId).setWeight(weight).build())).get(0));
+    }
+
     private static class DeploymentResult {
 
         final List<Long> deployedTargetIDs = new ArrayList<>();
@@ -1759,4 +1893,4 @@ class DeploymentManagementTest extends AbstractJpaIntegrationTest {
             return undeployedTargetIDs;
         }
     }
-}
\ No newline at end of file
+}
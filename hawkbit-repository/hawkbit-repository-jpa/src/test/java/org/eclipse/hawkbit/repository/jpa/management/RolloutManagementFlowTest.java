@@ -18,6 +18,7 @@ import io.qameta.allure.Description;
 import io.qameta.allure.Feature;
 import io.qameta.allure.Story;
 import org.eclipse.hawkbit.repository.OffsetBasedPageRequest;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.builder.DynamicRolloutGroupTemplate;
 import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
@@ -29,6 +30,7 @@ import org.eclipse.hawkbit.repository.model.RolloutGroup;
 import org.eclipse.hawkbit.repository.model.RolloutGroup.RolloutGroupStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.test.context.TestPropertySource;
@@ -41,6 +43,9 @@ import org.springframework.test.context.TestPropertySource;
 @TestPropertySource(properties = { "hawkbit.server.repository.dynamicRolloutsMinInvolvePeriodMS=-1" })
 class RolloutManagementFlowTest extends AbstractJpaIntegrationTest {
 
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
     @BeforeEach
     void reset() {
         this.approvalStrategy.setApprovalNeeded(false);
@@ -200,6 +205,38 @@ class RolloutManagementFlowTest extends AbstractJpaIntegrationTest {
         assertThat(refresh(dynamic2).getStatus()).isEqualTo(RolloutGroupStatus.FINISHED);
     }
 
+    @Test
+    @Description("Verifies that targets created after the last full scan join the dynamic group without waiting for the next full scan")
+    void dynamicRolloutIsFilledWithCreatedTargets() {
+        final String rolloutName = "dynamic-rollout-created";
+        final String targetPrefix = "controller-dynamic-rollout-created-";
+        final DistributionSet distributionSet = testdataFactory.createDistributionSet("dsFor" + rolloutName);
+
+        testdataFactory.createTargets(targetPrefix, 0, 3);
+        final Rollout rollout = testdataFactory.createRolloutByVariables(rolloutName, rolloutName, 1,
+                "controllerid==" + targetPrefix + "*", distributionSet, "60", "30", false, true);
+        final RolloutGroup dynamic1 = rolloutGroupManagement.findByRollout(
+                new OffsetBasedPageRequest(0, 10, Sort.by(Direction.ASC, "id")), rollout.getId()).getContent().get(1);
+
+        final long minInvolvePeriodMS = repositoryProperties.getDynamicRolloutsMinInvolvePeriodMS();
+        repositoryProperties.setDynamicRolloutsMinInvolvePeriodMS(60_000);
+        try {
+            rolloutManagement.start(rollout.getId());
+            rolloutHandler.handleAll(); // start
+            rolloutHandler.handleAll(); // full scan - nothing to add
+            assertGroup(dynamic1, true, RolloutGroupStatus.SCHEDULED, 0);
+
+            // one matching and one not matching target
+            testdataFactory.createTargets(targetPrefix, 3, 1);
+            testdataFactory.createTargets("other-" + targetPrefix, 0, 1);
+            rolloutHandler.handleAll();
+            assertRollout(rollout, true, RolloutStatus.RUNNING, 2, 4);
+            assertGroup(dynamic1, true, RolloutGroupStatus.SCHEDULED, 1);
+        } finally {
+            repositoryProperties.setDynamicRolloutsMinInvolvePeriodMS(minInvolvePeriodMS);
+        }
+    }
+
     @Test
     @Description("Verifies a simple dynamic rollout flow with a dynamic group template")
     void dynamicRolloutTemplateFlow() {
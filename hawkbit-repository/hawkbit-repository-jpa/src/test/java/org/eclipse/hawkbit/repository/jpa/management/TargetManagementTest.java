@@ -732,6 +732,28 @@ class TargetManagementTest extends AbstractJpaIntegrationTest {
                 .isEqualTo(27L);
     }
 
+    @Test
+    @Description("Verifies that streaming targets by RSQL filter returns all matching targets in order in chunks of the given size.")
+    void streamTargetsByRsqlInChunks() {
+        final List<String> expected = testdataFactory.createTargets(7, "stream-A", "first description").stream()
+                .map(Target::getControllerId).collect(Collectors.toList());
+        testdataFactory.createTargets(3, "stream-B", "first description");
+
+        final List<Integer> chunkSizes = new ArrayList<>();
+        final List<String> streamed = new ArrayList<>();
+        targetManagement.streamByRsql("controllerId==stream-A*", 3, chunk -> {
+            chunkSizes.add(chunk.size());
+            chunk.forEach(target -> streamed.add(target.getControllerId()));
+        });
+
+        assertThat(chunkSizes).as("Chunk sizes").containsExactly(3, 3, 1);
+        assertThat(streamed).as("Streamed targets").containsExactlyInAnyOrderElementsOf(expected);
+
+        final List<String> all = new ArrayList<>();
+        targetManagement.streamByRsql(null, 4, chunk -> chunk.forEach(target -> all.add(target.getControllerId())));
+        assertThat(all).as("All streamed targets").hasSize(10).containsAll(expected);
+    }
+
     @Test
     @Description("Verify that the find all targets by ids method contains the entities that we are looking for")
     @ExpectEvents({ @Expect(type = TargetCreatedEvent.class, count = 12) })
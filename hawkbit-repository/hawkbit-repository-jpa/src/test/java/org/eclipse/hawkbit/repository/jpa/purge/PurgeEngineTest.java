@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.purge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
+import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
+import org.eclipse.hawkbit.repository.jpa.repository.TargetFilterQueryRepository;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.Rollout.RolloutStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Feature("Component Tests - Repository")
+@Story("Purge")
+class PurgeEngineTest extends AbstractJpaIntegrationTest {
+
+    @Autowired
+    private PurgeEngine purgeEngine;
+
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    private TargetFilterQueryRepository targetFilterQueryRepository;
+
+    private int chunkSize;
+    private int maxChunksPerRun;
+
+    @BeforeEach
+    void setChunkSize() {
+        chunkSize = repositoryProperties.getPurgeChunkSize();
+        maxChunksPerRun = repositoryProperties.getPurgeMaxChunksPerRun();
+        repositoryProperties.setPurgeChunkSize(3);
+        repositoryProperties.setPurgeMaxChunksPerRun(2);
+    }
+
+    @AfterEach
+    void resetChunkSize() {
+        repositoryProperties.setPurgeChunkSize(chunkSize);
+        repositoryProperties.setPurgeMaxChunksPerRun(maxChunksPerRun);
+    }
+
+    @Test
+    @Description("Verifies that a deleted rollout with more targets than the purge chunk size is hidden as deleted and purged in chunks in the background.")
+    void deletedRolloutIsPurgedInChunks() {
+        final Rollout rollout = testdataFactory.createSimpleTestRolloutWithTargetsAndDistributionSet(10, 0, 2, "50",
+                "80");
+
+        rolloutManagement.delete(rollout.getId());
+        rolloutHandler.handleAll();
+
+        final JpaRollout deletedRollout = rolloutRepository.findById(rollout.getId()).orElseThrow();
+        assertThat(deletedRollout.getStatus()).isEqualTo(RolloutStatus.DELETED);
+        assertThat(deletedRollout.isDeleted()).isTrue();
+        assertThat(purgeEngine.countPending()).isEqualTo(1);
+
+        // 10 target assignments in chunks of 3 per group - limited to 2 chunks per run
+        assertThat(purgeEngine.purge()).isEqualTo(2);
+        assertThat(rolloutRepository.findById(rollout.getId())).isPresent();
+        purgeUntilDone();
+
+        assertThat(rolloutRepository.findById(rollout.getId())).isNotPresent();
+        assertThat(rolloutGroupRepository.count()).isZero();
+        assertThat(rolloutTargetGroupRepository.count()).isZero();
+        assertThat(purgeEngine.countPending()).isZero();
+    }
+
+    @Test
+    @Description("Verifies that the actions of a rollout marked as pending purge are purged together with their status entries.")
+    void actionsOfRolloutArePurged() {
+        final Rollout rollout = testdataFactory.createAndStartRollout(10, 0, 2, "100", "80");
+        assertThat(actionRepository.findByRolloutIdAndStatus(PAGE, rollout.getId(), Status.RUNNING)
+                .getContent()).hasSize(5).allSatisfy(this::finishAction);
+        assertThat(actionStatusRepository.count()).isPositive();
+
+        purgeEngine.markForPurge(PurgeType.ROLLOUT, rollout.getId());
+        purgeUntilDone();
+
+        assertThat(actionRepository.count()).isZero();
+        assertThat(actionStatusRepository.count()).isZero();
+        assertThat(rolloutRepository.findById(rollout.getId())).isNotPresent();
+        assertThat(purgeEngine.countPending()).isZero();
+    }
+
+    @Test
+    @Description("Verifies that the purge runs and chunks are observed with their counts when they are stopped.")
+    void purgeIsObserved() {
+        // the key values as seen by the handlers when the observations are stopped
+        final List<Map<String, String>> stopped = new ArrayList<>();
+        final ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new ObservationHandler<>() {
+
+            @Override
+            public void onStop(final Observation.Context context) {
+                final Map<String, String> keyValues = StreamSupport
+                        .stream(context.getAllKeyValues().spliterator(), false)
+                        .collect(Collectors.toMap(KeyValue::getKey, KeyValue::getValue));
+                keyValues.put("name", context.getName());
+                stopped.add(keyValues);
+            }
+
+            @Override
+            public boolean supportsContext(final Observation.Context context) {
+                return true;
+            }
+        });
+        final PurgeEngine observedPurgeEngine = new PurgeEngine(entityManager, txManager, rolloutRepository,
+                targetFilterQueryRepository, tenantAware, repositoryProperties, observationRegistry);
+        final Rollout rollout = testdataFactory.createSimpleTestRolloutWithTargetsAndDistributionSet(4, 0, 1, "50",
+                "80");
+        purgeEngine.markForPurge(PurgeType.ROLLOUT, rollout.getId());
+
+        // 4 target assignments in chunks of 3 - the 3rd chunk purges the rollout itself
+        assertThat(observedPurgeEngine.purge()).isEqualTo(2);
+        assertThat(observedPurgeEngine.purge()).isEqualTo(1);
+        assertThat(observedPurgeEngine.purge()).isZero();
+
+        final String tenant = tenantAware.getCurrentTenant().toUpperCase();
+        assertThat(stopped).containsExactly(
+                chunk(tenant, rollout, PurgeEngine.PARTIAL, 3),
+                chunk(tenant, rollout, PurgeEngine.PARTIAL, 1),
+                Map.of("name", PurgeEngine.OBSERVATION_NAME, "tenant", tenant, "pending", "1", "chunks", "2",
+                        "entities", "0", "rows", "4"),
+                chunk(tenant, rollout, PurgeEngine.COMPLETED, 0),
+                Map.of("name", PurgeEngine.OBSERVATION_NAME, "tenant", tenant, "pending", "1", "chunks", "1",
+                        "entities", "1", "rows", "0"));
+    }
+
+    private static Map<String, String> chunk(final String tenant, final Rollout rollout, final String result,
+            final int rows) {
+        return Map.of("name", PurgeEngine.CHUNK_OBSERVATION_NAME, "tenant", tenant, "type", PurgeType.ROLLOUT.name(),
+                "entity", String.valueOf(rollout.getId()), "result", result, "rows", String.valueOf(rows));
+    }
+
+    private void purgeUntilDone() {
+        for (int i = 0; i < 100 && purgeEngine.countPending() > 0; i++) {
+            purgeEngine.purge();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.RolloutHandler;
+import org.eclipse.hawkbit.repository.event.remote.entity.ActionUpdatedEvent;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.cloud.bus.ServiceMatcher;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@Feature("Unit Tests - Repository")
+@Story("Event driven rollout evaluation")
+@ExtendWith(MockitoExtension.class)
+class RolloutEvaluationTriggerTest {
+
+    private static final String TENANT = "DEFAULT";
+
+    @Mock
+    private RolloutHandler rolloutHandler;
+    @Mock
+    private SystemSecurityContext systemSecurityContext;
+    @Mock
+    private ScheduledExecutorService executorService;
+    @Mock
+    private ServiceMatcher serviceMatcher;
+
+    private RolloutEvaluationTrigger sut;
+
+    @BeforeEach
+    void before() {
+        final RepositoryProperties repositoryProperties = new RepositoryProperties();
+        repositoryProperties.setRolloutEvaluationDebounceMS(100);
+        lenient().when(serviceMatcher.isFromSelf(any())).thenReturn(true);
+        sut = new RolloutEvaluationTrigger(rolloutHandler, systemSecurityContext, executorService, serviceMatcher,
+                repositoryProperties);
+    }
+
+    @Test
+    @Description("A burst of action updates is coalesced into one evaluation of the affected rollouts.")
+    @SuppressWarnings("unchecked")
+    void burstOfUpdatesIsCoalesced() throws Exception {
+        mockRunAsSystemAsTenant();
+        when(rolloutHandler.handleRunning(any())).thenReturn(true);
+
+        sut.onActionUpdated(event(1L, 11L));
+        sut.onActionUpdated(event(1L, 11L));
+        sut.onActionUpdated(event(1L, 12L));
+        sut.onActionUpdated(event(2L, 21L));
+
+        final ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService, times(1)).schedule(flush.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+        verify(rolloutHandler, never()).handleRunning(any());
+
+        flush.getValue().run();
+
+        final ArgumentCaptor<Collection<Long>> rollouts = ArgumentCaptor.forClass(Collection.class);
+        verify(rolloutHandler, times(1)).handleRunning(rollouts.capture());
+        assertThat(rollouts.getValue()).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    @Description("Evaluation is rescheduled if the rollout handler is busy.")
+    void busyHandlerReschedulesEvaluation() throws Exception {
+        mockRunAsSystemAsTenant();
+        when(rolloutHandler.handleRunning(any())).thenReturn(false, true);
+
+        sut.onActionUpdated(event(1L, 11L));
+
+        final ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService, times(1)).schedule(flush.capture(), anyLong(), any());
+        flush.getValue().run();
+
+        verify(executorService, times(2)).schedule(flush.capture(), anyLong(), any());
+        flush.getValue().run();
+
+        verify(rolloutHandler, times(2)).handleRunning(Set.of(1L));
+        verify(executorService, times(2)).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    @Description("Updates of actions that don't belong to a rollout are ignored.")
+    void nonRolloutActionsAreIgnored() {
+        final ActionUpdatedEvent event = mock(ActionUpdatedEvent.class);
+        when(event.getRolloutId()).thenReturn(null);
+        sut.onActionUpdated(event);
+
+        verify(executorService, never()).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    @Description("Updates of actions made by other nodes are ignored, the updating node evaluates the rollout.")
+    void remoteUpdatesAreIgnored() {
+        final ActionUpdatedEvent event = mock(ActionUpdatedEvent.class);
+        when(event.getRolloutId()).thenReturn(1L);
+        when(event.getRolloutGroupId()).thenReturn(11L);
+        when(serviceMatcher.isFromSelf(event)).thenReturn(false);
+        sut.onActionUpdated(event);
+
+        verify(executorService, never()).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    private void mockRunAsSystemAsTenant() {
+        when(systemSecurityContext.runAsSystemAsTenant(any(), eq(TENANT)))
+                .thenAnswer(invocation -> invocation.<Callable<?>> getArgument(0).call());
+    }
+
+    private static ActionUpdatedEvent event(final long rolloutId, final long rolloutGroupId) {
+        final ActionUpdatedEvent event = mock(ActionUpdatedEvent.class);
+        when(event.getTenant()).thenReturn(TENANT);
+        when(event.getRolloutId()).thenReturn(rolloutId);
+        when(event.getRolloutGroupId()).thenReturn(rolloutGroupId);
+        return event;
+    }
+}
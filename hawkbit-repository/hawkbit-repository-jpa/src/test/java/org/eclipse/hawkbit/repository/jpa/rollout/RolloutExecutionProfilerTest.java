@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.Rollout.RolloutStatus;
+import org.eclipse.hawkbit.repository.model.RolloutExecutionTrace;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@Feature("Unit Tests - Repository")
+@Story("Rollout execution profiler")
+class RolloutExecutionProfilerTest {
+
+    private static final String TENANT = "DEFAULT";
+
+    // the key values as seen by the handlers when the observations are stopped
+    private final List<Map<String, String>> stopped = new ArrayList<>();
+
+    private RolloutExecutionProfiler sut;
+
+    @BeforeEach
+    void before() {
+        final ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new ObservationHandler<>() {
+
+            @Override
+            public void onStop(final Observation.Context context) {
+                final Map<String, String> keyValues = new HashMap<>();
+                context.getAllKeyValues().forEach(keyValue -> keyValues.put(keyValue.getKey(), keyValue.getValue()));
+                keyValues.put("name", context.getName());
+                keyValues.put("error", String.valueOf(context.getError() != null));
+                stopped.add(keyValues);
+            }
+
+            @Override
+            public boolean supportsContext(final Observation.Context context) {
+                return true;
+            }
+        });
+        final TenantAware tenantAware = mock(TenantAware.class);
+        when(tenantAware.getCurrentTenant()).thenReturn(TENANT);
+        sut = new RolloutExecutionProfiler(observationRegistry, tenantAware);
+    }
+
+    @Test
+    @Description("The phases and counts of an execution are traced and observed per phase and tenant.")
+    void executionIsTracedAndObserved() {
+        final Rollout rollout = rollout(1L);
+
+        sut.execute(rollout, () -> sut.phase("handleRunningRollout", () -> {
+            sut.phase("createActionsForTargetsInNewTransaction", () -> sut.count("actions.created", 5));
+            sut.phase("createActionsForTargetsInNewTransaction", () -> sut.count("actions.created", 3));
+        }));
+
+        final RolloutExecutionTrace trace = sut.getLastExecutionTrace(1L).orElseThrow();
+        assertThat(trace.getRolloutStatus()).isEqualTo(RolloutStatus.RUNNING);
+        assertThat(trace.getPhases()).extracting(RolloutExecutionTrace.Phase::getName).containsExactly(
+                "handleRunningRollout", "createActionsForTargetsInNewTransaction",
+                "createActionsForTargetsInNewTransaction");
+        assertThat(trace.getPhases()).extracting(RolloutExecutionTrace.Phase::getDepth).containsExactly(0, 1, 1);
+        assertThat(trace.getCounts()).isEqualTo(Map.of("actions.created", 8L));
+        assertThat(trace.getError()).isNull();
+
+        assertThat(stopped).hasSize(4).allSatisfy(keyValues -> assertThat(keyValues)
+                .containsEntry("name", RolloutExecutionProfiler.OBSERVATION_NAME)
+                .containsEntry("tenant", TENANT)
+                .containsEntry("rollout", "1")
+                .containsEntry("error", "false"));
+        // the whole execution is stopped last and holds the counts when it is stopped
+        assertThat(stopped.get(stopped.size() - 1))
+                .containsEntry("phase", RolloutExecutionProfiler.EXECUTE)
+                .containsEntry("actions.created", "<10")
+                .containsEntry("actions.created" + RolloutExecutionProfiler.EXACT_SUFFIX, "8");
+    }
+
+    @Test
+    @Description("The counts are mapped to a bounded number of magnitudes, so they could be low cardinality key values.")
+    void countsAreMappedToMagnitudes() {
+        assertThat(RolloutExecutionProfiler.magnitude(0)).isEqualTo("0");
+        assertThat(RolloutExecutionProfiler.magnitude(9)).isEqualTo("<10");
+        assertThat(RolloutExecutionProfiler.magnitude(10)).isEqualTo("<100");
+        assertThat(RolloutExecutionProfiler.magnitude(9_999)).isEqualTo("<10000");
+        assertThat(RolloutExecutionProfiler.magnitude(1_000_000)).isEqualTo(">=10000");
+    }
+
+    @Test
+    @Description("A failed execution is traced with its error and phases and counts outside an execution are ignored.")
+    void failedExecutionIsTraced() {
+        final Rollout rollout = rollout(2L);
+
+        assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> sut.execute(rollout,
+                () -> sut.phase("handleRunningRollout", () -> {
+                    throw new IllegalStateException("failed");
+                })));
+        assertThat(sut.getLastExecutionTrace(2L).orElseThrow().getError()).contains("failed");
+        assertThat(stopped).hasSize(2).allSatisfy(keyValues -> assertThat(keyValues).containsEntry("error", "true"));
+
+        // outside an execution
+        assertThat(sut.phase("handleRunningRollout", () -> 1)).isEqualTo(1);
+        sut.count("actions.created", 1);
+        assertThat(sut.getLastExecutionTrace(2L).orElseThrow().getCounts()).isEmpty();
+
+        sut.remove(2L);
+        assertThat(sut.getLastExecutionTrace(2L)).isEmpty();
+    }
+
+    private static Rollout rollout(final long id) {
+        final Rollout rollout = mock(Rollout.class);
+        when(rollout.getId()).thenReturn(id);
+        when(rollout.getStatus()).thenReturn(RolloutStatus.RUNNING);
+        return rollout;
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
+import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.RolloutGroup;
+import org.eclipse.hawkbit.repository.model.RolloutGroupConditionBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+@Feature("Component Tests - Repository")
+@Story("Rollout Management")
+class RolloutStatusCounterTest extends AbstractJpaIntegrationTest {
+
+    @Autowired
+    private RolloutStatusCounter rolloutStatusCounter;
+
+    @Test
+    @Description("Verifies that the rollout status counters follow the status changes and deletions of the actions.")
+    void countersFollowActionChanges() {
+        final Rollout rollout = testdataFactory.createAndStartRollout(15, 0, 3, "100", "80");
+        assertCountersMatchActions(rollout);
+
+        final List<JpaAction> running = actionRepository.findByRolloutIdAndStatus(PAGE, rollout.getId(),
+                Status.RUNNING).getContent();
+        finishAction(running.get(0));
+        finishAction(running.get(1));
+        controllerManagement.addUpdateActionStatus(
+                entityFactory.actionStatus().create(running.get(2).getId()).status(Status.ERROR));
+        targetManagement.delete(List.of(running.get(3).getTarget().getId()));
+        assertCountersMatchActions(rollout);
+
+        rolloutHandler.handleAll();
+        assertCountersMatchActions(rollout);
+        assertThat(rolloutStatusCounter.countByRolloutGroupIdAndStatus(running.get(0).getRolloutGroup().getId(),
+                List.of(Status.FINISHED, Status.ERROR))).isEqualTo(3);
+    }
+
+    @Test
+    @Description("Verifies that the rollout status counters are created with the rollout groups, before their actions, "
+            + "so the first actions of a group created by concurrent transactions all find them.")
+    void countersAreCreatedWithRolloutGroups() {
+        testdataFactory.createTargets(10, "counted");
+        final Rollout rollout = rolloutManagement.create(
+                entityFactory.rollout().create().name("counted").targetFilterQuery("controllerId==counted*")
+                        .distributionSetId(testdataFactory.createDistributionSet("counted")),
+                2, false, new RolloutGroupConditionBuilder().withDefaults().build());
+
+        // the groups are created, but their actions are not (the rollout handler has not run yet)
+        assertThat(actionRepository.getStatusCountByRolloutId(rollout.getId())).isEmpty();
+        final Number counters = (Number) entityManager
+                .createNativeQuery("SELECT COUNT(*) FROM sp_rollout_status_count WHERE rollout = ?1")
+                .setParameter(1, rollout.getId()).getSingleResult();
+        assertThat(counters.intValue()).isEqualTo(2 * Status.values().length);
+
+        rolloutHandler.handleAll();
+        assertCountersMatchActions(rollout);
+    }
+
+    @Test
+    @Description("Verifies that the rollout status counters are reconciled after bulk updates which bypass them.")
+    void countersAreReconciled() {
+        final Rollout rollout = testdataFactory.createAndStartRollout(15, 0, 3, "100", "80");
+        final List<Long> targetIds = actionRepository.findByRolloutIdAndStatus(PAGE, rollout.getId(),
+                Status.SCHEDULED).getContent().stream().map(action -> action.getTarget().getId()).toList();
+
+        // bulk update directly on the repository bypasses the counters
+        actionRepository.switchStatus(Status.CANCELED, targetIds, false, Status.SCHEDULED);
+        assertThat(rolloutStatusCounter.getStatusCountByRolloutId(List.of(rollout.getId())))
+                .isNotEqualTo(actionRepository.getStatusCountByRolloutId(rollout.getId()));
+
+        rolloutStatusCounter.recountAll();
+        assertCountersMatchActions(rollout);
+    }
+
+    @Test
+    @Description("Verifies that the rollout status counters of more groups than recounted at once are reconciled.")
+    void countersOfManyGroupsAreReconciledInChunks() {
+        final List<Rollout> rollouts = IntStream.range(0, 5)
+                .mapToObj(i -> testdataFactory.createAndStartRollout(10, 0, 5, "100", "80")).toList();
+        final List<Long> targetIds = rollouts.stream()
+                .flatMap(rollout -> actionRepository.findByRolloutIdAndStatus(PAGE, rollout.getId(), Status.SCHEDULED)
+                        .getContent().stream())
+                .map(action -> action.getTarget().getId()).toList();
+
+        actionRepository.switchStatus(Status.CANCELED, targetIds, false, Status.SCHEDULED);
+        rolloutStatusCounter.recountAll();
+        rollouts.forEach(this::assertCountersMatchActions);
+
+        actionRepository.switchStatus(Status.SCHEDULED, targetIds, false, Status.CANCELED);
+        rollouts.forEach(rollout -> rolloutStatusCounter.recountByRollout(rollout.getId()));
+        rollouts.forEach(this::assertCountersMatchActions);
+    }
+
+    private void assertCountersMatchActions(final Rollout rollout) {
+        assertThat(rolloutStatusCounter.getStatusCountByRolloutId(List.of(rollout.getId())))
+                .containsExactlyInAnyOrderElementsOf(actionRepository.getStatusCountByRolloutId(rollout.getId()));
+
+        final List<Long> groupIds = rolloutGroupManagement.findByRollout(PAGE, rollout.getId()).getContent()
+                .stream().map(RolloutGroup::getId).toList();
+        assertThat(rolloutStatusCounter.getStatusCountByRolloutGroupId(groupIds))
+                .containsExactlyInAnyOrderElementsOf(actionRepository.getStatusCountByRolloutGroupId(groupIds));
+    }
+}
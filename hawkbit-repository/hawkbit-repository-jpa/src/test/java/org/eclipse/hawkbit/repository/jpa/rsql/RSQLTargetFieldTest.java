@@ -25,6 +25,7 @@ import org.eclipse.hawkbit.repository.TargetFields;
 import org.eclipse.hawkbit.repository.TargetTypeFields;
 import org.eclipse.hawkbit.repository.exception.RSQLParameterUnsupportedFieldException;
 import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetTag;
@@ -334,6 +335,23 @@ class RSQLTargetFieldTest extends AbstractJpaIntegrationTest {
                 .isThrownBy(() -> assertRSQLQuery("targettype.description==Description", 0));
     }
 
+    @Test
+    @Description("Verifies that the query is distinct only if to-many relations are joined, since only then the targets could be multiplied")
+    void distinctOnlyIfToManyRelationIsJoined() {
+        final RSQLToSQL rsqlToSQL = new RSQLToSQL(entityManager);
+        for (final boolean legacyRsqlVisitor : new boolean[] { true, false }) {
+            assertThat(rsqlToSQL.toSQL(JpaTarget.class, TargetFields.class, "name==target* and updatestatus==error", legacyRsqlVisitor))
+                    .doesNotContain("DISTINCT");
+            assertThat(rsqlToSQL.toSQL(JpaTarget.class, TargetFields.class, "targettype.key==Type1.key", legacyRsqlVisitor))
+                    .doesNotContain("DISTINCT");
+            assertThat(rsqlToSQL.toSQL(JpaTarget.class, TargetFields.class, "tag==Tag1", legacyRsqlVisitor))
+                    .contains("DISTINCT");
+        }
+        // G2 visitor matches attributes and negated to-many conditions in subqueries
+        assertThat(rsqlToSQL.toSQL(JpaTarget.class, TargetFields.class, "attribute.revision==1.1", false)).doesNotContain("DISTINCT");
+        assertThat(rsqlToSQL.toSQL(JpaTarget.class, TargetFields.class, "tag!=Tag1", false)).doesNotContain("DISTINCT");
+    }
+
     private void assertRSQLQuery(final String rsqlParam, final long expectedTargets) {
         final Slice<Target> findTargetPage = targetManagement.findByRsql(PAGE, rsqlParam);
         assertThat(findTargetPage).isNotNull();
@@ -59,13 +59,13 @@ public class RSQLToSQL {
             final String rsql, final boolean legacyRsqlVisitor) {
         final CriteriaQuery<T> query = entityManager.getCriteriaBuilder().createQuery(domainClass);
         final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final Root<T> root = query.from(domainClass);
         return query.where(
                 RsqlConfigHolder.getInstance().isLegacyRsqlVisitor() == legacyRsqlVisitor ?
                         // use directly
                         RSQLUtility.<A, T> buildRsqlSpecification(rsql, fieldsClass, null, DATABASE)
-                                .toPredicate(query.from(domainClass), cb.createQuery(domainClass), cb) :
-                        toPredicate(rsql, fieldsClass, null,
-                                query.from(domainClass), cb.createQuery(domainClass), cb, legacyRsqlVisitor)
+                                .toPredicate(root, query, cb) :
+                        toPredicate(rsql, fieldsClass, null, root, query, cb, legacyRsqlVisitor)
         );
     }
 
@@ -75,7 +75,6 @@ public class RSQLToSQL {
             final Root<T> root, final CriteriaQuery<?> query, final CriteriaBuilder cb,
             final boolean legacyRsqlVisitor) {
         final Node rootNode = new RSQLParser(RSQLOperators.defaultOperators()).parse(rsql);
-        query.distinct(true);
 
         final RSQLVisitor<List<Predicate>, String> jpqQueryRSQLVisitor =
                 legacyRsqlVisitor ?
@@ -89,6 +88,7 @@ public class RSQLToSQL {
                                         DATABASE, virtualPropertyReplacer,
                                         !RsqlConfigHolder.getInstance().isCaseInsensitiveDB() && RsqlConfigHolder.getInstance().isIgnoreCase());
         final List<Predicate> accept = rootNode.accept(jpqQueryRSQLVisitor);
+        RSQLUtility.distinctIfToManyJoined(root, query);
 
         if (CollectionUtils.isEmpty(accept)) {
             return cb.conjunction();
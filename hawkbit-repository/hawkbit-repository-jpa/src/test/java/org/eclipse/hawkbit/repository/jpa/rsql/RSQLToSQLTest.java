@@ -46,6 +46,7 @@ public class RSQLToSQLTest {
         print(JpaTarget.class, TargetFields.class, "tag==tag1 or tag==tag2 or tag==tag3");
         print(JpaTarget.class, TargetFields.class, "targettype.key==type1 and metadata.key1==target1-value1");
         print(JpaTarget.class, TargetFields.class, "(tag!=TAG1 or tag !=TAG2)");
+        print(JpaTarget.class, TargetFields.class, "attribute.hw_rev==B2 and attribute.region==eu*");
     }
 
     @Test
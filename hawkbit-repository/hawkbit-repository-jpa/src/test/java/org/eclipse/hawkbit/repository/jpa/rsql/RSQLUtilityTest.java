@@ -9,6 +9,7 @@
  */
 package org.eclipse.hawkbit.repository.jpa.rsql;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -182,7 +183,12 @@ public class RSQLUtilityTest {
     }
 
     @Test
+    @SuppressWarnings({ "rawtypes", "unchecked" })
     public void wrongRsqlMapSyntaxThrowSyntaxException() {
+        // target attributes are matched in an exists subquery
+        when(criteriaQueryMock.subquery(any())).thenReturn((Subquery) subqueryMock);
+        when(subqueryMock.from((Class) any())).thenReturn((Root) subqueryRootMock);
+
         String wrongRSQL = TargetFields.ATTRIBUTE + "==abc";
         try {
             RSQLUtility.buildRsqlSpecification(wrongRSQL, TargetFields.class, null, testDb)
@@ -265,6 +271,30 @@ public class RSQLUtilityTest {
         verify(criteriaBuilderMock, times(1)).and(any(Predicate.class));
     }
 
+    @Test
+    @Description("Verifies that a query is parsed and its fields are resolved once and then taken from the cache")
+    public void parsedRsqlIsCached() {
+        final String rsql = "TESTFIELD_WITH_SUB_ENTITIES.subentity11==cached;TESTFIELD==cached";
+        validateRsqlForTestFields(rsql);
+        final long queryHits = RsqlQueryCache.getQueryStatistics().getHits();
+        final long fieldPathHits = RsqlQueryCache.getFieldPathStatistics().getHits();
+
+        validateRsqlForTestFields(rsql);
+
+        assertThat(RsqlQueryCache.getQueryStatistics().getHits()).isEqualTo(queryHits + 1);
+        // the validation visitor gets the paths resolved at parsing
+        assertThat(RsqlQueryCache.getFieldPathStatistics().getHits()).isGreaterThanOrEqualTo(fieldPathHits + 2);
+
+        // invalid queries are not cached
+        final String invalidRsql = "TESTFIELD_WITH_SUB_ENTITIES.unsupported==cached";
+        final long queryMisses = RsqlQueryCache.getQueryStatistics().getMisses();
+        for (int i = 0; i < 2; i++) {
+            assertThatExceptionOfType(RSQLParameterUnsupportedFieldException.class)
+                    .isThrownBy(() -> validateRsqlForTestFields(invalidRsql));
+        }
+        assertThat(RsqlQueryCache.getQueryStatistics().getMisses()).isEqualTo(queryMisses + 2);
+    }
+
     @Test
     public void correctRsqlBuildsSimpleNotEqualPredicate() {
         reset0(baseSoftwareModuleRootMock, criteriaQueryMock, criteriaBuilderMock);
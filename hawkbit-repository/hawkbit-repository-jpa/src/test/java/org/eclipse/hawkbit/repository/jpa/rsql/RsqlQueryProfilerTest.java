@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.rsql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.TargetFields;
+import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.report.model.RsqlQueryReport;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+@Feature("Component Tests - Repository")
+@Story("RSQL query diagnostics")
+class RsqlQueryProfilerTest extends AbstractJpaIntegrationTest {
+
+    @Autowired
+    private RsqlQueryProfiler rsqlQueryProfiler;
+
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
+    @Test
+    @Description("Verifies that the selectors are lower cased and the values are replaced when the RSQL is normalized")
+    void normalizeRsql() {
+        assertThat(RsqlQueryProfiler.normalize(
+                RSQLUtility.parseRsql("NAME==abc and (tag==x or tag=in=(y,z))", TargetFields.class)))
+                .isEqualTo("(name==?;(tag==?,tag=in=(?)))");
+        assertThat(RsqlQueryProfiler.normalize(RSQLUtility.parseRsql("updatestatus!=error", TargetFields.class)))
+                .isEqualTo("updatestatus!=?");
+    }
+
+    @Test
+    @Description("Verifies that the executions of the RSQL filtered queries are recorded per tenant, entity and normalized RSQL")
+    void recordRsqlQueries() {
+        testdataFactory.createTargets("profiledA", 3);
+        testdataFactory.createTargets("profiledB", 2);
+
+        targetManagement.findByRsql(PAGE, "controllerId==profiledA* and name==profiledA*");
+        targetManagement.findByRsql(PAGE, "controllerId==profiledB* and name==profiledB*");
+
+        final RsqlQueryReport.Query query = systemManagement.getRsqlQueryReport().getQueries().stream()
+                .filter(q -> q.getRsql().equals("(controllerid==?;name==?)"))
+                .findAny().orElseThrow();
+        assertThat(query.getTenant()).isEqualToIgnoringCase(tenantAware.getCurrentTenant());
+        assertThat(query.getEntity()).isEqualTo("JpaTarget");
+        assertThat(query.getExecutions()).isEqualTo(2);
+        assertThat(query.getRows()).isEqualTo(5);
+        assertThat(query.getSql()).containsIgnoringCase("sp_target");
+    }
+
+    @Test
+    @Description("Verifies that the statistics of the RSQL caches are reported")
+    void reportRsqlCacheStatistics() {
+        targetManagement.findByRsql(PAGE, "controllerId==cached and name==cached");
+        final RsqlQueryReport before = rsqlQueryProfiler.getReport();
+
+        targetManagement.findByRsql(PAGE, "controllerId==cached and name==cached");
+
+        final RsqlQueryReport after = rsqlQueryProfiler.getReport();
+        assertThat(after.getQueryCache().getHits()).isGreaterThan(before.getQueryCache().getHits());
+        assertThat(after.getQueryCache().getSize()).isPositive();
+        assertThat(after.getFieldPathCache().getHits()).isGreaterThan(before.getFieldPathCache().getHits());
+        assertThat(after.getFieldPathCache().getSize()).isPositive();
+    }
+
+    @Test
+    @Description("Verifies that only the most recent slow executions are kept, with the RSQL and the generated SQL")
+    void keepMostRecentSlowQueries() {
+        final long slowQueryThresholdMS = repositoryProperties.getRsqlSlowQueryThresholdMS();
+        final int slowQueriesMaxSize = repositoryProperties.getRsqlSlowQueriesMaxSize();
+        repositoryProperties.setRsqlSlowQueryThresholdMS(0);
+        repositoryProperties.setRsqlSlowQueriesMaxSize(2);
+        try {
+            testdataFactory.createTargets("slow", 2);
+            targetManagement.findByRsql(PAGE, "controllerId==slow0");
+            targetManagement.findByRsql(PAGE, "controllerId==slow1");
+            targetManagement.countByRsql("controllerId==slow*");
+        } finally {
+            repositoryProperties.setRsqlSlowQueryThresholdMS(slowQueryThresholdMS);
+            repositoryProperties.setRsqlSlowQueriesMaxSize(slowQueriesMaxSize);
+        }
+
+        final List<RsqlQueryReport.Execution> slowExecutions = rsqlQueryProfiler.getReport().getSlowExecutions();
+        assertThat(slowExecutions).extracting(RsqlQueryReport.Execution::getRsql)
+                .containsExactly("controllerId==slow*", "controllerId==slow1");
+        assertThat(slowExecutions).allSatisfy(execution -> {
+            assertThat(execution.getEntity()).isEqualTo("JpaTarget");
+            assertThat(execution.getSql()).containsIgnoringCase("sp_target");
+            assertThat(execution.getRows()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    @Description("Verifies that a query still running when the repository call finishes is recorded as failed")
+    void recordFailedQueryWhenRepositoryCallFinishes() {
+        final List<Observation.Context> observations = new ArrayList<>();
+        final RsqlQueryProfiler profiler = newProfiler(observations);
+        final RuntimeException error = new RuntimeException("failed");
+
+        RsqlQueryProfiler.applied("name==failed", RSQLUtility.parseRsql("name==failed", TargetFields.class));
+        profiler.getSessionListener().preExecuteQuery(event(SessionEvent.PreExecuteQuery, new ReadAllQuery(JpaTarget.class)));
+        RsqlQueryProfiler.repositoryCallFinished(error);
+
+        final RsqlQueryReport.Query query = profiler.getReport().getQueries().get(0);
+        assertThat(query.getRsql()).isEqualTo("name==?");
+        assertThat(query.getExecutions()).isZero();
+        assertThat(query.getFailures()).isEqualTo(1);
+        assertThat(observations).singleElement().satisfies(context -> assertThat(context.getError()).isSameAs(error));
+    }
+
+    @Test
+    @Description("Verifies that a query without post execute event is recorded as failed when the next RSQL query starts")
+    void recordFailedQueryWhenReplaced() {
+        final List<Observation.Context> observations = new ArrayList<>();
+        final RsqlQueryProfiler profiler = newProfiler(observations);
+
+        RsqlQueryProfiler.applied("name==failed", RSQLUtility.parseRsql("name==failed", TargetFields.class));
+        profiler.getSessionListener().preExecuteQuery(event(SessionEvent.PreExecuteQuery, new ReadAllQuery(JpaTarget.class)));
+        RsqlQueryProfiler.applied("name==next", RSQLUtility.parseRsql("name==next", TargetFields.class));
+        final ReadAllQuery next = new ReadAllQuery(JpaTarget.class);
+        profiler.getSessionListener().preExecuteQuery(event(SessionEvent.PreExecuteQuery, next));
+        final SessionEvent postExecute = event(SessionEvent.PostExecuteQuery, next);
+        postExecute.setResult(Collections.emptyList());
+        profiler.getSessionListener().postExecuteQuery(postExecute);
+        RsqlQueryProfiler.repositoryCallFinished(null);
+
+        final RsqlQueryReport.Query query = profiler.getReport().getQueries().get(0);
+        assertThat(query.getExecutions()).isEqualTo(1);
+        assertThat(query.getFailures()).isEqualTo(1);
+        assertThat(observations).hasSize(2);
+        assertThat(observations.get(0).getError()).isNotNull();
+        assertThat(observations.get(1).getError()).isNull();
+    }
+
+    @Test
+    @Description("Verifies that the RSQL applied by a repository call is not assigned to a query of a later call")
+    void clearAppliedRsqlWhenRepositoryCallFinishes() {
+        final RsqlQueryProfiler profiler = newProfiler(new ArrayList<>());
+
+        RsqlQueryProfiler.applied("name==stale", RSQLUtility.parseRsql("name==stale", TargetFields.class));
+        RsqlQueryProfiler.repositoryCallFinished(new RuntimeException("failed"));
+        profiler.getSessionListener().preExecuteQuery(event(SessionEvent.PreExecuteQuery, new ReadAllQuery(JpaTarget.class)));
+        RsqlQueryProfiler.repositoryCallFinished(null);
+
+        assertThat(profiler.getReport().getQueries()).isEmpty();
+    }
+
+    private RsqlQueryProfiler newProfiler(final List<Observation.Context> observations) {
+        final ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new ObservationHandler<>() {
+
+            @Override
+            public void onStop(final Observation.Context context) {
+                observations.add(context);
+            }
+
+            @Override
+            public boolean supportsContext(final Observation.Context context) {
+                return true;
+            }
+        });
+        return new RsqlQueryProfiler(observationRegistry, tenantAware, repositoryProperties);
+    }
+
+    private static SessionEvent event(final int eventCode, final DatabaseQuery query) {
+        final SessionEvent event = new SessionEvent(eventCode, mock(Session.class));
+        event.setQuery(query);
+        return event;
+    }
+}
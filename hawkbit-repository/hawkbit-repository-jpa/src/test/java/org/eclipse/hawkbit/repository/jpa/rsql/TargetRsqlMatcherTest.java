@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.repository.jpa.rsql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.eclipse.hawkbit.repository.exception.RSQLParameterUnsupportedFieldException;
+import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
+import org.eclipse.hawkbit.repository.jpa.utils.DeploymentHelper;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetTag;
+import org.eclipse.hawkbit.repository.model.TargetType;
+import org.eclipse.hawkbit.repository.rsql.VirtualPropertyReplacer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Feature("Component Tests - Repository")
+@Story("RSQL in memory target matching")
+class TargetRsqlMatcherTest extends AbstractJpaIntegrationTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private VirtualPropertyReplacer virtualPropertyReplacer;
+
+    @BeforeEach
+    void setupBeforeTest() {
+        final DistributionSet ds = testdataFactory.createDistributionSet("AssignedDs");
+
+        final Target target1 = targetManagement.create(entityFactory.target().create().controllerId("targetId123")
+                .name("targetName123").description("targetDesc123"));
+        controllerManagement.updateControllerAttributes(target1.getControllerId(), Map.of("revision", "1.1", "Mode", "a*b"), null);
+        controllerManagement.findOrRegisterTargetIfItDoesNotExist(target1.getControllerId(), LOCALHOST);
+        createTargetMetadata(target1.getControllerId(), entityFactory.generateTargetMetadata("metaKey", "metaValue"));
+
+        final Target target2 = targetManagement
+                .create(entityFactory.target().create().controllerId("targetId1234").description("targetId1234"));
+        controllerManagement.updateControllerAttributes(target2.getControllerId(), Map.of("revision", "1.2"), null);
+        controllerManagement.findOrRegisterTargetIfItDoesNotExist(target2.getControllerId(), LOCALHOST);
+        createTargetMetadata(target2.getControllerId(), entityFactory.generateTargetMetadata("metaKey", "value"));
+
+        final Target target3 = testdataFactory.createTarget("targetId1235");
+        final Target target4 = testdataFactory.createTarget("other_1236");
+        testdataFactory.createTarget("TARGETID1237");
+
+        final TargetTag tag1 = targetTagManagement.create(entityFactory.tag().create().name("Tag1"));
+        final TargetTag tag2 = targetTagManagement.create(entityFactory.tag().create().name("Tag2"));
+        final TargetTag tag3 = targetTagManagement.create(entityFactory.tag().create().name("Tag3"));
+        targetManagement.assignTag(Arrays.asList(target1.getControllerId(), target2.getControllerId()), tag1.getId());
+        targetManagement.assignTag(Arrays.asList(target3.getControllerId(), target4.getControllerId()), tag2.getId());
+        targetManagement.assignTag(
+                Arrays.asList(target1.getControllerId(), target3.getControllerId(), target4.getControllerId()), tag3.getId());
+
+        assignDistributionSet(ds.getId(), target1.getControllerId());
+
+        final TargetType type1 = targetTypeManagement.create(entityFactory.targetType().create().name("Type1").key("Type1.key"));
+        final TargetType type2 = targetTypeManagement.create(entityFactory.targetType().create().name("Type2").key("Type2.key"));
+        targetManagement.assignType(target1.getControllerId(), type1.getId());
+        targetManagement.assignType(target2.getControllerId(), type2.getId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "id==targetId123", "id==target*", "id==TARGET*", "id!=targetId123", "id==*_*", "id==other_*", "id==other\\_*", "id==targetId12_",
+            "id=in=(targetId123,notexist)", "id=out=(targetId123,notexist)", "controllerid==*1236",
+            "name==targetName123", "name!=target*", "name=in=(TARGETNAME123)",
+            "description==''", "description!=''", "description==target*", "description!=targetDesc123",
+            "updatestatus==pending", "updatestatus!=pending", "updatestatus=in=(pending,error)", "updatestatus=out=(unknown)",
+            "attribute.revision==1.1", "attribute.revision!=1.1", "attribute.revision==1*", "attribute.revision=out=(1.1)",
+            "attribute.revision=gt=1.1", "attribute.mode==a\\*b", "attribute.mode==A*", "attribute.notexist!=x",
+            "metadata.metaKey==metaValue", "metadata.metakey!=metaValue", "metadata.metaKey==*value",
+            "tag==Tag1", "tag.name==tag*", "tag!=Tag1", "tag.name!=Tag3", "tag=in=(Tag1,Tag2)", "tag=out=(Tag1,Tag2)", "tag==''",
+            "assignedds.name==AssignedDs", "assignedds.name!=AssignedDs", "assignedds.name=out=(AssignedDs)",
+            "assignedds.version==*", "installedds.name==''", "installedds.name!=x",
+            "targettype.key==Type1.key", "targettype.name!=Type1", "targettype.name=out=(Type1)", "targettype.key==''",
+            "createdat=gt=0", "createdat=lt=0", "lastcontrollerrequestat=le=${OVERDUE_TS}", "lastcontrollerrequestat=gt=${NOW_TS}",
+            "ipaddress==*",
+            "id==target* and (tag==Tag1 or attribute.revision==1.2)", "(name==x or name!=targetName123);tag!=Tag2",
+            "id==targetId123,tag==Tag2;attribute.revision!=1.1"
+    })
+    @Description("Verifies that the in memory matching selects the same targets as the database query")
+    void matchesAsDatabaseQuery(final String rsql) {
+        final List<String> fromDatabase = targetManagement.findByRsql(PAGE, rsql).getContent().stream()
+                .map(Target::getControllerId).toList();
+
+        final Predicate<TargetSnapshot> predicate = TargetRsqlMatcher.compile(rsql, virtualPropertyReplacer);
+        final List<String> inMemory = getSnapshots().stream().filter(predicate).map(TargetSnapshot::controllerId).toList();
+
+        assertThat(inMemory).as(rsql).containsExactlyInAnyOrderElementsOf(fromDatabase);
+    }
+
+    @Test
+    @Description("Verifies that invalid queries are rejected as by the database query")
+    void invalidQueriesAreRejected() {
+        assertThatExceptionOfType(RSQLParameterUnsupportedFieldException.class)
+                .isThrownBy(() -> TargetRsqlMatcher.compile("wrongfield==x", virtualPropertyReplacer));
+        assertThatExceptionOfType(RSQLParameterUnsupportedFieldException.class)
+                .isThrownBy(() -> TargetRsqlMatcher.compile("assignedds==x", virtualPropertyReplacer));
+        assertThatExceptionOfType(RSQLParameterUnsupportedFieldException.class)
+                .isThrownBy(() -> TargetRsqlMatcher.compile("updatestatus==noExist", virtualPropertyReplacer));
+    }
+
+    private List<TargetSnapshot> getSnapshots() {
+        return DeploymentHelper.runInNewTransaction(transactionManager, "targetSnapshots",
+                status -> toList(targetRepository.findAll()).stream().map(TargetSnapshot::of).toList());
+    }
+}
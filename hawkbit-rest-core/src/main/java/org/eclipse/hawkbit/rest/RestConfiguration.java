@@ -76,8 +76,10 @@ public class RestConfiguration {
         // Exclude the URLs for downloading artifacts, so no eTag is generated
         // in the ShallowEtagHeaderFilter, just using the SHA1 hash of the
         // artifact itself as 'ETag', because otherwise the file will be copied in memory!
+        // Same for the streamed exports, which shall not be buffered at all.
         filterRegBean.setFilter(new ExcludePathAwareShallowETagFilter(
                 "/rest/v1/softwaremodules/{smId}/artifacts/{artId}/download",
+                "/rest/v1/export/**",
                 "/{tenant}/controller/v1/{controllerId}/softwaremodules/{softwareModuleId}/artifacts/**",
                 "/api/v1/downloadserver/**"));
 
@@ -101,6 +103,7 @@ public class RestConfiguration {
             ERROR_TO_HTTP_STATUS.put(SpServerError.SP_REPO_ENTITY_ALREADY_EXISTS, HttpStatus.CONFLICT);
             ERROR_TO_HTTP_STATUS.put(SpServerError.SP_REPO_ENTITY_READ_ONLY, HttpStatus.FORBIDDEN);
             ERROR_TO_HTTP_STATUS.put(SpServerError.SP_REST_SORT_PARAM_INVALID_DIRECTION, HttpStatus.BAD_REQUEST);
+            ERROR_TO_HTTP_STATUS.put(SpServerError.SP_REST_PAGING_CURSOR_INVALID, HttpStatus.BAD_REQUEST);
             ERROR_TO_HTTP_STATUS.put(SpServerError.SP_REST_SORT_PARAM_INVALID_FIELD, HttpStatus.BAD_REQUEST);
             ERROR_TO_HTTP_STATUS.put(SpServerError.SP_REST_SORT_PARAM_SYNTAX, HttpStatus.BAD_REQUEST);
             ERROR_TO_HTTP_STATUS.put(SpServerError.SP_REST_RSQL_PARAM_INVALID_FIELD, HttpStatus.BAD_REQUEST);
@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.sdk.load;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Distribution of the delays, in milliseconds, of simulated devices.
+ */
+@FunctionalInterface
+public interface Delay {
+
+    Delay NONE = () -> 0;
+
+    /**
+     * @return the next delay in milliseconds
+     */
+    long next();
+
+    static Delay fixed(final long millis) {
+        return () -> millis;
+    }
+
+    static Delay uniform(final long minMillis, final long maxMillis) {
+        if (maxMillis < minMillis) {
+            throw new IllegalArgumentException("Max delay " + maxMillis + " is lower than min delay " + minMillis);
+        }
+        return () -> ThreadLocalRandom.current().nextLong(minMillis, maxMillis + 1);
+    }
+
+    /**
+     * Exponential distribution, e.g. of the think times of independent devices.
+     *
+     * @param meanMillis the mean delay in milliseconds
+     * @return the delay
+     */
+    static Delay exponential(final long meanMillis) {
+        return () -> (long) (-meanMillis * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.sdk.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.Test;
+
+@Feature("Unit Tests - SDK")
+@Story("Latency Histogram")
+class LatencyHistogramTest {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    @Description("Verifies that an empty histogram reports 0 for all values.")
+    void emptyHistogram() {
+        assertThat(histogram.getCount()).isZero();
+        assertThat(histogram.getMin()).isZero();
+        assertThat(histogram.getMax()).isZero();
+        assertThat(histogram.getMean()).isZero();
+        assertThat(histogram.getValueAtPercentile(50)).isZero();
+    }
+
+    @Test
+    @Description("Verifies that the values below 256 are counted exactly.")
+    void valuesBelowLinearLimitAreExact() {
+        for (int value = 0; value < 256; value++) {
+            histogram.record(value);
+        }
+
+        for (int value = 0; value < 256; value++) {
+            assertThat(histogram.getValueAtPercentile(100.0 * (value + 1) / 256)).isEqualTo(value);
+        }
+        assertThat(histogram.getMin()).isZero();
+        assertThat(histogram.getMax()).isEqualTo(255);
+        assertThat(histogram.getMean()).isEqualTo(127.5);
+    }
+
+    @Test
+    @Description("Verifies the boundaries of the log-linear buckets: from 256 on two values share a bucket, from 512 on four values.")
+    void bucketBoundaries() {
+        // the percentile is capped by the max value, so a greater value is recorded as well
+        assertThat(valueAtMedian(255)).isEqualTo(255);
+        assertThat(valueAtMedian(256)).isEqualTo(257);
+        assertThat(valueAtMedian(257)).isEqualTo(257);
+        assertThat(valueAtMedian(258)).isEqualTo(259);
+        assertThat(valueAtMedian(511)).isEqualTo(511);
+        assertThat(valueAtMedian(512)).isEqualTo(515);
+        assertThat(valueAtMedian(515)).isEqualTo(515);
+        assertThat(valueAtMedian(516)).isEqualTo(519);
+    }
+
+    @Test
+    @Description("Verifies that the relative error of the great values is below 1%.")
+    void relativeErrorOfGreatValues() {
+        for (long value = 256; value < 1L << 40; value = value * 3 + 1) {
+            assertThat(valueAtMedian(value)).isBetween(value, value + value / 128);
+        }
+    }
+
+    @Test
+    @Description("Verifies the percentiles of uniformly distributed values.")
+    void percentiles() {
+        for (int value = 1; value <= 1_000; value++) {
+            histogram.record(value);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(1_000);
+        assertThat(histogram.getValueAtPercentile(0)).isEqualTo(1);
+        assertThat(histogram.getValueAtPercentile(10)).isEqualTo(100);
+        assertThat(histogram.getValueAtPercentile(50)).isEqualTo(501);
+        assertThat(histogram.getValueAtPercentile(99)).isEqualTo(991);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(1_000);
+        assertThat(histogram.getMean()).isEqualTo(500.5);
+    }
+
+    @Test
+    @Description("Verifies that negative values are recorded as 0, the max long value is supported and the histogram can be reset.")
+    void extremeValuesAndReset() {
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        assertThat(histogram.getMin()).isZero();
+        assertThat(histogram.getValueAtPercentile(50)).isZero();
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(Long.MAX_VALUE);
+
+        histogram.reset();
+        assertThat(histogram.getCount()).isZero();
+        assertThat(histogram.getMax()).isZero();
+        assertThat(histogram.getValueAtPercentile(100)).isZero();
+    }
+
+    // the highest value equivalent to the bucket of the given value
+    private static long valueAtMedian(final long value) {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(value);
+        histogram.record(Long.MAX_VALUE);
+        return histogram.getValueAtPercentile(50);
+    }
+}
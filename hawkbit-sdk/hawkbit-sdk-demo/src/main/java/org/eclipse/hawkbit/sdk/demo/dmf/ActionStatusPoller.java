@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.sdk.demo.dmf;
+
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.hawkbit.dmf.json.model.DmfActionStatus;
+import org.eclipse.hawkbit.mgmt.json.model.PagedList;
+import org.eclipse.hawkbit.mgmt.json.model.action.MgmtActionStatus;
+import org.eclipse.hawkbit.mgmt.rest.api.MgmtTargetRestApi;
+import org.eclipse.hawkbit.sdk.dmf.load.LoadSimulator;
+
+/**
+ * Reports the persistence of the statuses sent by a {@link LoadSimulator} to a real server. It polls the status list of
+ * the actions with pending statuses via the Mgmt API and reports the statuses found with their reportedAt time, i.e. the
+ * time they were persisted by the server. So the latency includes the difference of the clocks of simulator and server.
+ */
+@Slf4j
+public class ActionStatusPoller {
+
+    private static final int STATUS_LIMIT = 50;
+
+    private final LoadSimulator loadSimulator;
+    private final MgmtTargetRestApi targetRestApi;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "dmf-load-status-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructor.
+     *
+     * @param loadSimulator the simulator which tracks the sent statuses
+     * @param targetRestApi the Mgmt API of the targets of the tenant
+     * @param pollMillis the delay between two polls
+     */
+    public ActionStatusPoller(final LoadSimulator loadSimulator, final MgmtTargetRestApi targetRestApi,
+            final long pollMillis) {
+        this.loadSimulator = loadSimulator;
+        this.targetRestApi = targetRestApi;
+        executor.scheduleWithFixedDelay(this::poll, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void poll() {
+        loadSimulator.getPendingFeedback().forEach((actionId, thingId) -> {
+            try {
+                final PagedList<MgmtActionStatus> statuses = targetRestApi.getActionStatusList(
+                        thingId, actionId, 0, STATUS_LIMIT, null, null).getBody();
+                if (statuses != null) {
+                    statuses.getContent().forEach(status -> report(actionId, status));
+                }
+            } catch (final FeignException e) {
+                log.debug("Failed to poll the status of action {} of thing {}", actionId, thingId, e);
+            }
+        });
+    }
+
+    private void report(final long actionId, final MgmtActionStatus status) {
+        if (status.getType() == null || status.getReportedAt() == null) {
+            return;
+        }
+        try {
+            loadSimulator.feedbackPersisted(
+                    actionId, DmfActionStatus.valueOf(status.getType().toUpperCase(Locale.ROOT)), status.getReportedAt());
+        } catch (final IllegalArgumentException e) {
+            log.trace("Skip status {} of action {}", status.getType(), actionId);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.sdk.demo.dmf;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+
+import feign.Client;
+import feign.Contract;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import org.eclipse.hawkbit.mgmt.rest.api.MgmtTargetRestApi;
+import org.eclipse.hawkbit.sdk.HawkbitClient;
+import org.eclipse.hawkbit.sdk.HawkbitServer;
+import org.eclipse.hawkbit.sdk.Tenant;
+import org.eclipse.hawkbit.sdk.dmf.amqp.Amqp;
+import org.eclipse.hawkbit.sdk.dmf.amqp.AmqpProperties;
+import org.eclipse.hawkbit.sdk.dmf.amqp.VHost;
+import org.eclipse.hawkbit.sdk.dmf.load.LoadProfile;
+import org.eclipse.hawkbit.sdk.dmf.load.LoadSimulator;
+import org.eclipse.hawkbit.sdk.dmf.load.LocalDmfBroker;
+import org.eclipse.hawkbit.sdk.load.Delay;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.amqp.RabbitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+/**
+ * DMF load generator simulating many things over a few AMQP connections. With
+ * <code>hawkbit.sdk.dmf.load.offline=true</code> it runs against an in-process broker stand-in instead of RabbitMQ,
+ * which reports the persistence of the sent statuses when it receives them. Against a real server the persistence is
+ * tracked with <code>hawkbit.sdk.dmf.load.track-persistence=true</code>, by polling the action statuses via the Mgmt API,
+ * see {@link ActionStatusPoller}.
+ */
+@EnableConfigurationProperties({ RabbitProperties.class, AmqpProperties.class })
+@SpringBootApplication
+public class DmfLoadApp {
+
+    public static void main(String[] args) {
+        SpringApplication.run(DmfLoadApp.class, args);
+    }
+
+    @Bean
+    Amqp amqp(final RabbitProperties rabbitProperties, final AmqpProperties amqpProperties) {
+        return new Amqp(rabbitProperties, amqpProperties);
+    }
+
+    @Bean
+    LoadProfile loadProfile(
+            @Value("${hawkbit.sdk.dmf.load.step-delay-min:100}") final long stepDelayMin,
+            @Value("${hawkbit.sdk.dmf.load.step-delay-max:1000}") final long stepDelayMax,
+            @Value("${hawkbit.sdk.dmf.load.error-ratio:0}") final double errorRatio,
+            @Value("${hawkbit.sdk.dmf.load.creation-rate:0}") final int creationRate,
+            @Value("${hawkbit.sdk.dmf.load.offline:false}") final boolean offline,
+            @Value("${hawkbit.sdk.dmf.load.track-persistence:false}") final boolean trackPersistence,
+            @Value("${hawkbit.sdk.dmf.load.max-tracked-feedback:100000}") final int maxTrackedFeedback,
+            @Value("${hawkbit.sdk.dmf.load.feedback-timeout:60000}") final long feedbackTimeout) {
+        return LoadProfile.builder()
+                .stepDelay(Delay.uniform(stepDelayMin, stepDelayMax))
+                .errorRatio(errorRatio)
+                .creationRate(creationRate)
+                .trackPersistence(offline || trackPersistence)
+                .maxTrackedFeedback(maxTrackedFeedback)
+                .feedbackTimeout(feedbackTimeout)
+                .build();
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    ScheduledExecutorService loadScheduler(@Value("${hawkbit.sdk.dmf.load.scheduler-threads:4}") final int threads) {
+        return Executors.newScheduledThreadPool(threads);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "hawkbit.sdk.dmf.load.offline", havingValue = "true")
+    LocalDmfBroker localDmfBroker() {
+        return new LocalDmfBroker();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "hawkbit.sdk.dmf.load.offline", havingValue = "true")
+    LoadSimulator offlineLoadSimulator(
+            final LoadProfile loadProfile, final ScheduledExecutorService loadScheduler,
+            final LocalDmfBroker localDmfBroker, final AmqpProperties amqpProperties) {
+        final LoadSimulator simulator = new LoadSimulator(
+                loadProfile, List.of(localDmfBroker.createSender(amqpProperties)), loadScheduler);
+        localDmfBroker.connect(simulator);
+        return simulator;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "hawkbit.sdk.dmf.load.offline", havingValue = "false", matchIfMissing = true)
+    LoadSimulator loadSimulator(
+            final LoadProfile loadProfile, final ScheduledExecutorService loadScheduler,
+            final Amqp amqp, final Tenant tenant,
+            @Value("${hawkbit.sdk.dmf.load.connections:4}") final int connections,
+            @Value("${hawkbit.sdk.dmf.load.consumers:4}") final int consumers) {
+        // the vhosts start consuming before the simulator exists, messages received meanwhile are rejected and requeued
+        final AtomicReference<LoadSimulator> simulator = new AtomicReference<>();
+        final List<VHost> vHosts = amqp.createVHosts(tenant.getDmf(), connections, consumers, message -> {
+            if (simulator.get() == null) {
+                throw new IllegalStateException("Load simulator not yet started");
+            }
+            simulator.get().onMessage(message);
+        });
+        simulator.set(new LoadSimulator(loadProfile, vHosts, loadScheduler));
+        return simulator.get();
+    }
+
+    @Bean
+    @ConditionalOnExpression("${hawkbit.sdk.dmf.load.track-persistence:false} and !${hawkbit.sdk.dmf.load.offline:false}")
+    HawkbitClient hawkbitClient(
+            final HawkbitServer hawkBitServer,
+            final Client client, final Encoder encoder, final Decoder decoder, final Contract contract) {
+        return new HawkbitClient(hawkBitServer, client, encoder, decoder, contract);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnExpression("${hawkbit.sdk.dmf.load.track-persistence:false} and !${hawkbit.sdk.dmf.load.offline:false}")
+    ActionStatusPoller actionStatusPoller(
+            final LoadSimulator loadSimulator, final HawkbitClient hawkbitClient, final Tenant tenant,
+            @Value("${hawkbit.sdk.dmf.load.persistence-poll-millis:1000}") final long pollMillis) {
+        return new ActionStatusPoller(loadSimulator, hawkbitClient.mgmtService(MgmtTargetRestApi.class, tenant), pollMillis);
+    }
+
+    @ShellComponent
+    public static class Shell {
+
+        private final Tenant tenant;
+        private final LoadSimulator loadSimulator;
+        private final LocalDmfBroker localDmfBroker;
+
+        Shell(final Tenant tenant, final LoadSimulator loadSimulator, final Optional<LocalDmfBroker> localDmfBroker) {
+            this.tenant = tenant;
+            this.loadSimulator = loadSimulator;
+            this.localDmfBroker = localDmfBroker.orElse(null);
+        }
+
+        @ShellMethod(key = "create")
+        public void create(
+                @ShellOption(value = "--prefix", defaultValue = "") final String prefix,
+                @ShellOption(value = "--offset", defaultValue = "0") final int offset,
+                @ShellOption(value = "--count") final int count) {
+            loadSimulator.createThings(tenant.getTenantId(), prefix, offset, count);
+        }
+
+        @ShellMethod(key = "assign-all", value = "Assigns an action to all things (offline only)")
+        public String assignAll() {
+            if (localDmfBroker == null) {
+                return "Available only offline, assign via Mgmt API instead!";
+            }
+            return "Assigned " + localDmfBroker.assignAll(tenant.getTenantId()) + " actions";
+        }
+
+        @ShellMethod(key = "report")
+        public String report() {
+            return loadSimulator.report();
+        }
+
+        @ShellMethod(key = "reset")
+        public void reset() {
+            loadSimulator.reset();
+        }
+    }
+}
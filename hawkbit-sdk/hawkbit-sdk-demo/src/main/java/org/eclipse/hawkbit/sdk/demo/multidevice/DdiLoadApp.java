@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.sdk.demo.multidevice;
+
+import feign.Client;
+import feign.Contract;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import org.eclipse.hawkbit.sdk.HawkbitClient;
+import org.eclipse.hawkbit.sdk.HawkbitServer;
+import org.eclipse.hawkbit.sdk.Tenant;
+import org.eclipse.hawkbit.sdk.device.load.DdiLoadProfile;
+import org.eclipse.hawkbit.sdk.device.load.DdiLoadSimulator;
+import org.eclipse.hawkbit.sdk.load.Delay;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+/**
+ * DDI load generator simulating many devices polling hawkBit. The devices authenticate with the gateway token of the
+ * tenant.
+ */
+@SpringBootApplication
+public class DdiLoadApp {
+
+    public static void main(String[] args) {
+        SpringApplication.run(DdiLoadApp.class, args);
+    }
+
+    @Bean
+    HawkbitClient hawkbitClient(
+            final HawkbitServer hawkBitServer,
+            final Client client, final Encoder encoder, final Decoder decoder, final Contract contract) {
+        return new HawkbitClient(hawkBitServer, client, encoder, decoder, contract);
+    }
+
+    @Bean
+    DdiLoadProfile ddiLoadProfile(
+            @Value("${hawkbit.sdk.ddi.load.poll-millis:-1}") final long pollMillis,
+            @Value("${hawkbit.sdk.ddi.load.poll-jitter:0.1}") final double pollJitter,
+            @Value("${hawkbit.sdk.ddi.load.step-delay-min:100}") final long stepDelayMin,
+            @Value("${hawkbit.sdk.ddi.load.step-delay-max:1000}") final long stepDelayMax,
+            @Value("${hawkbit.sdk.ddi.load.failure-ratio:0}") final double failureRatio,
+            @Value("${hawkbit.sdk.ddi.load.download:true}") final boolean download,
+            @Value("${hawkbit.sdk.ddi.load.download-bytes-per-second:0}") final long downloadBytesPerSecond,
+            @Value("${hawkbit.sdk.ddi.load.concurrency:64}") final int concurrency,
+            @Value("${hawkbit.sdk.ddi.load.download-concurrency:16}") final int downloadConcurrency) {
+        return DdiLoadProfile.builder()
+                .pollMillis(pollMillis)
+                .pollJitter(pollJitter)
+                .stepDelay(Delay.uniform(stepDelayMin, stepDelayMax))
+                .failureRatio(failureRatio)
+                .download(download)
+                .downloadBytesPerSecond(downloadBytesPerSecond)
+                .concurrency(concurrency)
+                .downloadConcurrency(downloadConcurrency)
+                .build();
+    }
+
+    @Bean
+    DdiLoadSimulator ddiLoadSimulator(
+            final Tenant defaultTenant, final HawkbitClient hawkbitClient, final DdiLoadProfile ddiLoadProfile) {
+        return new DdiLoadSimulator(defaultTenant, hawkbitClient, ddiLoadProfile);
+    }
+
+    @ShellComponent
+    public static class Shell {
+
+        private final DdiLoadSimulator ddiLoadSimulator;
+
+        Shell(final DdiLoadSimulator ddiLoadSimulator) {
+            this.ddiLoadSimulator = ddiLoadSimulator;
+        }
+
+        @ShellMethod(key = "start")
+        public void start(
+                @ShellOption(value = "--prefix", defaultValue = "") final String prefix,
+                @ShellOption(value = "--offset", defaultValue = "0") final int offset,
+                @ShellOption(value = "--count") final int count) {
+            ddiLoadSimulator.start(prefix, offset, count);
+        }
+
+        @ShellMethod(key = "stop")
+        public void stop() {
+            ddiLoadSimulator.stop();
+        }
+
+        @ShellMethod(key = "report")
+        public String report() {
+            return ddiLoadSimulator.report();
+        }
+
+        @ShellMethod(key = "reset")
+        public void reset() {
+            ddiLoadSimulator.reset();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.sdk.device.load;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+import org.eclipse.hawkbit.sdk.device.UpdateStatus;
+import org.eclipse.hawkbit.sdk.load.Delay;
+
+/**
+ * Behaviour of the devices simulated by a {@link DdiLoadSimulator}.
+ */
+@Data
+@Builder
+public class DdiLoadProfile {
+
+    // poll interval in milliseconds, -1 to use the interval configured at the server
+    @Builder.Default
+    private long pollMillis = -1;
+    // ratio, between 0 and 1, of the random deviation of each poll interval, so the polls of the devices spread
+    @Builder.Default
+    private double pollJitter = 0.1;
+    // statuses sent, in order, for an action. The artifacts are downloaded after the DOWNLOAD status
+    @Builder.Default
+    private List<UpdateStatus.Status> feedbackSequence = List.of(
+            UpdateStatus.Status.PROCEEDING, UpdateStatus.Status.DOWNLOAD, UpdateStatus.Status.DOWNLOADED,
+            UpdateStatus.Status.SUCCESSFUL);
+    // ratio, between 0 and 1, of the actions which end with FAILURE instead of the last status of the sequence
+    @Builder.Default
+    private double failureRatio = 0;
+    // delay between two statuses of an action
+    @Builder.Default
+    private Delay stepDelay = Delay.uniform(100, 1_000);
+    // if the artifacts are downloaded, otherwise only the statuses are sent
+    @Builder.Default
+    private boolean download = true;
+    // max download rate per device in bytes per second, 0 for no limit
+    private long downloadBytesPerSecond;
+    // number of times an interrupted download is resumed
+    @Builder.Default
+    private int downloadRetries = 3;
+    // max number of concurrent requests to the DDI API, except downloads
+    @Builder.Default
+    private int concurrency = 64;
+    // max number of concurrent downloads
+    @Builder.Default
+    private int downloadConcurrency = 16;
+}
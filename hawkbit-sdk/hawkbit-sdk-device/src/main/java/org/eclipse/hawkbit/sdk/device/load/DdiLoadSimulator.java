@@ -0,0 +1,439 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.sdk.device.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.KeyManagementException;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalTime;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
+import org.apache.hc.core5.ssl.SSLContextBuilder;
+import org.eclipse.hawkbit.ddi.json.model.DdiArtifact;
+import org.eclipse.hawkbit.ddi.json.model.DdiChunk;
+import org.eclipse.hawkbit.ddi.json.model.DdiConfirmationFeedback;
+import org.eclipse.hawkbit.ddi.json.model.DdiControllerBase;
+import org.eclipse.hawkbit.ddi.json.model.DdiDeploymentBase;
+import org.eclipse.hawkbit.ddi.rest.api.DdiRootControllerRestApi;
+import org.eclipse.hawkbit.sdk.Controller;
+import org.eclipse.hawkbit.sdk.HawkbitClient;
+import org.eclipse.hawkbit.sdk.Tenant;
+import org.eclipse.hawkbit.sdk.device.UpdateStatus;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Load generator which simulates a high number of DDI devices. In contrast to the
+ * {@link org.eclipse.hawkbit.sdk.device.DdiController}, which requires a thread per device, the devices share a timer
+ * and bounded pools of workers and downloaders, and all their requests go over one pooled HTTP client. So the number
+ * of devices is limited by the server rather than by the threads of the simulator.
+ * <p/>
+ * The devices poll with the (jittered) interval of the {@link DdiLoadProfile}, reply to the actions with its feedback
+ * sequence, and download the artifacts, resuming interrupted downloads and limited to its byte rate. The latencies and
+ * errors are recorded per endpoint and reported with the throughput.
+ * <p/>
+ * All devices use the same DDI API client, authenticated with the gateway token of the tenant (or anonymously), since
+ * target security tokens would require a client per device.
+ */
+@Slf4j
+public class DdiLoadSimulator implements AutoCloseable {
+
+    public static final String POLL = "poll";
+    public static final String DEPLOYMENT = "deploymentBase";
+    public static final String FEEDBACK = "feedback";
+    public static final String CONFIRMATION = "confirmation";
+    public static final String DOWNLOAD = "download";
+
+    private static final long IMMEDIATE_MS = 10;
+    private static final long DEFAULT_POLL_MS = 5_000;
+    private static final String DEPLOYMENT_BASE_LINK = "deploymentBase";
+    private static final String CONFIRMATION_BASE_LINK = "confirmationBase";
+
+    private final String tenantId;
+    private final String gatewayToken;
+    private final DdiLoadProfile profile;
+    private final DdiRootControllerRestApi ddiApi;
+    private final CloseableHttpClient httpClient;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService workers;
+    private final ExecutorService downloaders;
+
+    private final Map<String, Device> devices = new ConcurrentHashMap<>();
+    private final Map<String, EndpointStats> stats;
+    private final LongAdder downloadedBytes = new LongAdder();
+    private volatile long sinceNanos = System.nanoTime();
+
+    /**
+     * Constructor.
+     *
+     * @param tenant the tenant of the devices
+     * @param hawkbitClient the client to create the DDI API client with
+     * @param profile the behaviour of the devices
+     */
+    public DdiLoadSimulator(final Tenant tenant, final HawkbitClient hawkbitClient, final DdiLoadProfile profile) {
+        tenantId = tenant.getTenantId();
+        gatewayToken = tenant.getGatewayToken();
+        this.profile = profile;
+        ddiApi = hawkbitClient.ddiService(DdiRootControllerRestApi.class, tenant,
+                Controller.builder().controllerId("ddi-load-simulator").build());
+        httpClient = createHttpClient(profile.getDownloadConcurrency());
+
+        timer = Executors.newSingleThreadScheduledExecutor(threadFactory("ddi-load-timer"));
+        workers = Executors.newFixedThreadPool(profile.getConcurrency(), threadFactory("ddi-load-worker"));
+        downloaders = Executors.newFixedThreadPool(profile.getDownloadConcurrency(), threadFactory("ddi-load-download"));
+
+        final Map<String, EndpointStats> endpointStats = new LinkedHashMap<>();
+        for (final String endpoint : List.of(POLL, DEPLOYMENT, FEEDBACK, CONFIRMATION, DOWNLOAD)) {
+            endpointStats.put(endpoint, new EndpointStats(endpoint));
+        }
+        stats = Collections.unmodifiableMap(endpointStats);
+    }
+
+    /**
+     * Starts the devices with ids prefix + index, for the indexes from offset to offset + count - 1. Their first polls
+     * are spread over a poll interval.
+     *
+     * @param prefix the prefix of the device ids
+     * @param offset the first index
+     * @param count the number of devices
+     */
+    public void start(final String prefix, final int offset, final int count) {
+        final long spread = profile.getPollMillis() > 0 ? profile.getPollMillis() : DEFAULT_POLL_MS;
+        for (int i = offset; i < offset + count; i++) {
+            final String controllerId = String.format("%s%03d", prefix, i);
+            final Device device = new Device(controllerId);
+            if (devices.putIfAbsent(controllerId, device) == null) {
+                schedule(() -> poll(device), ThreadLocalRandom.current().nextLong(spread), workers);
+            }
+        }
+        log.info("Started {} devices with prefix '{}'", count, prefix);
+    }
+
+    /**
+     * Stops all devices. Their running requests are finished.
+     */
+    public void stop() {
+        devices.values().forEach(device -> device.active = false);
+        devices.clear();
+    }
+
+    public int getDevices() {
+        return devices.size();
+    }
+
+    public Map<String, EndpointStats> getStats() {
+        return stats;
+    }
+
+    /**
+     * Resets the latencies and errors, e.g. after a warm up phase.
+     */
+    public void reset() {
+        stats.values().forEach(EndpointStats::reset);
+        downloadedBytes.reset();
+        sinceNanos = System.nanoTime();
+    }
+
+    /**
+     * @return a human-readable report of the throughput and latencies per endpoint
+     */
+    public String report() {
+        final long elapsedNanos = System.nanoTime() - sinceNanos;
+        final StringBuilder report = new StringBuilder(String.format("devices: %d, elapsed: %ds, downloaded: %.1f MB (%.2f MB/s)",
+                devices.size(), TimeUnit.NANOSECONDS.toSeconds(elapsedNanos), downloadedBytes.sum() / 1e6,
+                downloadedBytes.sum() / 1e6 / Math.max(1, elapsedNanos) * 1e9));
+        stats.values().forEach(endpointStats -> report.append(System.lineSeparator()).append(endpointStats.report(elapsedNanos)));
+        return report.toString();
+    }
+
+    @Override
+    public void close() {
+        stop();
+        timer.shutdownNow();
+        workers.shutdownNow();
+        downloaders.shutdownNow();
+        try {
+            httpClient.close();
+        } catch (final IOException e) {
+            log.warn("Failed to close http client", e);
+        }
+    }
+
+    private static ThreadFactory threadFactory(final String name) {
+        final AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static CloseableHttpClient createHttpClient(final int maxConnections) {
+        try {
+            return HttpClients.custom()
+                    .setConnectionManager(
+                            PoolingHttpClientConnectionManagerBuilder.create()
+                                    .setMaxConnTotal(maxConnections)
+                                    .setMaxConnPerRoute(maxConnections)
+                                    .setSSLSocketFactory(new SSLConnectionSocketFactory(
+                                            SSLContextBuilder.create().loadTrustMaterial(null, (chain, authType) -> true).build()))
+                                    .build())
+                    .build();
+        } catch (final NoSuchAlgorithmException | KeyStoreException | KeyManagementException e) {
+            throw new IllegalStateException("Failed to create http client!", e);
+        }
+    }
+
+    private static long getActionId(final Link link) {
+        final String href = link.getHref();
+        return Long.parseLong(href.substring(href.lastIndexOf('/') + 1, href.indexOf('?')));
+    }
+
+    // the timer only hands the due tasks over to the pools, so it is never blocked by a request
+    private void schedule(final Runnable task, final long delayMillis, final ExecutorService pool) {
+        try {
+            timer.schedule(() -> pool.execute(task), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException e) {
+            log.trace("Simulator closed, skip task", e);
+        }
+    }
+
+    private <T> Optional<ResponseEntity<T>> call(final String endpoint, final Supplier<ResponseEntity<T>> request) {
+        final EndpointStats endpointStats = stats.get(endpoint);
+        final long start = System.nanoTime();
+        try {
+            final ResponseEntity<T> response = request.get();
+            if (response.getStatusCode().is2xxSuccessful()) {
+                endpointStats.success(start);
+                return Optional.of(response);
+            }
+            log.debug("Call of {} failed with {}", endpoint, response.getStatusCode());
+        } catch (final RuntimeException e) {
+            log.debug("Call of {} failed", endpoint, e);
+        }
+        endpointStats.error();
+        return Optional.empty();
+    }
+
+    private void poll(final Device device) {
+        if (!device.active) {
+            return;
+        }
+
+        final DdiControllerBase controllerBase = call(POLL, () -> ddiApi.getControllerBase(tenantId, device.controllerId))
+                .map(ResponseEntity::getBody).orElse(null);
+        if (controllerBase == null) {
+            schedule(() -> poll(device), jitter(DEFAULT_POLL_MS), workers);
+            return;
+        }
+
+        final Optional<Link> confirmationBaseLink = controllerBase.getLink(CONFIRMATION_BASE_LINK);
+        if (confirmationBaseLink.isPresent()) {
+            final long actionId = getActionId(confirmationBaseLink.get());
+            final DdiConfirmationFeedback confirmation = new DdiConfirmationFeedback(
+                    DdiConfirmationFeedback.Confirmation.CONFIRMED, 0, List.of("Simulated confirmation"));
+            call(CONFIRMATION, () -> ddiApi.postConfirmationActionFeedback(
+                    confirmation, tenantId, device.controllerId, actionId));
+            schedule(() -> poll(device), IMMEDIATE_MS, workers);
+            return;
+        }
+
+        controllerBase.getLink(DEPLOYMENT_BASE_LINK).ifPresent(link -> {
+            final long actionId = getActionId(link);
+            if (device.currentActionId == null && (device.lastActionId == null || device.lastActionId != actionId)) {
+                call(DEPLOYMENT, () -> ddiApi.getControllerDeploymentBaseAction(tenantId, device.controllerId, actionId, -1, null))
+                        .map(ResponseEntity::getBody)
+                        .ifPresent(deploymentBase -> startAction(device, actionId, deploymentBase));
+            }
+        });
+        schedule(() -> poll(device), jitter(getPollMillis(controllerBase)), workers);
+    }
+
+    private void startAction(final Device device, final long actionId, final DdiDeploymentBase deploymentBase) {
+        device.currentActionId = actionId;
+        final List<DdiArtifact> artifacts = new ArrayList<>();
+        final List<DdiChunk> chunks = deploymentBase.getDeployment().getChunks();
+        if (chunks != null) {
+            chunks.forEach(chunk -> Optional.ofNullable(chunk.getArtifacts()).ifPresent(artifacts::addAll));
+        }
+        final boolean failure = profile.getFailureRatio() > 0 && ThreadLocalRandom.current().nextDouble() < profile.getFailureRatio();
+        step(device, new Step(actionId, artifacts, failure, 0));
+    }
+
+    private void step(final Device device, final Step step) {
+        final List<UpdateStatus.Status> sequence = profile.getFeedbackSequence();
+        if (!device.active || step.index >= sequence.size()) {
+            device.lastActionId = step.actionId;
+            device.currentActionId = null;
+            return;
+        }
+
+        final boolean last = step.index == sequence.size() - 1;
+        final UpdateStatus.Status status = last && step.failure ? UpdateStatus.Status.FAILURE : sequence.get(step.index);
+        call(FEEDBACK, () -> ddiApi.postDeploymentBaseActionFeedback(
+                new UpdateStatus(status, List.of("Simulated " + status)).feedback(),
+                tenantId, device.controllerId, step.actionId));
+
+        if (status == UpdateStatus.Status.DOWNLOAD && profile.isDownload() && !step.artifacts.isEmpty()) {
+            downloaders.execute(() -> {
+                step.artifacts.forEach(this::download);
+                schedule(() -> step(device, step.next()), profile.getStepDelay().next(), workers);
+            });
+        } else if (last) {
+            step(device, step.next());
+        } else {
+            schedule(() -> step(device, step.next()), profile.getStepDelay().next(), workers);
+        }
+    }
+
+    private long getPollMillis(final DdiControllerBase controllerBase) {
+        if (profile.getPollMillis() >= 0) {
+            return profile.getPollMillis();
+        }
+
+        final String pollingTimeFromResponse = controllerBase.getConfig().getPolling().getSleep();
+        if (pollingTimeFromResponse == null) {
+            return DEFAULT_POLL_MS;
+        } else {
+            return LocalTime.parse(pollingTimeFromResponse).getLong(ChronoField.MILLI_OF_DAY);
+        }
+    }
+
+    private long jitter(final long millis) {
+        final double jitter = profile.getPollJitter();
+        if (jitter <= 0) {
+            return millis;
+        }
+        return Math.max(0, (long) (millis * (1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter))));
+    }
+
+    private void download(final DdiArtifact artifact) {
+        final Optional<String> url = artifact.getLink("download").or(() -> artifact.getLink("download-http")).map(Link::getHref);
+        if (url.isEmpty()) {
+            return;
+        }
+
+        final EndpointStats endpointStats = stats.get(DOWNLOAD);
+        final Download download = new Download(url.get(), artifact.getSize() == null ? -1 : artifact.getSize());
+        final long start = System.nanoTime();
+        for (int attempt = 0; attempt <= profile.getDownloadRetries(); attempt++) {
+            try {
+                downloadFrom(download);
+                if (download.size < 0 || download.received == download.size) {
+                    endpointStats.success(start);
+                    return;
+                }
+                log.debug("Download of {} incomplete, {} of {} bytes", download.url, download.received, download.size);
+            } catch (final IOException | RuntimeException e) {
+                log.debug("Download of {} interrupted after {} bytes", download.url, download.received, e);
+            }
+        }
+        endpointStats.error();
+    }
+
+    // downloads the remaining bytes, i.e. resumes the download if some bytes have already been received
+    private void downloadFrom(final Download download) throws IOException {
+        final HttpGet request = new HttpGet(download.url);
+        if (!ObjectUtils.isEmpty(gatewayToken)) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, "GatewayToken " + gatewayToken);
+        }
+        if (download.received > 0) {
+            request.addHeader(HttpHeaders.RANGE, "bytes=" + download.received + "-");
+        }
+
+        httpClient.execute(request, response -> {
+            if (response.getCode() == HttpStatus.OK.value()) {
+                // range not supported, start from the beginning
+                download.received = 0;
+            } else if (response.getCode() != HttpStatus.PARTIAL_CONTENT.value()) {
+                throw new IOException("Unexpected status code: " + response.getCode());
+            }
+
+            final long rate = profile.getDownloadBytesPerSecond();
+            final long startNanos = System.nanoTime();
+            long read = 0;
+            final byte[] buff = new byte[32 * 1024];
+            try (final InputStream is = response.getEntity().getContent()) {
+                for (int len; (len = is.read(buff)) != -1; ) {
+                    download.received += len;
+                    downloadedBytes.add(len);
+                    read += len;
+                    if (rate > 0) {
+                        final long aheadNanos = read * 1_000_000_000L / rate - (System.nanoTime() - startNanos);
+                        if (aheadNanos > 0) {
+                            LockSupport.parkNanos(aheadNanos);
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private static class Device {
+
+        private final String controllerId;
+        private volatile boolean active = true;
+        private volatile Long currentActionId;
+        private volatile Long lastActionId;
+
+        private Device(final String controllerId) {
+            this.controllerId = controllerId;
+        }
+    }
+
+    private record Step(long actionId, List<DdiArtifact> artifacts, boolean failure, int index) {
+
+        private Step next() {
+            return new Step(actionId, artifacts, failure, index + 1);
+        }
+    }
+
+    private static class Download {
+
+        private final String url;
+        private final long size;
+        private long received;
+
+        private Download(final String url, final long size) {
+            this.url = url;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.sdk.device.load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Getter;
+import org.eclipse.hawkbit.sdk.load.LatencyHistogram;
+
+/**
+ * Latencies, in microseconds, and errors of the calls of an endpoint of the DDI API.
+ */
+@Getter
+public class EndpointStats {
+
+    private final String endpoint;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStats(final String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void success(final long startNanos) {
+        latency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+    }
+
+    void error() {
+        errors.increment();
+    }
+
+    void reset() {
+        latency.reset();
+        errors.reset();
+    }
+
+    /**
+     * @param elapsedNanos the time the calls have been made in
+     * @return the endpoint with its throughput, errors and latency percentiles in milliseconds
+     */
+    String report(final long elapsedNanos) {
+        final double seconds = Math.max(1, elapsedNanos) / 1e9;
+        return String.format("%-14s count=%d, errors=%d, throughput=%.1f/s, p50=%.1fms, p99=%.1fms, p99.9=%.1fms, max=%.1fms",
+                endpoint, latency.getCount(), errors.sum(), latency.getCount() / seconds,
+                latency.getValueAtPercentile(50) / 1e3, latency.getValueAtPercentile(99) / 1e3,
+                latency.getValueAtPercentile(99.9) / 1e3, latency.getMax() / 1e3);
+    }
+}
@@ -11,10 +11,14 @@ package org.eclipse.hawkbit.sdk.dmf.amqp;
 
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.hawkbit.sdk.Tenant.DMF;
+import org.springframework.amqp.core.MessageListener;
 import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.boot.autoconfigure.amqp.RabbitProperties;
@@ -29,6 +33,7 @@ public class Amqp {
     private final RabbitProperties rabbitProperties;
     private final AmqpProperties amqpProperties;
     private final ConcurrentHashMap<String, VHost> vHosts = new ConcurrentHashMap<>();
+    private final List<VHost> listenerVHosts = new CopyOnWriteArrayList<>();
 
     public Amqp(final RabbitProperties rabbitProperties, final AmqpProperties amqpProperties) {
         this.rabbitProperties = rabbitProperties;
@@ -37,13 +42,40 @@ public class Amqp {
 
     public void stop() {
         vHosts.values().forEach(VHost::stop);
+        listenerVHosts.forEach(VHost::stop);
     }
 
     public VHost getVhost(final DMF dmf, final boolean initVHost) {
-        final String vHost = dmf == null || ObjectUtils.isEmpty(dmf.getVirtualHost()) ?
+        final String vHost = vHost(dmf);
+        return vHosts.computeIfAbsent(vHost, vh -> new VHost(getConnectionFactory(dmf, vHost), amqpProperties, initVHost));
+    }
+
+    /**
+     * Creates vhosts, each with its own connection, whose received messages are handled by the given listener, e.g. to
+     * multiplex many simulated things over a few connections.
+     *
+     * @param dmf the dmf configuration of the tenant
+     * @param connections the number of connections
+     * @param concurrentConsumers the number of consumers per connection
+     * @param listener the listener of the received messages
+     * @return the vhosts, which could be used as senders
+     */
+    public List<VHost> createVHosts(
+            final DMF dmf, final int connections, final int concurrentConsumers, final MessageListener listener) {
+        final String vHost = vHost(dmf);
+        final List<VHost> created = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            // only the first declares the queue and exchange
+            created.add(new VHost(getConnectionFactory(dmf, vHost), amqpProperties, i == 0, listener, concurrentConsumers));
+        }
+        listenerVHosts.addAll(created);
+        return created;
+    }
+
+    private String vHost(final DMF dmf) {
+        return dmf == null || ObjectUtils.isEmpty(dmf.getVirtualHost()) ?
                 (rabbitProperties.getVirtualHost() == null ? "/" : rabbitProperties.getVirtualHost()) :
                 dmf.getVirtualHost();
-        return vHosts.computeIfAbsent(vHost, vh -> new VHost(getConnectionFactory(dmf, vHost), amqpProperties, initVHost));
     }
 
     private ConnectionFactory getConnectionFactory(final DMF dmf, final String vHost) {
@@ -11,6 +11,7 @@ package org.eclipse.hawkbit.sdk.dmf.amqp;
 
 import lombok.Data;
 import lombok.ToString;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -40,4 +41,11 @@ public class AmqpProperties {
      * Message time to live (ttl) for the deadletter queue. Default ttl is 1 hour.
      */
     private int deadLetterTtl = 60_000;
+
+    /**
+     * Content type of the messages sent to update server, application/json or
+     * application/cbor. The update server negotiates the content type of the
+     * messages sent to the reply-to exchange by the THING_CREATED messages.
+     */
+    private String contentType = MessageProperties.CONTENT_TYPE_JSON;
 }
\ No newline at end of file
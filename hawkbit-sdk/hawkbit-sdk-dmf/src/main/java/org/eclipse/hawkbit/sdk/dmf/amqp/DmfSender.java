@@ -63,7 +63,7 @@ public class DmfSender {
         messagePropertiesForSP.setHeader(MessageHeaderKey.TENANT, tenant);
         messagePropertiesForSP.setHeader(MessageHeaderKey.THING_ID, controllerId);
         messagePropertiesForSP.setHeader(MessageHeaderKey.SENDER, "hawkBit-sdk");
-        messagePropertiesForSP.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        messagePropertiesForSP.setContentType(amqpProperties.getContentType());
         messagePropertiesForSP.setReplyTo(amqpProperties.getSenderForSpExchange());
 
         sendMessage(DMF_EXCHANGE, new Message(EMPTY_BODY, messagePropertiesForSP));
@@ -120,7 +120,7 @@ public class DmfSender {
         messagePropertiesForSP.setHeader(MessageHeaderKey.TOPIC, EventTopic.UPDATE_ATTRIBUTES);
         messagePropertiesForSP.setHeader(MessageHeaderKey.TENANT, tenant);
         messagePropertiesForSP.setHeader(MessageHeaderKey.THING_ID, controllerId);
-        messagePropertiesForSP.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        messagePropertiesForSP.setContentType(amqpProperties.getContentType());
         messagePropertiesForSP.setReplyTo(amqpProperties.getSenderForSpExchange());
 
         final DmfAttributeUpdate attributeUpdate = new DmfAttributeUpdate();
@@ -164,7 +164,8 @@ public class DmfSender {
         headers.put(MessageHeaderKey.TYPE, MessageType.EVENT.name());
         headers.put(MessageHeaderKey.TENANT, tenant);
         headers.put(MessageHeaderKey.TOPIC, EventTopic.UPDATE_ACTION_STATUS.name());
-        headers.put(MessageHeaderKey.CONTENT_TYPE, MessageProperties.CONTENT_TYPE_JSON);
+        headers.put(MessageHeaderKey.CONTENT_TYPE, amqpProperties.getContentType());
+        messageProperties.setContentType(amqpProperties.getContentType());
         actionUpdateStatus.addMessage(updateResultMessages);
 
         return convertMessage(actionUpdateStatus, messageProperties);
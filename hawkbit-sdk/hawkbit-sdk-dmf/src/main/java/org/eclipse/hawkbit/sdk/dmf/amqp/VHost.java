@@ -19,7 +19,9 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.hawkbit.dmf.amqp.api.AmqpSettings;
 import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
+import org.eclipse.hawkbit.dmf.amqp.api.Jackson2CborMessageConverter;
 import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
 import org.eclipse.hawkbit.dmf.amqp.api.MessageType;
 import org.eclipse.hawkbit.dmf.json.model.DmfActionRequest;
@@ -40,7 +42,9 @@ import org.springframework.amqp.rabbit.core.RabbitAdmin;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
 import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
 
 /**
  * Abstract class for sender and receiver service.
@@ -58,6 +62,21 @@ public class VHost extends DmfSender implements MessageListener {
     }
 
     public VHost(final ConnectionFactory connectionFactory, final AmqpProperties amqpProperties, final boolean initVHost) {
+        this(connectionFactory, amqpProperties, initVHost, null, 1);
+    }
+
+    /**
+     * Creates a vhost whose received messages are handled by the given listener instead of the registered tenants,
+     * e.g. by a {@link org.eclipse.hawkbit.sdk.dmf.load.LoadSimulator}.
+     *
+     * @param connectionFactory the connection factory
+     * @param amqpProperties the amqp properties
+     * @param initVHost if the queue and exchange shall be declared
+     * @param listener the listener of the received messages, <code>null</code> to dispatch them to the tenants
+     * @param concurrentConsumers the number of consumers of the queue
+     */
+    public VHost(final ConnectionFactory connectionFactory, final AmqpProperties amqpProperties, final boolean initVHost,
+            final MessageListener listener, final int concurrentConsumers) {
         super(new RabbitTemplate(connectionFactory), amqpProperties);
 
         // It is necessary to define rabbitTemplate as a Bean and set
@@ -66,7 +85,7 @@ public class VHost extends DmfSender implements MessageListener {
         // Jackson2JsonMessageConverter can not handle messages with NULL
         // payload (e.g. REQUEST_ATTRIBUTES_UPDATE), so the
         // SimpleMessageConverter is used instead per default.
-        rabbitTemplate.setMessageConverter(new Jackson2JsonMessageConverter());
+        rabbitTemplate.setMessageConverter(createMessageConverter());
 
         if (initVHost) {
             final RabbitAdmin rabbitAdmin = new RabbitAdmin(connectionFactory);
@@ -84,10 +103,24 @@ public class VHost extends DmfSender implements MessageListener {
         container = new SimpleMessageListenerContainer();
         container.setConnectionFactory(connectionFactory);
         container.setQueueNames(amqpProperties.getReceiverConnectorQueueFromSp());
-        container.setMessageListener(this);
+        container.setMessageListener(listener == null ? this : listener);
+        container.setConcurrentConsumers(concurrentConsumers);
         container.start();
     }
 
+    /**
+     * Creates the converter of the messages. Messages with CBOR content type are converted by the CBOR converter, the
+     * others by the JSON converter.
+     *
+     * @return the message converter
+     */
+    public static MessageConverter createMessageConverter() {
+        final ContentTypeDelegatingMessageConverter messageConverter = new ContentTypeDelegatingMessageConverter(
+                new Jackson2JsonMessageConverter());
+        messageConverter.addDelegate(AmqpSettings.CONTENT_TYPE_CBOR, new Jackson2CborMessageConverter());
+        return messageConverter;
+    }
+
     public void register(final DmfTenant dmfTenant) {
         dmfTenants.put(dmfTenant.getTenant().getTenantId(), dmfTenant);
     }
@@ -101,12 +134,12 @@ public class VHost extends DmfSender implements MessageListener {
         log.info("Message received for target {}, value : {}", controllerId, message);
         switch (MessageType.valueOf(type)) {
             case EVENT: {
-                checkContentTypeJson(message);
+                checkContentType(message);
                 handleEventMessage(message, controllerId);
                 break;
             }
             case THING_DELETED: {
-                checkContentTypeJson(message);
+                checkContentType(message);
                 Optional.ofNullable(dmfTenants.get(tenantId)).ifPresent(dmfTenant -> dmfTenant.handleThingDeleted(controllerId));
                 break;
             }
@@ -165,7 +198,7 @@ public class VHost extends DmfSender implements MessageListener {
      *
      * @param message the message to get validated
      */
-    private static void checkContentTypeJson(final Message message) {
+    private static void checkContentType(final Message message) {
         if (message.getBody().length == 0) {
             return;
         }
@@ -175,10 +208,10 @@ public class VHost extends DmfSender implements MessageListener {
             messageProperties.setContentType(headerContentType);
         }
         final String contentType = messageProperties.getContentType();
-        if (contentType != null && contentType.contains("json")) {
+        if (contentType != null && (contentType.contains("json") || contentType.contains("cbor"))) {
             return;
         }
-        throw new AmqpRejectAndDontRequeueException("Content-Type is not JSON compatible");
+        throw new AmqpRejectAndDontRequeueException("Content-Type is neither JSON nor CBOR compatible");
     }
 
     private void handleEventMessage(final Message message, final String thingId) {
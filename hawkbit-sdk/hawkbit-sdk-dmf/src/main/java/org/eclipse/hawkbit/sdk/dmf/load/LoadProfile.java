@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.sdk.dmf.load;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+import org.eclipse.hawkbit.dmf.json.model.DmfActionStatus;
+import org.eclipse.hawkbit.sdk.load.Delay;
+
+/**
+ * Behaviour of the devices simulated by a {@link LoadSimulator}.
+ */
+@Data
+@Builder
+public class LoadProfile {
+
+    // statuses sent, in order, for a download and install action
+    @Builder.Default
+    private List<DmfActionStatus> updateSequence = List.of(
+            DmfActionStatus.RUNNING, DmfActionStatus.DOWNLOAD, DmfActionStatus.DOWNLOADED, DmfActionStatus.FINISHED);
+    // statuses sent, in order, for a download only action
+    @Builder.Default
+    private List<DmfActionStatus> downloadSequence = List.of(
+            DmfActionStatus.RUNNING, DmfActionStatus.DOWNLOAD, DmfActionStatus.DOWNLOADED, DmfActionStatus.FINISHED);
+    // ratio, between 0 and 1, of the actions which end with ERROR instead of the last status of their sequence
+    @Builder.Default
+    private double errorRatio = 0;
+    // delay from the receipt of an action to its first status
+    @Builder.Default
+    private Delay receiptDelay = Delay.NONE;
+    // delay between two statuses of an action
+    @Builder.Default
+    private Delay stepDelay = Delay.uniform(100, 1_000);
+    // max number of things created per second, 0 for no limit
+    private int creationRate;
+    // track the sent statuses until their persistence is reported, see LoadSimulator#feedbackPersisted
+    private boolean trackPersistence;
+    // max number of tracked statuses, further statuses aren't tracked until tracked ones are reported or expire
+    @Builder.Default
+    private int maxTrackedFeedback = 100_000;
+    // time in milliseconds after which a tracked status whose persistence isn't reported expires
+    @Builder.Default
+    private long feedbackTimeout = 60_000;
+}
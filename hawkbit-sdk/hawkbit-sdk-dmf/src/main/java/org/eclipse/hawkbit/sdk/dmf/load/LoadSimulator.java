@@ -0,0 +1,313 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.sdk.dmf.load;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageType;
+import org.eclipse.hawkbit.dmf.json.model.DmfActionRequest;
+import org.eclipse.hawkbit.dmf.json.model.DmfActionStatus;
+import org.eclipse.hawkbit.dmf.json.model.DmfBatchDownloadAndUpdateRequest;
+import org.eclipse.hawkbit.dmf.json.model.DmfMultiActionRequest;
+import org.eclipse.hawkbit.dmf.json.model.DmfTarget;
+import org.eclipse.hawkbit.sdk.dmf.UpdateStatus;
+import org.eclipse.hawkbit.sdk.dmf.amqp.DmfSender;
+import org.eclipse.hawkbit.sdk.dmf.amqp.VHost;
+import org.eclipse.hawkbit.sdk.load.Delay;
+import org.eclipse.hawkbit.sdk.load.LatencyHistogram;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+/**
+ * Load generator which simulates a high number of DMF things. In contrast to the {@link org.eclipse.hawkbit.sdk.dmf.DmfController}
+ * the things have no state but their open actions, and all the things share the few senders (i.e. AMQP connections) and
+ * the scheduler. So a single simulator could simulate 100k-1M things.
+ * <p/>
+ * The simulator replies to the download (and install) requests, single, batch or multi action, with the status sequences
+ * and delays of its {@link LoadProfile} and records the latencies:
+ * <ul>
+ *     <li>from the assignment, i.e. the timestamp of the request, to its receipt by the thing</li>
+ *     <li>from the sending of a status to its persistence by the server, if tracked and reported via
+ *     {@link #feedbackPersisted(long, DmfActionStatus, long)}, e.g. by polling the action status via the Mgmt API for the
+ *     actions of {@link #getPendingFeedback()}</li>
+ * </ul>
+ * The tracked statuses are bounded by {@link LoadProfile#getMaxTrackedFeedback()}, further statuses aren't tracked, and
+ * expire if their persistence isn't reported within {@link LoadProfile#getFeedbackTimeout()}. Both are counted in the
+ * report.
+ */
+@Slf4j
+public class LoadSimulator implements MessageListener {
+
+    private final LoadProfile profile;
+    private final List<? extends DmfSender> senders;
+    private final ScheduledExecutorService scheduler;
+    private final MessageConverter messageConverter = VHost.createMessageConverter();
+
+    private final Set<Long> openActions = ConcurrentHashMap.newKeySet();
+    private final Map<Feedback, SentFeedback> sentFeedback = new ConcurrentHashMap<>();
+
+    @Getter
+    private final LatencyHistogram receiptLatency = new LatencyHistogram();
+    @Getter
+    private final LatencyHistogram persistenceLatency = new LatencyHistogram();
+    private final LongAdder createdThings = new LongAdder();
+    private final LongAdder receivedActions = new LongAdder();
+    private final LongAdder sentStatuses = new LongAdder();
+    private final LongAdder untrackedFeedback = new LongAdder();
+    private final LongAdder expiredFeedback = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param profile the behaviour of the things
+     * @param senders the senders the things are distributed over
+     * @param scheduler the scheduler of the status sequences
+     */
+    public LoadSimulator(
+            final LoadProfile profile, final List<? extends DmfSender> senders,
+            final ScheduledExecutorService scheduler) {
+        if (senders.isEmpty()) {
+            throw new IllegalArgumentException("At least one sender is required!");
+        }
+        this.profile = profile;
+        this.senders = senders;
+        this.scheduler = scheduler;
+        if (profile.isTrackPersistence()) {
+            scheduler.scheduleWithFixedDelay(this::expireFeedback, 1, 1, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Creates (or updates) the things with ids prefix + index, for the indexes from offset to offset + count - 1, with
+     * the creation rate of the profile.
+     *
+     * @param tenant the tenant of the things
+     * @param prefix the prefix of the thing ids
+     * @param offset the first index
+     * @param count the number of things
+     */
+    public void createThings(final String tenant, final String prefix, final int offset, final int count) {
+        final long intervalNanos = profile.getCreationRate() > 0 ? TimeUnit.SECONDS.toNanos(1) / profile.getCreationRate() : 0;
+        long next = System.nanoTime();
+        for (int i = offset; i < offset + count; i++) {
+            if (intervalNanos > 0) {
+                LockSupport.parkNanos(next - System.nanoTime());
+                next += intervalNanos;
+            }
+            final String thingId = thingId(prefix, i);
+            sender(thingId).createOrUpdateThing(tenant, thingId);
+            createdThings.increment();
+        }
+        log.info("Created {} things of tenant {} with prefix '{}'", count, tenant, prefix);
+    }
+
+    @Override
+    public void onMessage(final Message message) {
+        final Map<String, Object> headers = message.getMessageProperties().getHeaders();
+        if (!MessageType.EVENT.name().equals(String.valueOf(headers.get(MessageHeaderKey.TYPE)))) {
+            return;
+        }
+
+        final String tenant = (String) headers.get(MessageHeaderKey.TENANT);
+        final String thingId = (String) headers.get(MessageHeaderKey.THING_ID);
+        final EventTopic topic = EventTopic.valueOf(String.valueOf(headers.get(MessageHeaderKey.TOPIC)));
+        final Date timestamp = message.getMessageProperties().getTimestamp();
+        switch (topic) {
+            case DOWNLOAD, DOWNLOAD_AND_INSTALL: {
+                final DmfActionRequest request = convertMessage(message, DmfActionRequest.class);
+                receive(tenant, thingId, topic, request.getActionId(), timestamp == null ? null : timestamp.getTime());
+                break;
+            }
+            case BATCH_DOWNLOAD, BATCH_DOWNLOAD_AND_INSTALL: {
+                final DmfBatchDownloadAndUpdateRequest request = convertMessage(message, DmfBatchDownloadAndUpdateRequest.class);
+                final EventTopic targetTopic = topic == EventTopic.BATCH_DOWNLOAD ? EventTopic.DOWNLOAD : EventTopic.DOWNLOAD_AND_INSTALL;
+                for (final DmfTarget target : request.getTargets()) {
+                    receive(tenant, target.getControllerId(), targetTopic, target.getActionId(), request.getTimestamp());
+                }
+                break;
+            }
+            case MULTI_ACTION: {
+                final DmfMultiActionRequest request = convertMessage(message, DmfMultiActionRequest.class);
+                for (final DmfMultiActionRequest.DmfMultiActionElement element : request.getElements()) {
+                    final long actionId = element.getAction().getActionId();
+                    if (element.getTopic() == EventTopic.CANCEL_DOWNLOAD) {
+                        cancel(tenant, thingId, actionId);
+                    } else if (element.getTopic() == EventTopic.DOWNLOAD || element.getTopic() == EventTopic.DOWNLOAD_AND_INSTALL) {
+                        receive(tenant, thingId, element.getTopic(), actionId, timestamp == null ? null : timestamp.getTime());
+                    }
+                }
+                break;
+            }
+            case CANCEL_DOWNLOAD: {
+                cancel(tenant, thingId, convertMessage(message, DmfActionRequest.class).getActionId());
+                break;
+            }
+            default: {
+                log.trace("Skip event {} for thing {}", topic, thingId);
+            }
+        }
+    }
+
+    /**
+     * Reports the persistence of a status by the server, e.g. observed via the Mgmt API. Records the latency from the
+     * sending of the status if the profile tracks the persistence.
+     *
+     * @param actionId the id of the action
+     * @param status the persisted status
+     * @param persistedAt the time of the persistence in milliseconds since the epoch
+     */
+    public void feedbackPersisted(final long actionId, final DmfActionStatus status, final long persistedAt) {
+        final SentFeedback sent = sentFeedback.remove(new Feedback(actionId, status));
+        if (sent != null) {
+            persistenceLatency.record(persistedAt - sent.sentAt);
+        }
+    }
+
+    /**
+     * @return the actions, with the ids of their things, with tracked statuses whose persistence isn't reported yet
+     */
+    public Map<Long, String> getPendingFeedback() {
+        final Map<Long, String> pending = new HashMap<>();
+        sentFeedback.forEach((feedback, sent) -> pending.put(feedback.actionId, sent.thingId));
+        return pending;
+    }
+
+    public int getOpenActions() {
+        return openActions.size();
+    }
+
+    /**
+     * Resets the latencies, e.g. after a warm up phase.
+     */
+    public void reset() {
+        receiptLatency.reset();
+        persistenceLatency.reset();
+    }
+
+    /**
+     * @return a human-readable report of the counters and latencies
+     */
+    public String report() {
+        return String.format(
+                "things: %d, actions: %d (open: %d), statuses: %d%nassignment -> receipt (ms): %s%nfeedback -> persistence (ms): %s"
+                        + "%ntracked statuses pending: %d, expired: %d, untracked: %d",
+                createdThings.sum(), receivedActions.sum(), openActions.size(), sentStatuses.sum(),
+                receiptLatency, persistenceLatency, sentFeedback.size(), expiredFeedback.sum(), untrackedFeedback.sum());
+    }
+
+    private static String thingId(final String prefix, final int index) {
+        return String.format("%s%03d", prefix, index);
+    }
+
+    private void receive(final String tenant, final String thingId, final EventTopic topic, final long actionId,
+            final Long assignedAt) {
+        // multi action requests repeat the open actions
+        if (!openActions.add(actionId)) {
+            return;
+        }
+        receivedActions.increment();
+        if (assignedAt != null) {
+            receiptLatency.record(System.currentTimeMillis() - assignedAt);
+        }
+
+        final List<DmfActionStatus> sequence = topic == EventTopic.DOWNLOAD ?
+                profile.getDownloadSequence() : profile.getUpdateSequence();
+        final boolean error = profile.getErrorRatio() > 0 && ThreadLocalRandom.current().nextDouble() < profile.getErrorRatio();
+        schedule(new Step(tenant, thingId, actionId, sequence, error, 0), profile.getReceiptDelay());
+    }
+
+    private void cancel(final String tenant, final String thingId, final long actionId) {
+        openActions.remove(actionId);
+        send(tenant, thingId, actionId, DmfActionStatus.CANCELED);
+    }
+
+    private void schedule(final Step step, final Delay delay) {
+        if (step.index >= step.sequence.size()) {
+            openActions.remove(step.actionId);
+            return;
+        }
+        scheduler.schedule(() -> {
+            // stop the sequence if the action has been canceled meanwhile
+            if (!openActions.contains(step.actionId)) {
+                return;
+            }
+            try {
+                final boolean last = step.index == step.sequence.size() - 1;
+                send(step.tenant, step.thingId, step.actionId,
+                        last && step.error ? DmfActionStatus.ERROR : step.sequence.get(step.index));
+            } catch (final RuntimeException e) {
+                log.warn("Failed to send status {} of action {}", step.index, step.actionId, e);
+            }
+            schedule(step.next(), profile.getStepDelay());
+        }, delay.next(), TimeUnit.MILLISECONDS);
+    }
+
+    private void send(final String tenant, final String thingId, final long actionId, final DmfActionStatus status) {
+        if (profile.isTrackPersistence()) {
+            if (sentFeedback.size() < profile.getMaxTrackedFeedback()) {
+                sentFeedback.put(new Feedback(actionId, status), new SentFeedback(thingId, System.currentTimeMillis()));
+            } else {
+                untrackedFeedback.increment();
+            }
+        }
+        sender(thingId).sendFeedback(tenant, actionId, new UpdateStatus(status, List.of("Simulated " + status)));
+        sentStatuses.increment();
+    }
+
+    private void expireFeedback() {
+        final long expiredBefore = System.currentTimeMillis() - profile.getFeedbackTimeout();
+        sentFeedback.values().removeIf(sent -> {
+            if (sent.sentAt < expiredBefore) {
+                expiredFeedback.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    // a thing always uses the same sender, so its statuses keep their order
+    private DmfSender sender(final String thingId) {
+        return senders.get(Math.floorMod(thingId == null ? 0 : thingId.hashCode(), senders.size()));
+    }
+
+    private <T> T convertMessage(final Message message, final Class<T> clazz) {
+        message.getMessageProperties().getHeaders().put(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME,
+                clazz.getTypeName());
+        return clazz.cast(messageConverter.fromMessage(message));
+    }
+
+    private record Step(String tenant, String thingId, long actionId, List<DmfActionStatus> sequence, boolean error,
+            int index) {
+
+        private Step next() {
+            return new Step(tenant, thingId, actionId, sequence, error, index + 1);
+        }
+    }
+
+    private record Feedback(long actionId, DmfActionStatus status) {}
+
+    private record SentFeedback(String thingId, long sentAt) {}
+}
@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.sdk.dmf.load;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageType;
+import org.eclipse.hawkbit.dmf.json.model.DmfActionStatus;
+import org.eclipse.hawkbit.dmf.json.model.DmfActionUpdateStatus;
+import org.eclipse.hawkbit.dmf.json.model.DmfDownloadAndUpdateRequest;
+import org.eclipse.hawkbit.sdk.dmf.amqp.AmqpProperties;
+import org.eclipse.hawkbit.sdk.dmf.amqp.DmfSender;
+import org.eclipse.hawkbit.sdk.dmf.amqp.VHost;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.lang.Nullable;
+
+/**
+ * In-process stand-in for the broker and the DMF side of the update server, which allows to run a
+ * {@link LoadSimulator} offline, e.g. in CI. It registers the created things, assigns actions to them and "persists"
+ * the received action statuses in memory, reporting their persistence to the connected simulator.
+ * <p/>
+ * The messages to the simulator and to the server side are delivered by one thread per direction, so their order is
+ * kept like by a queue.
+ */
+@Slf4j
+public class LocalDmfBroker implements AutoCloseable {
+
+    private final MessageConverter messageConverter = VHost.createMessageConverter();
+    private final ExecutorService toDevices = Executors.newSingleThreadExecutor(runnable -> thread(runnable, "local-dmf-broker-devices"));
+    private final ExecutorService toServer = Executors.newSingleThreadExecutor(runnable -> thread(runnable, "local-dmf-broker-server"));
+
+    private final Set<String> things = ConcurrentHashMap.newKeySet();
+    private final Map<Long, DmfActionStatus> actionStatus = new ConcurrentHashMap<>();
+    private final AtomicLong actionIds = new AtomicLong();
+
+    private volatile LoadSimulator simulator;
+
+    /**
+     * Connects the simulator, which receives the messages to the devices and the persistence of their statuses.
+     *
+     * @param simulator the simulator
+     */
+    public void connect(final LoadSimulator simulator) {
+        this.simulator = simulator;
+    }
+
+    /**
+     * Creates a sender whose messages are delivered to the server side of this broker.
+     *
+     * @param amqpProperties the amqp properties
+     * @return the sender
+     */
+    public DmfSender createSender(final AmqpProperties amqpProperties) {
+        final RabbitTemplate rabbitTemplate = new RabbitTemplate() {
+
+            @Override
+            public void send(final String exchange, final String routingKey, final Message message,
+                    @Nullable final CorrelationData correlationData) {
+                toServer.execute(() -> handleServerMessage(message));
+            }
+        };
+        rabbitTemplate.setMessageConverter(messageConverter);
+        return new DmfSender(rabbitTemplate, amqpProperties);
+    }
+
+    /**
+     * Assigns a new download and install action to a created thing.
+     *
+     * @param tenant the tenant of the thing
+     * @param thingId the id of the thing
+     * @return the id of the action
+     */
+    public long assign(final String tenant, final String thingId) {
+        if (!things.contains(key(tenant, thingId))) {
+            throw new IllegalArgumentException("Thing " + thingId + " of tenant " + tenant + " does not exist!");
+        }
+
+        final long actionId = actionIds.incrementAndGet();
+        actionStatus.put(actionId, DmfActionStatus.RUNNING);
+
+        final DmfDownloadAndUpdateRequest request = new DmfDownloadAndUpdateRequest();
+        request.setActionId(actionId);
+        final MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        messageProperties.setTimestamp(new Date());
+        messageProperties.setHeader(MessageHeaderKey.TYPE, MessageType.EVENT.name());
+        messageProperties.setHeader(MessageHeaderKey.TOPIC, EventTopic.DOWNLOAD_AND_INSTALL.name());
+        messageProperties.setHeader(MessageHeaderKey.TENANT, tenant);
+        messageProperties.setHeader(MessageHeaderKey.THING_ID, thingId);
+        final Message message = messageConverter.toMessage(request, messageProperties);
+        toDevices.execute(() -> Optional.ofNullable(simulator).ifPresent(listener -> listener.onMessage(message)));
+        return actionId;
+    }
+
+    /**
+     * Assigns a new download and install action to all created things of the tenant.
+     *
+     * @param tenant the tenant
+     * @return the number of assigned actions
+     */
+    public int assignAll(final String tenant) {
+        final String prefix = key(tenant, "");
+        int assigned = 0;
+        for (final String thing : things) {
+            if (thing.startsWith(prefix)) {
+                assign(tenant, thing.substring(prefix.length()));
+                assigned++;
+            }
+        }
+        return assigned;
+    }
+
+    public int getThings() {
+        return things.size();
+    }
+
+    /**
+     * @param actionId the id of the action
+     * @return the last persisted status of the action
+     */
+    public Optional<DmfActionStatus> getActionStatus(final long actionId) {
+        return Optional.ofNullable(actionStatus.get(actionId));
+    }
+
+    @Override
+    public void close() {
+        toDevices.shutdownNow();
+        toServer.shutdownNow();
+    }
+
+    private static Thread thread(final Runnable runnable, final String name) {
+        final Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static String key(final String tenant, final String thingId) {
+        return tenant + '/' + thingId;
+    }
+
+    private void handleServerMessage(final Message message) {
+        final Map<String, Object> headers = message.getMessageProperties().getHeaders();
+        final String type = String.valueOf(headers.get(MessageHeaderKey.TYPE));
+        final String tenant = (String) headers.get(MessageHeaderKey.TENANT);
+        if (MessageType.THING_CREATED.name().equals(type)) {
+            things.add(key(tenant, (String) headers.get(MessageHeaderKey.THING_ID)));
+        } else if (MessageType.THING_REMOVED.name().equals(type)) {
+            things.remove(key(tenant, (String) headers.get(MessageHeaderKey.THING_ID)));
+        } else if (MessageType.EVENT.name().equals(type)
+                && EventTopic.UPDATE_ACTION_STATUS.name().equals(String.valueOf(headers.get(MessageHeaderKey.TOPIC)))) {
+            headers.put(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, DmfActionUpdateStatus.class.getTypeName());
+            final DmfActionUpdateStatus status = (DmfActionUpdateStatus) messageConverter.fromMessage(message);
+            actionStatus.put(status.getActionId(), status.getActionStatus());
+            Optional.ofNullable(simulator).ifPresent(listener ->
+                    listener.feedbackPersisted(status.getActionId(), status.getActionStatus(), System.currentTimeMillis()));
+        } else {
+            log.trace("Skip message of type {}", type);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.hawkbit.sdk.dmf.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.LongStream;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.eclipse.hawkbit.dmf.json.model.DmfActionStatus;
+import org.eclipse.hawkbit.sdk.dmf.amqp.AmqpProperties;
+import org.eclipse.hawkbit.sdk.load.Delay;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Smoke test of the {@link LoadSimulator} against the {@link LocalDmfBroker}, i.e. without a broker and a server.
+ */
+@Feature("Unit Tests - SDK")
+@Story("Load Simulator")
+class LoadSimulatorTest {
+
+    private static final String TENANT = "DEFAULT";
+    private static final int THINGS = 10;
+    private static final long TIMEOUT_MS = 10_000;
+
+    private final LocalDmfBroker broker = new LocalDmfBroker();
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+
+    @AfterEach
+    void after() {
+        scheduler.shutdownNow();
+        broker.close();
+    }
+
+    @Test
+    @Description("Verifies that the simulated things are created, receive their actions, send the status sequence and the latencies are recorded.")
+    void thingsRunTheirActions() {
+        final LoadSimulator simulator = connect(LoadProfile.builder()
+                .stepDelay(Delay.NONE).trackPersistence(true).build());
+
+        simulator.createThings(TENANT, "thing", 0, THINGS);
+        await(() -> broker.getThings() == THINGS);
+        assertThat(broker.assignAll(TENANT)).isEqualTo(THINGS);
+
+        await(() -> LongStream.rangeClosed(1, THINGS).allMatch(
+                actionId -> broker.getActionStatus(actionId).filter(DmfActionStatus.FINISHED::equals).isPresent()));
+        await(() -> simulator.getOpenActions() == 0 && simulator.getPendingFeedback().isEmpty());
+        assertThat(simulator.getReceiptLatency().getCount()).isEqualTo(THINGS);
+        assertThat(simulator.getPersistenceLatency().getCount())
+                .isEqualTo(THINGS * LoadProfile.builder().build().getUpdateSequence().size());
+        assertThat(simulator.report()).contains("things: " + THINGS, "actions: " + THINGS + " (open: 0)");
+    }
+
+    @Test
+    @Description("Verifies that the actions end with ERROR according to the error ratio of the profile.")
+    void actionsEndWithError() {
+        final LoadSimulator simulator = connect(LoadProfile.builder()
+                .stepDelay(Delay.NONE).errorRatio(1).build());
+
+        simulator.createThings(TENANT, "thing", 0, 1);
+        await(() -> broker.getThings() == 1);
+        final long actionId = broker.assign(TENANT, "thing000");
+
+        await(() -> broker.getActionStatus(actionId).filter(DmfActionStatus.ERROR::equals).isPresent());
+        assertThatThrownBy(() -> broker.assign(TENANT, "unknown")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private LoadSimulator connect(final LoadProfile profile) {
+        final LoadSimulator simulator = new LoadSimulator(
+                profile, List.of(broker.createSender(new AmqpProperties())), scheduler);
+        broker.connect(simulator);
+        return simulator;
+    }
+
+    private static void await(final BooleanSupplier condition) {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition met in time").isLessThan(deadline);
+            try {
+                TimeUnit.MILLISECONDS.sleep(10);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
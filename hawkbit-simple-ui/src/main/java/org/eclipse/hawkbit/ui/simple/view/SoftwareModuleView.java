@@ -93,7 +93,7 @@ public class SoftwareModuleView extends TableView<MgmtSoftwareModule, Long> {
                 (query, rsqlFilter) -> Optional.ofNullable(
                                 hawkbitClient.getSoftwareModuleRestApi()
                                         .getSoftwareModules(
-                                                query.getOffset(), query.getPageSize(), Constants.NAME_ASC, rsqlFilter)
+                                                query.getOffset(), query.getPageSize(), Constants.NAME_ASC, rsqlFilter, null)
                                         .getBody())
                         .stream().flatMap(body -> body.getContent().stream()),
                 isParent ? v -> new CreateDialog(hawkbitClient).result() : null,